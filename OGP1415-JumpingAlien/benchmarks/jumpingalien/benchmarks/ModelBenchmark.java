@@ -0,0 +1,186 @@
+package jumpingalien.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part3.internal.HeadlessSimulation;
+import jumpingalien.part3.internal.Part3Options;
+
+/**
+ * Measures the throughput of the model of part 3 on the shipped levels and on
+ * synthetic levels made of several copies of a shipped level.
+ *
+ * Every case is run for a number of warmup iterations, whose results are
+ * discarded, followed by a number of measured iterations. An iteration
+ * advances the simulation by a fixed number of frames; when the game ends
+ * before that, a fresh simulation is built outside of the measured time.
+ *
+ * Usage: ModelBenchmark [-warmup n] [-iterations n] [-frames n] [-dt seconds]
+ * [-case level.tmx:copies]... [part 3 options such as -seed, -updatethreads]
+ *
+ * The number of bytes allocated per tick is only reported on virtual machines
+ * that support allocation counting per thread, and only counts allocations
+ * of the benchmark thread, so run with -updatethreads 1 for exact numbers.
+ */
+public class ModelBenchmark {
+
+	private static final String[] DEFAULT_CASES = { "level0.tmx:1",
+			"level1.tmx:1", "level1.tmx:10", "level1.tmx:100",
+			"level1.tmx:1000" };
+
+	private final Part3Options options;
+	private final int nbWarmupIterations;
+	private final int nbIterations;
+	private final int nbFrames;
+	private final double dt;
+
+	public ModelBenchmark(Part3Options options, int nbWarmupIterations,
+			int nbIterations, int nbFrames, double dt) {
+		this.options = options;
+		this.nbWarmupIterations = nbWarmupIterations;
+		this.nbIterations = nbIterations;
+		this.nbFrames = nbFrames;
+		this.dt = dt;
+	}
+
+	public static void main(String[] args) {
+		Part3Options options = Part3Options.parse(args);
+
+		int nbWarmupIterations = 3;
+		int nbIterations = 5;
+		int nbFrames = 100;
+		double dt = 1.0 / 30;
+		List<String> cases = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "-warmup":
+				nbWarmupIterations = Integer.parseInt(args[++i]);
+				break;
+			case "-iterations":
+				nbIterations = Integer.parseInt(args[++i]);
+				break;
+			case "-frames":
+				nbFrames = Integer.parseInt(args[++i]);
+				break;
+			case "-dt":
+				dt = Double.parseDouble(args[++i]);
+				break;
+			case "-case":
+				cases.add(args[++i]);
+				break;
+			}
+		}
+		if (cases.isEmpty()) {
+			for (String c : DEFAULT_CASES) {
+				cases.add(c);
+			}
+		}
+
+		ModelBenchmark benchmark = new ModelBenchmark(options,
+				nbWarmupIterations, nbIterations, nbFrames, dt);
+		System.out.println(String.format("%-18s %8s %12s %10s %14s", "case",
+				"objects", "ticks/s", "+-", "bytes/tick"));
+		for (String c : cases) {
+			int separator = c.lastIndexOf(':');
+			String level = separator < 0 ? c : c.substring(0, separator);
+			int nbCopies = separator < 0 ? 1 : Integer.parseInt(c
+					.substring(separator + 1));
+			benchmark.run(level, nbCopies);
+		}
+	}
+
+	public void run(String level, int nbCopies) {
+		Map map = HeadlessSimulation.scaleMap(
+				HeadlessSimulation.readMap(level), nbCopies);
+		HeadlessSimulation simulation = new HeadlessSimulation(options, map);
+		int nbObjects = simulation.getNbGameObjects();
+
+		for (int i = 0; i < nbWarmupIterations; i++) {
+			simulation = runIteration(simulation, map, null);
+		}
+		double[] ticksPerSecond = new double[nbIterations];
+		long totalBytes = 0;
+		long totalTicks = 0;
+		for (int i = 0; i < nbIterations; i++) {
+			long[] result = new long[3];
+			simulation = runIteration(simulation, map, result);
+			ticksPerSecond[i] = result[0] / (result[1] / 1E9);
+			totalTicks += result[0];
+			totalBytes += result[2];
+		}
+
+		double mean = 0;
+		for (double value : ticksPerSecond) {
+			mean += value;
+		}
+		mean /= nbIterations;
+		double variance = 0;
+		for (double value : ticksPerSecond) {
+			variance += (value - mean) * (value - mean);
+		}
+		double deviation = nbIterations > 1 ? Math.sqrt(variance
+				/ (nbIterations - 1)) : 0;
+		String bytesPerTick = totalBytes < 0 ? "n/a" : Long
+				.toString(totalBytes / Math.max(1, totalTicks));
+		System.out.println(String.format("%-18s %8d %12.1f %10.1f %14s",
+				level + " x" + nbCopies, nbObjects, mean, deviation,
+				bytesPerTick));
+	}
+
+	/**
+	 * Advance the given simulation by the number of frames of this benchmark,
+	 * rebuilding it from the given map whenever its game is over.
+	 *
+	 * @param result
+	 *            If not null, receives the number of ticks, the elapsed
+	 *            nanoseconds and the allocated bytes (negative if unknown)
+	 *            of the advanced frames.
+	 * @return The simulation to use for the next iteration.
+	 */
+	private HeadlessSimulation runIteration(HeadlessSimulation simulation,
+			Map map, long[] result) {
+		int remaining = nbFrames;
+		while (remaining > 0) {
+			if (!simulation.isRunning()) {
+				simulation = new HeadlessSimulation(options, map);
+			}
+			long startBytes = getAllocatedBytes();
+			long start = System.nanoTime();
+			int nbTicks = simulation.runFrames(remaining, dt);
+			long stop = System.nanoTime();
+			long stopBytes = getAllocatedBytes();
+			remaining -= nbTicks;
+			if (result != null) {
+				result[0] += nbTicks;
+				result[1] += stop - start;
+				if (startBytes < 0 || stopBytes < 0 || result[2] < 0) {
+					result[2] = -1;
+				} else {
+					result[2] += stopBytes - startBytes;
+				}
+			}
+			if (nbTicks == 0 && !simulation.isRunning()) {
+				throw new IllegalStateException(
+						"A fresh simulation of this level is already over");
+			}
+		}
+		return simulation;
+	}
+
+	private static long getAllocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory
+				.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+			if (sunBean.isThreadAllocatedMemorySupported()
+					&& sunBean.isThreadAllocatedMemoryEnabled()) {
+				return sunBean.getThreadAllocatedBytes(Thread.currentThread()
+						.getId());
+			}
+		}
+		return -1;
+	}
+
+}
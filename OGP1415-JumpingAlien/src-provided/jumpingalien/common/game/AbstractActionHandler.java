@@ -1,6 +1,7 @@
 package jumpingalien.common.game;
 
-import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 import ogp.framework.command.Command;
 
@@ -23,12 +24,38 @@ public abstract class AbstractActionHandler<TAlien, TFacade> implements
 
 	protected abstract TAlien getAlien();
 
-	protected void addAlienCommand(String name, Consumer<TAlien> action) {
-		game.addCommand(new Command(name) {
+	/**
+	 * The commands of this handler by name, created when they are first added
+	 * and reused afterwards, so key presses do not allocate.
+	 */
+	private final ConcurrentHashMap<String, Command> alienCommands = new ConcurrentHashMap<>();
+
+	/**
+	 * Add the command with the given name, which applies the given action to
+	 * the facade and the alien at the time it is executed.
+	 * 
+	 * The command is only created the first time it is added, so the given
+	 * action must be the same every time a command with the same name is
+	 * added.
+	 */
+	protected void addAlienCommand(String name,
+			BiConsumer<TFacade, TAlien> action) {
+		Command command = alienCommands.get(name);
+		if (command == null) {
+			command = alienCommands.computeIfAbsent(name,
+					key -> createAlienCommand(key, action));
+		}
+		game.addCommand(command);
+	}
+
+	private Command createAlienCommand(String name,
+			BiConsumer<TFacade, TAlien> action) {
+		Runnable execution = () -> action.accept(getFacade(), getAlien());
+		return new Command(name) {
 			@Override
 			public void execute() {
-				game.catchErrorAction(() -> action.accept(getAlien()));
+				game.catchErrorAction(execution);
 			}
-		});
+		};
 	}
 }
@@ -19,4 +19,18 @@ public interface IActionHandler {
 	public void startDuck();
 	
 	public void endDuck();
+
+	/**
+	 * Remember the current state of the game, so it can be loaded again
+	 * later. Games that cannot do this ignore it.
+	 */
+	public default void quickSave() {
+	}
+
+	/**
+	 * Return the game to the state it had at the last quick save. Games that
+	 * cannot do this ignore it.
+	 */
+	public default void quickLoad() {
+	}
 }
@@ -22,8 +22,8 @@ public abstract class JumpingAlienGame extends Game {
 	private int visibleScreenWidth = -1;
 	private int visibleScreenHeight = -1;
 
-	private double elapsedTime = 0;
-	private boolean running;
+	private volatile double elapsedTime = 0;
+	private volatile boolean running;
 
 	private final Object facade;
 
@@ -44,12 +44,12 @@ public abstract class JumpingAlienGame extends Game {
 		return (JumpingAlienGameOptions) super.getOptions();
 	}
 
-	public void restart() {
+	public synchronized void restart() {
 		start();
 	}
 
 	@Override
-	public void start() {
+	public synchronized void start() {
 		if (visibleScreenWidth < 0 || visibleScreenHeight < 0) {
 			throw new IllegalStateException("Visible screen size not set");
 		}
@@ -81,22 +81,29 @@ public abstract class JumpingAlienGame extends Game {
 	protected void doUpdate(double dt) {
 		if (isRunning()) {
 			if (!firstUpdate) {
-				dt = applyTimescale(dt);
-				executePendingCommands();
-				try {
-					advanceTime(dt);
-					elapsedTime += dt;
-				} catch (ModelException e) {
-					addMessage(new Message(MessageType.ERROR, e.getMessage()));
-					System.out.println("Could not advance time by dt=" + dt
-							+ ": " + e.getMessage());
-					e.printStackTrace();
-				}
+				advanceFrame(applyTimescale(dt));
 			}
 			firstUpdate = false;
 		}
 	}
 
+	/**
+	 * Execute the pending commands and advance the model by exactly the given
+	 * time interval, which has already been scaled.
+	 */
+	protected void advanceFrame(double dt) {
+		executePendingCommands();
+		try {
+			advanceTime(dt);
+			elapsedTime += dt;
+		} catch (ModelException e) {
+			addMessage(new Message(MessageType.ERROR, e.getMessage()));
+			System.out.println("Could not advance time by dt=" + dt + ": "
+					+ e.getMessage());
+			e.printStackTrace();
+		}
+	}
+
 	/**
 	 * Scale the given time interval based on the game options.
 	 * 
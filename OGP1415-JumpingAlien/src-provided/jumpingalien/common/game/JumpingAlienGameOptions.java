@@ -6,4 +6,7 @@ public interface JumpingAlienGameOptions extends GameOptions {
 
 	public double getTimescale();
 	public void setTimescale(double value);
+	
+	public int getUpdateThreads();
+	public void setUpdateThreads(int value);
 }
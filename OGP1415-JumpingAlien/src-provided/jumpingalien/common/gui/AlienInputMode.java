@@ -65,6 +65,15 @@ public class AlienInputMode<TG extends JumpingAlienGame, TGUI extends JumpingAli
 			getScreen().getGame().setPause(true);
 			getScreen().switchInputMode(new PausedInputMode(getScreen(), this));
 			break;
+		case KeyEvent.VK_R:
+			getScreen().getGame().restart();
+			break;
+		case KeyEvent.VK_F5:
+			handler.quickSave();
+			break;
+		case KeyEvent.VK_F9:
+			handler.quickLoad();
+			break;
 		case KeyEvent.VK_SPACE:
 		case KeyEvent.VK_UP:
 		case KeyEvent.VK_KP_UP:
@@ -8,6 +8,7 @@ import java.util.function.Supplier;
 
 import jumpingalien.common.gui.AlienGameScreen;
 import ogp.framework.gui.PerformanceStats;
+import ogp.framework.util.LatencyHistogram;
 
 public class DebugInfoPainter extends
 		AbstractAlienPainter<AlienGameScreen<?, ?>> {
@@ -68,6 +69,9 @@ public class DebugInfoPainter extends
 		for (Info info : information) {
 			g.drawString(info.toString(), x, y + lineNb++ * lineHeight);
 		}
+		for (LatencyHistogram.Summary phase : getFPSStats().phases) {
+			g.drawString(phase.toString(), x, y + lineNb++ * lineHeight);
+		}
 
 		g.setPaintMode();
 	}
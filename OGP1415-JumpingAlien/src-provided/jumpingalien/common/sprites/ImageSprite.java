@@ -63,7 +63,8 @@ public class ImageSprite extends Sprite {
 	}
 
 	public ImageSprite shiftHue(int amount) {
-		BufferedImage shiftedImage = GUIUtils.copyImage(image);
+		BufferedImage shiftedImage = GUIUtils.copyImage(image,
+				BufferedImage.TYPE_INT_ARGB);
 		GUIUtils.shiftHue(shiftedImage, amount);
 		return new ImageSprite(getName(), shiftedImage);
 	}
@@ -0,0 +1,90 @@
+package jumpingalien.common.sprites;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of hue-shifted variants of sprites.
+ *
+ * Variants are keyed by the identity of the original sprite and the amount of
+ * the shift. When the cache is full, the least recently used variant is
+ * evicted.
+ */
+public class SpriteVariantCache {
+
+	public static final int DEFAULT_CAPACITY = 64;
+
+	private final int capacity;
+
+	private final Map<Key, ImageSprite> variants;
+
+	public SpriteVariantCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public SpriteVariantCache(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		this.capacity = capacity;
+		this.variants = new LinkedHashMap<Key, ImageSprite>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Key, ImageSprite> eldest) {
+				return size() > SpriteVariantCache.this.capacity;
+			}
+		};
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public synchronized int size() {
+		return variants.size();
+	}
+
+	/**
+	 * Return the given sprite with its hue shifted by the given amount,
+	 * shifting it only if the variant is not cached yet.
+	 */
+	public synchronized ImageSprite getHueShifted(ImageSprite sprite, int amount) {
+		Key key = new Key(sprite, amount);
+		ImageSprite variant = variants.get(key);
+		if (variant == null) {
+			variant = sprite.shiftHue(amount);
+			variants.put(key, variant);
+		}
+		return variant;
+	}
+
+	public synchronized void clear() {
+		variants.clear();
+	}
+
+	private static final class Key {
+		private final ImageSprite sprite;
+		private final int amount;
+
+		Key(ImageSprite sprite, int amount) {
+			this.sprite = sprite;
+			this.amount = amount;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return sprite == other.sprite && amount == other.amount;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(sprite) + amount;
+		}
+	}
+}
@@ -22,42 +22,42 @@ public class Part1ActionHandler extends AbstractActionHandler<Mazub, IFacade> {
 
 	@Override
 	public void startJump() {
-		addAlienCommand("startJump", getFacade()::startJump);
+		addAlienCommand("startJump", IFacade::startJump);
 	}
 
 	@Override
 	public void endJump() {
-		addAlienCommand("endJump", getFacade()::endJump);
+		addAlienCommand("endJump", IFacade::endJump);
 	}
 
 	@Override
 	public void startMoveLeft() {
-		addAlienCommand("startMoveLeft", getFacade()::startMoveLeft);
+		addAlienCommand("startMoveLeft", IFacade::startMoveLeft);
 	}
 
 	@Override
 	public void startMoveRight() {
-		addAlienCommand("startMoveRight", getFacade()::startMoveRight);
+		addAlienCommand("startMoveRight", IFacade::startMoveRight);
 	}
 
 	@Override
 	public void endMoveLeft() {
-		addAlienCommand("endMoveLeft", getFacade()::endMoveLeft);
+		addAlienCommand("endMoveLeft", IFacade::endMoveLeft);
 	}
 
 	@Override
 	public void endMoveRight() {
-		addAlienCommand("endMoveRight", getFacade()::endMoveRight);
+		addAlienCommand("endMoveRight", IFacade::endMoveRight);
 	}
 
 	@Override
 	public void startDuck() {
-		addAlienCommand("startDuck", getFacade()::startDuck);
+		addAlienCommand("startDuck", IFacade::startDuck);
 	}
 
 	@Override
 	public void endDuck() {
-		addAlienCommand("endDuck", getFacade()::endDuck);
+		addAlienCommand("endDuck", IFacade::endDuck);
 	}
 
 	@Override
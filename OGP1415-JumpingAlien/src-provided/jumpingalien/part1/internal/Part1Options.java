@@ -17,6 +17,12 @@ public class Part1Options implements JumpingAlienGameOptions, JumpingAlienGUIOpt
 	 */
 	private int targetFPS = 30;
 
+	/**
+	 * Number of threads on which the world updates its game objects (default:
+	 * 1). Results do not depend on this value.
+	 */
+	private int updateThreads = 1;
+
 	/**
 	 * Print debug info on the screen (default: true).
 	 */
@@ -66,6 +72,16 @@ public class Part1Options implements JumpingAlienGameOptions, JumpingAlienGUIOpt
 		this.timeScale = timeScale;
 	}
 
+	@Override
+	public int getUpdateThreads() {
+		return updateThreads;
+	}
+
+	@Override
+	public void setUpdateThreads(int updateThreads) {
+		this.updateThreads = updateThreads;
+	}
+
 	@Override
 	public boolean getDebugShowInfo() {
 		return debugShowInfo;
@@ -4,7 +4,6 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Stroke;
-import java.util.HashMap;
 
 import jumpingalien.common.gui.AlienGUIUtils;
 import jumpingalien.common.gui.AlienGameScreen;
@@ -58,13 +57,6 @@ public final class GameObjectPainter extends
 		}
 	}
 
-	private final java.util.Map<School, Integer> schoolHueShifts = new HashMap<>();
-
-	private int getHueShift(School school) {
-		return schoolHueShifts.computeIfAbsent(school,
-				s -> schoolHueShifts.size());
-	}
-
 	protected void paintSlimes(Graphics2D g) {
 		for (Slime slime : objectInfoProvider.getSlimes()) {
 			objectInfoProvider
@@ -79,13 +71,17 @@ public final class GameObjectPainter extends
 														.ifPresent(
 																school -> paintSprite(
 																		g,
-																		sprite.shiftHue(getHueShift(school)),
+																		getSchoolSprite(sprite, school),
 																		xy)));
 								paintDebugInfo(g, slime, xy);
 							});
 		}
 	}
 
+	private ImageSprite getSchoolSprite(ImageSprite sprite, School school) {
+		return objectInfoProvider.getSchoolSprites().getSprite(sprite, school);
+	}
+
 	private void paintDebugInfo(Graphics2D g, Object object, int[] xy) {
 		if (getOptions().getDebugShowObjectString() && object != null) {
 			// need to flip y
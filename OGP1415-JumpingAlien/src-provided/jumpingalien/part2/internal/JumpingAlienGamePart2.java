@@ -4,7 +4,9 @@ import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Optional;
+import java.util.Set;
 
 import jumpingalien.common.game.IActionHandler;
 import jumpingalien.common.game.JumpingAlienGame;
@@ -37,6 +39,7 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 
 	private int tileSize;
 	private final ObjectInfoProvider objectInfoProvider;
+	private final SchoolSprites schoolSprites = new SchoolSprites();
 	private String currentMap;
 
 	public JumpingAlienGamePart2(Part2Options options, IFacadePart2 facade) {
@@ -66,7 +69,9 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 		try {
 			TMXFileReader reader = new TMXFileReader("levels/");
 
-			map = reader.read(filename);
+			long start = System.nanoTime();
+			map = reader.readWithImages(filename);
+			reportLoadTime(filename, start);
 
 			if (map.getTileSizeY() != map.getTileSizeX()) {
 				throw new IllegalArgumentException(
@@ -88,6 +93,12 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 		return true;
 	}
 
+	private void reportLoadTime(String filename, long start) {
+		long elapsed = (System.nanoTime() - start) / 1000000;
+		addMessage(new Message(MessageType.INFO, "Loaded " + filename + " in "
+				+ elapsed + " ms"));
+	}
+
 	@Override
 	public void load() {
 	}
@@ -117,6 +128,18 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 
 		// no more object creations or tile changes after starting
 		getFacade().startGame(getWorld());
+
+		prewarmSchoolSprites();
+	}
+
+	private void prewarmSchoolSprites() {
+		Set<School> slimeSchools = new LinkedHashSet<>();
+		for (Slime slime : objectInfoProvider.getSlimes()) {
+			objectInfoProvider.getSchool(slime).ifPresent(slimeSchools::add);
+		}
+		schoolSprites.clear();
+		schoolSprites.prewarm(slimeSchools, Resources.SLIME_SPRITE_LEFT,
+				Resources.SLIME_SPRITE_RIGHT);
 	}
 
 	private void setTileTypes() {
@@ -417,6 +440,11 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 				return catchErrorGet(() -> getFacade().getSchool(slime));
 			}
 
+			@Override
+			public SchoolSprites getSchoolSprites() {
+				return schoolSprites;
+			}
+
 		};
 	}
 
@@ -31,4 +31,6 @@ public interface ObjectInfoProvider {
 
 	public Optional<School> getSchool(Slime slime);
 
+	public SchoolSprites getSchoolSprites();
+
 }
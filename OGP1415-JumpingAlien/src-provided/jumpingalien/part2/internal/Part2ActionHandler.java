@@ -27,41 +27,41 @@ public class Part2ActionHandler extends AbstractActionHandler<Mazub, IFacadePart
 
 	@Override
 	public void startJump() {
-		addAlienCommand("startJump", getFacade()::startJump);
+		addAlienCommand("startJump", IFacadePart2::startJump);
 	}
 
 	@Override
 	public void endJump() {
-		addAlienCommand("endJump", getFacade()::endJump);
+		addAlienCommand("endJump", IFacadePart2::endJump);
 	}
 
 	@Override
 	public void startMoveLeft() {
-		addAlienCommand("startMoveLeft", getFacade()::startMoveLeft);
+		addAlienCommand("startMoveLeft", IFacadePart2::startMoveLeft);
 	}
 
 	@Override
 	public void startMoveRight() {
-		addAlienCommand("startMoveRight", getFacade()::startMoveRight);
+		addAlienCommand("startMoveRight", IFacadePart2::startMoveRight);
 	}
 
 	@Override
 	public void endMoveLeft() {
-		addAlienCommand("endMoveLeft", getFacade()::endMoveLeft);
+		addAlienCommand("endMoveLeft", IFacadePart2::endMoveLeft);
 	}
 
 	@Override
 	public void endMoveRight() {
-		addAlienCommand("endMoveRight", getFacade()::endMoveRight);
+		addAlienCommand("endMoveRight", IFacadePart2::endMoveRight);
 	}
 
 	@Override
 	public void startDuck() {
-		addAlienCommand("startDuck", getFacade()::startDuck);
+		addAlienCommand("startDuck", IFacadePart2::startDuck);
 	}
 
 	@Override
 	public void endDuck() {
-		addAlienCommand("endDuck", getFacade()::endDuck);
+		addAlienCommand("endDuck", IFacadePart2::endDuck);
 	}
 }
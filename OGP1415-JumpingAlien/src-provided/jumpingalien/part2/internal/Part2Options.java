@@ -17,6 +17,12 @@ public class Part2Options implements JumpingAlienGameOptions,
 	 */
 	private int targetFPS = 30;
 
+	/**
+	 * Number of threads on which the world updates its game objects (default:
+	 * 1). Results do not depend on this value.
+	 */
+	private int updateThreads = 1;
+
 	/**
 	 * Print debug info on the screen (default: false).
 	 */
@@ -71,6 +77,12 @@ public class Part2Options implements JumpingAlienGameOptions,
 	 */
 	private boolean debugShowEntireWorld = false;
 
+	/**
+	 * Path of the CSV file to which the performance statistics are written
+	 * every half second (default: null, not written).
+	 */
+	private String statsFile = null;
+
 	@Override
 	public double getTargetFPS() {
 		return targetFPS;
@@ -90,6 +102,16 @@ public class Part2Options implements JumpingAlienGameOptions,
 		this.timeScale = timeScale;
 	}
 
+	@Override
+	public int getUpdateThreads() {
+		return updateThreads;
+	}
+
+	@Override
+	public void setUpdateThreads(int updateThreads) {
+		this.updateThreads = updateThreads;
+	}
+
 	@Override
 	public boolean getDebugShowInfo() {
 		return debugShowInfo;
@@ -169,6 +191,15 @@ public class Part2Options implements JumpingAlienGameOptions,
 		this.debugShowObjectString = value;
 	}
 
+	@Override
+	public String getStatsFile() {
+		return statsFile;
+	}
+
+	public void setStatsFile(String statsFile) {
+		this.statsFile = statsFile;
+	}
+
 	public static Part2Options parse(String[] args) {
 		Part2Options options = new Part2Options();
 
@@ -200,6 +231,9 @@ public class Part2Options implements JumpingAlienGameOptions,
 			case "-showtiletypes":
 				options.debugShowTileTypes = Boolean.parseBoolean(args[++i]);
 				break;
+			case "-statsfile":
+				options.statsFile = args[++i];
+				break;
 			}
 		}
 
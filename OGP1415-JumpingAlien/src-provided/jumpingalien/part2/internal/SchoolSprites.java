@@ -0,0 +1,52 @@
+package jumpingalien.part2.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import jumpingalien.common.sprites.ImageSprite;
+import jumpingalien.common.sprites.SpriteVariantCache;
+import jumpingalien.model.School;
+
+/**
+ * The sprites of slimes, with their hue shifted according to their school.
+ *
+ * Each school gets its own hue shift, in the order in which the schools are
+ * first seen. The shifted sprites are cached, so they are only computed once
+ * per school and sprite.
+ */
+public class SchoolSprites {
+
+	private final Map<School, Integer> schoolHueShifts = new HashMap<>();
+
+	private final SpriteVariantCache variants = new SpriteVariantCache();
+
+	public synchronized int getHueShift(School school) {
+		return schoolHueShifts.computeIfAbsent(school,
+				s -> schoolHueShifts.size());
+	}
+
+	public ImageSprite getSprite(ImageSprite sprite, School school) {
+		return variants.getHueShifted(sprite, getHueShift(school));
+	}
+
+	/**
+	 * Compute the shifted variants of the given sprites for the given schools
+	 * ahead of time, so painting does not have to.
+	 */
+	public void prewarm(Iterable<School> schools, ImageSprite... sprites) {
+		for (School school : schools) {
+			for (ImageSprite sprite : sprites) {
+				getSprite(sprite, school);
+			}
+		}
+	}
+
+	/**
+	 * Forget all schools and their sprites, for instance when a new level is
+	 * loaded.
+	 */
+	public synchronized void clear() {
+		schoolHueShifts.clear();
+		variants.clear();
+	}
+}
@@ -0,0 +1,86 @@
+package jumpingalien.part2.internal;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A cache of pre-rendered chunks of the tile layer of a world, indexed by
+ * their chunk coordinates.
+ *
+ * Chunks are rendered lazily, the first time they are asked for. When the
+ * cache holds more chunks than its capacity, the chunks farthest from the
+ * camera are evicted.
+ */
+public class TileChunkCache {
+
+	@FunctionalInterface
+	public interface ChunkRenderer {
+		BufferedImage render(int chunkX, int chunkY);
+	}
+
+	private final int capacity;
+
+	private final Map<Long, BufferedImage> chunks = new HashMap<>();
+
+	public TileChunkCache(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		this.capacity = capacity;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int size() {
+		return chunks.size();
+	}
+
+	public BufferedImage get(int chunkX, int chunkY, ChunkRenderer renderer) {
+		return chunks.computeIfAbsent(getKey(chunkX, chunkY),
+				key -> renderer.render(chunkX, chunkY));
+	}
+
+	/**
+	 * Evict the chunks farthest from the given chunk coordinates until no more
+	 * chunks than the capacity of this cache remain.
+	 */
+	public void evictFarthestFrom(double chunkX, double chunkY) {
+		while (chunks.size() > capacity) {
+			Long farthest = null;
+			double farthestDistance = -1;
+			for (Long key : chunks.keySet()) {
+				double distance = Math.max(Math.abs(getChunkX(key) - chunkX),
+						Math.abs(getChunkY(key) - chunkY));
+				if (distance > farthestDistance) {
+					farthest = key;
+					farthestDistance = distance;
+				}
+			}
+			chunks.remove(farthest).flush();
+		}
+	}
+
+	public void clear() {
+		Iterator<BufferedImage> it = chunks.values().iterator();
+		while (it.hasNext()) {
+			it.next().flush();
+			it.remove();
+		}
+	}
+
+	private static long getKey(int chunkX, int chunkY) {
+		return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+	}
+
+	private static int getChunkX(long key) {
+		return (int) (key >> 32);
+	}
+
+	private static int getChunkY(long key) {
+		return (int) key;
+	}
+}
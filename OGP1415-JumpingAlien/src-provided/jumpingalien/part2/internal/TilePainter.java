@@ -2,6 +2,9 @@ package jumpingalien.part2.internal;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 import java.util.Optional;
 
 import jumpingalien.common.gui.AlienGUIUtils;
@@ -16,16 +19,37 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 
 	private static final Color OVERLAPPING_TILE_COLOR = new Color(255, 64, 64,
 			64);
+	/**
+	 * The number of tiles along each side of a pre-rendered chunk.
+	 */
+	private static final int CHUNK_SIZE_IN_TILES = 8;
+	/**
+	 * The number of chunks kept of each kind; the chunks farthest from the
+	 * camera are evicted first.
+	 */
+	private static final int MAX_CACHED_CHUNKS = 48;
+
 	private final Part2WorldInfoProvider worldInfoProvider;
 	private final int tileSize;
+	private final int chunkSize;
 	private final Map map;
 
+	// terrain never changes after the game has started
+	private final TileChunkCache layerChunks = new TileChunkCache(
+			MAX_CACHED_CHUNKS);
+	private final TileChunkCache tileTypeChunks = new TileChunkCache(
+			MAX_CACHED_CHUNKS);
+	private final TileChunkCache gridlineChunks = new TileChunkCache(
+			MAX_CACHED_CHUNKS);
+	private boolean gridlinesShowTileTypes;
+
 	public TilePainter(AlienGameScreen<?, ?> screen, Map map,
 			Part2WorldInfoProvider worldInfoProvider) {
 		super(screen);
 		this.map = map;
 		this.worldInfoProvider = worldInfoProvider;
 		this.tileSize = worldInfoProvider.getTileLength();
+		this.chunkSize = CHUNK_SIZE_IN_TILES * tileSize;
 	}
 
 	@Override
@@ -40,10 +64,9 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 		g.setColor(getBackgroundColor());
 		g.fillRect(0, 0, worldSize[0], worldSize[1]);
 
-		Optional<int[][]> tileCoordinatesToDrawOpt;
+		int[] region;
 		if (getOptions().getDebugShowEntireWorld()) {
-			tileCoordinatesToDrawOpt = worldInfoProvider.getTilesIn(0, 0,
-					worldSize[0], worldSize[1]);
+			region = new int[] { 0, 0, worldSize[0] - 1, worldSize[1] - 1 };
 		} else {
 			Optional<int[]> visibleWindowOpt = worldInfoProvider
 					.getVisibleWindow();
@@ -51,23 +74,10 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 			if (!visibleWindowOpt.isPresent()) {
 				return;
 			}
-			int[] visibleWindow = visibleWindowOpt.get();
-
-			tileCoordinatesToDrawOpt = worldInfoProvider.getTilesIn(
-					visibleWindow[0], visibleWindow[1], visibleWindow[2],
-					visibleWindow[3]);
+			region = visibleWindowOpt.get();
 		}
-		if (!tileCoordinatesToDrawOpt.isPresent()) {
-			return;
-		}
-		int[][] tileCoordinatesToDraw = tileCoordinatesToDrawOpt.get();
-
-		for (int[] tileXY : tileCoordinatesToDraw) {
-			int tileX = tileXY[0];
-			int tileY = tileXY[1];
 
-			paintTile(g, tileX, tileY);
-		}
+		paintChunks(g, region);
 
 		if (getOptions().getDebugShowAlienOverlappingTiles()) {
 
@@ -107,69 +117,227 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 		}
 	}
 
-	private void paintTile(Graphics2D g, int tileX, int tileY) {
-		Optional<int[]> bottomLeftOpt = worldInfoProvider
-				.getBottomLeftPixelOfTile(tileX, tileY);
-		if (!bottomLeftOpt.isPresent()) {
-			// TODO: do something else?
-			return;
+	private void paintChunks(Graphics2D g, int[] region) {
+		int firstChunkX = Math.max(0, region[0] / chunkSize);
+		int firstChunkY = Math.max(0, region[1] / chunkSize);
+		int lastChunkX = Math.min(getNbChunksX() - 1, region[2] / chunkSize);
+		int lastChunkY = Math.min(getNbChunksY() - 1, region[3] / chunkSize);
+
+		boolean showTileTypes = getOptions().getDebugShowTileTypes();
+		boolean showTileGridlines = getOptions().getDebugShowTileGridlines();
+		if (showTileGridlines && gridlinesShowTileTypes != showTileTypes) {
+			// gridlines are XORed with what lies beneath them
+			gridlineChunks.clear();
+			gridlinesShowTileTypes = showTileTypes;
 		}
-		int[] bottomLeftXY = bottomLeftOpt.get();
 
-		int tileSize = worldInfoProvider.getTileLength();
+		for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+			for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+				paintChunk(g, layerChunks.get(chunkX, chunkY,
+						this::renderLayerChunk), chunkX, chunkY);
+				if (showTileTypes) {
+					paintChunk(g, tileTypeChunks.get(chunkX, chunkY,
+							this::renderTileTypeChunk), chunkX, chunkY);
+				}
+				if (showTileGridlines) {
+					paintChunk(g, gridlineChunks.get(chunkX, chunkY,
+							this::renderGridlineChunk), chunkX, chunkY);
+				}
+			}
+		}
 
-		for (Layer layer : map.getLayers()) {
-			if (map.isValidTileCoordinate(tileX, tileY)) {
-				ImageTile tile = layer.getTile(tileX, tileY);
-				if (tile != null) {
-					AlienGUIUtils.drawImageInWorld(g, tile.getImage(),
-							bottomLeftXY[0], bottomLeftXY[1], false);
+		double centerChunkX = (firstChunkX + lastChunkX) / 2.0;
+		double centerChunkY = (firstChunkY + lastChunkY) / 2.0;
+		layerChunks.evictFarthestFrom(centerChunkX, centerChunkY);
+		tileTypeChunks.evictFarthestFrom(centerChunkX, centerChunkY);
+		gridlineChunks.evictFarthestFrom(centerChunkX, centerChunkY);
+	}
+
+	private void paintChunk(Graphics2D g, BufferedImage chunk, int chunkX,
+			int chunkY) {
+		AlienGUIUtils.drawImageInWorld(g, chunk, chunkX * chunkSize, chunkY
+				* chunkSize, false);
+	}
+
+	private int getNbChunksX() {
+		return (map.getPixelWidth() + chunkSize - 1) / chunkSize;
+	}
+
+	private int getNbChunksY() {
+		return (map.getPixelHeight() + chunkSize - 1) / chunkSize;
+	}
+
+	/**
+	 * Create an empty image for the given chunk, compatible with the screen if
+	 * there is one, so it can be kept in video memory.
+	 */
+	private BufferedImage createChunkImage(int chunkX, int chunkY,
+			int transparency) {
+		int width = Math.min(chunkSize, map.getPixelWidth() - chunkX
+				* chunkSize);
+		int height = Math.min(chunkSize, map.getPixelHeight() - chunkY
+				* chunkSize);
+		if (GraphicsEnvironment.isHeadless()) {
+			return new BufferedImage(width, height,
+					transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB
+							: BufferedImage.TYPE_INT_ARGB);
+		}
+		return GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice().getDefaultConfiguration()
+				.createCompatibleImage(width, height, transparency);
+	}
+
+	/**
+	 * Return a graphics context for the given chunk that draws in world
+	 * coordinates.
+	 */
+	private Graphics2D createWorldGraphics(BufferedImage chunk, int chunkX,
+			int chunkY) {
+		Graphics2D g = chunk.createGraphics();
+		g.translate(0, chunk.getHeight());
+		g.scale(1, -1);
+		g.translate(-chunkX * chunkSize, -chunkY * chunkSize);
+		return g;
+	}
+
+	/**
+	 * Call the given consumer for all tiles that may paint in the given chunk,
+	 * in the order in which the world lists them. The tiles around the chunk
+	 * are included, since their images or gridlines may stick out into it.
+	 */
+	private void forEachTileIn(int chunkX, int chunkY, TileConsumer consumer) {
+		int firstTileX = Math.max(0, chunkX * CHUNK_SIZE_IN_TILES - 1);
+		int firstTileY = Math.max(0, chunkY * CHUNK_SIZE_IN_TILES - 1);
+		int lastTileX = Math.min(map.getNbTilesX() - 1, (chunkX + 1)
+				* CHUNK_SIZE_IN_TILES);
+		int lastTileY = Math.min(map.getNbTilesY() - 1, (chunkY + 1)
+				* CHUNK_SIZE_IN_TILES);
+		for (int tileY = firstTileY; tileY <= lastTileY; tileY++) {
+			for (int tileX = firstTileX; tileX <= lastTileX; tileX++) {
+				Optional<int[]> bottomLeftOpt = worldInfoProvider
+						.getBottomLeftPixelOfTile(tileX, tileY);
+				if (bottomLeftOpt.isPresent()) {
+					consumer.accept(tileX, tileY, bottomLeftOpt.get());
 				}
 			}
 		}
+	}
+
+	@FunctionalInterface
+	private interface TileConsumer {
+		void accept(int tileX, int tileY, int[] bottomLeftXY);
+	}
 
-		if (getOptions().getDebugShowTileTypes()) {
-			Optional<TileType> optType = worldInfoProvider
-					.getGeologicalFeature(bottomLeftXY[0], bottomLeftXY[1]);
-			if (optType.isPresent()) {
-				TileType type = optType.get();
-				int alpha = 200;
-				switch (type) {
-				case AIR:
-					g.setColor(new Color(0, 255, 255, alpha));
-					break;
-				case SOLID:
-					g.setColor(new Color(255, 128, 128, alpha));
-					break;
-				case MAGMA:
-					g.setColor(new Color(255, 255, 128, alpha));
-					break;
-				case WATER:
-					g.setColor(new Color(0, 128, 255, alpha));
-					break;
-				default:
-					g.setColor(new Color(128, 128, 128, alpha));
-					break;
+	private BufferedImage renderLayerChunk(int chunkX, int chunkY) {
+		BufferedImage chunk = createChunkImage(chunkX, chunkY,
+				Transparency.OPAQUE);
+		Graphics2D g = createWorldGraphics(chunk, chunkX, chunkY);
+		g.setColor(getBackgroundColor());
+		g.fillRect(chunkX * chunkSize, chunkY * chunkSize, chunkSize,
+				chunkSize);
+		forEachTileIn(chunkX, chunkY, (tileX, tileY, bottomLeftXY) -> {
+			for (Layer layer : map.getLayers()) {
+				if (map.isValidTileCoordinate(tileX, tileY)) {
+					ImageTile tile = layer.getTile(tileX, tileY);
+					if (tile != null) {
+						AlienGUIUtils.drawImageInWorld(g, tile.getImage(),
+								bottomLeftXY[0], bottomLeftXY[1], false);
+					}
 				}
-				g.fillRect(bottomLeftXY[0], bottomLeftXY[1], tileSize, tileSize);
+			}
+		});
+		g.dispose();
+		return chunk;
+	}
+
+	private BufferedImage renderTileTypeChunk(int chunkX, int chunkY) {
+		BufferedImage chunk = createChunkImage(chunkX, chunkY,
+				Transparency.TRANSLUCENT);
+		Graphics2D g = createWorldGraphics(chunk, chunkX, chunkY);
+		forEachTileIn(chunkX, chunkY,
+				(tileX, tileY, bottomLeftXY) -> paintTileType(g, bottomLeftXY));
+		g.dispose();
+		return chunk;
+	}
+
+	/**
+	 * Gridlines are XORed with the layers and tile types beneath them. They are
+	 * drawn onto a copy of those, and only the pixels they change are kept.
+	 */
+	private BufferedImage renderGridlineChunk(int chunkX, int chunkY) {
+		BufferedImage chunk = createChunkImage(chunkX, chunkY,
+				Transparency.TRANSLUCENT);
+		int width = chunk.getWidth();
+		int height = chunk.getHeight();
+		BufferedImage drawn = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = drawn.createGraphics();
+		g.drawImage(layerChunks.get(chunkX, chunkY, this::renderLayerChunk),
+				0, 0, null);
+		if (gridlinesShowTileTypes) {
+			g.drawImage(tileTypeChunks.get(chunkX, chunkY,
+					this::renderTileTypeChunk), 0, 0, null);
+		}
+		g.dispose();
+		int[] beneathPixels = drawn.getRGB(0, 0, width, height, null, 0, width);
+
+		Graphics2D worldGraphics = createWorldGraphics(drawn, chunkX, chunkY);
+		forEachTileIn(chunkX, chunkY,
+				(tileX, tileY, bottomLeftXY) -> paintGridlines(worldGraphics,
+						bottomLeftXY));
+		worldGraphics.dispose();
+		int[] pixels = drawn.getRGB(0, 0, width, height, null, 0, width);
+
+		for (int i = 0; i < pixels.length; i++) {
+			if (pixels[i] == beneathPixels[i]) {
+				pixels[i] = 0;
 			}
 		}
+		chunk.setRGB(0, 0, width, height, pixels, 0, width);
+		return chunk;
+	}
 
-		if (getOptions().getDebugShowTileGridlines()) {
-			g.setColor(Color.WHITE);
-			g.setXORMode(Color.BLACK);
-			int offset = 5;
-			g.drawLine(bottomLeftXY[0], bottomLeftXY[1], bottomLeftXY[0],
-					bottomLeftXY[1] + tileSize);
-			g.drawLine(bottomLeftXY[0], bottomLeftXY[1], bottomLeftXY[0]
-					+ tileSize, bottomLeftXY[1]);
-
-			g.setXORMode(Color.LIGHT_GRAY);
-			g.drawLine(bottomLeftXY[0] + 2, bottomLeftXY[1] + 2,
-					bottomLeftXY[0] + 2, bottomLeftXY[1] + tileSize - offset);
-			g.drawLine(bottomLeftXY[0] + 2, bottomLeftXY[1] + 2,
-					bottomLeftXY[0] + tileSize - offset, bottomLeftXY[1] + 2);
-			g.setPaintMode();
+	private void paintTileType(Graphics2D g, int[] bottomLeftXY) {
+		Optional<TileType> optType = worldInfoProvider.getGeologicalFeature(
+				bottomLeftXY[0], bottomLeftXY[1]);
+		if (optType.isPresent()) {
+			TileType type = optType.get();
+			int alpha = 200;
+			switch (type) {
+			case AIR:
+				g.setColor(new Color(0, 255, 255, alpha));
+				break;
+			case SOLID:
+				g.setColor(new Color(255, 128, 128, alpha));
+				break;
+			case MAGMA:
+				g.setColor(new Color(255, 255, 128, alpha));
+				break;
+			case WATER:
+				g.setColor(new Color(0, 128, 255, alpha));
+				break;
+			default:
+				g.setColor(new Color(128, 128, 128, alpha));
+				break;
+			}
+			g.fillRect(bottomLeftXY[0], bottomLeftXY[1], tileSize, tileSize);
 		}
 	}
+
+	private void paintGridlines(Graphics2D g, int[] bottomLeftXY) {
+		g.setColor(Color.WHITE);
+		g.setXORMode(Color.BLACK);
+		int offset = 5;
+		g.drawLine(bottomLeftXY[0], bottomLeftXY[1], bottomLeftXY[0],
+				bottomLeftXY[1] + tileSize);
+		g.drawLine(bottomLeftXY[0], bottomLeftXY[1], bottomLeftXY[0]
+				+ tileSize, bottomLeftXY[1]);
+
+		g.setXORMode(Color.LIGHT_GRAY);
+		g.drawLine(bottomLeftXY[0] + 2, bottomLeftXY[1] + 2,
+				bottomLeftXY[0] + 2, bottomLeftXY[1] + tileSize - offset);
+		g.drawLine(bottomLeftXY[0] + 2, bottomLeftXY[1] + 2,
+				bottomLeftXY[0] + tileSize - offset, bottomLeftXY[1] + 2);
+		g.setPaintMode();
+	}
 }
@@ -0,0 +1,305 @@
+package jumpingalien.part2.internal.tmxfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part2.internal.tmxfile.data.MapObject;
+import jumpingalien.part2.internal.tmxfile.data.ObjectGroup;
+import jumpingalien.part2.internal.tmxfile.data.Tileset;
+
+/**
+ * A compact binary form of a TMX level, so a level can be loaded without
+ * parsing XML.
+ *
+ * The file holds, in order: the header of the map, its attributes, its
+ * tilesets, the gids of the tiles of each layer, the type values of the
+ * terrain tiles as stored by a world, and its object groups. It starts with
+ * the hash of the TMX file it was compiled from, so it can be recompiled
+ * when that file changes. All numbers are big-endian; strings are stored as
+ * their length in UTF-8 bytes followed by those bytes, or -1 for null.
+ *
+ * Usage: CompiledMapFile file.tmx ... (compiles the given levels in
+ * levels/)
+ */
+public class CompiledMapFile {
+
+	public static final String EXTENSION = ".tmxc";
+
+	private static final int MAGIC = 0x4A414C56; // "JALV"
+
+	private static final int VERSION = 1;
+
+	private static final int HASH_LENGTH = 32;
+
+	private static final int HFLIP = 0x1;
+
+	private static final int VFLIP = 0x2;
+
+	public static void main(String[] args) {
+		TMXFileReader reader = new TMXFileReader("levels/");
+		for (String filename : args) {
+			File compiled = reader.compile(filename);
+			System.out.println(filename + " -> " + compiled);
+		}
+	}
+
+	private CompiledMapFile() {
+	}
+
+	/**
+	 * Return the file in which the compiled form of the given TMX file is
+	 * stored.
+	 */
+	public static File getCompiledFile(File source) {
+		return new File(source.getPath() + EXTENSION);
+	}
+
+	/**
+	 * Return the hash of the contents of the given file.
+	 */
+	public static byte[] hash(File file) throws IOException {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(
+					Files.readAllBytes(file.toPath()));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * Write the given map, compiled from a TMX file with the given hash, to
+	 * the given file.
+	 *
+	 * The map is first written to a temporary file next to the given one, so
+	 * readers never see a partially written file.
+	 */
+	public static void write(Map map, byte[] sourceHash, File target)
+			throws IOException {
+		if (sourceHash.length != HASH_LENGTH) {
+			throw new IllegalArgumentException("Not a SHA-256 hash");
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.write(sourceHash);
+
+		out.writeInt(map.getNbTilesX());
+		out.writeInt(map.getNbTilesY());
+		out.writeInt(map.getTileSizeX());
+		out.writeInt(map.getTileSizeY());
+		out.writeInt(map.getInitialPositionX());
+		out.writeInt(map.getInitialPositionY());
+		out.writeInt(map.getTargetTileX());
+		out.writeInt(map.getTargetTileY());
+		writeString(out, map.getBackground());
+		writeAttributes(out, map.getAttributes());
+
+		out.writeInt(map.getTilesets().size());
+		for (Tileset tileset : map.getTilesets()) {
+			out.writeInt(tileset.getFirstId());
+			out.writeInt(tileset.getTiles().size());
+			for (ImageTile tile : tileset.getTiles()) {
+				out.writeInt(tile.getId() - tileset.getFirstId());
+				out.writeInt(tile.getWidth());
+				out.writeInt(tile.getHeight());
+				writeString(out, tile.getFile() == null ? null : tile
+						.getFile().getPath());
+			}
+		}
+
+		out.writeInt(map.getLayers().size());
+		for (Layer layer : map.getLayers()) {
+			writeString(out, layer.getName());
+			List<ImageTile> tiles = layer.getTiles();
+			out.writeInt(tiles.size());
+			for (ImageTile tile : tiles) {
+				out.writeInt(tile == null ? 0 : tile.getId());
+			}
+		}
+
+		out.write(map.getTerrainTypes());
+
+		out.writeInt(map.getObjectGroups().size());
+		for (ObjectGroup group : map.getObjectGroups()) {
+			writeString(out, group.getName());
+			out.writeInt(group.getObjects().size());
+			for (MapObject object : group.getObjects()) {
+				out.writeInt(object.getId());
+				out.writeInt(object.getTile().getId());
+				out.writeInt(object.getX());
+				out.writeInt(object.getY());
+				out.writeByte((object.getHflip() ? HFLIP : 0)
+						| (object.getVflip() ? VFLIP : 0));
+				writeAttributes(out, object.getAttributes());
+			}
+		}
+		out.close();
+
+		File temporary = new File(target.getPath() + ".tmp");
+		Files.write(temporary.toPath(), bytes.toByteArray());
+		try {
+			Files.move(temporary.toPath(), target.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.deleteIfExists(temporary.toPath());
+			throw e;
+		}
+	}
+
+	/**
+	 * Read the map in the given file, if it was compiled from a TMX file with
+	 * the given hash by this version of the compiler.
+	 *
+	 * @return An empty optional if the given file does not exist, or is out of
+	 *         date.
+	 * @throws IOException
+	 *             If the given file cannot be read or is damaged.
+	 */
+	public static Optional<Map> read(File file, byte[] sourceHash)
+			throws IOException {
+		if (!file.isFile()) {
+			return Optional.empty();
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+					0, channel.size());
+			if (buffer.remaining() < 8 + HASH_LENGTH
+					|| buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				return Optional.empty();
+			}
+			byte[] hash = new byte[HASH_LENGTH];
+			buffer.get(hash);
+			if (!Arrays.equals(hash, sourceHash)) {
+				return Optional.empty();
+			}
+			return Optional.of(readMap(buffer));
+		} catch (RuntimeException e) {
+			throw new IOException("Damaged compiled level " + file + ": " + e,
+					e);
+		}
+	}
+
+	private static Map readMap(ByteBuffer buffer) throws IOException {
+		int nbTilesX = buffer.getInt();
+		int nbTilesY = buffer.getInt();
+		Map map = new Map(nbTilesX, nbTilesY, buffer.getInt(), buffer.getInt());
+		map.setInitialX(buffer.getInt());
+		map.setInitialY(buffer.getInt());
+		map.setTargetTileX(buffer.getInt());
+		map.setTargetTileY(buffer.getInt());
+		map.setBackground(readString(buffer));
+		int nbAttributes = buffer.getInt();
+		for (int i = 0; i < nbAttributes; i++) {
+			map.setAttribute(readString(buffer), readString(buffer));
+		}
+
+		int nbTilesets = buffer.getInt();
+		for (int i = 0; i < nbTilesets; i++) {
+			Tileset tileset = map.newTileSet(buffer.getInt());
+			int nbTiles = buffer.getInt();
+			for (int j = 0; j < nbTiles; j++) {
+				ImageTile tile = tileset.newTile(buffer.getInt());
+				int width = buffer.getInt();
+				int height = buffer.getInt();
+				String filename = readString(buffer);
+				if (filename != null) {
+					tile.setImage(width, height, new File(filename));
+				}
+			}
+		}
+
+		int nbLayers = buffer.getInt();
+		for (int i = 0; i < nbLayers; i++) {
+			Layer layer = map.newLayer(readString(buffer));
+			int[] gids = new int[buffer.getInt()];
+			buffer.asIntBuffer().get(gids);
+			buffer.position(buffer.position() + 4 * gids.length);
+			for (int gid : gids) {
+				layer.addTile(map.findTile(gid).orElse(null));
+			}
+		}
+
+		byte[] terrainTypes = new byte[nbTilesX * nbTilesY];
+		buffer.get(terrainTypes);
+		map.setTerrainTypes(terrainTypes);
+
+		int nbObjectGroups = buffer.getInt();
+		for (int i = 0; i < nbObjectGroups; i++) {
+			ObjectGroup group = map.newObjectGroup(readString(buffer));
+			int nbObjects = buffer.getInt();
+			for (int j = 0; j < nbObjects; j++) {
+				int id = buffer.getInt();
+				int gid = buffer.getInt();
+				ImageTile tile = map.findTile(gid).orElseThrow(
+						() -> new IOException("Object with unknown tile " + gid));
+				MapObject object = new MapObject(id, tile, buffer.getInt(),
+						buffer.getInt());
+				int flips = buffer.get();
+				object.setHFlip((flips & HFLIP) != 0);
+				object.setVFlip((flips & VFLIP) != 0);
+				int nbObjectAttributes = buffer.getInt();
+				for (int k = 0; k < nbObjectAttributes; k++) {
+					object.setAttribute(readString(buffer), readString(buffer));
+				}
+				group.addObject(object);
+			}
+		}
+
+		if (buffer.hasRemaining()) {
+			throw new IOException("Unexpected data after the object groups");
+		}
+		return map;
+	}
+
+	private static void writeAttributes(DataOutputStream out,
+			java.util.Map<String, String> attributes) throws IOException {
+		out.writeInt(attributes.size());
+		for (java.util.Map.Entry<String, String> attribute : attributes
+				.entrySet()) {
+			writeString(out, attribute.getKey());
+			writeString(out, attribute.getValue());
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value)
+			throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
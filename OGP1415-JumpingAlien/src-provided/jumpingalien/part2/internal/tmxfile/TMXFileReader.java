@@ -2,14 +2,32 @@ package jumpingalien.part2.internal.tmxfile;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
 import jumpingalien.part2.internal.tmxfile.data.Map;
 
 public class TMXFileReader {
 
+	/**
+	 * The maximal number of threads that decode tile images.
+	 */
+	public static final int MAX_IMAGE_LOADING_THREADS = 4;
+
 	public static void main(String[] args) {
 		TMXFileReader reader = new TMXFileReader("levels/");
 		Map map = reader.read("simple_and_small.tmx");
@@ -36,4 +54,109 @@ public class TMXFileReader {
 		}
 	}
 
+	/**
+	 * Load the given level file from its compiled form, if that is up to date,
+	 * and from the TMX file itself otherwise. In the latter case, the compiled
+	 * form is written for the next time, if the levels folder allows it.
+	 */
+	public Map load(String filename) throws IllegalArgumentException {
+		File source = new File(levelsFolder, filename);
+		File compiled = CompiledMapFile.getCompiledFile(source);
+		byte[] hash;
+		try {
+			hash = CompiledMapFile.hash(source);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Could not read: "
+					+ e.getMessage(), e);
+		}
+		try {
+			Optional<Map> map = CompiledMapFile.read(compiled, hash);
+			if (map.isPresent()) {
+				return map.get();
+			}
+		} catch (IOException e) {
+			// damaged; compile it again
+		}
+		Map map = read(filename);
+		try {
+			CompiledMapFile.write(map, hash, compiled);
+		} catch (IOException e) {
+			// the levels folder may be read-only; keep using the TMX file
+		}
+		return map;
+	}
+
+	/**
+	 * Compile the given level file, whether or not its compiled form is up to
+	 * date, and return the file it was compiled to.
+	 */
+	public File compile(String filename) throws IllegalArgumentException {
+		File source = new File(levelsFolder, filename);
+		File compiled = CompiledMapFile.getCompiledFile(source);
+		try {
+			CompiledMapFile.write(read(filename), CompiledMapFile.hash(source),
+					compiled);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Could not compile: "
+					+ e.getMessage(), e);
+		}
+		return compiled;
+	}
+
+	/**
+	 * Load the given level file and decode the images of all tiles used in
+	 * its layers.
+	 */
+	public Map readWithImages(String filename) throws IllegalArgumentException {
+		Map map = load(filename);
+		loadTileImages(map);
+		return map;
+	}
+
+	/**
+	 * Decode the images of all tiles used in the layers of the given map, in
+	 * parallel on a bounded number of threads.
+	 */
+	public static void loadTileImages(Map map) throws IllegalArgumentException {
+		Set<ImageTile> tiles = Collections
+				.newSetFromMap(new IdentityHashMap<>());
+		for (Layer layer : map.getLayers()) {
+			for (ImageTile tile : layer.getTiles()) {
+				if (tile != null) {
+					tiles.add(tile);
+				}
+			}
+		}
+		if (tiles.isEmpty()) {
+			return;
+		}
+		int nbThreads = Math.min(tiles.size(), Math.min(
+				MAX_IMAGE_LOADING_THREADS, Runtime.getRuntime()
+						.availableProcessors()));
+		ExecutorService executor = Executors.newFixedThreadPool(nbThreads,
+				runnable -> {
+					Thread thread = new Thread(runnable, "Tile image loader");
+					thread.setDaemon(true);
+					return thread;
+				});
+		try {
+			List<Future<?>> results = new ArrayList<>(tiles.size());
+			for (ImageTile tile : tiles) {
+				results.add(executor.submit(tile::getImage));
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalArgumentException("Could not load tile image: "
+					+ e.getCause().getMessage(), e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalArgumentException(
+					"Interrupted while loading tile images", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 }
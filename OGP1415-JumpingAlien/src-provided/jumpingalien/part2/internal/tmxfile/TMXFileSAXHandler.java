@@ -1,6 +1,7 @@
 package jumpingalien.part2.internal.tmxfile;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Optional;
 
 import jumpingalien.part2.internal.tmxfile.data.ImageTile;
@@ -25,6 +26,10 @@ class TMXFileSAXHandler extends DefaultHandler {
 	private ObjectGroup currentObjectGroup;
 	private MapObject currentObject;
 
+	private String dataEncoding;
+	private String dataCompression;
+	private StringBuilder encodedData;
+
 	public TMXFileSAXHandler(String parentFolder) {
 		this.parentFolder = parentFolder;
 	}
@@ -95,17 +100,23 @@ class TMXFileSAXHandler extends DefaultHandler {
 			currentLayer = map.newLayer(name);
 			break;
 		}
-		case "data":
-			// ignore
+		case "data": {
+			// without an encoding, the data holds one <tile> element per tile
+			dataEncoding = attributes.getValue("encoding");
+			dataCompression = attributes.getValue("compression");
+			if (dataEncoding != null) {
+				encodedData = new StringBuilder();
+			}
 			break;
+		}
 		case "tile": {
 			if (currentTileset != null) {
 				int id = Integer.parseInt(attributes.getValue("id"));
 				currentTile = currentTileset.newTile(id);
 			} else if (currentLayer != null) {
-				int id = Integer.parseInt(attributes.getValue("gid"));
-				Optional<ImageTile> tile = map.findTile(id);
-				currentLayer.addTile(tile.orElse(null));
+				int id = TMXLayerData.stripFlags(Long.parseLong(attributes
+						.getValue("gid")));
+				addTileToLayer(id);
 			}
 			break;
 		}
@@ -144,10 +155,45 @@ class TMXFileSAXHandler extends DefaultHandler {
 		}
 	}
 
+	@Override
+	public void characters(char[] ch, int start, int length)
+			throws SAXException {
+		if (encodedData != null) {
+			encodedData.append(ch, start, length);
+		}
+	}
+
+	private void addTileToLayer(int gid) {
+		Optional<ImageTile> tile = map.findTile(gid);
+		currentLayer.addTile(tile.orElse(null));
+	}
+
+	private void addEncodedTilesToLayer() throws SAXException {
+		int[] gids;
+		try {
+			gids = TMXLayerData.decode(encodedData.toString(), dataEncoding,
+					dataCompression);
+		} catch (IOException | RuntimeException e) {
+			throw new SAXException("Invalid data in layer "
+					+ currentLayer.getName() + ": " + e.getMessage(), e);
+		}
+		for (int gid : gids) {
+			addTileToLayer(gid);
+		}
+	}
+
 	@Override
 	public void endElement(String uri, String localName, String qName)
 			throws SAXException {
 		switch (qName) {
+		case "data":
+			if (encodedData != null && currentLayer != null) {
+				addEncodedTilesToLayer();
+			}
+			encodedData = null;
+			dataEncoding = null;
+			dataCompression = null;
+			break;
 		case "tileset":
 			currentTileset = null;
 			break;
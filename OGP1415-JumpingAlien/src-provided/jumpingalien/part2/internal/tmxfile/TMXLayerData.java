@@ -0,0 +1,112 @@
+package jumpingalien.part2.internal.tmxfile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decoding of the encoded <data> element of TMX layers.
+ */
+class TMXLayerData {
+
+	/**
+	 * The bits of a gid that encode how the tile is flipped.
+	 */
+	static final long FLIP_FLAGS = 0xE0000000L;
+
+	private TMXLayerData() {
+	}
+
+	/**
+	 * Return the given gid without the flags that encode how its tile is
+	 * flipped.
+	 */
+	static int stripFlags(long gid) {
+		return (int) (gid & ~FLIP_FLAGS);
+	}
+
+	/**
+	 * Decode the gids of the given layer data, in the given encoding and
+	 * compression. The compression is null for uncompressed data.
+	 */
+	static int[] decode(String data, String encoding, String compression)
+			throws IOException {
+		switch (encoding) {
+		case "csv":
+			if (compression != null) {
+				throw new IOException("CSV layer data cannot be compressed");
+			}
+			return decodeCSV(data);
+		case "base64":
+			return decodeBase64(data, compression);
+		default:
+			throw new IOException("Unsupported layer encoding: " + encoding);
+		}
+	}
+
+	static int[] decodeCSV(String data) {
+		String trimmed = data.trim();
+		if (trimmed.isEmpty()) {
+			return new int[0];
+		}
+		String[] values = trimmed.split("\\s*,\\s*");
+		int[] result = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = stripFlags(Long.parseLong(values[i]));
+		}
+		return result;
+	}
+
+	static int[] decodeBase64(String data, String compression)
+			throws IOException {
+		byte[] bytes = Base64.getMimeDecoder().decode(data.trim());
+		if (compression != null) {
+			bytes = decompress(bytes, compression);
+		}
+		if (bytes.length % 4 != 0) {
+			throw new IOException("Layer data is not a sequence of gids");
+		}
+		IntBuffer gids = ByteBuffer.wrap(bytes)
+				.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		int[] result = new int[gids.remaining()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = stripFlags(gids.get(i) & 0xFFFFFFFFL);
+		}
+		return result;
+	}
+
+	private static byte[] decompress(byte[] bytes, String compression)
+			throws IOException {
+		InputStream in;
+		switch (compression) {
+		case "zlib":
+			in = new InflaterInputStream(new ByteArrayInputStream(bytes));
+			break;
+		case "gzip":
+			in = new GZIPInputStream(new ByteArrayInputStream(bytes));
+			break;
+		default:
+			throw new IOException("Unsupported layer compression: "
+					+ compression);
+		}
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(
+					4 * bytes.length);
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -93,8 +93,8 @@ public class ImageTile {
 		return getTileTypeFor(file.getName());
 	}
 
-	public Image getImage() {
-		// lazy loading
+	public synchronized Image getImage() {
+		// lazy loading, possibly ahead of time on another thread
 		if (image == null) {
 			image = GUIUtils.loadImage(file.getAbsolutePath());
 		}
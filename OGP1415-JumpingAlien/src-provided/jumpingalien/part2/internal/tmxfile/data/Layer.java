@@ -1,6 +1,7 @@
 package jumpingalien.part2.internal.tmxfile.data;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Layer {
@@ -27,6 +28,10 @@ public class Layer {
 		tiles.add(tile);
 	}
 
+	public List<ImageTile> getTiles() {
+		return Collections.unmodifiableList(tiles);
+	}
+
 	public ImageTile getTile(int tileX, int tileY) {
 		int tileIndex = (nbTilesY - tileY - 1) * nbTilesX + tileX;
 		return tiles.get(tileIndex);
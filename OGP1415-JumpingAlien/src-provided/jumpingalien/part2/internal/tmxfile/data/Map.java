@@ -1,12 +1,14 @@
 package jumpingalien.part2.internal.tmxfile.data;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class Map {
 
@@ -22,6 +24,10 @@ public class Map {
 	private final int tileSizeX;
 	private final int tileSizeY;
 
+	public static final String TERRAIN_LAYER = "Terrain";
+
+	private byte[] terrainTypes;
+
 	private String background;
 	private int initialX;
 	private int initialY;
@@ -60,11 +66,36 @@ public class Map {
 	}
 
 	public Tileset newTileSet(int gid) {
-		Tileset result = new Tileset(gid);
+		Tileset result = new Tileset(this, gid);
 		tilesets.add(result);
 		return result;
 	}
 
+	/**
+	 * Tiles indexed by their global id, so layers can look up their tiles in
+	 * constant time.
+	 */
+	private ImageTile[] tilesByGid = new ImageTile[0];
+
+	void indexTile(ImageTile tile) {
+		int gid = tile.getId();
+		if (gid < 0) {
+			return;
+		}
+		if (gid >= tilesByGid.length) {
+			tilesByGid = Arrays.copyOf(tilesByGid,
+					Math.max(gid + 1, 2 * tilesByGid.length));
+		}
+		// the first tileset defining a gid wins, as in a search over them
+		if (tilesByGid[gid] == null) {
+			tilesByGid[gid] = tile;
+		}
+	}
+
+	public List<Tileset> getTilesets() {
+		return Collections.unmodifiableList(tilesets);
+	}
+
 	public Layer newLayer(String name) {
 		Layer result = new Layer(name, nbTilesX, nbTilesY);
 		layers.add(result);
@@ -72,9 +103,10 @@ public class Map {
 	}
 
 	public Optional<ImageTile> findTile(int id) {
-		return tilesets.stream().map(ts -> ts.findTile(id))
-				.flatMap(o -> o.map(Stream::of).orElseGet(Stream::empty))
-				.findAny();
+		if (id < 0 || id >= tilesByGid.length) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(tilesByGid[id]);
 	}
 
 	public Layer getLayer(String name) {
@@ -142,7 +174,47 @@ public class Map {
 	}
 
 	public Set<MapObject> getObjects() {
-		return getObjectGroups().stream().flatMap(og -> og.getObjects().stream()).collect(Collectors.toSet());
+		return getObjectGroups().stream().flatMap(og -> og.getObjects().stream()).collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	/**
+	 * Return the type values of the tiles of the terrain layer, row by row
+	 * from the bottom row to the top row, as stored by a world.
+	 */
+	public byte[] getTerrainTypes() {
+		if (terrainTypes != null) {
+			return terrainTypes.clone();
+		}
+		byte[] result = new byte[nbTilesX * nbTilesY];
+		Layer terrain = getLayer(TERRAIN_LAYER);
+		if (terrain != null) {
+			for (int tileY = 0; tileY < nbTilesY; tileY++) {
+				for (int tileX = 0; tileX < nbTilesX; tileX++) {
+					ImageTile tile = terrain.getTile(tileX, tileY);
+					if (tile != null) {
+						result[tileY * nbTilesX + tileX] = (byte) tile
+								.getType().getValue();
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Use the given type values for the tiles of the terrain layer, instead
+	 * of the types of its images, for instance when they were compiled ahead
+	 * of time.
+	 */
+	public void setTerrainTypes(byte[] terrainTypes) {
+		if (terrainTypes.length != nbTilesX * nbTilesY) {
+			throw new IllegalArgumentException("Need a type for every tile");
+		}
+		this.terrainTypes = terrainTypes.clone();
+	}
+
+	public java.util.Map<String, String> getAttributes() {
+		return Collections.unmodifiableMap(attributes);
 	}
 
 	public void setAttribute(String name, String value) {
@@ -1,6 +1,7 @@
 package jumpingalien.part2.internal.tmxfile.data;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,7 +9,14 @@ public class Tileset {
 
 	private int firstId;
 
+	private final Map map;
+
 	public Tileset(int gid) {
+		this(null, gid);
+	}
+
+	Tileset(Map map, int gid) {
+		this.map = map;
 		this.firstId = gid;
 	}
 
@@ -17,9 +25,16 @@ public class Tileset {
 	public ImageTile newTile(int id) {
 		ImageTile result = new ImageTile(firstId + id);
 		tiles.add(result);
+		if (map != null) {
+			map.indexTile(result);
+		}
 		return result;
 	}
 
+	public List<ImageTile> getTiles() {
+		return Collections.unmodifiableList(tiles);
+	}
+
 	public int getFirstId() {
 		return firstId;
 	}
@@ -0,0 +1,57 @@
+package jumpingalien.part3;
+
+import jumpingalien.part3.internal.HeadlessSimulation;
+import jumpingalien.part3.internal.Part3Options;
+
+/**
+ * Runs a level of part 3 without a GUI and reports the model throughput.
+ *
+ * Usage: JumpingAlienPart3Headless [-level file.tmx] [-frames n] [-dt seconds]
+ * [-scale copies] [part 3 options such as -seed, -fixedstep, -updatethreads]
+ */
+public class JumpingAlienPart3Headless {
+
+	public static void main(String[] args) {
+		Part3Options options = Part3Options.parse(args);
+
+		String level = "level1.tmx";
+		int nbFrames = 1000;
+		double dt = 1.0 / 30;
+		int scale = 1;
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "-level":
+				level = args[++i];
+				break;
+			case "-frames":
+				nbFrames = Integer.parseInt(args[++i]);
+				break;
+			case "-dt":
+				dt = Double.parseDouble(args[++i]);
+				break;
+			case "-scale":
+				scale = Integer.parseInt(args[++i]);
+				break;
+			}
+		}
+
+		long startBuild = System.nanoTime();
+		HeadlessSimulation simulation = new HeadlessSimulation(options,
+				HeadlessSimulation.scaleMap(HeadlessSimulation.readMap(level),
+						scale));
+		long startRun = System.nanoTime();
+		int nbFramesRun = simulation.runFrames(nbFrames, dt);
+		long stopRun = System.nanoTime();
+
+		double seconds = (stopRun - startRun) / 1E9;
+		System.out.println(String.format(
+				"%s x%d: %d objects, built in %.1f ms",
+				level, scale, simulation.getNbGameObjects(),
+				(startRun - startBuild) / 1E6));
+		System.out.println(String.format(
+				"%d frames of %.4f s in %.3f s: %.1f ticks/s%s", nbFramesRun,
+				dt, seconds, nbFramesRun / seconds,
+				simulation.isRunning() ? "" : " (game over)"));
+	}
+
+}
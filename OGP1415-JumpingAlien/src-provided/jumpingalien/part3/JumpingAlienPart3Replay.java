@@ -0,0 +1,67 @@
+package jumpingalien.part3;
+
+import java.io.File;
+import java.io.IOException;
+
+import jumpingalien.part3.internal.HeadlessSimulation;
+import jumpingalien.part3.internal.InputReplay;
+import jumpingalien.part3.internal.Part3Options;
+
+/**
+ * Replays the input of a game of part 3 that was recorded with the option
+ * -record, without a GUI and at maximum speed. Verifies after every frame that
+ * the world is in exactly the same state as in the recorded game, and reports
+ * the model throughput.
+ *
+ * Usage: JumpingAlienPart3Replay file [-level file.tmx] [-repeat n]
+ *
+ * The level is read from the recording, unless it is given. With -repeat, the
+ * recording is replayed the given number of times, each time in a new world.
+ */
+public class JumpingAlienPart3Replay {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err
+					.println("Usage: JumpingAlienPart3Replay file [-level file.tmx] [-repeat n]");
+			System.exit(2);
+		}
+		InputReplay replay = new InputReplay(new File(args[0]));
+
+		String level = replay.getLevel();
+		int nbRepeats = 1;
+		for (int i = 1; i < args.length; i++) {
+			switch (args[i]) {
+			case "-level":
+				level = args[++i];
+				break;
+			case "-repeat":
+				nbRepeats = Integer.parseInt(args[++i]);
+				break;
+			}
+		}
+		if (level == null) {
+			System.err.println("The recording does not name its level, use -level");
+			System.exit(2);
+		}
+
+		System.out.println(String.format("%s: %d frames, %d commands", level,
+				replay.getNbFrames(), replay.getNbCommands()));
+		for (int run = 1; run <= nbRepeats; run++) {
+			HeadlessSimulation simulation = replay.createSimulation(
+					new Part3Options(), HeadlessSimulation.readMap(level));
+			InputReplay.Result result = replay.run(simulation);
+			System.out.println(String.format(
+					"run %d: %d frames in %.3f s: %.1f ticks/s", run,
+					result.nbFrames, result.modelNS / 1E9,
+					result.getTicksPerSecond()));
+			if (!result.isExact()) {
+				System.out.println("State differs from the recording after frame "
+						+ result.firstDivergentFrame);
+				System.exit(1);
+			}
+		}
+		System.out.println("All frames match the recording");
+	}
+
+}
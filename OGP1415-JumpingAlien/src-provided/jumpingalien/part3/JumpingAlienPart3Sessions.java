@@ -0,0 +1,70 @@
+package jumpingalien.part3;
+
+import jumpingalien.part3.internal.HeadlessSimulation;
+import jumpingalien.part3.internal.Part3Options;
+import jumpingalien.part3.internal.SessionHost;
+
+/**
+ * Plays many sessions of a level of part 3 side by side without a GUI, and
+ * reports how they ended and the aggregate model throughput.
+ *
+ * Usage: JumpingAlienPart3Sessions [-level file.tmx] [-sessions n] [-frames n]
+ * [-dt seconds] [-workers n] [part 3 options such as -seed, -fixedstep]
+ *
+ * Session i is seeded with the seed of the options and i, so a single session
+ * can be played again with {@link SessionHost#createSession(int)}.
+ */
+public class JumpingAlienPart3Sessions {
+
+	public static void main(String[] args) throws InterruptedException {
+		Part3Options options = Part3Options.parse(args);
+
+		String level = "level1.tmx";
+		int nbSessions = 1000;
+		int nbFrames = 300;
+		double dt = 1.0 / 30;
+		int nbWorkers = Runtime.getRuntime().availableProcessors();
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "-level":
+				level = args[++i];
+				break;
+			case "-sessions":
+				nbSessions = Integer.parseInt(args[++i]);
+				break;
+			case "-frames":
+				nbFrames = Integer.parseInt(args[++i]);
+				break;
+			case "-dt":
+				dt = Double.parseDouble(args[++i]);
+				break;
+			case "-workers":
+				nbWorkers = Integer.parseInt(args[++i]);
+				break;
+			}
+		}
+
+		SessionHost host = new SessionHost(options,
+				HeadlessSimulation.readMap(level));
+		SessionHost.Result result = host.run(nbSessions, nbFrames, dt,
+				nbWorkers);
+
+		System.out.println(String.format(
+				"%s: %d sessions of at most %d frames on %d workers",
+				level, nbSessions, nbFrames, nbWorkers));
+		System.out.println(String.format(
+				"won %d, lost %d, unfinished %d, failed %d",
+				result.nbWon.sum(), result.nbLost.sum(),
+				result.nbUnfinished.sum(), result.nbFailed.sum()));
+		System.out.println(String.format(
+				"%d frames in %.3f s: %.1f sessions/s, %.1f ticks/s, "
+						+ "parallelism %.1f", result.nbFrames.sum(),
+				result.getWallNS() / 1E9, result.getSessionsPerSecond(),
+				result.getTicksPerSecond(), result.getParallelism()));
+		if (result.nbStatementsExecuted.sum() > 0) {
+			System.out.println(String.format("%d statements executed",
+					result.nbStatementsExecuted.sum()));
+		}
+	}
+
+}
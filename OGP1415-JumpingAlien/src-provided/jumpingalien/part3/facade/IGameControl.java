@@ -0,0 +1,114 @@
+package jumpingalien.part3.facade;
+
+import jumpingalien.model.GameObject;
+import jumpingalien.model.UpdatePhase;
+import jumpingalien.model.World;
+import jumpingalien.model.WorldSnapshot;
+
+/**
+ * The methods the graphical user interface (GUI) needs to load maps quickly,
+ * to configure and measure the updates of a world, to save and restore worlds
+ * and to render them smoothly. These methods are not part of the assignment:
+ * only the GUI calls them, next to the methods of {@link IFacadePart3}.
+ *
+ * Methods in this interface are only allowed to throw exceptions of type
+ * <code>jumpingalien.util.ModelException</code>.
+ */
+public interface IGameControl {
+
+	/**
+	 * Set the types of all tiles of the given world at once, before the game
+	 * in that world starts.
+	 *
+	 * @param world
+	 *            The world whose tiles need to be modified.
+	 * @param tileTypes
+	 *            The types of the tiles, row by row from the bottom row to the
+	 *            top row, with the same values as in
+	 *            {@link IFacadePart3#setGeologicalFeature(World, int, int, int)}.
+	 */
+	public void setGeologicalFeatures(World world, byte[] tileTypes);
+
+	/**
+	 * Configure how the given world advances its time.
+	 *
+	 * @param world
+	 *            The world to configure.
+	 * @param fixedTimeStep
+	 *            The duration of the fixed time step of the world, or zero to
+	 *            let every game object advance its own time.
+	 * @param nbUpdateThreads
+	 *            The number of threads on which the world updates its game
+	 *            objects while it uses a fixed time step.
+	 * @param randomSeed
+	 *            The seed from which the random generators of the game objects
+	 *            of the world are derived.
+	 */
+	public void configureUpdates(World world, double fixedTimeStep,
+			int nbUpdateThreads, long randomSeed);
+
+	/**
+	 * Return the seed from which the random generators of the game objects of
+	 * the given world are derived.
+	 */
+	public long getRandomSeed(World world);
+
+	/**
+	 * Start measuring the time the given world spends in each phase of
+	 * advancing its time.
+	 */
+	public void enablePhaseTiming(World world);
+
+	/**
+	 * Return the total time in nanoseconds the given world has spent in the
+	 * given phase of advancing its time since it measures its phases.
+	 */
+	public long getPhaseTime(World world, UpdatePhase phase);
+
+	/**
+	 * Take a snapshot of the state of the given world and all its game
+	 * objects.
+	 */
+	public WorldSnapshot takeSnapshot(World world);
+
+	/**
+	 * Restore the given world to the state recorded in the given snapshot of
+	 * that world.
+	 */
+	public void restoreSnapshot(World world, WorldSnapshot snapshot);
+
+	/**
+	 * Check whether the given world advances its game objects in fixed time
+	 * steps, so they can be rendered between two steps.
+	 */
+	public boolean usesFixedTimeStep(World world);
+
+	/**
+	 * Return the fraction of a fixed time step that the given world has
+	 * accumulated but not yet simulated.
+	 */
+	public double getInterpolationFactor(World world);
+
+	/**
+	 * Return the location of the given game object, interpolated by the given
+	 * factor between its location at the start and at the end of the last
+	 * fixed time step of its world.
+	 *
+	 * @return An array, consisting of 2 integers {x, y}, that represents the
+	 *         coordinates of the bottom left pixel of the game object.
+	 */
+	public int[] getInterpolatedLocation(GameObject gameObject,
+			double interpolationFactor);
+
+	/**
+	 * Return the visible window of the given world, interpolated by the given
+	 * factor between its location at the start and at the end of the last
+	 * fixed time step of the world.
+	 *
+	 * @return The pixel coordinates of the visible window, in the order
+	 *         <b>left, bottom, right, top</b>.
+	 */
+	public int[] getInterpolatedVisibleWindow(World world,
+			double interpolationFactor);
+
+}
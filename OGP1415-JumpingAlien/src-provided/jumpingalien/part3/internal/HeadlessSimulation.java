@@ -0,0 +1,169 @@
+package jumpingalien.part3.internal;
+
+import java.util.HashMap;
+import java.util.Optional;
+
+import jumpingalien.common.game.IActionHandler;
+import jumpingalien.model.World;
+import jumpingalien.part2.internal.tmxfile.TMXFileReader;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part2.internal.tmxfile.data.MapObject;
+import jumpingalien.part2.internal.tmxfile.data.ObjectGroup;
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.programs.program.ProgramTemplate;
+
+/**
+ * Runs the model of part 3 without a GUI.
+ *
+ * The world is built by {@link JumpingAlienGamePart3#createModel()}, so it
+ * contains exactly the same objects and programs as when the level is played,
+ * and is then advanced with a fixed time step per frame.
+ */
+public class HeadlessSimulation {
+
+	public static final int VISIBLE_SCREEN_WIDTH = 1024;
+	public static final int VISIBLE_SCREEN_HEIGHT = 768;
+
+	private static final String TERRAIN_LAYER = "Terrain";
+	private static final String SCHOOL_ATTRIBUTE = "school";
+
+	private final JumpingAlienGamePart3 game;
+
+	private int nbFramesRun = 0;
+
+	public HeadlessSimulation(Part3Options options, Map map) {
+		this(options, map, options.getRandomSeed());
+	}
+
+	/**
+	 * Create a simulation in which the game chooses the objects that get a
+	 * program with a random generator with the given seed.
+	 */
+	public HeadlessSimulation(Part3Options options, Map map, long objectSeed) {
+		this(options, map, objectSeed, new HashMap<>());
+	}
+
+	/**
+	 * Create a simulation that takes the programs of its objects from the
+	 * given templates, and adds the templates it parses to them.
+	 */
+	public HeadlessSimulation(Part3Options options, Map map, long objectSeed,
+			java.util.Map<String, Optional<ProgramTemplate>> programTemplates) {
+		this.game = new JumpingAlienGamePart3(options, new Facade());
+		game.setHeadless(true);
+		game.shareProgramTemplates(programTemplates);
+		game.setObjectSeed(objectSeed);
+		game.setMap(map);
+		game.setVisibleScreenSize(
+				Math.min(VISIBLE_SCREEN_WIDTH, map.getPixelWidth()),
+				Math.min(VISIBLE_SCREEN_HEIGHT, map.getPixelHeight()));
+		game.start();
+	}
+
+	public static Map readMap(String filename) {
+		return new TMXFileReader("levels/").load(filename);
+	}
+
+	/**
+	 * Return a map that consists of the given number of copies of the given
+	 * map, placed next to each other from left to right.
+	 *
+	 * The slimes of all copies join the schools of the original map, because a
+	 * world has at most 10 schools. Mazub, Buzam and the target tile stay in
+	 * the first copy.
+	 */
+	public static Map scaleMap(Map map, int nbCopies) {
+		if (nbCopies < 1) {
+			throw new IllegalArgumentException("Need at least one copy");
+		}
+		if (nbCopies == 1) {
+			return map;
+		}
+		Map result = new Map(map.getNbTilesX() * nbCopies, map.getNbTilesY(),
+				map.getTileSizeX(), map.getTileSizeY());
+		result.setBackground(map.getBackground());
+		result.setInitialX(map.getInitialPositionX());
+		result.setInitialY(map.getInitialPositionY());
+		result.setTargetTileX(map.getTargetTileX());
+		result.setTargetTileY(map.getTargetTileY());
+		for (String attribute : new String[] { "initialBuzamX",
+				"initialBuzamY" }) {
+			if (map.hasAttribute(attribute)) {
+				result.setAttribute(attribute, map.getAttribute(attribute));
+			}
+		}
+
+		Layer terrain = map.getLayer(TERRAIN_LAYER);
+		Layer scaledTerrain = result.newLayer(TERRAIN_LAYER);
+		for (int tileY = map.getNbTilesY() - 1; tileY >= 0; tileY--) {
+			for (int tileX = 0; tileX < result.getNbTilesX(); tileX++) {
+				ImageTile tile = terrain.getTile(tileX % map.getNbTilesX(),
+						tileY);
+				scaledTerrain.addTile(tile);
+			}
+		}
+
+		ObjectGroup objects = result.newObjectGroup("Objects");
+		int nextId = 0;
+		for (int copy = 0; copy < nbCopies; copy++) {
+			int offset = copy * map.getPixelWidth();
+			for (MapObject obj : map.getObjects()) {
+				MapObject scaledObject = new MapObject(nextId++, obj.getTile(),
+						obj.getX() + offset, obj.getY());
+				obj.getIntAttribute(SCHOOL_ATTRIBUTE).ifPresent(
+						school -> scaledObject.setAttribute(SCHOOL_ATTRIBUTE,
+								Integer.toString(school)));
+				objects.addObject(scaledObject);
+			}
+		}
+		return result;
+	}
+
+	public World getWorld() {
+		return game.getWorld();
+	}
+
+	public int getNbGameObjects() {
+		return getWorld().getNbGameObjects();
+	}
+
+	public int getNbFramesRun() {
+		return nbFramesRun;
+	}
+
+	public IActionHandler getActionHandler() {
+		return game.getActionHandler();
+	}
+
+	public boolean isRunning() {
+		return game.isRunning();
+	}
+
+	/**
+	 * Advance the model by the given number of frames of the given duration,
+	 * or until the game is over.
+	 *
+	 * @return The number of frames that were actually advanced.
+	 */
+	public int runFrames(int nbFrames, double dt) {
+		int frame = 0;
+		while (frame < nbFrames && game.isRunning()) {
+			game.advanceTime(dt);
+			frame++;
+		}
+		nbFramesRun += frame;
+		return frame;
+	}
+
+	/**
+	 * Execute the commands that were given to the action handler, and advance
+	 * the game by one frame of the given duration, as when the level is
+	 * played.
+	 */
+	public void advanceFrame(double dt) {
+		game.advanceFrame(dt);
+		nbFramesRun++;
+	}
+}
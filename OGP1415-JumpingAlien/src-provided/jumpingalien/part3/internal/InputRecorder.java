@@ -0,0 +1,135 @@
+package jumpingalien.part3.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Writes the input of a game of part 3 to a binary log, so the game can be
+ * replayed exactly by {@link InputReplay}.
+ *
+ * The log starts with a header that holds everything needed to build the same
+ * world again: the level, the seeds of the game and of the world, and the way
+ * the world advances its time. It is followed by one record per frame, in the
+ * order of the frames:
+ * <ul>
+ * <li>a byte with flags;</li>
+ * <li>the time interval of the frame as a double, only if it differs from the
+ * one of the previous frame ({@link #FRAME_NEW_DT});</li>
+ * <li>the number of commands that were executed before the frame as a short,
+ * followed by the number of each command as a byte, only if there were any
+ * ({@link #FRAME_COMMANDS}). A command is numbered by the order in which its
+ * name first appears in the log, and the name follows the number the first
+ * time;</li>
+ * <li>the {@link StateChecksum} of the world after the frame, as a long.</li>
+ * </ul>
+ * A frame without commands in which the time interval does not change takes 9
+ * bytes. The log is flushed after every frame, so it is complete up to the
+ * last frame when the game is closed.
+ */
+public class InputRecorder implements AutoCloseable {
+
+	static final int MAGIC = 0x4A414952; // "JAIR"
+	static final int VERSION = 1;
+
+	static final int FRAME_NEW_DT = 1;
+	static final int FRAME_COMMANDS = 2;
+
+	static final int MAX_NB_COMMAND_NAMES = 256;
+
+	private final DataOutputStream out;
+
+	private final HashMap<String, Integer> commandNumbers = new HashMap<>();
+
+	private final ArrayList<String> commandNames = new ArrayList<>();
+
+	private int[] frameCommands = new int[16];
+
+	private int nbFrameCommands = 0;
+
+	private double previousDT = Double.NaN;
+
+	private long nbFrames = 0;
+
+	public InputRecorder(File file, String level, long objectSeed,
+			long worldSeed, double fixedTimeStep, int nbUpdateThreads)
+			throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)));
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeUTF(level == null ? "" : level);
+		out.writeLong(objectSeed);
+		out.writeLong(worldSeed);
+		out.writeDouble(fixedTimeStep);
+		out.writeInt(nbUpdateThreads);
+		out.flush();
+	}
+
+	public long getNbFrames() {
+		return nbFrames;
+	}
+
+	/**
+	 * Record that the command with the given name is executed before the next
+	 * frame.
+	 */
+	public void recordCommand(String name) {
+		Integer number = commandNumbers.get(name);
+		if (number == null) {
+			if (commandNames.size() == MAX_NB_COMMAND_NAMES) {
+				throw new IllegalStateException("Too many different commands");
+			}
+			number = commandNames.size();
+			commandNumbers.put(name, number);
+			commandNames.add(name);
+			number = ~number; // name not written yet
+		}
+		if (nbFrameCommands == frameCommands.length) {
+			frameCommands = Arrays.copyOf(frameCommands, 2 * nbFrameCommands);
+		}
+		frameCommands[nbFrameCommands++] = number;
+	}
+
+	/**
+	 * Record a frame of the given duration, after which the world has the
+	 * given checksum.
+	 */
+	public void recordFrame(double dt, long checksum) throws IOException {
+		boolean newDT = Double.doubleToLongBits(dt) != Double
+				.doubleToLongBits(previousDT);
+		out.writeByte((newDT ? FRAME_NEW_DT : 0)
+				| (nbFrameCommands > 0 ? FRAME_COMMANDS : 0));
+		if (newDT) {
+			out.writeDouble(dt);
+			previousDT = dt;
+		}
+		if (nbFrameCommands > 0) {
+			out.writeShort(nbFrameCommands);
+			for (int i = 0; i < nbFrameCommands; i++) {
+				int number = frameCommands[i];
+				if (number < 0) {
+					out.writeByte(~number);
+					out.writeUTF(commandNames.get(~number));
+				} else {
+					out.writeByte(number);
+				}
+			}
+			nbFrameCommands = 0;
+		}
+		out.writeLong(checksum);
+		out.flush();
+		nbFrames++;
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+}
@@ -0,0 +1,219 @@
+package jumpingalien.part3.internal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+import jumpingalien.common.game.IActionHandler;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+
+/**
+ * Replays a log written by {@link InputRecorder} without a GUI.
+ *
+ * The whole log is read before the replay starts, so the replay runs at the
+ * speed of the model alone. Every frame, the recorded commands are given to
+ * the action handler of the game as if the keys were pressed, the game is
+ * advanced by the recorded time interval and the checksum of its world is
+ * compared with the recorded one.
+ */
+public class InputReplay {
+
+	private static final java.util.Map<String, Consumer<IActionHandler>> ACTIONS = new HashMap<>();
+
+	static {
+		ACTIONS.put("startJump", IActionHandler::startJump);
+		ACTIONS.put("endJump", IActionHandler::endJump);
+		ACTIONS.put("startMoveLeft", IActionHandler::startMoveLeft);
+		ACTIONS.put("startMoveRight", IActionHandler::startMoveRight);
+		ACTIONS.put("endMoveLeft", IActionHandler::endMoveLeft);
+		ACTIONS.put("endMoveRight", IActionHandler::endMoveRight);
+		ACTIONS.put("startDuck", IActionHandler::startDuck);
+		ACTIONS.put("endDuck", IActionHandler::endDuck);
+		ACTIONS.put("quickSave", IActionHandler::quickSave);
+		ACTIONS.put("quickLoad", IActionHandler::quickLoad);
+	}
+
+	private final String level;
+	private final long objectSeed;
+	private final long worldSeed;
+	private final double fixedTimeStep;
+	private final int nbUpdateThreads;
+
+	private int nbFrames = 0;
+	private double[] frameDTs = new double[1024];
+	private long[] frameChecksums = new long[1024];
+
+	/**
+	 * The commands of frame i are at the indices from frameCommandStarts[i] up
+	 * to frameCommandStarts[i + 1].
+	 */
+	private int[] frameCommandStarts = new int[1025];
+	private final ArrayList<Consumer<IActionHandler>> commands = new ArrayList<>();
+
+	public InputReplay(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)))) {
+			if (in.readInt() != InputRecorder.MAGIC) {
+				throw new IOException(file + " is not an input log");
+			}
+			int version = in.readUnsignedByte();
+			if (version != InputRecorder.VERSION) {
+				throw new IOException("Unsupported version " + version + " of "
+						+ file);
+			}
+			String level = in.readUTF();
+			this.level = level.isEmpty() ? null : level;
+			this.objectSeed = in.readLong();
+			this.worldSeed = in.readLong();
+			this.fixedTimeStep = in.readDouble();
+			this.nbUpdateThreads = in.readInt();
+			readFrames(in);
+		}
+	}
+
+	private void readFrames(DataInputStream in) throws IOException {
+		ArrayList<Consumer<IActionHandler>> actionsByNumber = new ArrayList<>();
+		double dt = Double.NaN;
+		int flags;
+		while ((flags = in.read()) >= 0) {
+			try {
+				if ((flags & InputRecorder.FRAME_NEW_DT) != 0) {
+					dt = in.readDouble();
+				}
+				if ((flags & InputRecorder.FRAME_COMMANDS) != 0) {
+					int nbCommands = in.readUnsignedShort();
+					for (int i = 0; i < nbCommands; i++) {
+						int number = in.readUnsignedByte();
+						if (number == actionsByNumber.size()) {
+							String name = in.readUTF();
+							Consumer<IActionHandler> action = ACTIONS.get(name);
+							if (action == null) {
+								throw new IOException("Unknown command " + name
+										+ " in frame " + nbFrames);
+							}
+							actionsByNumber.add(action);
+						} else if (number > actionsByNumber.size()) {
+							throw new IOException("Unknown command number "
+									+ number + " in frame " + nbFrames);
+						}
+						commands.add(actionsByNumber.get(number));
+					}
+				}
+				long checksum = in.readLong();
+				addFrame(dt, checksum);
+			} catch (EOFException e) {
+				// the last frame was not completely written
+				break;
+			}
+		}
+	}
+
+	private void addFrame(double dt, long checksum) {
+		if (nbFrames == frameDTs.length) {
+			frameDTs = Arrays.copyOf(frameDTs, 2 * nbFrames);
+			frameChecksums = Arrays.copyOf(frameChecksums, 2 * nbFrames);
+			frameCommandStarts = Arrays.copyOf(frameCommandStarts,
+					2 * nbFrames + 1);
+		}
+		frameDTs[nbFrames] = dt;
+		frameChecksums[nbFrames] = checksum;
+		nbFrames++;
+		frameCommandStarts[nbFrames] = commands.size();
+	}
+
+	public String getLevel() {
+		return level;
+	}
+
+	public int getNbFrames() {
+		return nbFrames;
+	}
+
+	public int getNbCommands() {
+		return frameCommandStarts[nbFrames];
+	}
+
+	/**
+	 * Change the given options to build and advance the world in the same way
+	 * as in the recorded game, and return them.
+	 */
+	public Part3Options applyTo(Part3Options options) {
+		options.setRandomSeed(worldSeed);
+		options.setFixedTimeStep(fixedTimeStep);
+		options.setUpdateThreads(nbUpdateThreads);
+		options.setJMXEnabled(false);
+		return options;
+	}
+
+	/**
+	 * Create a simulation of the given map in which the recorded game can be
+	 * replayed. The map must be the recorded level.
+	 */
+	public HeadlessSimulation createSimulation(Part3Options options, Map map) {
+		return new HeadlessSimulation(applyTo(options), map, objectSeed);
+	}
+
+	/**
+	 * Replay all recorded frames in the given simulation, until the checksum
+	 * of a frame differs from the recorded one.
+	 */
+	public Result run(HeadlessSimulation simulation) {
+		IActionHandler handler = simulation.getActionHandler();
+		long modelNS = 0;
+		int frame = 0;
+		while (frame < nbFrames) {
+			for (int i = frameCommandStarts[frame]; i < frameCommandStarts[frame + 1]; i++) {
+				commands.get(i).accept(handler);
+			}
+			long start = System.nanoTime();
+			simulation.advanceFrame(frameDTs[frame]);
+			modelNS += System.nanoTime() - start;
+			long checksum = StateChecksum.of(simulation.getWorld());
+			if (checksum != frameChecksums[frame]) {
+				return new Result(frame + 1, frame, modelNS);
+			}
+			frame++;
+		}
+		return new Result(frame, -1, modelNS);
+	}
+
+	public static class Result {
+
+		/**
+		 * The number of frames that were replayed.
+		 */
+		public final int nbFrames;
+
+		/**
+		 * The first frame after which the world differs from the recorded
+		 * one, or -1 if all frames were replayed exactly.
+		 */
+		public final int firstDivergentFrame;
+
+		/**
+		 * The time spent advancing the model, in nanoseconds.
+		 */
+		public final long modelNS;
+
+		private Result(int nbFrames, int firstDivergentFrame, long modelNS) {
+			this.nbFrames = nbFrames;
+			this.firstDivergentFrame = firstDivergentFrame;
+			this.modelNS = modelNS;
+		}
+
+		public boolean isExact() {
+			return firstDivergentFrame < 0;
+		}
+
+		public double getTicksPerSecond() {
+			return nbFrames / (modelNS / 1E9);
+		}
+	}
+}
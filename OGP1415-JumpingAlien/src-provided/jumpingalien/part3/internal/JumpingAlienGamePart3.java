@@ -5,12 +5,17 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import jumpingalien.common.game.IActionHandler;
@@ -19,28 +24,35 @@ import jumpingalien.common.game.WorldInfoProvider;
 import jumpingalien.common.sprites.ImageSprite;
 import jumpingalien.common.sprites.JumpingAlienSprites;
 import jumpingalien.model.Buzam;
+import jumpingalien.model.GameObject;
 import jumpingalien.model.Mazub;
 import jumpingalien.model.Plant;
 import jumpingalien.programs.program.Program;
+import jumpingalien.programs.program.ProgramTemplate;
 import jumpingalien.model.School;
 import jumpingalien.model.Shark;
 import jumpingalien.model.Slime;
+import jumpingalien.model.UpdatePhase;
 import jumpingalien.model.World;
+import jumpingalien.model.WorldSnapshot;
 import jumpingalien.part2.internal.AlienInfoProvider2;
 import jumpingalien.part2.internal.ObjectInfoProvider;
 import jumpingalien.part2.internal.Part2WorldInfoProvider;
+import jumpingalien.part2.internal.SchoolSprites;
 import jumpingalien.part2.internal.tmxfile.TMXFileReader;
-import jumpingalien.part2.internal.tmxfile.data.ImageTile;
 import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
-import jumpingalien.part2.internal.tmxfile.data.Layer;
 import jumpingalien.part2.internal.tmxfile.data.Map;
 import jumpingalien.part2.internal.tmxfile.data.MapObject;
 import jumpingalien.part3.facade.IFacadePart3;
+import jumpingalien.part3.facade.IGameControl;
 import jumpingalien.part3.programs.ParseOutcome;
 import jumpingalien.util.Sprite;
+import ogp.framework.command.Command;
+import ogp.framework.game.TripleBuffer;
 import ogp.framework.messages.Message;
 import ogp.framework.messages.MessageType;
 import ogp.framework.util.GUIUtils;
+import ogp.framework.util.LatencyHistogram;
 
 public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
@@ -54,30 +66,218 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 	private int tileSize;
 	private final ObjectInfoProvider objectInfoProvider;
+	private final SchoolSprites schoolSprites = new SchoolSprites();
 	private String currentMap;
 
+	/**
+	 * Chooses which objects get a program. It is seeded with objectSeed every
+	 * time the model is created.
+	 */
 	private final Random random;
 
+	/**
+	 * The seed of the random generator that chooses which objects get a
+	 * program, the next time the model is created.
+	 */
+	private long objectSeed;
+
+	void setObjectSeed(long objectSeed) {
+		this.objectSeed = objectSeed;
+	}
+
 	public JumpingAlienGamePart3(Part3Options options, IFacadePart3 facade) {
 		super(options, facade);
-		this.random = new Random(options.getRandomSeed());
+		this.gameControl = facade instanceof IGameControl ? (IGameControl) facade
+				: null;
+		this.random = new Random();
+		this.objectSeed = options.getRandomSeed();
 		this.objectInfoProvider = createObjectInfoProvider();
 		this.evilTwinProvider = createEvilTwinInfoProvider();
+		this.renderedAlienInfoProvider = RenderSnapshot.alienProvider(
+				this::getFrameSnapshot, RenderSnapshot::getAlien);
+		this.renderedEvilTwinProvider = RenderSnapshot.alienProvider(
+				this::getFrameSnapshot, RenderSnapshot::getBuzam);
+		this.renderedObjectInfoProvider = RenderSnapshot.objectProvider(
+				this::getFrameSnapshot, schoolSprites);
+		this.renderedWorldInfoProvider = RenderSnapshot.worldProvider(
+				this::getFrameSnapshot, getModelWorldInfoProvider());
+		for (UpdatePhase phase : WORLD_PHASES) {
+			String name = phase.name().charAt(0)
+					+ phase.name().substring(1).toLowerCase(Locale.ROOT);
+			worldPhaseTimes[phase.ordinal()] = getPhaseTimings().get(name);
+		}
+	}
+
+	private static final UpdatePhase[] WORLD_PHASES = UpdatePhase.values();
+
+	/**
+	 * The durations of the phases of advancing the time of the world in every
+	 * update, indexed by the ordinal of the phase.
+	 */
+	private final LatencyHistogram[] worldPhaseTimes = new LatencyHistogram[WORLD_PHASES.length];
+
+	/**
+	 * The total time the world had spent in each phase after the previous
+	 * update.
+	 */
+	private final long[] previousWorldPhaseTimes = new long[WORLD_PHASES.length];
+
+	private void recordWorldPhaseTimes() {
+		if (!hasGameControl()) {
+			return;
+		}
+		for (UpdatePhase phase : WORLD_PHASES) {
+			long total = getGameControl().getPhaseTime(getWorld(), phase);
+			worldPhaseTimes[phase.ordinal()].record(total
+					- previousWorldPhaseTimes[phase.ordinal()]);
+			previousWorldPhaseTimes[phase.ordinal()] = total;
+		}
+	}
+
+	/**
+	 * Snapshots of the model, handed over from the simulation thread to the
+	 * thread that paints, when the game is updated on its own thread.
+	 */
+	private final TripleBuffer<RenderSnapshot> renderSnapshots = new TripleBuffer<>(
+			RenderSnapshot.EMPTY);
+
+	/**
+	 * The snapshot that is painted in the current frame; only accessed by the
+	 * thread that paints.
+	 */
+	private RenderSnapshot frameSnapshot = RenderSnapshot.EMPTY;
+
+	private final AlienInfoProvider2<Mazub> renderedAlienInfoProvider;
+	private final AlienInfoProvider2<Buzam> renderedEvilTwinProvider;
+	private final ObjectInfoProvider renderedObjectInfoProvider;
+	private final Part2WorldInfoProvider renderedWorldInfoProvider;
+
+	private RenderSnapshot getFrameSnapshot() {
+		return frameSnapshot;
+	}
+
+	@Override
+	public double getUpdateRate() {
+		if (getOptions().isDeterministic()) {
+			return 0;
+		}
+		return getOptions().getUpdateRate();
+	}
+
+	@Override
+	protected void publishRenderState() {
+		if (getWorld() == null || getAlien() == null) {
+			renderSnapshots.publish(RenderSnapshot.EMPTY);
+		} else {
+			renderSnapshots.publish(RenderSnapshot.capture(
+					getModelWorldInfoProvider(), getModelAlienInfoProvider(),
+					evilTwinProvider, objectInfoProvider));
+		}
+	}
+
+	@Override
+	public void acquireRenderState() {
+		frameSnapshot = renderSnapshots.take();
 	}
 
+	/**
+	 * Restart the game. The world is restored in place from the snapshot that
+	 * was taken when it started, so the same objects with the same programs
+	 * start over without reading or building anything again. Only a game
+	 * without such a snapshot, because there is no world yet or because the
+	 * facade cannot take snapshots, builds a new world.
+	 */
 	@Override
-	public void restart() {
+	public synchronized void restart() {
+		if (startSnapshot != null && startSnapshot.getWorld() == getWorld()) {
+			getGameControl().restoreSnapshot(getWorld(), startSnapshot);
+			quickSnapshot = null;
+			startRecording(startSeed);
+			setPause(false);
+			return;
+		}
 		this.world = null;
 		this.alien = null;
 
 		super.restart();
 	}
 
+	/**
+	 * The snapshot of the world right after the game started, or null if
+	 * there is no world yet.
+	 */
+	private WorldSnapshot startSnapshot;
+
+	/**
+	 * The seed with which the objects of the current world were chosen.
+	 */
+	private long startSeed;
+
+	/**
+	 * The snapshot of the world at the last quick save, or null if there was
+	 * none since the game started.
+	 */
+	private WorldSnapshot quickSnapshot;
+
+	/**
+	 * Take a snapshot of the world. Only called while executing a command, so
+	 * the snapshot is taken between two updates.
+	 */
+	void quickSave() {
+		if (!hasGameControl()) {
+			addMessage(new Message(MessageType.WARNING,
+					"The facade cannot save the world"));
+			return;
+		}
+		quickSnapshot = getGameControl().takeSnapshot(getWorld());
+		addMessage(new Message(MessageType.INFO, "Saved"));
+	}
+
+	/**
+	 * Resume a game that is over, so it executes the command to load the last
+	 * quick save in its next update. Nothing happens if there is no quick save.
+	 */
+	synchronized void resumeForQuickLoad() {
+		if (quickSnapshot != null && !isRunning()) {
+			setPause(false);
+		}
+	}
+
+	/**
+	 * Restore the world from the last quick save, if there was one.
+	 */
+	void quickLoad() {
+		if (quickSnapshot != null) {
+			getGameControl().restoreSnapshot(getWorld(), quickSnapshot);
+			addMessage(new Message(MessageType.INFO, "Loaded"));
+		}
+	}
+
 	@Override
 	public IFacadePart3 getFacade() {
 		return (IFacadePart3) super.getFacade();
 	}
 
+	/**
+	 * The methods of the facade that only the GUI uses, or null if the facade
+	 * does not implement them.
+	 */
+	private IGameControl getGameControl() {
+		return gameControl;
+	}
+
+	/**
+	 * Check whether the facade implements the methods that only the GUI uses.
+	 * Without them, the tiles are set one by one, the world is rebuilt on
+	 * restart, quick saves and recordings are not available and the world is
+	 * rendered without interpolation.
+	 */
+	private boolean hasGameControl() {
+		return gameControl != null;
+	}
+
+	private final IGameControl gameControl;
+
 	@Override
 	public Part3Options getOptions() {
 		return (Part3Options) super.getOptions();
@@ -87,19 +287,9 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 		try {
 			TMXFileReader reader = new TMXFileReader("levels/");
 
-			map = reader.read(filename);
-
-			if (map.getTileSizeY() != map.getTileSizeX()) {
-				throw new IllegalArgumentException(
-						"Can only work with square tile sizes");
-			}
-
-			if (map.getLayer("Terrain") == null) {
-				throw new IllegalArgumentException(
-						"The map must have a layer called 'Terrain'");
-			}
-
-			tileSize = map.getTileSizeY();
+			long start = System.nanoTime();
+			setMap(reader.readWithImages(filename));
+			reportLoadTime(filename, start);
 		} catch (Throwable e) {
 			addMessage(new Message(MessageType.ERROR, "Error while reading "
 					+ filename + ": " + e.getMessage()));
@@ -109,6 +299,27 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 		return true;
 	}
 
+	private void reportLoadTime(String filename, long start) {
+		long elapsed = (System.nanoTime() - start) / 1000000;
+		addMessage(new Message(MessageType.INFO, "Loaded " + filename + " in "
+				+ elapsed + " ms"));
+	}
+
+	void setMap(Map map) {
+		if (map.getTileSizeY() != map.getTileSizeX()) {
+			throw new IllegalArgumentException(
+					"Can only work with square tile sizes");
+		}
+
+		if (map.getLayer("Terrain") == null) {
+			throw new IllegalArgumentException(
+					"The map must have a layer called 'Terrain'");
+		}
+
+		this.map = map;
+		this.tileSize = map.getTileSizeY();
+	}
+
 	@Override
 	public void load() {
 	}
@@ -124,6 +335,17 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 				map.getNbTilesY(), getVisibleScreenWidth(),
 				getVisibleScreenHeight(), map.getTargetTileX(),
 				map.getTargetTileY()));
+		if (hasGameControl()) {
+			getGameControl().configureUpdates(getWorld(),
+					getOptions().getFixedTimeStep(),
+					getOptions().getUpdateThreads(),
+					getOptions().getRandomSeed());
+			getGameControl().enablePhaseTiming(getWorld());
+		}
+		Arrays.fill(previousWorldPhaseTimes, 0);
+
+		long seed = objectSeed;
+		random.setSeed(seed);
 
 		setTileTypes();
 
@@ -133,8 +355,111 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 		addMazub();
 
+		objectSeed = random.nextLong();
+
 		// no more object creations or tile changes after starting
 		getFacade().startGame(getWorld());
+
+		startSnapshot = hasGameControl() ? getGameControl().takeSnapshot(
+				getWorld()) : null;
+		startSeed = seed;
+		quickSnapshot = null;
+
+		if (!headless) {
+			prewarmSchoolSprites();
+		}
+
+		if (monitor != null) {
+			monitor.unregister();
+		}
+		monitor = getOptions().isJMXEnabled() ? WorldMonitor.register(this,
+				getWorld(), currentMap, session) : null;
+
+		startRecording(seed);
+	}
+
+	/**
+	 * Records the input of the current game, or null if it is not recorded.
+	 */
+	private InputRecorder recorder;
+
+	private int nbRecordings = 0;
+
+	private void startRecording(long objectSeed) {
+		stopRecording();
+		String file = getOptions().getRecordFile();
+		if (file == null) {
+			return;
+		}
+		if (!hasGameControl()) {
+			addMessage(new Message(MessageType.WARNING, "Cannot record to "
+					+ file + ": the facade cannot configure the world"));
+			return;
+		}
+		nbRecordings++;
+		if (nbRecordings > 1) {
+			file = file + "." + nbRecordings;
+		}
+		try {
+			recorder = new InputRecorder(new File(file), currentMap,
+					objectSeed, getGameControl().getRandomSeed(getWorld()),
+					getOptions().getFixedTimeStep(),
+					getOptions().getUpdateThreads());
+		} catch (IOException e) {
+			addMessage(new Message(MessageType.ERROR, "Cannot record to "
+					+ file + ": " + e.getMessage()));
+		}
+	}
+
+	private void stopRecording() {
+		if (recorder != null) {
+			try {
+				recorder.close();
+			} catch (IOException e) {
+				System.err.println("Error while closing the recording: "
+						+ e.getMessage());
+			}
+			recorder = null;
+		}
+	}
+
+	@Override
+	protected void executeCommand(Command command) {
+		if (recorder != null) {
+			recorder.recordCommand(command.getName());
+		}
+		super.executeCommand(command);
+	}
+
+	@Override
+	protected void advanceFrame(double dt) {
+		super.advanceFrame(dt);
+		if (recorder != null) {
+			try {
+				recorder.recordFrame(dt, StateChecksum.of(getWorld()));
+			} catch (IOException e) {
+				addMessage(new Message(MessageType.ERROR,
+						"Stopped recording: " + e.getMessage()));
+				stopRecording();
+			}
+		}
+	}
+
+	private final int session = WorldMonitor.newSession();
+
+	/**
+	 * The MBean of the current world, or null if it is not registered.
+	 */
+	private WorldMonitor monitor;
+
+	private void prewarmSchoolSprites() {
+		Set<School> slimeSchools = new LinkedHashSet<>();
+		for (Slime slime : objectInfoProvider.getSlimes()) {
+			objectInfoProvider.getSchool(slime).ifPresent(slimeSchools::add);
+		}
+		schoolSprites.clear();
+		schoolSprites.prewarm(slimeSchools, Resources.SLIME_SPRITE_LEFT,
+				Resources.SLIME_SPRITE_RIGHT);
 	}
 
 	private void addGameObjects() {
@@ -168,15 +493,31 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 		getFacade().addBuzam(getWorld(), buzam);
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Returns a new program for the given resource file. The file is read and
+	 * parsed only the first time; every later program shares the parsed
+	 * template and only gets its own variables and execution state.
+	 */
 	public Optional<Program> parseProgram(String filename) {
+		return programTemplates.computeIfAbsent(filename,
+				this::parseProgramTemplate).map(ProgramTemplate::createProgram);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Optional<ProgramTemplate> parseProgramTemplate(String filename) {
 		try {
 			InputStream is = GUIUtils.openResource(filename);
 			BufferedReader br = new BufferedReader(new InputStreamReader(is));
 			String text = br.lines().collect(Collectors.joining("\n"));
 			ParseOutcome<?> outcome = getFacade().parse(text);
 			if (outcome.isSuccess()) {
-				return Optional.ofNullable((Program) outcome.getResult());
+				Program program = (Program) outcome.getResult();
+				if (program.getOptimizer() != null
+						&& program.getOptimizer().hasOptimized()) {
+					addMessage(new Message(MessageType.INFO, "Optimized "
+							+ filename + ": " + program.getOptimizer()));
+				}
+				return Optional.of(new ProgramTemplate(text, program));
 			} else {
 				System.out.println("Errors while parsing program '" + filename
 						+ "':");
@@ -192,19 +533,39 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 		return Optional.empty();
 	}
 
-	private void setTileTypes() {
-		Layer terrainLayer = map.getLayer("Terrain");
+	private java.util.Map<String, Optional<ProgramTemplate>> programTemplates = new HashMap<>();
+
+	/**
+	 * Use the given templates, by resource file, for the programs of this
+	 * game, so games that run side by side parse each file only once. The
+	 * given map must be safe for concurrent use if the games run on different
+	 * threads.
+	 */
+	void shareProgramTemplates(
+			java.util.Map<String, Optional<ProgramTemplate>> programTemplates) {
+		this.programTemplates = programTemplates;
+	}
+
+	/**
+	 * Whether this game is never painted, so it need not prepare any images.
+	 */
+	private boolean headless = false;
+
+	void setHeadless(boolean headless) {
+		this.headless = headless;
+	}
 
+	private void setTileTypes() {
+		if (hasGameControl()) {
+			getGameControl().setGeologicalFeatures(getWorld(),
+					map.getTerrainTypes());
+			return;
+		}
+		byte[] tileTypes = map.getTerrainTypes();
 		for (int tileY = 0; tileY < map.getNbTilesY(); tileY++) {
 			for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
-				ImageTile tile = terrainLayer.getTile(tileX, tileY);
-				if (tile != null) {
-					getFacade().setGeologicalFeature(getWorld(), tileX, tileY,
-							tile.getType().getValue());
-				} else {
-					getFacade().setGeologicalFeature(getWorld(), tileX, tileY,
-							TileType.AIR.getValue());
-				}
+				getFacade().setGeologicalFeature(getWorld(), tileX, tileY,
+						tileTypes[tileY * map.getNbTilesX() + tileX]);
 			}
 		}
 	}
@@ -333,13 +694,19 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 		return alien;
 	}
 
-	private World getWorld() {
+	World getWorld() {
 		return world;
 	}
 
 	@Override
 	protected void advanceTime(double dt) {
+		WorldMonitor monitor = this.monitor;
+		long allocated = monitor == null ? 0 : monitor.startTick();
 		getFacade().advanceTime(getWorld(), dt);
+		if (monitor != null) {
+			monitor.endTick(allocated);
+		}
+		recordWorldPhaseTimes();
 		if (getFacade().isGameOver(getWorld())) {
 			stop();
 		}
@@ -352,6 +719,17 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 	@Override
 	public AlienInfoProvider2<Mazub> getAlienInfoProvider() {
+		if (isUpdatedOnOwnThread()) {
+			return renderedAlienInfoProvider;
+		}
+		return getModelAlienInfoProvider();
+	}
+
+	/**
+	 * Return the provider that reads Mazub from the model directly, whether or
+	 * not the game is updated on its own thread.
+	 */
+	private AlienInfoProvider2<Mazub> getModelAlienInfoProvider() {
 		return (AlienInfoProvider2<Mazub>) super.getAlienInfoProvider();
 	}
 
@@ -366,7 +744,8 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getAlienXY() {
-				return catchErrorGet(() -> getFacade().getLocation(getAlien()));
+				return catchErrorGet(() -> getRenderLocation(getAlien(),
+						() -> getFacade().getLocation(getAlien())));
 			}
 
 			@Override
@@ -414,7 +793,8 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getAlienXY() {
-				return catchErrorGet(() -> getFacade().getLocation(getAlien()));
+				return catchErrorGet(() -> getRenderLocation(getAlien(),
+						() -> getFacade().getLocation(getAlien())));
 			}
 
 			@Override
@@ -458,8 +838,7 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getVisibleWindow() {
-				return catchErrorGet(() -> getFacade().getVisibleWindow(
-						getWorld()));
+				return catchErrorGet(() -> getRenderVisibleWindow());
 			}
 
 			@Override
@@ -511,6 +890,17 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 	@Override
 	public Part2WorldInfoProvider getWorldInfoProvider() {
+		if (isUpdatedOnOwnThread()) {
+			return renderedWorldInfoProvider;
+		}
+		return getModelWorldInfoProvider();
+	}
+
+	/**
+	 * Return the provider that reads the world from the model directly,
+	 * whether or not the game is updated on its own thread.
+	 */
+	private Part2WorldInfoProvider getModelWorldInfoProvider() {
 		return (Part2WorldInfoProvider) super.getWorldInfoProvider();
 	}
 
@@ -537,7 +927,8 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getLocation(Slime slime) {
-				return Optional.of(getFacade().getLocation(slime));
+				return Optional.of(getRenderLocation(slime,
+						() -> getFacade().getLocation(slime)));
 			}
 
 			@Override
@@ -551,7 +942,8 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getLocation(Shark shark) {
-				return Optional.of(getFacade().getLocation(shark));
+				return Optional.of(getRenderLocation(shark,
+						() -> getFacade().getLocation(shark)));
 			}
 
 			@Override
@@ -565,7 +957,8 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getLocation(Plant plant) {
-				return Optional.of(getFacade().getLocation(plant));
+				return Optional.of(getRenderLocation(plant,
+						() -> getFacade().getLocation(plant)));
 			}
 
 			@Override
@@ -591,10 +984,49 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 				return catchErrorGet(() -> getFacade().getSchool(slime));
 			}
 
+			@Override
+			public SchoolSprites getSchoolSprites() {
+				return schoolSprites;
+			}
+
 		};
 	}
 
+	/**
+	 * Return the location at which the given object is rendered: its location
+	 * in the model, or, if the world uses a fixed time step, its location
+	 * interpolated within the last step. The world only changes in updates,
+	 * so all objects and the visible window of a frame are interpolated by
+	 * the same factor.
+	 */
+	private int[] getRenderLocation(GameObject object,
+			Supplier<int[]> facadeLocation) {
+		int[] location = facadeLocation.get();
+		if (location == null || !hasGameControl()
+				|| !getGameControl().usesFixedTimeStep(getWorld())) {
+			return location;
+		}
+		return getGameControl().getInterpolatedLocation(object,
+				getGameControl().getInterpolationFactor(getWorld()));
+	}
+
+	/**
+	 * Return the visible window that is rendered, interpolated within the
+	 * last fixed time step like the objects it shows.
+	 */
+	private int[] getRenderVisibleWindow() {
+		if (!hasGameControl()
+				|| !getGameControl().usesFixedTimeStep(getWorld())) {
+			return getFacade().getVisibleWindow(getWorld());
+		}
+		return getGameControl().getInterpolatedVisibleWindow(getWorld(),
+				getGameControl().getInterpolationFactor(getWorld()));
+	}
+
 	public ObjectInfoProvider getObjectInfoProvider() {
+		if (isUpdatedOnOwnThread()) {
+			return renderedObjectInfoProvider;
+		}
 		return objectInfoProvider;
 	}
 
@@ -603,6 +1035,9 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 	}
 
 	public AlienInfoProvider2<Buzam> getEvilTwinInfoProvider() {
+		if (isUpdatedOnOwnThread()) {
+			return renderedEvilTwinProvider;
+		}
 		return evilTwinProvider;
 	}
 }
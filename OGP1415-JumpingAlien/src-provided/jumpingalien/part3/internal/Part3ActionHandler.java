@@ -27,41 +27,52 @@ public class Part3ActionHandler extends AbstractActionHandler<Mazub, IFacadePart
 
 	@Override
 	public void startJump() {
-		addAlienCommand("startJump", getFacade()::startJump);
+		addAlienCommand("startJump", IFacadePart3::startJump);
 	}
 
 	@Override
 	public void endJump() {
-		addAlienCommand("endJump", getFacade()::endJump);
+		addAlienCommand("endJump", IFacadePart3::endJump);
 	}
 
 	@Override
 	public void startMoveLeft() {
-		addAlienCommand("startMoveLeft", getFacade()::startMoveLeft);
+		addAlienCommand("startMoveLeft", IFacadePart3::startMoveLeft);
 	}
 
 	@Override
 	public void startMoveRight() {
-		addAlienCommand("startMoveRight", getFacade()::startMoveRight);
+		addAlienCommand("startMoveRight", IFacadePart3::startMoveRight);
 	}
 
 	@Override
 	public void endMoveLeft() {
-		addAlienCommand("endMoveLeft", getFacade()::endMoveLeft);
+		addAlienCommand("endMoveLeft", IFacadePart3::endMoveLeft);
 	}
 
 	@Override
 	public void endMoveRight() {
-		addAlienCommand("endMoveRight", getFacade()::endMoveRight);
+		addAlienCommand("endMoveRight", IFacadePart3::endMoveRight);
 	}
 
 	@Override
 	public void startDuck() {
-		addAlienCommand("startDuck", getFacade()::startDuck);
+		addAlienCommand("startDuck", IFacadePart3::startDuck);
 	}
 
 	@Override
 	public void endDuck() {
-		addAlienCommand("endDuck", getFacade()::endDuck);
+		addAlienCommand("endDuck", IFacadePart3::endDuck);
+	}
+
+	@Override
+	public void quickSave() {
+		addAlienCommand("quickSave", (facade, alien) -> getGame().quickSave());
+	}
+
+	@Override
+	public void quickLoad() {
+		addAlienCommand("quickLoad", (facade, alien) -> getGame().quickLoad());
+		getGame().resumeForQuickLoad();
 	}
 }
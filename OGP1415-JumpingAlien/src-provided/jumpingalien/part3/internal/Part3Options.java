@@ -14,6 +14,77 @@ public class Part3Options extends Part2Options {
 		this.randomSeed = randomSeed;
 	}
 
+	/**
+	 * Duration of the fixed simulation step of the world (in seconds), or 0
+	 * to let every game object advance by the frame time.
+	 */
+	private double fixedTimeStep = 0;
+
+	public double getFixedTimeStep() {
+		return fixedTimeStep;
+	}
+
+	public void setFixedTimeStep(double fixedTimeStep) {
+		this.fixedTimeStep = fixedTimeStep;
+	}
+
+	/**
+	 * Whether the game is updated once per frame on the thread that paints it,
+	 * instead of on its own thread.
+	 */
+	private boolean deterministic = false;
+
+	public boolean isDeterministic() {
+		return deterministic;
+	}
+
+	public void setDeterministic(boolean deterministic) {
+		this.deterministic = deterministic;
+	}
+
+	/**
+	 * Number of updates per second when the game is updated on its own
+	 * thread.
+	 */
+	private double updateRate = 60;
+
+	public double getUpdateRate() {
+		return updateRate;
+	}
+
+	public void setUpdateRate(double updateRate) {
+		this.updateRate = updateRate;
+	}
+
+	/**
+	 * Whether the world of the game is registered as an MBean, so it can be
+	 * monitored with JMX clients such as jconsole.
+	 */
+	private boolean jmxEnabled = true;
+
+	public boolean isJMXEnabled() {
+		return jmxEnabled;
+	}
+
+	public void setJMXEnabled(boolean jmxEnabled) {
+		this.jmxEnabled = jmxEnabled;
+	}
+
+	/**
+	 * The file to which the input of every started game is recorded, so it
+	 * can be replayed with {@link jumpingalien.part3.JumpingAlienPart3Replay},
+	 * or null to not record the input.
+	 */
+	private String recordFile = null;
+
+	public String getRecordFile() {
+		return recordFile;
+	}
+
+	public void setRecordFile(String recordFile) {
+		this.recordFile = recordFile;
+	}
+
 	public static Part3Options parse(String[] args) {
 		Part3Options options = new Part3Options();
 
@@ -23,6 +94,24 @@ public class Part3Options extends Part2Options {
 			case "-seed":
 				options.setRandomSeed(Long.parseLong(args[++i]));
 				break;
+			case "-fixedstep":
+				options.setFixedTimeStep(Double.parseDouble(args[++i]));
+				break;
+			case "-deterministic":
+				options.setDeterministic(Boolean.parseBoolean(args[++i]));
+				break;
+			case "-updaterate":
+				options.setUpdateRate(Double.parseDouble(args[++i]));
+				break;
+			case "-jmx":
+				options.setJMXEnabled(Boolean.parseBoolean(args[++i]));
+				break;
+			case "-record":
+				options.setRecordFile(args[++i]);
+				break;
+			case "-updatethreads":
+				options.setUpdateThreads(Integer.parseInt(args[++i]));
+				break;
 			case "-targetfps":
 				options.setTargetFPS(Integer.parseInt(args[++i]));
 				break;
@@ -48,6 +137,9 @@ public class Part3Options extends Part2Options {
 			case "-showtiletypes":
 				options.setDebugShowTileTypes(Boolean.parseBoolean(args[++i]));
 				break;
+			case "-statsfile":
+				options.setStatsFile(args[++i]);
+				break;
 			}
 		}
 
@@ -0,0 +1,341 @@
+package jumpingalien.part3.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import jumpingalien.common.sprites.ImageSprite;
+import jumpingalien.model.Buzam;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.Plant;
+import jumpingalien.model.School;
+import jumpingalien.model.Shark;
+import jumpingalien.model.Slime;
+import jumpingalien.part2.internal.AlienInfoProvider2;
+import jumpingalien.part2.internal.ObjectInfoProvider;
+import jumpingalien.part2.internal.Part2WorldInfoProvider;
+import jumpingalien.part2.internal.SchoolSprites;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
+import jumpingalien.util.Sprite;
+
+/**
+ * An immutable copy of everything the painters of part 3 read from the model,
+ * taken on the simulation thread after an update.
+ *
+ * The model objects it holds only serve as keys, and the arrays it holds are
+ * shared, so they must not be modified.
+ */
+final class RenderSnapshot {
+
+	static final RenderSnapshot EMPTY = new RenderSnapshot();
+
+	static final class AlienState<T> {
+		private final T alien;
+		private final int[] xy;
+		private final int[] size;
+		private final Sprite sprite;
+		private final double[] velocity;
+		private final double[] acceleration;
+		private final Integer health;
+		private final Boolean immune;
+
+		private AlienState(AlienInfoProvider2<T> provider) {
+			this.alien = provider.getAlien();
+			this.xy = provider.getAlienXY().orElse(null);
+			this.size = provider.getAlienSize().orElse(null);
+			this.sprite = provider.getPlayerSprite().orElse(null);
+			this.velocity = provider.getAlienVelocity().orElse(null);
+			this.acceleration = provider.getAlienAcceleration().orElse(null);
+			this.health = provider.getAlienHealth().orElse(null);
+			this.immune = provider.isImmune().orElse(null);
+		}
+	}
+
+	private static final class ObjectState {
+		private final int[] location;
+		private final ImageSprite sprite;
+		private final School school;
+
+		private ObjectState(int[] location, ImageSprite sprite, School school) {
+			this.location = location;
+			this.sprite = sprite;
+			this.school = school;
+		}
+	}
+
+	private final int[] visibleWindow;
+	private final int[] worldSize;
+	private final int tileLength;
+	private final Boolean gameOver;
+	private final Boolean playerWon;
+
+	private final AlienState<Mazub> alien;
+	private final AlienState<Buzam> buzam;
+
+	private final List<Plant> plants;
+	private final List<Shark> sharks;
+	private final List<Slime> slimes;
+	private final IdentityHashMap<Object, ObjectState> objects;
+
+	private RenderSnapshot() {
+		this.visibleWindow = null;
+		this.worldSize = null;
+		this.tileLength = 0;
+		this.gameOver = null;
+		this.playerWon = null;
+		this.alien = null;
+		this.buzam = null;
+		this.plants = Collections.emptyList();
+		this.sharks = Collections.emptyList();
+		this.slimes = Collections.emptyList();
+		this.objects = new IdentityHashMap<>();
+	}
+
+	private RenderSnapshot(Part2WorldInfoProvider world,
+			AlienInfoProvider2<Mazub> alien, AlienInfoProvider2<Buzam> buzam,
+			ObjectInfoProvider objects) {
+		this.visibleWindow = world.getVisibleWindow().orElse(null);
+		this.worldSize = world.getWorldSize().orElse(null);
+		this.tileLength = world.getTileLength();
+		this.gameOver = world.isGameOver().orElse(null);
+		this.playerWon = world.didPlayerWin().orElse(null);
+		this.alien = alien.getAlien() == null ? null : new AlienState<>(alien);
+		this.buzam = buzam.getAlien() == null ? null : new AlienState<>(buzam);
+
+		this.objects = new IdentityHashMap<>();
+		this.plants = Collections.unmodifiableList(new ArrayList<>(objects
+				.getPlants()));
+		for (Plant plant : plants) {
+			this.objects.put(plant, new ObjectState(objects.getLocation(plant)
+					.orElse(null), objects.getCurrentSprite(plant).orElse(null),
+					null));
+		}
+		this.sharks = Collections.unmodifiableList(new ArrayList<>(objects
+				.getSharks()));
+		for (Shark shark : sharks) {
+			this.objects.put(shark, new ObjectState(objects.getLocation(shark)
+					.orElse(null), objects.getCurrentSprite(shark).orElse(null),
+					null));
+		}
+		this.slimes = Collections.unmodifiableList(new ArrayList<>(objects
+				.getSlimes()));
+		for (Slime slime : slimes) {
+			this.objects.put(slime, new ObjectState(objects.getLocation(slime)
+					.orElse(null), objects.getCurrentSprite(slime).orElse(null),
+					objects.getSchool(slime).orElse(null)));
+		}
+	}
+
+	/**
+	 * Take a snapshot of the model through the given providers.
+	 */
+	static RenderSnapshot capture(Part2WorldInfoProvider world,
+			AlienInfoProvider2<Mazub> alien, AlienInfoProvider2<Buzam> buzam,
+			ObjectInfoProvider objects) {
+		return new RenderSnapshot(world, alien, buzam, objects);
+	}
+
+	AlienState<Mazub> getAlien() {
+		return alien;
+	}
+
+	AlienState<Buzam> getBuzam() {
+		return buzam;
+	}
+
+	private Optional<ObjectState> getState(Object object) {
+		return Optional.ofNullable(objects.get(object));
+	}
+
+	/**
+	 * Return a provider of the state of an alien in the snapshots given by
+	 * the given supplier.
+	 */
+	static <T> AlienInfoProvider2<T> alienProvider(
+			Supplier<RenderSnapshot> snapshots,
+			Function<RenderSnapshot, AlienState<T>> alien) {
+		return new AlienInfoProvider2<T>() {
+
+			private Optional<AlienState<T>> getState() {
+				return Optional.ofNullable(alien.apply(snapshots.get()));
+			}
+
+			@Override
+			public T getAlien() {
+				return getState().map(state -> state.alien).orElse(null);
+			}
+
+			@Override
+			public Optional<int[]> getAlienXY() {
+				return getState().map(state -> state.xy);
+			}
+
+			@Override
+			public Optional<int[]> getAlienSize() {
+				return getState().map(state -> state.size);
+			}
+
+			@Override
+			public Optional<Sprite> getPlayerSprite() {
+				return getState().map(state -> state.sprite);
+			}
+
+			@Override
+			public Optional<double[]> getAlienVelocity() {
+				return getState().map(state -> state.velocity);
+			}
+
+			@Override
+			public Optional<double[]> getAlienAcceleration() {
+				return getState().map(state -> state.acceleration);
+			}
+
+			@Override
+			public Optional<Integer> getAlienHealth() {
+				return getState().map(state -> state.health);
+			}
+
+			@Override
+			public Optional<Boolean> isImmune() {
+				return getState().map(state -> state.immune);
+			}
+		};
+	}
+
+	/**
+	 * Return a provider of the game objects in the snapshots given by the
+	 * given supplier.
+	 */
+	static ObjectInfoProvider objectProvider(
+			Supplier<RenderSnapshot> snapshots, SchoolSprites schoolSprites) {
+		return new ObjectInfoProvider() {
+
+			@Override
+			public Collection<Slime> getSlimes() {
+				return snapshots.get().slimes;
+			}
+
+			@Override
+			public Collection<Shark> getSharks() {
+				return snapshots.get().sharks;
+			}
+
+			@Override
+			public Collection<Plant> getPlants() {
+				return snapshots.get().plants;
+			}
+
+			@Override
+			public Optional<int[]> getLocation(Plant plant) {
+				return snapshots.get().getState(plant).map(
+						state -> state.location);
+			}
+
+			@Override
+			public Optional<int[]> getLocation(Shark shark) {
+				return snapshots.get().getState(shark).map(
+						state -> state.location);
+			}
+
+			@Override
+			public Optional<int[]> getLocation(Slime slime) {
+				return snapshots.get().getState(slime).map(
+						state -> state.location);
+			}
+
+			@Override
+			public Optional<ImageSprite> getCurrentSprite(Plant plant) {
+				return snapshots.get().getState(plant).map(
+						state -> state.sprite);
+			}
+
+			@Override
+			public Optional<ImageSprite> getCurrentSprite(Shark shark) {
+				return snapshots.get().getState(shark).map(
+						state -> state.sprite);
+			}
+
+			@Override
+			public Optional<ImageSprite> getCurrentSprite(Slime slime) {
+				return snapshots.get().getState(slime).map(
+						state -> state.sprite);
+			}
+
+			@Override
+			public Optional<School> getSchool(Slime slime) {
+				return snapshots.get().getState(slime).map(
+						state -> state.school);
+			}
+
+			@Override
+			public SchoolSprites getSchoolSprites() {
+				return schoolSprites;
+			}
+		};
+	}
+
+	/**
+	 * Return a provider of the state of the world in the snapshots given by
+	 * the given supplier.
+	 *
+	 * The tiles of a world do not change once the game has started, so
+	 * questions about tiles are passed on to the given provider of the model.
+	 */
+	static Part2WorldInfoProvider worldProvider(
+			Supplier<RenderSnapshot> snapshots, Part2WorldInfoProvider model) {
+		return new Part2WorldInfoProvider() {
+
+			@Override
+			public Optional<int[]> getWorldSize() {
+				return Optional.ofNullable(snapshots.get().worldSize);
+			}
+
+			@Override
+			public Optional<int[]> getVisibleWindow() {
+				return Optional.ofNullable(snapshots.get().visibleWindow);
+			}
+
+			@Override
+			public int getTileLength() {
+				RenderSnapshot snapshot = snapshots.get();
+				if (snapshot == EMPTY) {
+					return model.getTileLength();
+				}
+				return snapshot.tileLength;
+			}
+
+			@Override
+			public Optional<int[][]> getTilesIn(int left, int bottom,
+					int right, int top) {
+				return model.getTilesIn(left, bottom, right, top);
+			}
+
+			@Override
+			public Optional<TileType> getGeologicalFeature(int bottomLeftX,
+					int bottomLeftY) {
+				return model.getGeologicalFeature(bottomLeftX, bottomLeftY);
+			}
+
+			@Override
+			public Optional<int[]> getBottomLeftPixelOfTile(int tileX,
+					int tileY) {
+				return model.getBottomLeftPixelOfTile(tileX, tileY);
+			}
+
+			@Override
+			public Optional<Boolean> isGameOver() {
+				return Optional.ofNullable(snapshots.get().gameOver);
+			}
+
+			@Override
+			public Optional<Boolean> didPlayerWin() {
+				return Optional.ofNullable(snapshots.get().playerWon);
+			}
+		};
+	}
+}
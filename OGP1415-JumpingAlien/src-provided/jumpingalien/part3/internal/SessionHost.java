@@ -0,0 +1,180 @@
+package jumpingalien.part3.internal;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import jumpingalien.model.World;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.programs.program.ProgramTemplate;
+
+/**
+ * Plays many independent sessions of a level of part 3 side by side, without
+ * a GUI and without input, for instance to evaluate the programs of the
+ * enemies or the design of the level.
+ *
+ * Every session is a {@link HeadlessSimulation} with a world of its own, run
+ * as one task on a work-stealing pool. The sessions share the level, whose
+ * terrain is converted once, and the programs, which are parsed once per
+ * file. Each session gets its own seed, derived from the seed of the options
+ * and the number of the session, for choosing the objects that get a program
+ * and for the random generators of its world, so a session can be played
+ * again on its own.
+ *
+ * Sessions advance their worlds on their own task, so the number of update
+ * threads of the options is ignored.
+ */
+public class SessionHost {
+
+	private final Part3Options options;
+	private final Map map;
+
+	private final java.util.Map<String, Optional<ProgramTemplate>> programTemplates = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a host for sessions of the given level, with the given options.
+	 * The host converts the terrain of the given map once; the map must not
+	 * be changed afterwards.
+	 */
+	public SessionHost(Part3Options options, Map map) {
+		this.options = options;
+		this.map = map;
+		map.setTerrainTypes(map.getTerrainTypes());
+	}
+
+	/**
+	 * Return the seed of the session with the given number.
+	 */
+	public long getSessionSeed(int session) {
+		return options.getRandomSeed() + 0x9E3779B97F4A7C15L * (session + 1);
+	}
+
+	/**
+	 * Return options for the session with the given number.
+	 */
+	private Part3Options createSessionOptions(int session) {
+		Part3Options sessionOptions = new Part3Options();
+		sessionOptions.setRandomSeed(getSessionSeed(session));
+		sessionOptions.setFixedTimeStep(options.getFixedTimeStep());
+		sessionOptions.setUpdateThreads(1);
+		sessionOptions.setJMXEnabled(false);
+		return sessionOptions;
+	}
+
+	/**
+	 * Create the simulation of the session with the given number.
+	 */
+	public HeadlessSimulation createSession(int session) {
+		Part3Options sessionOptions = createSessionOptions(session);
+		return new HeadlessSimulation(sessionOptions, map,
+				sessionOptions.getRandomSeed(), programTemplates);
+	}
+
+	/**
+	 * Play the given number of sessions on the given number of threads. Each
+	 * session is advanced by at most the given number of frames of the given
+	 * duration, and ends earlier when its game is over.
+	 */
+	public Result run(int nbSessions, int nbFrames, double dt, int nbThreads)
+			throws InterruptedException {
+		Result result = new Result(nbSessions);
+		ForkJoinPool pool = new ForkJoinPool(nbThreads);
+		long start = System.nanoTime();
+		try {
+			for (int session = 0; session < nbSessions; session++) {
+				int number = session;
+				pool.execute(() -> play(number, nbFrames, dt, result));
+			}
+			pool.shutdown();
+			pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} finally {
+			pool.shutdownNow();
+		}
+		result.wallNS = System.nanoTime() - start;
+		return result;
+	}
+
+	private void play(int session, int nbFrames, double dt, Result result) {
+		long start = System.nanoTime();
+		try {
+			HeadlessSimulation simulation = createSession(session);
+			int nbFramesRun = simulation.runFrames(nbFrames, dt);
+			World world = simulation.getWorld();
+			result.nbFrames.add(nbFramesRun);
+			result.nbStatementsExecuted.add(world.getNbStatementsExecuted());
+			if (!world.getGameOver()) {
+				result.nbUnfinished.increment();
+			} else if (world.getDidPlayerWin()) {
+				result.nbWon.increment();
+			} else {
+				result.nbLost.increment();
+			}
+		} catch (RuntimeException e) {
+			result.nbFailed.increment();
+			System.err.println("Session " + session + " failed: " + e);
+		}
+		result.sessionNS.add(System.nanoTime() - start);
+	}
+
+	/**
+	 * The aggregate outcome of a number of sessions. The counters may be read
+	 * while the sessions are still running.
+	 */
+	public static class Result {
+
+		public final int nbSessions;
+
+		public final LongAdder nbWon = new LongAdder();
+		public final LongAdder nbLost = new LongAdder();
+
+		/**
+		 * The sessions whose game was not over after the last frame.
+		 */
+		public final LongAdder nbUnfinished = new LongAdder();
+
+		/**
+		 * The sessions in which the model threw an exception.
+		 */
+		public final LongAdder nbFailed = new LongAdder();
+
+		public final LongAdder nbFrames = new LongAdder();
+		public final LongAdder nbStatementsExecuted = new LongAdder();
+
+		/**
+		 * The time spent building and playing the sessions, summed over all
+		 * sessions, in nanoseconds.
+		 */
+		public final LongAdder sessionNS = new LongAdder();
+
+		/**
+		 * The time between starting the first session and the end of the last
+		 * one, in nanoseconds.
+		 */
+		private long wallNS;
+
+		private Result(int nbSessions) {
+			this.nbSessions = nbSessions;
+		}
+
+		public long getWallNS() {
+			return wallNS;
+		}
+
+		public double getSessionsPerSecond() {
+			return nbSessions / (wallNS / 1E9);
+		}
+
+		public double getTicksPerSecond() {
+			return nbFrames.sum() / (wallNS / 1E9);
+		}
+
+		/**
+		 * Return how many sessions ran at the same time on average.
+		 */
+		public double getParallelism() {
+			return sessionNS.sum() / (double) wallNS;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package jumpingalien.part3.internal;
+
+import jumpingalien.model.GameObject;
+import jumpingalien.model.World;
+
+/**
+ * Computes a checksum of the state of a world, to verify that a replayed game
+ * follows exactly the same course as the recorded one.
+ *
+ * The checksum covers the exact location, velocity and hit points of every
+ * game object, including the player and Buzam, in the order of the list of
+ * game objects of the world, and whether the game is over. Two worlds that advance with the same input
+ * and seeds have the same checksum after every frame; a single differing bit
+ * in one of these values changes it.
+ */
+public class StateChecksum {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private StateChecksum() {
+	}
+
+	public static long of(World world) {
+		long hash = FNV_OFFSET;
+		hash = mix(hash, world.getGameOver() ? 1 : 0);
+		hash = mix(hash, world.getDidPlayerWin() ? 1 : 0);
+		hash = mix(hash, world.getNbGameObjects());
+		// The list of game objects of a world includes the player and Buzam,
+		// in front of the other game objects, in a fixed order.
+		for (int index = 0; index < world.getNbGameObjects(); index++) {
+			GameObject gameObject = world.getGameObjectAtIndex(index);
+			if (gameObject != null) {
+				hash = mix(hash, gameObject);
+			}
+		}
+		return hash;
+	}
+
+	private static long mix(long hash, GameObject gameObject) {
+		hash = mix(hash, Double.doubleToLongBits(gameObject
+				.getHorizontalLocation()));
+		hash = mix(hash, Double.doubleToLongBits(gameObject
+				.getVerticalLocation()));
+		hash = mix(hash, Double.doubleToLongBits(gameObject
+				.getHorizontalVelocity()));
+		hash = mix(hash, Double.doubleToLongBits(gameObject
+				.getVerticalVelocity()));
+		return mix(hash, gameObject.getHitPoints());
+	}
+
+	private static long mix(long hash, long value) {
+		for (int i = 0; i < 8; i++) {
+			hash ^= value & 0xff;
+			hash *= FNV_PRIME;
+			value >>>= 8;
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,264 @@
+package jumpingalien.part3.internal;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jumpingalien.model.GameObject;
+import jumpingalien.model.School;
+import jumpingalien.model.Slime;
+import jumpingalien.model.World;
+
+/**
+ * Exposes the world of a running game of part 3 as an MBean.
+ *
+ * The object counts are read while holding the lock of the game, so they are
+ * never read while the world is updated. The event counts are read from the
+ * counters of the world (see {@link World#COUNTS_EVENTS}).
+ */
+public class WorldMonitor implements WorldMonitorMBean {
+
+	private static final AtomicInteger nextSession = new AtomicInteger();
+
+	private static final long SAMPLE_PERIOD_NS = 1_000_000_000L;
+
+	/**
+	 * Return a new number to tell the worlds of different games apart.
+	 */
+	public static int newSession() {
+		return nextSession.incrementAndGet();
+	}
+
+	/**
+	 * Register an MBean for the given world of a game with the given lock, or
+	 * return null if it cannot be registered.
+	 */
+	public static WorldMonitor register(Object gameLock, World world,
+			String level, int session) {
+		try {
+			ObjectName name = new ObjectName("jumpingalien:type=World,level="
+					+ ObjectName.quote(level == null ? "unnamed" : level) + ",session="
+					+ session);
+			WorldMonitor monitor = new WorldMonitor(gameLock, world, name);
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(monitor, name);
+			return monitor;
+		} catch (JMException | SecurityException e) {
+			System.err.println("Could not register the world with JMX: " + e);
+			return null;
+		}
+	}
+
+	private final Object gameLock;
+
+	private final World world;
+
+	private final ObjectName name;
+
+	private final com.sun.management.ThreadMXBean threads;
+
+	private final LongAdder allocatedBytes = new LongAdder();
+
+	private WorldMonitor(Object gameLock, World world, ObjectName name) {
+		this.gameLock = gameLock;
+		this.world = world;
+		this.name = name;
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threads)
+						.isThreadAllocatedMemorySupported()) {
+			this.threads = (com.sun.management.ThreadMXBean) threads;
+			this.threads.setThreadAllocatedMemoryEnabled(true);
+		} else {
+			this.threads = null;
+		}
+		this.sample = new Sample(this);
+	}
+
+	public void unregister() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		} catch (JMException e) {
+			// already unregistered
+		}
+	}
+
+	/**
+	 * Return the number of bytes the current thread has allocated so far, to
+	 * be passed to {@link #endTick(long)} after the world has advanced.
+	 */
+	public long startTick() {
+		if (threads == null) {
+			return 0;
+		}
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	public void endTick(long allocatedAtStart) {
+		if (threads != null) {
+			allocatedBytes.add(threads.getThreadAllocatedBytes(Thread
+					.currentThread().getId()) - allocatedAtStart);
+		}
+	}
+
+	@Override
+	public int getNbPlants() {
+		synchronized (gameLock) {
+			return world.getPlants().size();
+		}
+	}
+
+	@Override
+	public int getNbSharks() {
+		synchronized (gameLock) {
+			return world.getSharks().size();
+		}
+	}
+
+	@Override
+	public int getNbSlimes() {
+		synchronized (gameLock) {
+			return world.getSlimes().size();
+		}
+	}
+
+	@Override
+	public int getNbAliens() {
+		synchronized (gameLock) {
+			return (world.getMazub() == null ? 0 : 1)
+					+ (world.getBuzam() == null ? 0 : 1);
+		}
+	}
+
+	@Override
+	public int getNbSchools() {
+		synchronized (gameLock) {
+			Set<School> schools = Collections
+					.newSetFromMap(new IdentityHashMap<>());
+			for (Slime slime : world.getSlimes()) {
+				if (slime.getSchool() != null) {
+					schools.add(slime.getSchool());
+				}
+			}
+			return schools.size();
+		}
+	}
+
+	@Override
+	public int getNbDeadObjects() {
+		synchronized (gameLock) {
+			int result = 0;
+			for (GameObject gameObject : world.getAllGameObjects()) {
+				if (gameObject != null && gameObject.getHitPoints() <= 0) {
+					result++;
+				}
+			}
+			return result;
+		}
+	}
+
+	@Override
+	public long getNbTicks() {
+		return world.getNbTicks();
+	}
+
+	@Override
+	public long getNbStatementsExecuted() {
+		return world.getNbStatementsExecuted();
+	}
+
+	@Override
+	public long getNbCollisionChecks() {
+		return world.getNbCollisionChecks();
+	}
+
+	@Override
+	public long getNbTerrainQueries() {
+		return world.getNbTerrainQueries();
+	}
+
+	@Override
+	public double getStatementsPerSecond() {
+		return sample().statementsPerSecond;
+	}
+
+	@Override
+	public double getCollisionChecksPerTick() {
+		return sample().collisionChecksPerTick;
+	}
+
+	@Override
+	public double getTerrainQueriesPerTick() {
+		return sample().terrainQueriesPerTick;
+	}
+
+	@Override
+	public double getAllocatedBytesPerTick() {
+		if (threads == null) {
+			return -1;
+		}
+		return sample().allocatedBytesPerTick;
+	}
+
+	@Override
+	public boolean isCountingEvents() {
+		return World.COUNTS_EVENTS;
+	}
+
+	private static class Sample {
+		private final long timeNS = System.nanoTime();
+		private final long ticks, statements, collisionChecks, terrainQueries,
+				allocatedBytes;
+		private double statementsPerSecond, collisionChecksPerTick,
+				terrainQueriesPerTick, allocatedBytesPerTick;
+
+		private Sample(WorldMonitor monitor) {
+			this.ticks = monitor.getNbTicks();
+			this.statements = monitor.getNbStatementsExecuted();
+			this.collisionChecks = monitor.getNbCollisionChecks();
+			this.terrainQueries = monitor.getNbTerrainQueries();
+			this.allocatedBytes = monitor.allocatedBytes.sum();
+		}
+
+		private void computeRates(Sample previous) {
+			double seconds = (timeNS - previous.timeNS) / 1e9;
+			long nbTicks = ticks - previous.ticks;
+			statementsPerSecond = (statements - previous.statements) / seconds;
+			if (nbTicks > 0) {
+				collisionChecksPerTick = (collisionChecks - previous.collisionChecks)
+						/ (double) nbTicks;
+				terrainQueriesPerTick = (terrainQueries - previous.terrainQueries)
+						/ (double) nbTicks;
+				allocatedBytesPerTick = (allocatedBytes - previous.allocatedBytes)
+						/ (double) nbTicks;
+			}
+		}
+	}
+
+	private Sample sample;
+
+	/**
+	 * Return the sample with the rates over the last whole second, taking a
+	 * new sample if a second has passed since the previous one.
+	 */
+	private synchronized Sample sample() {
+		if (System.nanoTime() - sample.timeNS >= SAMPLE_PERIOD_NS) {
+			Sample next = new Sample(this);
+			next.computeRates(sample);
+			sample = next;
+		}
+		return sample;
+	}
+
+}
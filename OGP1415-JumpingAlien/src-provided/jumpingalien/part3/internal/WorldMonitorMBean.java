@@ -0,0 +1,49 @@
+package jumpingalien.part3.internal;
+
+/**
+ * The attributes of the world of a running game of part 3, as shown by JMX
+ * clients such as jconsole.
+ *
+ * Rates are measured over the last whole second in which they were read.
+ */
+public interface WorldMonitorMBean {
+
+	public int getNbPlants();
+
+	public int getNbSharks();
+
+	public int getNbSlimes();
+
+	public int getNbAliens();
+
+	public int getNbSchools();
+
+	/**
+	 * The number of game objects that are dead, but not removed from the
+	 * world yet.
+	 */
+	public int getNbDeadObjects();
+
+	public long getNbTicks();
+
+	public long getNbStatementsExecuted();
+
+	public long getNbCollisionChecks();
+
+	public long getNbTerrainQueries();
+
+	public double getStatementsPerSecond();
+
+	public double getCollisionChecksPerTick();
+
+	public double getTerrainQueriesPerTick();
+
+	/**
+	 * The number of bytes allocated by the thread that updates the game per
+	 * tick, or -1 if the virtual machine does not measure it.
+	 */
+	public double getAllocatedBytesPerTick();
+
+	public boolean isCountingEvents();
+
+}
@@ -25,6 +25,9 @@ import java.util.Map;
  * {@link IProgramFactory#createProgram(Object, Map)} method is called with the
  * main statement and map of global variables.
  * 
+ * Before a program is parsed, the {@link IProgramFactory#startProgram()}
+ * method is called, so a factory can be used to parse several programs.
+ * 
  */
 public interface IProgramFactory<E, S, T, P> {
 
@@ -357,4 +360,12 @@ public interface IProgramFactory<E, S, T, P> {
 	 */
 	P createProgram(S mainStatement, Map<String, T> globalVariables);
 
+	/**
+	 * Called before the parser creates the first expression, statement or
+	 * type of a new program. Factories that keep track of what they have
+	 * created for the program being parsed forget it here.
+	 */
+	default void startProgram() {
+	}
+
 }
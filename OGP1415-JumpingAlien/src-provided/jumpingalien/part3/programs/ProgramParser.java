@@ -105,6 +105,7 @@ public class ProgramParser<E, S, T, P> {
 	 */
 	protected Optional<P> parse(CharStream input) {
 		reset();
+		factory.startProgram();
 
 		JumpingAlienProgLexer lexer = new JumpingAlienProgLexer(input);
 		JumpingAlienProgParser parser = new JumpingAlienProgParser(
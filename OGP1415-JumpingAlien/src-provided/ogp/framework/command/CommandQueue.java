@@ -1,35 +1,163 @@
 package ogp.framework.command;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
 
 /**
  * Command queue is the link between the main thread (game and display updates)
  * and the AWT event queue thread (reactions to key presses and mouse input).
- * 
- * This class is (supposed to be) thread-safe.
- * 
+ *
+ * The queue is a bounded ring of slots that are allocated once. Commands can
+ * be added from any number of threads without locking; when the queue is full,
+ * the command is dropped and counted instead of blocking the thread that adds
+ * it. Commands must be taken out of the queue by one thread at a time. Adding
+ * and draining commands does not allocate, so commands that are added often
+ * should be created once and reused.
+ *
  * @author koeny
  *
  */
 public class CommandQueue {
 
-	private final LinkedBlockingQueue<Command> queue = new LinkedBlockingQueue<Command>();
+	public static final int DEFAULT_CAPACITY = 256;
+
+	private final Command[] slots;
+
+	/**
+	 * For every slot, the position in the queue for which it is ready: a slot
+	 * holds the command at position p when its sequence is p + 1, and can be
+	 * filled for position p when its sequence is p. Writing a sequence
+	 * publishes the slot to the other side.
+	 */
+	private final AtomicLongArray sequences;
+
+	private final int mask;
+
+	/**
+	 * The position of the next command to be added.
+	 */
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * The position of the next command to be taken. Only written by the thread
+	 * that drains the queue.
+	 */
+	private volatile long head = 0;
+
+	private final AtomicLong nbDropped = new AtomicLong();
+
+	public CommandQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a queue for the given number of commands, rounded up to a power
+	 * of two.
+	 */
+	public CommandQueue(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Invalid capacity " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size *= 2;
+		}
+		this.slots = new Command[size];
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+		this.mask = size - 1;
+	}
+
+	public int getCapacity() {
+		return slots.length;
+	}
+
+	/**
+	 * Add the given command to this queue.
+	 *
+	 * @return False if the queue is full, in which case the command is
+	 *         dropped.
+	 */
+	public boolean add(Command command) {
+		while (true) {
+			long position = tail.get();
+			int index = (int) position & mask;
+			long sequence = sequences.get(index);
+			if (sequence == position) {
+				if (tail.compareAndSet(position, position + 1)) {
+					slots[index] = command;
+					sequences.set(index, position + 1);
+					return true;
+				}
+			} else if (sequence < position) {
+				nbDropped.incrementAndGet();
+				return false;
+			}
+		}
+	}
 
-	public void add(Command command) {
-		queue.add(command);
+	/**
+	 * Return the number of commands that were dropped because this queue was
+	 * full.
+	 */
+	public long getNbDroppedCommands() {
+		return nbDropped.get();
 	}
 
-	public List<Command> getAndClearPendingCommands() {
-		LinkedList<Command> result = new LinkedList<Command>();
-		queue.drainTo(result);
-		return result;
+	/**
+	 * Take all commands that are in this queue, and give them to the given
+	 * action in the order in which they were added. Commands that are added
+	 * while draining may or may not be taken.
+	 *
+	 * Only one thread at a time may drain this queue.
+	 *
+	 * @return The number of commands taken.
+	 */
+	public int drain(Consumer<? super Command> action) {
+		int nbTaken = 0;
+		long position = head;
+		long end = tail.get();
+		while (position < end) {
+			int index = (int) position & mask;
+			if (sequences.get(index) != position + 1) {
+				break; // claimed, but not written yet
+			}
+			Command command = slots[index];
+			slots[index] = null;
+			sequences.set(index, position + slots.length);
+			position++;
+			head = position;
+			nbTaken++;
+			action.accept(command);
+		}
+		return nbTaken;
 	}
 
-	public List<Command> peekPendingCommands() {
-		LinkedList<Command> result = new LinkedList<Command>(queue);
-		return result;
+	/**
+	 * Give the commands that are in this queue to the given action, in the
+	 * order in which they were added, without taking them out of the queue.
+	 *
+	 * The queue may be changed by other threads meanwhile: commands that are
+	 * taken during the iteration are not given to the action anymore.
+	 */
+	public void forEachPending(Consumer<? super Command> action) {
+		long position = head;
+		long end = tail.get();
+		while (position < end) {
+			int index = (int) position & mask;
+			if (sequences.get(index) != position + 1) {
+				break;
+			}
+			Command command = slots[index];
+			if (command == null || sequences.get(index) != position + 1) {
+				break; // taken while reading it
+			}
+			action.accept(command);
+			position++;
+		}
 	}
 
 }
@@ -1,12 +1,14 @@
 package ogp.framework.game;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import ogp.framework.command.Command;
 import ogp.framework.command.CommandQueue;
 import ogp.framework.messages.Message;
 import ogp.framework.messages.MessageBox;
+import ogp.framework.messages.MessageType;
+import ogp.framework.util.LatencyHistogram;
 
 public abstract class Game {
 	
@@ -24,31 +26,125 @@ public abstract class Game {
 	
 	private final MessageBox messageBox = new MessageBox();
 
+	private final PhaseTimings phaseTimings = new PhaseTimings();
+
+	private final LatencyHistogram updateTimes = phaseTimings.get("Update");
+
+	/**
+	 * Return the histograms of the durations of the phases of this game. The
+	 * duration of every update is recorded as the phase "Update".
+	 */
+	public PhaseTimings getPhaseTimings() {
+		return phaseTimings;
+	}
+
 	public abstract void load();
 	
 	public abstract void start();
 
-	public final void update(double dt) {
+	/**
+	 * Update this game by the given time interval.
+	 * 
+	 * Updates are serialized with {@link #start()} and with the publication of
+	 * the state to paint, so a game can be updated on another thread than the
+	 * one that starts it.
+	 */
+	public final synchronized void update(double dt) {
+		long start = System.nanoTime();
 		messageBox.advanceTime(dt);
 		doUpdate(dt);
+		updateTimes.record(System.nanoTime() - start);
 	}
 	
 	protected abstract void doUpdate(double dt);
 
+	/**
+	 * Return the number of times per second this game is to be updated on its
+	 * own thread, or 0 to update it once per frame on the thread that paints
+	 * it.
+	 */
+	public double getUpdateRate() {
+		return 0;
+	}
+
+	private volatile boolean updatedOnOwnThread = false;
+
+	/**
+	 * Return whether this game is updated on a {@link SimulationThread}, in
+	 * which case its painters must only read the state it publishes.
+	 */
+	public boolean isUpdatedOnOwnThread() {
+		return updatedOnOwnThread;
+	}
+
+	void setUpdatedOnOwnThread(boolean updatedOnOwnThread) {
+		this.updatedOnOwnThread = updatedOnOwnThread;
+	}
+
+	final synchronized void publishRenderStateNow() {
+		publishRenderState();
+	}
+
+	/**
+	 * Publish the state that is painted, after this game has been updated on
+	 * its own thread.
+	 */
+	protected void publishRenderState() {
+	}
+
+	/**
+	 * Take the latest published state, to paint the next frame from. Called
+	 * by the thread that paints, when this game is updated on its own thread.
+	 */
+	public void acquireRenderState() {
+	}
+
+	/**
+	 * Add the given command, to be executed with the next update. The command
+	 * is dropped if too many commands are pending.
+	 */
 	protected void addCommand(Command command) {
 		commandQueue.add(command);
 	}
 
-	public List<Command> peekPendingCommands() {
-		return commandQueue.peekPendingCommands();
+	/**
+	 * Give the pending commands to the given action, without removing them.
+	 */
+	public void forEachPendingCommand(Consumer<? super Command> action) {
+		commandQueue.forEachPending(action);
 	}
 
+	/**
+	 * Return the number of commands that were dropped because too many
+	 * commands were pending.
+	 */
+	public long getNbDroppedCommands() {
+		return commandQueue.getNbDroppedCommands();
+	}
+
+	private long nbDroppedCommandsReported = 0;
+
+	private final Consumer<Command> commandExecutor = this::executeCommand;
+
 	protected void executePendingCommands() {
-		for (Command cmd : commandQueue.getAndClearPendingCommands()) {
-			cmd.execute();
+		commandQueue.drain(commandExecutor);
+		long nbDropped = commandQueue.getNbDroppedCommands();
+		if (nbDropped > nbDroppedCommandsReported) {
+			addMessage(new Message(MessageType.WARNING, "Ignored "
+					+ (nbDropped - nbDroppedCommandsReported)
+					+ " commands, the game cannot keep up with the input"));
+			nbDroppedCommandsReported = nbDropped;
 		}
 	}
 	
+	/**
+	 * Execute the given pending command. Subclasses can override this to
+	 * observe every command that is executed, in order.
+	 */
+	protected void executeCommand(Command command) {
+		command.execute();
+	}
+
 	public void addMessage(Message message) {
 		messageBox.addMessage(message);
 	}
@@ -0,0 +1,47 @@
+package ogp.framework.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import ogp.framework.util.LatencyHistogram;
+
+/**
+ * The histograms of the durations of the phases of a game, such as updating
+ * and painting it, in the order in which the phases were first asked for.
+ *
+ * Phases can be asked for from any thread. Intervals must be taken by one
+ * thread at a time.
+ */
+public class PhaseTimings {
+
+	private final List<LatencyHistogram> histograms = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Return the histogram of the durations of the phase with the given name,
+	 * which is created when it is first asked for.
+	 */
+	public synchronized LatencyHistogram get(String phase) {
+		for (LatencyHistogram histogram : histograms) {
+			if (histogram.getName().equals(phase)) {
+				return histogram;
+			}
+		}
+		LatencyHistogram histogram = new LatencyHistogram(phase);
+		histograms.add(histogram);
+		return histogram;
+	}
+
+	/**
+	 * Return the durations of every phase since the previous interval was
+	 * taken.
+	 */
+	public List<LatencyHistogram.Summary> takeIntervals() {
+		List<LatencyHistogram.Summary> result = new ArrayList<>();
+		for (LatencyHistogram histogram : histograms) {
+			result.add(histogram.takeInterval());
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,72 @@
+package ogp.framework.game;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Updates a game on its own thread with a fixed time step, independently of
+ * how long it takes to paint its frames.
+ *
+ * After every round of updates, the game publishes the state that is to be
+ * painted (see {@link Game#publishRenderState()}).
+ */
+public class SimulationThread extends Thread {
+
+	/**
+	 * The maximal number of updates to catch up with real time at once. When
+	 * the game cannot keep up, the time it lags behind is dropped, so in-game
+	 * time runs slower instead of the updates piling up.
+	 */
+	private static final int MAX_UPDATES_AT_ONCE = 5;
+
+	private final Game game;
+
+	private final double timeStep;
+
+	private volatile boolean stopped = false;
+
+	public SimulationThread(Game game, double updateRate) {
+		super("Simulation");
+		if (!(updateRate > 0)) {
+			throw new IllegalArgumentException("Update rate must be positive");
+		}
+		this.game = game;
+		this.timeStep = 1 / updateRate;
+		setDaemon(true);
+		game.setUpdatedOnOwnThread(true);
+	}
+
+	public double getTimeStep() {
+		return timeStep;
+	}
+
+	@Override
+	public void run() {
+		long timeStepNS = (long) (timeStep * 1e9);
+		long nextUpdateNS = System.nanoTime();
+		while (!stopped) {
+			int nbUpdates = 0;
+			while (System.nanoTime() - nextUpdateNS >= 0
+					&& nbUpdates < MAX_UPDATES_AT_ONCE) {
+				game.update(timeStep);
+				nextUpdateNS += timeStepNS;
+				nbUpdates++;
+			}
+			if (nbUpdates > 0) {
+				game.publishRenderStateNow();
+			}
+			if (nbUpdates == MAX_UPDATES_AT_ONCE) {
+				nextUpdateNS = System.nanoTime();
+			}
+			long sleepNS = nextUpdateNS - System.nanoTime();
+			if (sleepNS > 0) {
+				LockSupport.parkNanos(sleepNS);
+			}
+		}
+	}
+
+	public void shutdown() {
+		stopped = true;
+		LockSupport.unpark(this);
+	}
+
+}
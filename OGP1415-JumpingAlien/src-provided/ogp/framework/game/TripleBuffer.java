@@ -0,0 +1,70 @@
+package ogp.framework.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands values over from one writer thread to one reader thread without
+ * locking.
+ *
+ * The buffer has three slots: the writer fills its back slot and swaps it with
+ * the middle slot, and the reader swaps the middle slot with its front slot
+ * when the writer has published something new. Neither thread ever waits for
+ * the other, and the reader always gets the latest published value; values
+ * that are published faster than they are read are skipped.
+ *
+ * This class is thread-safe for exactly one writer and one reader.
+ */
+public class TripleBuffer<T> {
+
+	private static final int INDEX_MASK = 0x3;
+
+	/**
+	 * Set in the state when the middle slot holds a value the reader has not
+	 * taken yet.
+	 */
+	private static final int FRESH = 0x4;
+
+	private final Object[] slots = new Object[3];
+
+	/**
+	 * The index of the middle slot, possibly with the FRESH flag. Swapping
+	 * slots through this atomic also makes the contents of the slots visible
+	 * to the other thread.
+	 */
+	private final AtomicInteger state = new AtomicInteger(1);
+
+	/**
+	 * Only accessed by the writer.
+	 */
+	private int back = 0;
+
+	/**
+	 * Only accessed by the reader.
+	 */
+	private int front = 2;
+
+	public TripleBuffer(T initial) {
+		slots[front] = initial;
+	}
+
+	/**
+	 * Publish the given value to the reader. Only to be called by the writer.
+	 */
+	public void publish(T value) {
+		slots[back] = value;
+		back = state.getAndSet(back | FRESH) & INDEX_MASK;
+	}
+
+	/**
+	 * Return the latest published value, or the last value returned if
+	 * nothing was published since. Only to be called by the reader.
+	 */
+	@SuppressWarnings("unchecked")
+	public T take() {
+		if ((state.get() & FRESH) != 0) {
+			front = state.getAndSet(front) & INDEX_MASK;
+		}
+		return (T) slots[front];
+	}
+
+}
@@ -6,8 +6,11 @@ import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
 
 import ogp.framework.game.Game;
+import ogp.framework.game.SimulationThread;
 
 public abstract class GUI<TGame extends Game> {
 
@@ -25,7 +28,8 @@ public abstract class GUI<TGame extends Game> {
 		this.options = options;
 		this.frame = new Frame();
 		this.screenPanel = createScreenPanel();
-		this.fpsCounter = new TimeKeeper(options.getTargetFPS());
+		this.fpsCounter = new TimeKeeper(options.getTargetFPS(),
+				game.getPhaseTimings());
 	}
 
 	public GUIOptions getGUIOptions() {
@@ -71,13 +75,28 @@ public abstract class GUI<TGame extends Game> {
 
 	private void gameLoop() {
 
+		SimulationThread simulation = null;
+		if (game.getUpdateRate() > 0) {
+			simulation = new SimulationThread(game, game.getUpdateRate());
+			simulation.start();
+		}
+
+		PerformanceLog log = openPerformanceLog();
+		if (log != null) {
+			fpsCounter.setStatsListener(log::log);
+		}
+
 		fpsCounter.start();
 
 		while (!stopped) {
 
 			double dt = fpsCounter.getTimeToAdvance();
 
-			game.update(dt);
+			if (simulation == null) {
+				game.update(dt);
+			} else {
+				game.acquireRenderState();
+			}
 
 			fpsCounter.gameUpdated();
 			
@@ -94,6 +113,26 @@ public abstract class GUI<TGame extends Game> {
 
 			fpsCounter.frameDone();
 		}
+
+		if (simulation != null) {
+			simulation.shutdown();
+		}
+		if (log != null) {
+			log.close();
+		}
+	}
+
+	private PerformanceLog openPerformanceLog() {
+		if (options.getStatsFile() == null) {
+			return null;
+		}
+		try {
+			return new PerformanceLog(new File(options.getStatsFile()));
+		} catch (IOException e) {
+			System.err.println("Could not write performance statistics to "
+					+ options.getStatsFile() + ": " + e.getMessage());
+			return null;
+		}
 	}
 
 	public void exit() {
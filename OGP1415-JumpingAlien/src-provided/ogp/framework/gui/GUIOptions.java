@@ -5,4 +5,12 @@ public interface GUIOptions {
 	public double getTargetFPS();
 	
 	public boolean isFullScreenEnabled();
+
+	/**
+	 * Return the path of the CSV file to which the performance statistics are
+	 * written while the game runs, or null to not write them.
+	 */
+	public default String getStatsFile() {
+		return null;
+	}
 }
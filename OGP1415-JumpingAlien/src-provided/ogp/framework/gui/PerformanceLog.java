@@ -0,0 +1,62 @@
+package ogp.framework.gui;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import ogp.framework.util.LatencyHistogram;
+
+/**
+ * Writes the performance statistics of a game to a CSV file, one line every
+ * time they are updated.
+ *
+ * Every line holds the time since the log was opened and the framerate,
+ * followed by the number of durations and their p50, p95, p99 and maximum in
+ * milliseconds for every phase of the game. The header is written with the
+ * first line, so phases that appear later are not logged.
+ */
+public class PerformanceLog implements AutoCloseable {
+
+	private final PrintWriter out;
+
+	private final long startNS = System.nanoTime();
+
+	private int nbPhases = -1;
+
+	public PerformanceLog(File file) throws IOException {
+		BufferedWriter writer = Files.newBufferedWriter(file.toPath(),
+				StandardCharsets.UTF_8);
+		this.out = new PrintWriter(writer);
+	}
+
+	public void log(PerformanceStats stats) {
+		if (nbPhases < 0) {
+			nbPhases = stats.phases.size();
+			out.print("time_s,fps");
+			for (LatencyHistogram.Summary phase : stats.phases) {
+				String name = phase.name.toLowerCase(Locale.ROOT).replace(' ', '_');
+				out.print("," + name + "_count," + name + "_p50_ms," + name
+						+ "_p95_ms," + name + "_p99_ms," + name + "_max_ms");
+			}
+			out.println();
+		}
+		out.printf(Locale.ROOT, "%.3f,%.2f", (System.nanoTime() - startNS) / 1e9, stats.fps);
+		for (int i = 0; i < nbPhases && i < stats.phases.size(); i++) {
+			LatencyHistogram.Summary phase = stats.phases.get(i);
+			out.printf(Locale.ROOT, ",%d,%.4f,%.4f,%.4f,%.4f", phase.count, phase.p50 / 1e6,
+					phase.p95 / 1e6, phase.p99 / 1e6, phase.max / 1e6);
+		}
+		out.println();
+		out.flush();
+	}
+
+	@Override
+	public void close() {
+		out.close();
+	}
+
+}
@@ -1,5 +1,10 @@
 package ogp.framework.gui;
 
+import java.util.Collections;
+import java.util.List;
+
+import ogp.framework.util.LatencyHistogram;
+
 public class PerformanceStats {
 
 	public final double avgGameUpdateTime;
@@ -11,12 +16,23 @@ public class PerformanceStats {
 	
 	public final double avgSleepTime;
 	
+	/**
+	 * The percentiles of the durations of the phases of the game in the same
+	 * period as the averages (in nanoseconds).
+	 */
+	public final List<LatencyHistogram.Summary> phases;
+	
 	public PerformanceStats(double game, double paint, double sleep, double fps, double targetFPS) {
+		this(game, paint, sleep, fps, targetFPS, Collections.emptyList());
+	}
+	
+	public PerformanceStats(double game, double paint, double sleep, double fps, double targetFPS, List<LatencyHistogram.Summary> phases) {
 		this.avgGameUpdateTime = game;
 		this.avgPaintTime = paint;
 		this.avgSleepTime = sleep;
 		this.fps = fps;
 		this.targetFPS = targetFPS;
+		this.phases = Collections.unmodifiableList(phases);
 	}
 	
 	@Override
@@ -1,9 +1,20 @@
 package ogp.framework.gui;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import ogp.framework.game.PhaseTimings;
+import ogp.framework.util.LatencyHistogram;
+
 /**
  * This class keeps track of how many time has passed between two frames, and
  * counts the framerate.
  * 
+ * The time it takes to paint and the time slept for every frame are recorded
+ * as the phases "Paint" and "Sleep" of the given phase timings, of which the
+ * percentiles are taken with every update of the statistics.
+ * 
  * Not thread safe.
  */
 public class TimeKeeper {
@@ -22,8 +33,30 @@ public class TimeKeeper {
 	private long totalPaintTimeNS, totalGameUpdateTimeNS, totalSleepTimeNS;
 	private double avgGameUpdateTimeMS, avgPaintTimeMS, avgSleepTimeMS;
 
+	private final PhaseTimings phaseTimings;
+	private final LatencyHistogram paintTimes, sleepTimes;
+	private List<LatencyHistogram.Summary> phases = Collections.emptyList();
+
+	private Consumer<PerformanceStats> statsListener = stats -> {
+	};
+
 	public TimeKeeper(double targetFPS) {
+		this(targetFPS, new PhaseTimings());
+	}
+
+	public TimeKeeper(double targetFPS, PhaseTimings phaseTimings) {
 		this.targetFPS = targetFPS;
+		this.phaseTimings = phaseTimings;
+		this.paintTimes = phaseTimings.get("Paint");
+		this.sleepTimes = phaseTimings.get("Sleep");
+	}
+
+	/**
+	 * Set the listener that is given the statistics every time they are
+	 * updated.
+	 */
+	public void setStatsListener(Consumer<PerformanceStats> statsListener) {
+		this.statsListener = statsListener;
 	}
 
 	public void start() {
@@ -37,7 +70,7 @@ public class TimeKeeper {
 
 	public PerformanceStats getStats() {
 		return new PerformanceStats(avgGameUpdateTimeMS, avgPaintTimeMS,
-				avgSleepTimeMS, fps, targetFPS);
+				avgSleepTimeMS, fps, targetFPS, phases);
 	}
 
 	public long getTimeToSleep() {
@@ -61,11 +94,13 @@ public class TimeKeeper {
 	public void framePainted() {
 		lastFramePaintedNS = now();
 		totalPaintTimeNS += lastFramePaintedNS - lastGameUpdateNS;
+		paintTimes.record(lastFramePaintedNS - lastGameUpdateNS);
 	}
 
 	public void frameDone() {
 		long now = now();
 		totalSleepTimeNS += now - lastFramePaintedNS;
+		sleepTimes.record(now - lastFramePaintedNS);
 		long elapsedSinceLastFrameNS = now - lastFrameDoneNS;
 		lastFrameDoneNS = now;
 
@@ -78,9 +113,11 @@ public class TimeKeeper {
 			avgGameUpdateTimeMS = totalGameUpdateTimeNS / (frameCount * 1e6);
 			avgPaintTimeMS = totalPaintTimeNS / (frameCount * 1e6);
 			avgSleepTimeMS = totalSleepTimeNS / (frameCount * 1e6);
+			phases = phaseTimings.takeIntervals();
 
 			totalTimeSinceLastUpdateNS = totalGameUpdateTimeNS = totalPaintTimeNS = totalSleepTimeNS = 0;
 			frameCount = 0;
+			statsListener.accept(getStats());
 		}
 	}
 
@@ -28,6 +28,15 @@ public abstract class MenuScreen<TGame extends Game, TGUI extends GUI<TGame>>
 
 	private final CommandQueue commandQueue = new CommandQueue();
 
+	private final Command moveDown = new SimpleCommand("Move down",
+			this::selectNextOption);
+
+	private final Command moveUp = new SimpleCommand("Move up",
+			this::selectPreviousOption);
+
+	private final Command select = new SimpleCommand("Select",
+			this::selectCurrentOption);
+
 	private int selectedIndex;
 
 	protected MenuScreen(ScreenPanel<TGame> panel, TGUI gui,
@@ -46,18 +55,15 @@ public abstract class MenuScreen<TGame extends Game, TGUI extends GUI<TGame>>
 					break;
 				case KeyEvent.VK_DOWN:
 				case KeyEvent.VK_KP_DOWN:
-					commandQueue.add(new SimpleCommand("Move down",
-							MenuScreen.this::selectNextOption));
+					commandQueue.add(moveDown);
 					break;
 				case KeyEvent.VK_UP:
 				case KeyEvent.VK_KP_UP:
-					commandQueue.add(new SimpleCommand("Move up",
-							MenuScreen.this::selectPreviousOption));
+					commandQueue.add(moveUp);
 					break;
 				case KeyEvent.VK_ENTER:
 				case KeyEvent.VK_SPACE:
-					commandQueue.add(new SimpleCommand("Select",
-							MenuScreen.this::selectCurrentOption));
+					commandQueue.add(select);
 					break;
 				}
 			}
@@ -73,9 +79,7 @@ public abstract class MenuScreen<TGame extends Game, TGUI extends GUI<TGame>>
 
 	@Override
 	public void updateState(double dt) {
-		for (Command command : commandQueue.getAndClearPendingCommands()) {
-			command.execute();
-		}
+		commandQueue.drain(Command::execute);
 	}
 
 	protected void selectNextOption() {
@@ -8,11 +8,11 @@ public class MessageBox {
 
 	private final Queue<Message> messages = new LinkedList<Message>();
 
-	public void addMessage(Message message) {
+	public synchronized void addMessage(Message message) {
 		messages.add(message);
 	}
 
-	public Optional<Message> getCurrentMessage() {
+	public synchronized Optional<Message> getCurrentMessage() {
 		if (messages.isEmpty()) {
 			return Optional.empty();
 		} else {
@@ -22,7 +22,7 @@ public class MessageBox {
 
 	private double currentMessageActive = 0;
 
-	public void advanceTime(double dt) {
+	public synchronized void advanceTime(double dt) {
 		Optional<Message> optMessage = getCurrentMessage();
 		if (optMessage.isPresent()) {
 			currentMessageActive += dt;
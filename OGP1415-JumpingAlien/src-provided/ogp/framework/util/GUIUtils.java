@@ -7,6 +7,7 @@ import java.awt.RenderingHints;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -39,23 +40,45 @@ public class GUIUtils {
 	private static final float STEP_SIZE = 7F/10F;
 
 	public static void shiftHue(BufferedImage img, int amount) {
+		int width = img.getWidth();
+		int height = img.getHeight();
+		if (img.getType() == BufferedImage.TYPE_INT_ARGB) {
+			// the raster already holds packed ARGB values
+			WritableRaster raster = img.getRaster();
+			int[] pixels = (int[]) raster.getDataElements(0, 0, width, height,
+					null);
+			shiftHue(pixels, amount);
+			raster.setDataElements(0, 0, width, height, pixels);
+		} else {
+			int[] pixels = img.getRGB(0, 0, width, height, null, 0, width);
+			shiftHue(pixels, amount);
+			img.setRGB(0, 0, width, height, pixels, 0, width);
+		}
+	}
+
+	/**
+	 * Shift the hue of the given packed ARGB values, keeping their alpha.
+	 */
+	private static void shiftHue(int[] pixels, int amount) {
 		float[] hsb = new float[3];
-		for (int x = 0; x < img.getWidth(); x++) {
-			for (int y = 0; y < img.getHeight(); y++) {
-				Color color = new Color(img.getRGB(x, y), true);
-				Color.RGBtoHSB(color.getRed(), color.getGreen(),
-						color.getBlue(), hsb);
-				hsb[0] = (hsb[0] + (STEP_SIZE * amount)) % 1.0F;
-				img.setRGB(x, y, Color.HSBtoRGB(hsb[0], hsb[1], hsb[2]));
-				img.getAlphaRaster().setPixel(x, y,
-						new int[] { color.getAlpha() });
-			}
+		float shift = STEP_SIZE * amount;
+		for (int i = 0; i < pixels.length; i++) {
+			int argb = pixels[i];
+			Color.RGBtoHSB((argb >> 16) & 0xFF, (argb >> 8) & 0xFF,
+					argb & 0xFF, hsb);
+			hsb[0] = (hsb[0] + shift) % 1.0F;
+			pixels[i] = (argb & 0xFF000000)
+					| (Color.HSBtoRGB(hsb[0], hsb[1], hsb[2]) & 0x00FFFFFF);
 		}
 	}
 
 	public static BufferedImage copyImage(BufferedImage source) {
+		return copyImage(source, source.getType());
+	}
+
+	public static BufferedImage copyImage(BufferedImage source, int imageType) {
 		BufferedImage b = new BufferedImage(source.getWidth(),
-				source.getHeight(), source.getType());
+				source.getHeight(), imageType);
 		Graphics2D g = b.createGraphics();
 		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
 				RenderingHints.VALUE_ANTIALIAS_ON);
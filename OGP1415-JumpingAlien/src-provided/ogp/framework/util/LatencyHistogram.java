@@ -0,0 +1,153 @@
+package ogp.framework.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds, from which percentiles of the
+ * durations recorded in an interval can be read.
+ *
+ * Durations are counted in buckets whose width grows with the duration: below
+ * 64ns every nanosecond has its own bucket, and every power of two above that
+ * is split in 32 buckets. Reported durations are the upper bound of their
+ * bucket, so they are at most about 3% too high.
+ *
+ * Recording a duration does not allocate and does not lock, and can be done by
+ * any number of threads at once. Intervals must be taken by one thread at a
+ * time.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int LINEAR_LIMIT = 2 * SUB_BUCKET_COUNT;
+
+	private static final int NB_BUCKETS = (64 - SUB_BUCKET_BITS)
+			* SUB_BUCKET_COUNT;
+
+	private final String name;
+
+	private final AtomicLongArray counts = new AtomicLongArray(NB_BUCKETS);
+
+	/**
+	 * The counts at the end of the previous interval. Only accessed by the
+	 * thread that takes intervals.
+	 */
+	private final long[] previousCounts = new long[NB_BUCKETS];
+
+	/**
+	 * The counts in the current interval. Only accessed by the thread that
+	 * takes intervals.
+	 */
+	private final long[] intervalCounts = new long[NB_BUCKETS];
+
+	public LatencyHistogram(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Record the given duration in nanoseconds. Negative durations are
+	 * recorded as 0.
+	 */
+	public void record(long nanoseconds) {
+		counts.incrementAndGet(getBucket(Math.max(0, nanoseconds)));
+	}
+
+	/**
+	 * Return the durations recorded since the previous interval was taken, or
+	 * since this histogram was created.
+	 */
+	public Summary takeInterval() {
+		long total = 0;
+		for (int i = 0; i < NB_BUCKETS; i++) {
+			long count = counts.get(i);
+			intervalCounts[i] = count - previousCounts[i];
+			previousCounts[i] = count;
+			total += intervalCounts[i];
+		}
+		if (total == 0) {
+			return new Summary(name, 0, 0, 0, 0, 0);
+		}
+		int last = NB_BUCKETS - 1;
+		while (intervalCounts[last] == 0) {
+			last--;
+		}
+		return new Summary(name, total, getValueAt(total, 0.50),
+				getValueAt(total, 0.95), getValueAt(total, 0.99),
+				getUpperBound(last));
+	}
+
+	private long getValueAt(long total, double fraction) {
+		long rank = Math.max(1, (long) Math.ceil(fraction * total));
+		long seen = 0;
+		for (int i = 0; i < NB_BUCKETS; i++) {
+			seen += intervalCounts[i];
+			if (seen >= rank) {
+				return getUpperBound(i);
+			}
+		}
+		return getUpperBound(NB_BUCKETS - 1);
+	}
+
+	static int getBucket(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+	}
+
+	static long getUpperBound(int bucket) {
+		if (bucket < LINEAR_LIMIT) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKET_COUNT - 1;
+		long top = bucket % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		if (shift + SUB_BUCKET_BITS == 62 && top == LINEAR_LIMIT - 1) {
+			return Long.MAX_VALUE;
+		}
+		return ((top + 1) << shift) - 1;
+	}
+
+	/**
+	 * The durations recorded in one interval of a histogram.
+	 */
+	public static class Summary {
+
+		public final String name;
+
+		public final long count;
+
+		public final long p50;
+
+		public final long p95;
+
+		public final long p99;
+
+		public final long max;
+
+		public Summary(String name, long count, long p50, long p95, long p99,
+				long max) {
+			this.name = name;
+			this.count = count;
+			this.p50 = p50;
+			this.p95 = p95;
+			this.p99 = p99;
+			this.max = max;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"%s p50 %.2fms | p95 %.2fms | p99 %.2fms | max %.2fms (%d)",
+					name, p50 / 1e6, p95 / 1e6, p99 / 1e6, max / 1e6, count);
+		}
+	}
+
+}
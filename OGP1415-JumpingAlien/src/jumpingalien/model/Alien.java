@@ -434,6 +434,30 @@ public class Alien extends GameObject {
 	 */
 	private double timeSinceEndMove=Integer.MAX_VALUE;
 	
+	/**
+	 * Put the state of this alien in the given buffer.
+	 * 
+	 * @effect	|super.saveState(buffer)
+	 */
+	@Override
+	protected void saveState(StateBuffer buffer){
+		super.saveState(buffer);
+		buffer.putDouble(this.timeSinceStartMove);
+		buffer.putDouble(this.timeSinceEndMove);
+	}
+	
+	/**
+	 * Restore the state of this alien from the given buffer.
+	 * 
+	 * @effect	|super.restoreState(buffer)
+	 */
+	@Override
+	protected void restoreState(StateBuffer buffer){
+		super.restoreState(buffer);
+		this.timeSinceStartMove = buffer.getDouble();
+		this.timeSinceEndMove = buffer.getDouble();
+	}
+	
 	
 	/**
 	 * Update the location and velocity of this Alien.
@@ -462,38 +486,102 @@ public class Alien extends GameObject {
 		throws IllegalArgumentException {
 		if(!isValidDeltaTime(deltaTime))
 			throw new IllegalArgumentException("Not a valid time period!");
-		if(this.getProgram()!=null){
-			this.getProgram().execute(deltaTime);
-		}
-		this.setTimeSinceLastHitpointsLoss(deltaTime + getTimeSinceLastHitpointsLoss());
+		thinkTimeStep(deltaTime);
+		startTimeStep(deltaTime);
 		double deltaTimeForPixel=0;
 		double sumDeltaTimeForPixel=0;
-		double oldHorizontalLocation=getHorizontalLocation();
-		double oldVerticalLocation=getVerticalLocation();
-		if(!isMovingHorizontally()){
-			setTimeSinceEndMove(getTimeSinceEndMove()+deltaTime);
-		}
-		else{
-			setTimeSinceStartMove(getTimeSinceStartMove()+deltaTime);
-		}
 		while (sumDeltaTimeForPixel<deltaTime){
 			calculateNewJumpingState();
-			oldVerticalLocation = getVerticalLocation();
-			oldHorizontalLocation = getHorizontalLocation();
 			deltaTimeForPixel= getDeltaTimeForPixel(deltaTime);
 			if(!(deltaTimeForPixel<deltaTime - sumDeltaTimeForPixel)){
 				deltaTimeForPixel = deltaTime - sumDeltaTimeForPixel + 1E-10;
 			}
 			sumDeltaTimeForPixel+=deltaTimeForPixel;
-			this.updateVelocities(deltaTimeForPixel);
-			this.updateLocations(deltaTimeForPixel, oldHorizontalLocation, oldVerticalLocation);
-			int []overlap = checkLeftRightTopBottomSideOverlap();
-			collisionHandler(overlap,oldHorizontalLocation,oldVerticalLocation);
-			calculateNewJumpingState();
-			if(wantsEndDuck()){
-				endDuck();
-			}
+			integrateSubStep(deltaTimeForPixel);
+			resolveSubStep();
 		}
+		endTimeStep(deltaTime);
+	}
+	
+	/**
+	 * Check whether this Alien can integrate a sub-step concurrently with other game objects.
+	 * 
+	 * @return	False, because an Alien that leaves its world ends the game and terminates itself.
+	 * 			|result == false
+	 */
+	@Override
+	protected boolean canIntegrateConcurrently(){
+		return false;
+	}
+	
+	/**
+	 * Start a new time step of the given duration for this Alien.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 * @post	|new.getTimeSinceLastHitpointsLoss() == this.getTimeSinceLastHitpointsLoss() + deltaTime
+	 * @post	|if(!isMovingHorizontally())
+	 * 			| then new.getTimeSinceEndMove == getTimeSinceEndMove()+deltaTime
+	 * 			|else new.getTimeSinceStartMove == getTimeSinceEndMove()+deltaTime
+	 */
+	@Override
+	protected void startTimeStep(double deltaTime){
+		this.setTimeSinceLastHitpointsLoss(deltaTime + getTimeSinceLastHitpointsLoss());
+		if(!isMovingHorizontally()){
+			setTimeSinceEndMove(getTimeSinceEndMove()+deltaTime);
+		}
+		else{
+			setTimeSinceStartMove(getTimeSinceStartMove()+deltaTime);
+		}
+	}
+	
+	/**
+	 * Integrate the velocities and locations of this Alien over the given sub-step.
+	 * 
+	 * @param 	deltaTimeForPixel
+	 * 			The duration of the sub-step.
+	 * @effect	|calculateNewJumpingState()
+	 * 			|recordSubStepStartLocation()
+	 * 			|updateVelocities(deltaTimeForPixel)
+	 *			|updateLocations(deltaTimeForPixel, getSubStepStartHorizontalLocation(), getSubStepStartVerticalLocation())
+	 */
+	@Override
+	protected void integrateSubStep(double deltaTimeForPixel){
+		calculateNewJumpingState();
+		recordSubStepStartLocation();
+		this.updateVelocities(deltaTimeForPixel);
+		this.updateLocations(deltaTimeForPixel, getSubStepStartHorizontalLocation(), getSubStepStartVerticalLocation());
+	}
+	
+	/**
+	 * Resolve the contacts of this Alien with other game objects at the end of a sub-step.
+	 * 
+	 * @effect	|collisionHandler(checkLeftRightTopBottomSideOverlap(),getSubStepStartHorizontalLocation(),getSubStepStartVerticalLocation())
+	 * 			|calculateNewJumpingState()
+	 * 			|if(wantsEndDuck())
+	 * 			|	endDuck()
+	 */
+	@Override
+	protected void resolveSubStep(){
+		int []overlap = checkLeftRightTopBottomSideOverlap();
+		collisionHandler(overlap,getSubStepStartHorizontalLocation(),getSubStepStartVerticalLocation());
+		calculateNewJumpingState();
+		if(wantsEndDuck()){
+			endDuck();
+		}
+	}
+	
+	/**
+	 * End the current time step of the given duration for this Alien.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 * @effect	|checkWaterContact(deltaTime)
+	 *			|checkMagmaContact(deltaTime)
+	 *			|calculateNewJumpingState()
+	 */
+	@Override
+	protected void endTimeStep(double deltaTime){
 		checkWaterContact(deltaTime);
 		checkMagmaContact(deltaTime);	
 		calculateNewJumpingState();
@@ -642,35 +730,29 @@ public class Alien extends GameObject {
 	 * 			|for each game object in gameGameObjectAtTile of this game object
 	 * 			|	if( this.getHitPoints() != this.getMaxHitPoints() || !(gameObject instanceof Plant))
 	 * 			|		if(gameObject != this && gameObject != null && world.canHaveAsGameObject(gameObject))
-	 * 			|			overlap = checkLeftOrRightSideOverlap(gameObject,...);
+	 * 			|			overlap = checkLeftOrRightSideContact(gameObject);
 	 *			|			if(overlap [0] == 1)
 	 *			|			then the array "overlap" is returned
 	 *			|			or 
-	 *			|			overlap = checkTopOrBottomSideOverlap(gameObject,...);
+	 *			|			overlap = checkTopOrBottomSideContact(gameObject);
 	 *			|			if(overlap [0] == 1)
 	 *			|			then the array "overlap" is returned
 	 *			|return overlap
 	 */
 	@Override
 	protected int [] checkLeftRightTopBottomSideOverlap(){
-		int [] overlap = {0,0,0,0};
+		int [] overlap = getNoContact();
 		World world = this.getWorld();
 		List<GameObject> gameObjects = getGameObjectsAtTiles(world.getTilePositionsIn(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getEffectiveHorizontalLocation()+getWidth(), getEffectiveVerticalLocation()+getHeight()));
 		for(int index = 0; index < gameObjects.size(); index++){
 			GameObject gameObject = gameObjects.get(index);
 			if( this.getHitPoints() != this.getMaxHitPoints() || !(gameObject instanceof Plant)){
 				if(gameObject != this && gameObject != null && world.canHaveAsGameObject(gameObject)){
-					int [][] leftPerimeterOther = gameObject.getLeftPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getHeight());
-					int [][] rightPerimeterOther = gameObject.getRightPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth(), gameObject.getHeight());
-					overlap = checkLeftOrRightSideOverlap(gameObject, this.getLeftPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getHeight()), 
-							 this.getRightPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth(), getHeight()), leftPerimeterOther, rightPerimeterOther);
+					overlap = checkLeftOrRightSideContact(gameObject);
 					if(overlap [0] == 1){
 						return overlap;
 					}
-					int [][] topPerimeterOther = gameObject.getTopPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth(), gameObject.getHeight());
-					int [][] bottomPerimeterOther = gameObject.getBottomPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth());
-					overlap = checkTopOrBottomSideOverlap(gameObject, this.getTopPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth(), getHeight()), 
-							this.getBottomPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth()), topPerimeterOther, bottomPerimeterOther);
+					overlap = checkTopOrBottomSideContact(gameObject);
 					if(overlap [0] == 1){
 						return overlap;
 					}
@@ -691,9 +773,8 @@ public class Alien extends GameObject {
 	 */
 	@Override
 	protected void checkWaterContact(double deltaTime){
-		boolean [] contactTiles = (this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
-				this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)).clone();
-		if(contactTiles[2] == true){
+		int terrainMask = this.getTerrainMask();
+		if((terrainMask & World.WATER_MASK) != 0){
 			double time = getTimeSinceStartWaterContact();
 			this.setTimeSinceStartWaterContact(time + deltaTime);
 			if(Util.fuzzyGreaterThanOrEqualTo(this.getTimeSinceStartWaterContact(), 0.2)){
@@ -715,9 +796,8 @@ public class Alien extends GameObject {
 	 */
 	@Override
 	protected void checkMagmaContact(double deltaTime){
-		boolean [] contactTiles = (this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
-				this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)).clone();
-		if(contactTiles[3] == true){
+		int terrainMask = this.getTerrainMask();
+		if((terrainMask & World.MAGMA_MASK) != 0){
 			double time = getTimeSinceStartMagmaContact();
 			this.setTimeSinceStartMagmaContact(time + deltaTime);
 			if(time == 0)
@@ -9,6 +9,7 @@ import java.lang.Math;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 /**
  * A class of GameObjects.
@@ -224,7 +225,7 @@ public abstract class GameObject {
 	 * 			or greater than or equal to the maximum horizontal location plus one.
 	 * 			| result == !((horizontalLocation < 0 ) && (horizontalLocation >= maximumHorizontalLocation+1))
 	 			Otherwise true if the hit box of this game object doesn't coincide with the terrain of its world.
-	 * 			| result== !this.getWorld().areaCoincidesWithTerrain((int) horizontalLocation, this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)[1]
+	 * 			| result== ((this.getWorld().getTerrainMaskIn((int) horizontalLocation, this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2) & World.SOLID_MASK) == 0)
 	 */
 	public boolean canHaveAsHorizontalLocation(double horizontalLocation){
 		if (this.getWorld()==null){
@@ -233,7 +234,7 @@ public abstract class GameObject {
 		else if (horizontalLocation<0 || horizontalLocation >= this.getWorld().getWorldWidth()+1){
 			return false;
 		}
-		else if(this.getWorld().areaCoincidesWithTerrain((int) horizontalLocation, this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)[1]){
+		else if((this.getWorld().getTerrainMaskIn((int) horizontalLocation, this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2) & World.SOLID_MASK) != 0){
 			return false;
 		}
 		else{
@@ -254,7 +255,7 @@ public abstract class GameObject {
 	 * 			or greater than or equal to the maximum vertical location plus one.
 	 * 			| result == !((horizontalLocation < 0 ) && (horizontalLocation >= maximumHorizontalLocation+1))
 	 			Otherwise true if the hit box of this game object doesn't coincide with the terrain of its world.
-	 * 			| result== !this.getWorld().areaCoincidesWithTerrain((int) horizontalLocation, this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)[1]
+	 * 			| result== ((this.getWorld().getTerrainMaskIn((int) horizontalLocation, this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2) & World.SOLID_MASK) == 0)
 	 */
 	public boolean canHaveAsVerticalLocation(double verticalLocation){
 		if(this.getWorld()==null){
@@ -263,8 +264,8 @@ public abstract class GameObject {
 		else if (verticalLocation<0 || verticalLocation >= this.getWorld().getWorldHeight()+1){
 			return false;
 		}
-		else if(this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
-				(int) verticalLocation+1, this.getWidth()-1, this.getHeight()-2)[1]){
+		else if((this.getWorld().getTerrainMaskIn(this.getEffectiveHorizontalLocation(), 
+				(int) verticalLocation+1, this.getWidth()-1, this.getHeight()-2) & World.SOLID_MASK) != 0){
 			return false;
 		}
 		else{
@@ -272,6 +273,18 @@ public abstract class GameObject {
 		}
 	}
 	
+	/**
+	 * Return the mask of the geological features with which the current area of this game object overlaps.
+	 * The bottom row of pixels, the top row of pixels and the rightmost column of pixels are not taken into account.
+	 * 
+	 * @return	|result == this.getWorld().getTerrainMaskIn(this.getEffectiveHorizontalLocation(), 
+	 * 			|	this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)
+	 */
+	protected int getTerrainMask(){
+		return this.getWorld().getTerrainMaskIn(this.getEffectiveHorizontalLocation(), 
+				this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2);
+	}
+	
 	/**
 	 * Check whether the given location is a valid location.
 	 * 
@@ -319,6 +332,9 @@ public abstract class GameObject {
 		if(!canHaveAsHorizontalLocation(horizontalLocation))
 			throw new IllegalLocationException(horizontalLocation, this.getVerticalLocation());
 		this.horizontalLocation=horizontalLocation;
+		if(this.getWorld()!=null){
+			this.getWorld().updateSpatialIndex(this);
+		}
 	}
 	
 	/**
@@ -337,6 +353,9 @@ public abstract class GameObject {
 		if(!canHaveAsVerticalLocation(verticalLocation))
 			throw new IllegalLocationException(this.getHorizontalLocation(), this.verticalLocation);
 		this.verticalLocation = verticalLocation;
+		if(this.getWorld()!=null){
+			this.getWorld().updateSpatialIndex(this);
+		}
 	}
 	
 	
@@ -808,18 +827,18 @@ public abstract class GameObject {
 	 * 			|	result==true
 	 * 			Otherwise true if the sprite of the standing game object doesn't coincide with terrain at the current location.
 	 * 			| else
-	 * 			|	result==!this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
+	 * 			|	result==((this.getWorld().getTerrainMaskIn(this.getEffectiveHorizontalLocation(), 
 	 *			|		this.getEffectiveVerticalLocation()+1, this.getImageAt(0).getWidth()-1, 
-	 *			|		this.getImageAt(0).getHeight())[1]
+	 *			|		this.getImageAt(0).getHeight()) & World.SOLID_MASK) == 0)
 	 */
 	protected boolean canStandUp(){
 		if(!this.isDucking()){
 			return true;
 		}
 		else{
-			return !this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
+			return (this.getWorld().getTerrainMaskIn(this.getEffectiveHorizontalLocation(), 
 					this.getEffectiveVerticalLocation()+1, this.getImageAt(0).getWidth()-1, 
-					this.getImageAt(0).getHeight())[1];
+					this.getImageAt(0).getHeight()) & World.SOLID_MASK) == 0;
 		}
 	}
 	
@@ -951,10 +970,11 @@ public abstract class GameObject {
 	 *
 	 * @param 	tiles
 	 * 			The given tiles.
-	 * @return 	The method iterates over all the game objects in the world except this game object. 
+	 * @return 	The method iterates over the game objects that the spatial index of the world registers
+	 * 			near the given tiles, except this game object. 
 	 * 			If a game object overlaps with one of the given tiles, than it is added to the list which contains 
 	 * 			all the overlapping game objects. At the end this list is returned.
-	 * 			|for each game object of the world
+	 * 			|for each game object in world.getGameObjectsNearTiles(tiles)
 	 * 			|	if(world.canHaveAsGameObject(gameObject) && gameObject != this)
 	 * 			|    and if(gameObjectOverlapsWithTiles(gameObject, tiles))
 	 * 			|	then the game object is added to the list of overlapping game objects
@@ -963,8 +983,7 @@ public abstract class GameObject {
 	protected List<GameObject> getGameObjectsAtTiles(int [][] tiles){
 		List<GameObject> gameObjects = new ArrayList<GameObject>();
 		World world = this.getWorld();
-		for(int index = 0; index < world.getNbGameObjects(); index++){
-			GameObject gameObject = world.getGameObjectAtIndex(index);
+		for(GameObject gameObject : world.collectGameObjectsNearTiles(tiles)){
 			if(world.canHaveAsGameObject(gameObject) && gameObject != this && gameObject != null){
 				if(gameObject.overlapsWithTiles(tiles)){	
 					gameObjects.add(gameObject);
@@ -1173,6 +1192,9 @@ public abstract class GameObject {
 			for(int index = 0; index < gameObjects.size(); index++){
 				GameObject gameObject = gameObjects.get(index);
 				if(gameObject != this && gameObject != null && world.canHaveAsGameObject(gameObject)){
+					if(World.COUNTS_EVENTS){
+						world.countCollisionCheck();
+					}
 					int pixelX2 = gameObject.getEffectiveHorizontalLocation();
 					int pixelY2 = gameObject.getEffectiveVerticalLocation();
 					int width2 = gameObject.getWidth();
@@ -1280,6 +1302,106 @@ public abstract class GameObject {
 		return overlap.clone();
 	}
 	
+	/**
+	 * Return a new contact descriptor without contact.
+	 * Every contact check returns a descriptor of its own, so the caller may keep it and
+	 * game objects that are updated on different threads never share a descriptor.
+	 * 
+	 * @return	|result == {0,0,0,0}
+	 */
+	protected int [] getNoContact(){
+		return new int [4];
+	}
+	
+	/**
+	 * Check whether the left or right side of this game object touches the
+	 * right or left side of the given game object, without building the perimeters of both game objects.
+	 * Every contact check of a pair of game objects starts with this check, so the world of this game object
+	 * counts the pairs it checks for contact here.
+	 * 
+	 * @param 	gameObject
+	 * 			The other game object.
+	 * @return	The left side of a game object is the column of pixels at its effective horizontal location
+	 * 			and its right side is the column at its effective horizontal location plus its width minus one,
+	 * 			both without the bottom and top row of pixels. If the left side of one game object coincides with
+	 * 			the right side of the other game object, the contact descriptor is returned with at the first 
+	 * 			position the number one and at the second position the index of the given game object in the world.
+	 * 			|result == checkLeftOrRightSideOverlap(gameObject, this.getLeftPerimeter(..), this.getRightPerimeter(..),
+	 * 			|	gameObject.getLeftPerimeter(..), gameObject.getRightPerimeter(..))
+	 * @throws 	IllegalArgumentException
+	 * 			|!world.canHaveAsPixelLocation(this.getEffectiveHorizontalLocation(), this.getEffectiveVerticalLocation())
+	 * 			| || !world.canHaveAsPixelLocation(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation())
+	 */
+	protected int [] checkLeftOrRightSideContact(GameObject gameObject) throws IllegalArgumentException{
+		World world = this.getWorld();
+		int pixelX1 = this.getEffectiveHorizontalLocation();
+		int pixelY1 = this.getEffectiveVerticalLocation();
+		int pixelX2 = gameObject.getEffectiveHorizontalLocation();
+		int pixelY2 = gameObject.getEffectiveVerticalLocation();
+		if(!world.canHaveAsPixelLocation(pixelX1, pixelY1) || !world.canHaveAsPixelLocation(pixelX2, pixelY2))
+			throw new IllegalArgumentException();
+		if(World.COUNTS_EVENTS){
+			world.countCollisionCheck();
+		}
+		int [] overlap = getNoContact();
+		int height1 = this.getHeight();
+		int height2 = gameObject.getHeight();
+		if(height1 <= 2 || height2 <= 2){
+			return overlap;
+		}
+		boolean sidesOverlap = Math.max(pixelY1, pixelY2) + 1 <= Math.min(pixelY1 + height1, pixelY2 + height2) - 2;
+		if(sidesOverlap && (pixelX1 == pixelX2 + gameObject.getWidth() - 1 || pixelX2 == pixelX1 + this.getWidth() - 1)){
+			overlap [0] = 1;
+			overlap [1] = world.getIndexOfGameObject(gameObject);
+		}
+		return overlap;
+	}
+	
+	/**
+	 * Check whether the top or bottom side of this game object touches the
+	 * bottom or top side of the given game object, without building the perimeters of both game objects.
+	 * 
+	 * @param 	gameObject
+	 * 			The other game object.
+	 * @return	The bottom side of a game object is the row of pixels at its effective vertical location
+	 * 			and its top side is the row at its effective vertical location plus its height minus one.
+	 * 			If the horizontal extents of both game objects share a pixel and the top side of this
+	 * 			game object coincides with the bottom side of the given game object, the contact descriptor
+	 * 			is returned with the number one at the first position, the index of the given game object in the world
+	 * 			at the second position and the number one at the fourth position. Otherwise, if the bottom side
+	 * 			of this game object coincides with the top side of the given game object, the number one is
+	 * 			at the third position instead.
+	 * 			|result == checkTopOrBottomSideOverlap(gameObject, this.getTopPerimeter(..), this.getBottomPerimeter(..),
+	 * 			|	gameObject.getTopPerimeter(..), gameObject.getBottomPerimeter(..))
+	 * @throws 	IllegalArgumentException
+	 * 			|!world.canHaveAsPixelLocation(this.getEffectiveHorizontalLocation(), this.getEffectiveVerticalLocation())
+	 * 			| || !world.canHaveAsPixelLocation(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation())
+	 */
+	protected int [] checkTopOrBottomSideContact(GameObject gameObject) throws IllegalArgumentException{
+		World world = this.getWorld();
+		int pixelX1 = this.getEffectiveHorizontalLocation();
+		int pixelY1 = this.getEffectiveVerticalLocation();
+		int pixelX2 = gameObject.getEffectiveHorizontalLocation();
+		int pixelY2 = gameObject.getEffectiveVerticalLocation();
+		if(!world.canHaveAsPixelLocation(pixelX1, pixelY1) || !world.canHaveAsPixelLocation(pixelX2, pixelY2))
+			throw new IllegalArgumentException();
+		int [] overlap = getNoContact();
+		if(Math.max(pixelX1, pixelX2) > Math.min(pixelX1 + this.getWidth(), pixelX2 + gameObject.getWidth()) - 1){
+			return overlap;
+		}
+		if(pixelY1 + this.getHeight() - 1 == pixelY2){
+			overlap [0] = 1;
+			overlap [1] = world.getIndexOfGameObject(gameObject);
+			overlap [3] = 1;
+		}
+		else if(pixelY2 + gameObject.getHeight() - 1 == pixelY1){
+			overlap [0] = 1;
+			overlap [1] = world.getIndexOfGameObject(gameObject);
+			overlap [2] = 1;
+		}
+		return overlap;
+	}
+	
 	/**
 	 * Method the selects the appropriate response for this game object 
 	 * after a collision with another game object.
@@ -1317,6 +1439,205 @@ public abstract class GameObject {
 	 */
 	public abstract void advanceTime(double deltaTime);
 	
+	/**
+	 * Execute the program of this game object for a new time step of the given duration.
+	 * The actions of the program only take effect when they are committed, if the program
+	 * defers its actions.
+	 * The time the program takes is added to the time the world of this game object spends in
+	 * executing programs.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 * @effect	|if(this.getProgram()!=null)
+	 * 			|	this.getProgram().execute(deltaTime)
+	 */
+	protected void thinkTimeStep(double deltaTime){
+		if(this.getProgram()!=null){
+			World world = this.getWorld();
+			long start = world == null ? 0 : world.startPhase();
+			this.getProgram().execute(deltaTime);
+			if(world != null){
+				world.endPhase(UpdatePhase.PROGRAMS, start);
+			}
+		}
+	}
+	
+	/**
+	 * Perform the actions that the program of this game object deferred while thinking.
+	 * 
+	 * @effect	|if(this.getProgram()!=null)
+	 * 			|	this.getProgram().commitActions()
+	 */
+	protected void commitTimeStep(){
+		if(this.getProgram()!=null){
+			this.getProgram().commitActions();
+		}
+	}
+	
+	/**
+	 * Check whether this game object can integrate a sub-step concurrently with other game objects.
+	 * This is only the case if integrating a sub-step only changes the state of this game object.
+	 * 
+	 * @return	True.
+	 * 			|result == true
+	 */
+	protected boolean canIntegrateConcurrently(){
+		return true;
+	}
+	
+	/**
+	 * Start a new time step of the given duration for this game object.
+	 * This phase runs the default behaviour of this game object if it has no program
+	 * and updates the timers that depend on the whole time step.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 */
+	protected abstract void startTimeStep(double deltaTime);
+	
+	/**
+	 * Integrate the velocities and locations of this game object over the given sub-step.
+	 * The location of this game object at the start of the sub-step is registered first.
+	 * 
+	 * @param 	deltaTimeForPixel
+	 * 			The duration of the sub-step.
+	 */
+	protected abstract void integrateSubStep(double deltaTimeForPixel);
+	
+	/**
+	 * Resolve the contacts of this game object with other game objects at the end of a sub-step.
+	 */
+	protected abstract void resolveSubStep();
+	
+	/**
+	 * End the current time step of the given duration for this game object.
+	 * This phase checks the contact of this game object with the terrain.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 */
+	protected abstract void endTimeStep(double deltaTime);
+	
+	/**
+	 * Register the current location of this game object as its location at the start of the current sub-step.
+	 * 
+	 * @post	|new.getSubStepStartHorizontalLocation() == this.getHorizontalLocation()
+	 * @post	|new.getSubStepStartVerticalLocation() == this.getVerticalLocation()
+	 */
+	protected void recordSubStepStartLocation(){
+		this.subStepStartHorizontalLocation = this.getHorizontalLocation();
+		this.subStepStartVerticalLocation = this.getVerticalLocation();
+	}
+	
+	/**
+	 * Return the horizontal location of this game object at the start of the current sub-step.
+	 */
+	@Basic
+	protected double getSubStepStartHorizontalLocation(){
+		return this.subStepStartHorizontalLocation;
+	}
+	
+	/**
+	 * Return the vertical location of this game object at the start of the current sub-step.
+	 */
+	@Basic
+	protected double getSubStepStartVerticalLocation(){
+		return this.subStepStartVerticalLocation;
+	}
+	
+	/**
+	 * Variable registering the horizontal location of this game object at the start of the current sub-step.
+	 */
+	private double subStepStartHorizontalLocation = 0;
+	
+	/**
+	 * Variable registering the vertical location of this game object at the start of the current sub-step.
+	 */
+	private double subStepStartVerticalLocation = 0;
+	
+	/**
+	 * Register the current location of this game object as its location at the start of the current fixed time step
+	 * of its world.
+	 * 
+	 * @post	|new.getTimeStepStartHorizontalLocation() == this.getHorizontalLocation()
+	 * @post	|new.getTimeStepStartVerticalLocation() == this.getVerticalLocation()
+	 */
+	void recordTimeStepStartLocation(){
+		this.timeStepStartHorizontalLocation = this.getHorizontalLocation();
+		this.timeStepStartVerticalLocation = this.getVerticalLocation();
+	}
+	
+	/**
+	 * Return the horizontal location of this game object at the start of the last fixed time step of its world.
+	 */
+	@Basic
+	public double getTimeStepStartHorizontalLocation(){
+		return this.timeStepStartHorizontalLocation;
+	}
+	
+	/**
+	 * Return the vertical location of this game object at the start of the last fixed time step of its world.
+	 */
+	@Basic
+	public double getTimeStepStartVerticalLocation(){
+		return this.timeStepStartVerticalLocation;
+	}
+	
+	/**
+	 * Return the location at which this game object should be rendered, given the interpolation factor
+	 * of its world between the previous and the current fixed time step.
+	 * 
+	 * @param 	interpolationFactor
+	 * 			The interpolation factor, a number between 0 and 1.
+	 * @return	|result == { (int) (getTimeStepStartHorizontalLocation() + 
+	 * 			|		(getHorizontalLocation() - getTimeStepStartHorizontalLocation()) * interpolationFactor),
+	 * 			|	(int) (getTimeStepStartVerticalLocation() + 
+	 * 			|		(getVerticalLocation() - getTimeStepStartVerticalLocation()) * interpolationFactor) }
+	 */
+	public int [] getInterpolatedLocation(double interpolationFactor){
+		double horizontalLocation = this.getTimeStepStartHorizontalLocation() +
+				(this.getHorizontalLocation() - this.getTimeStepStartHorizontalLocation()) * interpolationFactor;
+		double verticalLocation = this.getTimeStepStartVerticalLocation() +
+				(this.getVerticalLocation() - this.getTimeStepStartVerticalLocation()) * interpolationFactor;
+		int [] location = {(int) horizontalLocation, (int) verticalLocation};
+		return location;
+	}
+	
+	/**
+	 * Variable registering the horizontal location of this game object at the start of the last fixed time step of its world.
+	 */
+	private double timeStepStartHorizontalLocation = 0;
+	
+	/**
+	 * Variable registering the vertical location of this game object at the start of the last fixed time step of its world.
+	 */
+	private double timeStepStartVerticalLocation = 0;
+	
+	/**
+	 * Return the key that orders this game object in the spatial index of its world.
+	 * The keys of the game objects of a world follow the order of the list of game objects of that world.
+	 */
+	@Basic
+	int getSpatialIndexOrder(){
+		return this.spatialIndexOrder;
+	}
+	
+	/**
+	 * Set the key that orders this game object in the spatial index of its world to the given key.
+	 * 
+	 * @param 	spatialIndexOrder
+	 * 			The new key.
+	 * @post	|new.getSpatialIndexOrder() == spatialIndexOrder
+	 */
+	void setSpatialIndexOrder(int spatialIndexOrder){
+		this.spatialIndexOrder = spatialIndexOrder;
+	}
+	
+	/**
+	 * Variable registering the key that orders this game object in the spatial index of its world.
+	 */
+	private int spatialIndexOrder = 0;
+	
 	/**
 	 * Check whether the given deltaTime is a valid time period.
 	 * 
@@ -1745,14 +2066,15 @@ public abstract class GameObject {
 	 * Add the given number of hit points to the current number of hit points of this game object.
 	 * @param 	hitPoints
 	 * 			The amount of hit points to be added.
-	 * @post	The given number of hit points must be greater than or equal zero.
-	 * 			If the given number is smaller then nothing is changed.
-	 * 			| if(hitPoints >= 0)
+	 * @post	The given number of hit points must be greater than or equal zero
+	 * 			and this game object may not have died already.
+	 * 			Otherwise nothing is changed.
+	 * 			| if(hitPoints >= 0 && Util.fuzzyEquals(this.getTimeSinceDead(), 0))
 	 * 			|then this.setHitPoints(this.getHitPoints() + hitPoints)
 	 */
 	public void addHitPoints(int hitPoints){
 		int oldHitPoints = getHitPoints();
-		if(hitPoints >= 0)
+		if(hitPoints >= 0 && Util.fuzzyEquals(this.getTimeSinceDead(), 0))
 			setHitPoints(oldHitPoints + hitPoints);
 	}
 	
@@ -1841,6 +2163,32 @@ public abstract class GameObject {
 	private final int maxHitPoints;
 	
 	
+	/**
+	 * Return the random generator of this game object.
+	 * All random decisions of this game object and its program are drawn from this generator,
+	 * so that they do not depend on the order in which game objects are updated.
+	 */
+	@Basic
+	public Random getRandom(){
+		return this.random;
+	}
+	
+	/**
+	 * Reseed the random generator of this game object with the given seed.
+	 * 
+	 * @param 	seed
+	 * 			The new seed of the random generator.
+	 * @post	|new.getRandom() generates the same sequence as new Random(seed)
+	 */
+	void setRandomSeed(long seed){
+		this.random = new StatefulRandom(seed);
+	}
+	
+	/**
+	 * Variable registering the random generator of this game object.
+	 */
+	private StatefulRandom random = new StatefulRandom();
+	
 	/**
 	 * Set the program of this game object to the given program.
 	 * @param 	program
@@ -2052,4 +2400,91 @@ public abstract class GameObject {
 	 * Variable registering the terminated state of this game object.
 	 */
 	private boolean isTerminated=false;
+	
+	/**
+	 * Put the state of this game object in the given buffer, including the state of the random
+	 * generator and of the program of this game object.
+	 * Subclasses that add state to this game object put it after the state of their superclass.
+	 * 
+	 * @param 	buffer
+	 * 			The buffer to put the state in.
+	 * @see		#restoreState(StateBuffer)
+	 */
+	protected void saveState(StateBuffer buffer){
+		buffer.putDouble(this.horizontalLocation);
+		buffer.putDouble(this.verticalLocation);
+		buffer.putDouble(this.horizontalVelocity);
+		buffer.putDouble(this.verticalVelocity);
+		buffer.putDouble(this.initialHorizontalVelocity);
+		buffer.putDouble(this.maximumHorizontalVelocity);
+		buffer.putDouble(this.horizontalAcceleration);
+		buffer.putDouble(this.subStepStartHorizontalLocation);
+		buffer.putDouble(this.subStepStartVerticalLocation);
+		buffer.putDouble(this.timeStepStartHorizontalLocation);
+		buffer.putDouble(this.timeStepStartVerticalLocation);
+		buffer.putDouble(this.timeSinceWaterContact);
+		buffer.putDouble(this.timeSinceMagmaContact);
+		buffer.putDouble(this.timeSinceStartAction);
+		buffer.putDouble(this.timeSinceLastHitpointsLoss);
+		buffer.putDouble(this.timeSinceDead);
+		buffer.putInt(this.hitPoints);
+		buffer.putInt(this.spatialIndexOrder);
+		buffer.putBoolean(this.wantsEndDuck);
+		buffer.putBoolean(this.ducking);
+		buffer.putBoolean(this.isJumping);
+		buffer.putBoolean(this.isMovingHorizontally);
+		buffer.putBoolean(this.contact);
+		buffer.putBoolean(this.isTerminated);
+		buffer.putLong(this.random.getState());
+		buffer.putObject(this.direction);
+		buffer.putObject(this.world);
+		buffer.putObject(this.program);
+		if(this.program != null){
+			this.program.saveState(buffer);
+		}
+	}
+	
+	/**
+	 * Restore the state of this game object from the given buffer.
+	 * 
+	 * @param 	buffer
+	 * 			The buffer to read the state from.
+	 * @pre		The state of this game object was put in the given buffer by saveState, and the buffer
+	 * 			has been read up to that state.
+	 * @post	This game object, its random generator and its program are in the same state as
+	 * 			when the state was put in the given buffer.
+	 */
+	protected void restoreState(StateBuffer buffer){
+		this.horizontalLocation = buffer.getDouble();
+		this.verticalLocation = buffer.getDouble();
+		this.horizontalVelocity = buffer.getDouble();
+		this.verticalVelocity = buffer.getDouble();
+		this.initialHorizontalVelocity = buffer.getDouble();
+		this.maximumHorizontalVelocity = buffer.getDouble();
+		this.horizontalAcceleration = buffer.getDouble();
+		this.subStepStartHorizontalLocation = buffer.getDouble();
+		this.subStepStartVerticalLocation = buffer.getDouble();
+		this.timeStepStartHorizontalLocation = buffer.getDouble();
+		this.timeStepStartVerticalLocation = buffer.getDouble();
+		this.timeSinceWaterContact = buffer.getDouble();
+		this.timeSinceMagmaContact = buffer.getDouble();
+		this.timeSinceStartAction = buffer.getDouble();
+		this.timeSinceLastHitpointsLoss = buffer.getDouble();
+		this.timeSinceDead = buffer.getDouble();
+		this.hitPoints = buffer.getInt();
+		this.spatialIndexOrder = buffer.getInt();
+		this.wantsEndDuck = buffer.getBoolean();
+		this.ducking = buffer.getBoolean();
+		this.isJumping = buffer.getBoolean();
+		this.isMovingHorizontally = buffer.getBoolean();
+		this.contact = buffer.getBoolean();
+		this.isTerminated = buffer.getBoolean();
+		this.random.setState(buffer.getLong());
+		this.direction = buffer.getObject();
+		this.world = buffer.getObject();
+		this.program = buffer.getObject();
+		if(this.program != null){
+			this.program.restoreState(buffer);
+		}
+	}
 }
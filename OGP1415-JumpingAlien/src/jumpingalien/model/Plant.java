@@ -225,25 +225,73 @@ public class Plant extends GameObject {
 		throws IllegalArgumentException {
 		if(!isValidDeltaTime(deltaTime))
 			throw new IllegalArgumentException();
-		if(this.getProgram()!=null){
-			this.getProgram().execute(deltaTime);
+		thinkTimeStep(deltaTime);
+		startTimeStep(deltaTime);
+		double deltaTimeForPixel=0;
+		double sumDeltaTimeForPixel=0;
+		while (sumDeltaTimeForPixel<deltaTime){
+			deltaTimeForPixel= getDeltaTimeForPixel(deltaTime);
+			integrateSubStep(deltaTimeForPixel);
+			sumDeltaTimeForPixel+=deltaTimeForPixel;
 		}
-		else{
+		endTimeStep(deltaTime);
+	}
+	
+	/**
+	 * Start a new time step of the given duration for this plant.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 * @effect	|if(this.getProgram()==null && !Util.fuzzyLessThanOrEqualTo(getTimeSinceStartAction(), 0.5))
+	 * 			|	this.startNewAction()
+	 * @post	|if(this.getProgram()==null && Util.fuzzyLessThanOrEqualTo(getTimeSinceStartAction(), 0.5))
+	 * 			|	new.getTimeSinceStartAction() == this.getTimeSinceStartAction() + deltaTime
+	 */
+	@Override
+	protected void startTimeStep(double deltaTime){
+		if(this.getProgram()==null){
 			if(Util.fuzzyLessThanOrEqualTo(getTimeSinceStartAction(), 0.5))
 				this.setTimeSinceStartAction(this.getTimeSinceStartAction() + deltaTime);
 			else{
 				this.startNewAction();
 			}
 		}
-		double deltaTimeForPixel=0;
-		double sumDeltaTimeForPixel=0;
+	}
+	
+	/**
+	 * Integrate the location of this plant over the given sub-step.
+	 * 
+	 * @param 	deltaTimeForPixel
+	 * 			The duration of the sub-step.
+	 * @effect	|updateHorizontalLocation(deltaTimeForPixel)
+	 */
+	@Override
+	protected void integrateSubStep(double deltaTimeForPixel){
+		recordSubStepStartLocation();
+		updateHorizontalLocation(deltaTimeForPixel);
+	}
+	
+	/**
+	 * Plants only resolve their contacts at the end of a time step.
+	 */
+	@Override
+	protected void resolveSubStep(){
+	}
+	
+	/**
+	 * End the current time step of the given duration for this plant.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 * @effect	|if((mazub.getHitPoints() != mazub.getMaxHitPoints() && this.getHitPoints() != 0)
+	 * 			|	&& (buzam.getHitPoints() != buzam.getMaxHitPoints() && this.getHitPoints() != 0))
+	 * 			|	then if(checkLeftRightTopBottomSideOverlap()[0]==1)
+	 * 			|		collisionReaction(overlap[1],overlap[2], overlap[3])
+	 */
+	@Override
+	protected void endTimeStep(double deltaTime){
 		Mazub mazub = this.getWorld().getMazub();
 		Buzam buzam = this.getWorld().getBuzam();
-		while (sumDeltaTimeForPixel<deltaTime){
-			deltaTimeForPixel= getDeltaTimeForPixel(deltaTime);
-			updateHorizontalLocation(deltaTimeForPixel);
-			sumDeltaTimeForPixel+=deltaTimeForPixel;
-		}
 		if((mazub.getHitPoints() != mazub.getMaxHitPoints() && this.getHitPoints() != 0)
 		&& (buzam.getHitPoints() != buzam.getMaxHitPoints() && this.getHitPoints() != 0)){
 			int [] overlap = this.checkLeftRightTopBottomSideOverlap();
@@ -437,35 +485,29 @@ public class Plant extends GameObject {
 	 * 			|for each game object in gameGameObjectAtTile of this game object
 	 * 			|	if(gameObject instanceof Mazub || gameObject instanceof Buzam)
 	 * 			|		if(gameObject != this && gameObject != null && world.canHaveAsGameObject(gameObject))
-	 * 			|			overlap = checkLeftOrRightSideOverlap(gameObject,...);
+	 * 			|			overlap = checkLeftOrRightSideContact(gameObject);
 	 *			|			if(overlap [0] == 1)
 	 *			|			then the array "overlap" is returned
 	 *			|			or 
-	 *			|			overlap = checkTopOrBottomSideOverlap(gameObject,...);
+	 *			|			overlap = checkTopOrBottomSideContact(gameObject);
 	 *			|			if(overlap [0] == 1)
 	 *			|			then the array "overlap" is returned
 	 *			|return overlap
 	 */
 	@Override
 	protected int [] checkLeftRightTopBottomSideOverlap(){
-		int [] overlap = {0,0,0,0};
+		int [] overlap = getNoContact();
 		World world = this.getWorld();
 		List<GameObject> gameObjects = getGameObjectsAtTiles(world.getTilePositionsIn(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getEffectiveHorizontalLocation()+getWidth(), getEffectiveVerticalLocation()+getHeight()));
 		for(int index = 0; index < gameObjects.size(); index++){
 			GameObject gameObject = gameObjects.get(index);
 			if(gameObject instanceof Mazub || gameObject instanceof Mazub ){
 				if(gameObject != this && gameObject != null && world.canHaveAsGameObject(gameObject)){
-					int [][] leftPerimeterOther = gameObject.getLeftPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getHeight());
-					int [][] rightPerimeterOther = gameObject.getRightPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth(), gameObject.getHeight());
-					overlap = checkLeftOrRightSideOverlap(gameObject, this.getLeftPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getHeight()), 
-							 this.getRightPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth(), getHeight()), leftPerimeterOther, rightPerimeterOther);
+					overlap = checkLeftOrRightSideContact(gameObject);
 					if(overlap [0] == 1){
 						return overlap;
 					}
-					int [][] topPerimeterOther = gameObject.getTopPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth(), gameObject.getHeight());
-					int [][] bottomPerimeterOther = gameObject.getBottomPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth());
-					overlap = checkTopOrBottomSideOverlap(gameObject, this.getTopPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth(), getHeight()), 
-							this.getBottomPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth()), topPerimeterOther, bottomPerimeterOther);
+					overlap = checkTopOrBottomSideContact(gameObject);
 					if(overlap [0] == 1){
 						return overlap;
 					}
@@ -0,0 +1,262 @@
+package jumpingalien.model;
+
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of rays cast from a game object in a horizontal or vertical direction.
+ *
+ * A ray moves the bottom left pixel of its game object through the world, one pixel
+ * at a time, for as long as the game object could stand at that pixel. It stops at the
+ * first pixel where another game object is, or at the first pixel where its game object
+ * cannot stand.
+ *
+ * The ray does not visit every pixel on its way. The pixels are walked in segments over
+ * which neither the tiles the game object would cover, nor the tile of the pixel itself
+ * change. Whether the game object can stand somewhere is checked once per segment, and
+ * only the game objects the spatial index of the world registers at the tile of a segment
+ * are checked for a hit.
+ *
+ * @author 	Lennert Vanmunster & Pieter Van Damme
+ * @version	1.0
+ */
+public class Raycast {
+
+	/**
+	 * Cast a new ray from the given game object in the given direction.
+	 *
+	 * @param 	gameObject
+	 * 			The game object to cast the ray from.
+	 * @param 	direction
+	 * 			The direction to cast the ray in.
+	 * @post	The ray is cast from the rounded down location of the given game object.
+	 * 			If the direction is not horizontal or vertical, the ray is not cast.
+	 * @throws	IllegalArgumentException
+	 * 			The ray reaches a location for which the world of the given game object
+	 * 			cannot check its terrain.
+	 */
+	public Raycast(GameObject gameObject, Orientation direction) throws IllegalArgumentException{
+		this.gameObject = gameObject;
+		this.direction = direction;
+		int horizontalLocation = (int) gameObject.getHorizontalLocation();
+		int verticalLocation = (int) gameObject.getVerticalLocation();
+		if(direction == Orientation.RIGHT || direction == Orientation.LEFT){
+			cast(horizontalLocation, verticalLocation, true);
+		}
+		else if(direction == Orientation.UP || direction == Orientation.DOWN){
+			cast(verticalLocation, horizontalLocation, false);
+		}
+	}
+
+	/**
+	 * Return the game object this ray is cast from.
+	 */
+	@Basic @Immutable
+	public GameObject getGameObject(){
+		return this.gameObject;
+	}
+
+	private final GameObject gameObject;
+
+	/**
+	 * Return the direction this ray is cast in.
+	 */
+	@Basic @Immutable
+	public Orientation getDirection(){
+		return this.direction;
+	}
+
+	private final Orientation direction;
+
+	/**
+	 * Check whether this ray has left its game object, that is whether its game object
+	 * could stand at its own rounded down location.
+	 */
+	@Basic
+	public boolean hasLeft(){
+		return this.hasLeft;
+	}
+
+	private boolean hasLeft = false;
+
+	/**
+	 * Return the first game object this ray has hit, or null if it has not hit any.
+	 */
+	@Basic
+	public GameObject getHitGameObject(){
+		return this.hitGameObject;
+	}
+
+	private GameObject hitGameObject;
+
+	/**
+	 * Return the tile position of the first pixel at which the game object of this ray
+	 * cannot stand, or null if that pixel is not a pixel of the world.
+	 *
+	 * @note	This tile is only meaningful if this ray has left its game object
+	 * 			and has not hit any game object.
+	 */
+	@Basic
+	public int [] getHitTile(){
+		return this.hitTile;
+	}
+
+	private int [] hitTile;
+
+	/**
+	 * Walk this ray along the given axis, starting from the given location and keeping
+	 * the given location on the other axis fixed.
+	 *
+	 * @param 	location
+	 * 			The location on the axis the ray walks along.
+	 * @param 	fixedLocation
+	 * 			The location on the other axis.
+	 * @param 	horizontal
+	 * 			Whether the ray walks horizontally.
+	 */
+	private void cast(int location, int fixedLocation, boolean horizontal){
+		GameObject gameObject = getGameObject();
+		World world = gameObject.getWorld();
+		int step = getDirection().getNumberForCalculations();
+		int tileSize = world.getTileSize();
+		// The offsets of the pixels, relative to the location, whose tiles are checked.
+		int [] offsets;
+		int lastLocation;
+		if(horizontal){
+			offsets = new int [] {0, gameObject.getWidth() - 1};
+			lastLocation = world.getWorldWidth() - 1 - Math.max(0, gameObject.getWidth() - 1);
+		}
+		else{
+			offsets = new int [] {0, 1, gameObject.getHeight() - 1};
+			lastLocation = world.getWorldHeight() - 1 - Math.max(1, gameObject.getHeight() - 1);
+		}
+		// The game object checks its horizontal location before its vertical location.
+		boolean fixedLocationChecked = false;
+		if(!horizontal){
+			if(!canHaveAsLocation(fixedLocation, true)){
+				return;
+			}
+			fixedLocationChecked = true;
+		}
+		int [] candidatesTile = null;
+		List<GameObject> candidates = null;
+		while(canHaveAsLocation(location, horizontal)){
+			if(!fixedLocationChecked){
+				if(!canHaveAsLocation(fixedLocation, !horizontal)){
+					break;
+				}
+				fixedLocationChecked = true;
+			}
+			this.hasLeft = true;
+			int segmentEnd = getSegmentEnd(location, step, offsets, tileSize, lastLocation);
+			int [] tile = horizontal ? world.getTilePositionAtPixelLocation(location, fixedLocation)
+					: world.getTilePositionAtPixelLocation(fixedLocation, location);
+			if(candidatesTile == null || candidatesTile[0] != tile[0] || candidatesTile[1] != tile[1]){
+				candidates = gameObject.getGameObjectsAtTiles(new int [][] {tile});
+				candidatesTile = tile;
+			}
+			GameObject hit = getFirstHit(candidates, location, segmentEnd, step, fixedLocation, horizontal);
+			if(hit != null){
+				this.hitGameObject = hit;
+				return;
+			}
+			location = segmentEnd + step;
+		}
+		try{
+			this.hitTile = horizontal ? world.getTilePositionAtPixelLocation(location, fixedLocation)
+					: world.getTilePositionAtPixelLocation(fixedLocation, location);
+		}catch(IllegalArgumentException exc){
+			this.hitTile = null;
+		}
+	}
+
+	/**
+	 * Check whether the game object of this ray can stand at the given location
+	 * on the given axis.
+	 */
+	private boolean canHaveAsLocation(int location, boolean horizontal){
+		if(horizontal){
+			return getGameObject().canHaveAsHorizontalLocation(location);
+		}
+		return getGameObject().canHaveAsVerticalLocation(location);
+	}
+
+	/**
+	 * Return the last location, walking from the given location in steps of the given
+	 * step, for which none of the pixels at the given offsets changes tile.
+	 *
+	 * @param	location
+	 * 			The location to start walking from.
+	 * @param	step
+	 * 			The step to walk in, which is either 1 or -1.
+	 * @param	offsets
+	 * 			The offsets of the pixels that may not change tile.
+	 * @param	tileSize
+	 * 			The size of the tiles.
+	 * @param	lastLocation
+	 * 			The last location at which all pixels at the given offsets are in the world.
+	 */
+	private static int getSegmentEnd(int location, int step, int [] offsets, int tileSize, int lastLocation){
+		int segmentEnd = (step > 0) ? lastLocation : 0;
+		for(int offset : offsets){
+			int tile = Math.floorDiv(location + offset, tileSize);
+			if(step > 0){
+				segmentEnd = Math.min(segmentEnd, (tile + 1) * tileSize - 1 - offset);
+			}
+			else{
+				segmentEnd = Math.max(segmentEnd, tile * tileSize - offset);
+			}
+		}
+		return segmentEnd;
+	}
+
+	/**
+	 * Return the game object among the given game objects that this ray hits first
+	 * between the given locations, or null if it hits none of them.
+	 *
+	 * @return	The game object that comes first in the given list among those that contain
+	 * 			the first pixel between the given locations that is contained by any of them.
+	 */
+	private static GameObject getFirstHit(List<GameObject> gameObjects, int start, int end, int step,
+			int fixedLocation, boolean horizontal){
+		int firstPixel = end + step;
+		for(GameObject gameObject : gameObjects){
+			int [] span = getSpan(gameObject, !horizontal);
+			if(fixedLocation < span[0] || span[1] < fixedLocation){
+				continue;
+			}
+			span = getSpan(gameObject, horizontal);
+			if(step > 0 && span[0] <= end && start <= span[1]){
+				firstPixel = Math.min(firstPixel, Math.max(span[0], start));
+			}
+			else if(step < 0 && end <= span[1] && span[0] <= start){
+				firstPixel = Math.max(firstPixel, Math.min(span[1], start));
+			}
+		}
+		if(firstPixel == end + step){
+			return null;
+		}
+		for(GameObject gameObject : gameObjects){
+			int [] span = getSpan(gameObject, horizontal);
+			int [] fixedSpan = getSpan(gameObject, !horizontal);
+			if(span[0] <= firstPixel && firstPixel <= span[1]
+					&& fixedSpan[0] <= fixedLocation && fixedLocation <= fixedSpan[1]){
+				return gameObject;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the first and the last pixel the given game object covers along the given axis.
+	 */
+	private static int [] getSpan(GameObject gameObject, boolean horizontal){
+		if(horizontal){
+			int left = gameObject.getEffectiveHorizontalLocation();
+			return new int [] {left, left + gameObject.getWidth() - 1};
+		}
+		int bottom = gameObject.getEffectiveVerticalLocation();
+		return new int [] {bottom, bottom + gameObject.getHeight() - 1};
+	}
+}
@@ -1,5 +1,6 @@
 package jumpingalien.model;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import be.kuleuven.cs.som.annotate.*;
@@ -187,6 +188,21 @@ public class School {
 		return this.isTerminated;
 	}
 	
+	/**
+	 * Restore the slimes of this school and its terminated state to the given ones.
+	 * The given slimes must reference this school again after they are restored.
+	 * 
+	 * @param 	slimes
+	 * 			The slimes this school had.
+	 * @param 	isTerminated
+	 * 			The terminated state this school had.
+	 */
+	void restore(Slime [] slimes, boolean isTerminated){
+		this.slimes.clear();
+		Collections.addAll(this.slimes, slimes);
+		this.isTerminated = isTerminated;
+	}
+	
 	/**
 	 * Set collecting the references to the slimes attached to this school
 	 * @invar	Each element in the set of slimes references a slime that is an acceptable slime for this school.
@@ -300,7 +300,7 @@ public class Shark extends GameObject{
 	 * 			|	new.getNbMovementsSinceLastJump()==this.getNbMovementsSinceLastJump()+1
 	 */
 	private void startNewAction(){
-		Random r = new Random();
+		Random r = this.getRandom();
 		this.setCurrentActionDuration(getMinimumActionDuration()+(getMaximumActionDuration()-getMinimumActionDuration())*r.nextDouble());
 		this.setDirection(r.nextBoolean() ? Orientation.LEFT : Orientation.RIGHT);
 		this.startMove(getDirection());
@@ -630,12 +630,30 @@ public class Shark extends GameObject{
 			throw new IllegalArgumentException();
 		double deltaTimeForPixel=0;
 		double sumDeltaTimeForPixel=0;
-		double oldHorizontalLocation=this.getHorizontalLocation();
-		double oldVerticalLocation=this.getVerticalLocation();
-		if(this.getProgram()!=null){
-			this.getProgram().execute(deltaTime);
+		thinkTimeStep(deltaTime);
+		startTimeStep(deltaTime);
+		while (sumDeltaTimeForPixel<deltaTime){
+			deltaTimeForPixel= getDeltaTimeForPixel(deltaTime);
+			sumDeltaTimeForPixel+=deltaTimeForPixel;
+			integrateSubStep(deltaTimeForPixel);
+			resolveSubStep();
 		}
-		else{
+		endTimeStep(deltaTime);
+	}
+	
+	/**
+	 * Start a new time step of the given duration for this shark.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 * @effect	|if(this.getProgram()==null && this.getTimeSinceStartAction()>this.getCurrentActionDuration())
+	 * 			|	this.startNewAction()
+	 * @post	|if(this.getProgram()==null && this.getTimeSinceStartAction()<=this.getCurrentActionDuration())
+	 * 			|	new.getTimeSinceStartAction() == this.getTimeSinceStartAction()+deltaTime
+	 */
+	@Override
+	protected void startTimeStep(double deltaTime){
+		if(this.getProgram()==null){
 			if(this.getTimeSinceStartAction()<=this.getCurrentActionDuration()){
 				this.setTimeSinceStartAction(this.getTimeSinceStartAction()+deltaTime);
 			}
@@ -643,17 +661,47 @@ public class Shark extends GameObject{
 				this.startNewAction();
 			}
 		}
-		while (sumDeltaTimeForPixel<deltaTime){
-			oldHorizontalLocation = this.getHorizontalLocation();
-			oldVerticalLocation = this.getVerticalLocation();
-			deltaTimeForPixel= getDeltaTimeForPixel(deltaTime);
-			sumDeltaTimeForPixel+=deltaTimeForPixel;
-			this.updateVelocities(deltaTimeForPixel);
-			this.updateLocations(deltaTimeForPixel, oldHorizontalLocation, oldVerticalLocation);
-			this.updateJumping();
-			int []overlap = checkLeftRightTopBottomSideOverlap();
-			collisionHandler(overlap,oldHorizontalLocation,oldVerticalLocation);
-		}
+	}
+	
+	/**
+	 * Integrate the velocities and locations of this shark over the given sub-step.
+	 * 
+	 * @param 	deltaTimeForPixel
+	 * 			The duration of the sub-step.
+	 * @effect	|recordSubStepStartLocation()
+	 * 			|updateVelocities(deltaTimeForPixel)
+	 *			|updateLocations(deltaTimeForPixel, getSubStepStartHorizontalLocation(), getSubStepStartVerticalLocation())
+	 *			|updateJumping()
+	 */
+	@Override
+	protected void integrateSubStep(double deltaTimeForPixel){
+		recordSubStepStartLocation();
+		this.updateVelocities(deltaTimeForPixel);
+		this.updateLocations(deltaTimeForPixel, getSubStepStartHorizontalLocation(), getSubStepStartVerticalLocation());
+		this.updateJumping();
+	}
+	
+	/**
+	 * Resolve the contacts of this shark with other game objects at the end of a sub-step.
+	 * 
+	 * @effect	|collisionHandler(checkLeftRightTopBottomSideOverlap(),getSubStepStartHorizontalLocation(),getSubStepStartVerticalLocation())
+	 */
+	@Override
+	protected void resolveSubStep(){
+		int []overlap = checkLeftRightTopBottomSideOverlap();
+		collisionHandler(overlap,getSubStepStartHorizontalLocation(),getSubStepStartVerticalLocation());
+	}
+	
+	/**
+	 * End the current time step of the given duration for this shark.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 * @effect	|checkAirContact(deltaTime)
+	 *			|checkMagmaContact(deltaTime)
+	 */
+	@Override
+	protected void endTimeStep(double deltaTime){
 		checkAirContact(deltaTime);
 		checkMagmaContact(deltaTime);
 	}
@@ -786,33 +834,27 @@ public class Shark extends GameObject{
 	 * 			|overlap = {0,0,0,0}
 	 * 			|for each game object in gameGameObjectAtTile of this game object
 	 * 			|	if(gameObject != this && gameObject != null && world.canHaveAsGameObject(gameObject))
-	 * 			|		overlap = checkLeftOrRightSideOverlap(gameObject,perimeters...);
+	 * 			|		overlap = checkLeftOrRightSideContact(gameObject);
 	 *			|		if(overlap [0] == 1)
 	 *			|		then the array "overlap" is returned
 	 *			|		or 
-	 *			|		overlap = checkTopOrBottomSideOverlap(gameObject,perimeters...);
+	 *			|		overlap = checkTopOrBottomSideContact(gameObject);
 	 *			|		if(overlap [0] == 1)
 	 *			|		then the array "overlap" is returned
 	 *			|result == overlap
 	 */
 	protected int [] checkLeftRightTopBottomSideOverlap(){
-		int [] overlap = {0,0,0,0};
+		int [] overlap = getNoContact();
 		World world = this.getWorld();
 		List<GameObject> gameObjects = getGameObjectsAtTiles(world.getTilePositionsIn(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getEffectiveHorizontalLocation()+getWidth(), getEffectiveVerticalLocation()+getHeight()));
 		for(int index = 0; index < gameObjects.size(); index++){
 			GameObject gameObject = gameObjects.get(index);
 			if(gameObject != this && gameObject != null && world.canHaveAsGameObject(gameObject)){
-				int [][] leftPerimeterOther = gameObject.getLeftPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getHeight());
-				int [][] rightPerimeterOther = gameObject.getRightPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth(), gameObject.getHeight());
-				overlap = checkLeftOrRightSideOverlap(gameObject, this.getLeftPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getHeight()), 
-						 this.getRightPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth(), getHeight()), leftPerimeterOther, rightPerimeterOther);
+				overlap = checkLeftOrRightSideContact(gameObject);
 				if(overlap [0] == 1){
 					return overlap;
 				}
-				int [][] topPerimeterOther = gameObject.getTopPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth(), gameObject.getHeight());
-				int [][] bottomPerimeterOther = gameObject.getBottomPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth());
-				overlap = checkTopOrBottomSideOverlap(gameObject, this.getTopPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth(), getHeight()), 
-						this.getBottomPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth()), topPerimeterOther, bottomPerimeterOther);
+				overlap = checkTopOrBottomSideContact(gameObject);
 				if(overlap [0] == 1){
 					return overlap;
 				}
@@ -826,16 +868,14 @@ public class Shark extends GameObject{
 	 * Check whether the shark makes contact with water and no contact with air
 	 * 
 	 * @return 	If the shark is only located within water tiles and no air tiles, return true.
-	 * 			|boolean [] contactTiles = (this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
-				|this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)).clone()
-	 * 			|if(contactTiles[2] == true && contactTiles[0] == false)
+	 * 			|int terrainMask = this.getTerrainMask()
+	 * 			|if((terrainMask & World.WATER_MASK) != 0 && (terrainMask & World.AIR_MASK) == 0)
 	 * 			|	result == true
 	 * 			|else result == false
 	 */
 	protected boolean checkWaterAndNoAirContact(){
-		boolean [] contactTiles = (this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
-				this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)).clone();
-		if(contactTiles[2] == true && contactTiles[0] == false){
+		int terrainMask = this.getTerrainMask();
+		if((terrainMask & World.WATER_MASK) != 0 && (terrainMask & World.AIR_MASK) == 0){
 			return true;
 		}
 		else{
@@ -850,7 +890,7 @@ public class Shark extends GameObject{
 	 * 			The given time period.
 	 * @post	Every 0.2 seconds while being contacted with air, six hitpoints are removed
 	 * 			from this shark. The first 0.2 seconds no hitpoints are removed.
-	 * 			|if(contactTiles[0] == true)
+	 * 			|if((terrainMask & World.AIR_MASK) != 0)
 	 * 			|	then this.setTimeSinceStartAirContact(time + deltaTime)
 	 * 			|	if(Util.fuzzyGreaterThanOrEqualTo(this.getTimeSinceStartAirContact(), 0.2)){
 	 *			|		then this.removeHitPoints(6);
@@ -858,9 +898,8 @@ public class Shark extends GameObject{
 	 *			|else this.setTimeSinceStartAirContact(0);
 	 */
 	protected void checkAirContact(double deltaTime){
-		boolean [] contactTiles = (this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
-				this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)).clone();
-		if(contactTiles[0] == true){
+		int terrainMask = this.getTerrainMask();
+		if((terrainMask & World.AIR_MASK) != 0){
 			double time = getTimeSinceStartAirContact();
 			this.setTimeSinceStartAirContact(time + deltaTime);
 			if(Util.fuzzyGreaterThanOrEqualTo(this.getTimeSinceStartAirContact(), 0.2)){
@@ -878,7 +917,7 @@ public class Shark extends GameObject{
 	 * 			The given time period.
 	 * @post	Every 0.2 seconds while being contacted with magma, fifty hitpoints are removed
 	 * 			from shark. The first hitpoints are immediately removed at first contact.
-	 * 			|if(contactTiles[3] == true)
+	 * 			|if((terrainMask & World.MAGMA_MASK) != 0)
 	 *			|	then this.setTimeSinceStartMagmaContact(time + deltaTime);
 	 *			|	if(time == 0)
 	 *			|		then this.removeHitPoints(50);
@@ -889,9 +928,8 @@ public class Shark extends GameObject{
 	 */
 	@Override
 	protected void checkMagmaContact(double deltaTime){
-		boolean [] contactTiles = (this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
-				this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)).clone();
-		if(contactTiles[3] == true){
+		int terrainMask = this.getTerrainMask();
+		if((terrainMask & World.MAGMA_MASK) != 0){
 			double time = getTimeSinceStartMagmaContact();
 			this.setTimeSinceStartMagmaContact(time + deltaTime);
 			if(time == 0)
@@ -940,6 +978,34 @@ public class Shark extends GameObject{
 	 */
 	private double timeSinceAirContact = 0;
 	
+	/**
+	 * Put the state of this shark in the given buffer.
+	 * 
+	 * @effect	|super.saveState(buffer)
+	 */
+	@Override
+	protected void saveState(StateBuffer buffer){
+		super.saveState(buffer);
+		buffer.putDouble(this.randomDivingMultiplier);
+		buffer.putDouble(this.currentActionDuration);
+		buffer.putDouble(this.timeSinceAirContact);
+		buffer.putInt(this.nbMovementsSinceLastJump);
+	}
+	
+	/**
+	 * Restore the state of this shark from the given buffer.
+	 * 
+	 * @effect	|super.restoreState(buffer)
+	 */
+	@Override
+	protected void restoreState(StateBuffer buffer){
+		super.restoreState(buffer);
+		this.randomDivingMultiplier = buffer.getDouble();
+		this.currentActionDuration = buffer.getDouble();
+		this.timeSinceAirContact = buffer.getDouble();
+		this.nbMovementsSinceLastJump = buffer.getInt();
+	}
+	
 	/**
 	 * Constant registering the maximum number of hit points of a shark.
 	 */
@@ -245,7 +245,7 @@ public class Slime extends GameObject {
 	 * 			the direction of this slime is set to a random direction, the slime's horizontal moving state is set to true, the time since
 	 * 			the start of the action of this slime is set to 0 and the horizontal velocity of this slime is set to the initial horizontal velocity of slimes
 	 * 			in the calculated random direction.
-	 * 			| Random r = new Random()
+	 * 			| Random r = this.getRandom()
 	 * 			| this.setCurrentActionDuration(getMinimumActionDuration()+(getMaximumActionDuration()-getMinimumActionDuration())*r.nextDouble())
 	 * 			| this.setDirection(r.nextBoolean() ? Direction.LEFT : Direction.RIGHT)
 	 * 			| this.setMovingHorizontally(true)
@@ -253,7 +253,7 @@ public class Slime extends GameObject {
 	 * 			| this.setHorizontalVelocity(this.getInitialHorizontalVelocityForUpdate()*new.getDirection().getNumberForCalculations())
 	 */
 	private void startNewAction(){
-		Random r = new Random();
+		Random r = this.getRandom();
 		this.setCurrentActionDuration(getMinimumActionDuration()+(getMaximumActionDuration()-getMinimumActionDuration())*r.nextDouble());
 		this.setDirection(r.nextBoolean() ? Orientation.LEFT : Orientation.RIGHT);
 		this.setTimeSinceStartAction(0);
@@ -441,10 +441,32 @@ public class Slime extends GameObject {
 		throws IllegalArgumentException {
 		if(!isValidDeltaTime(deltaTime))
 			throw new IllegalArgumentException();
-		if(this.getProgram()!=null){
-			this.getProgram().execute(deltaTime);
+		thinkTimeStep(deltaTime);
+		startTimeStep(deltaTime);
+		double deltaTimeForPixel=0;
+		double sumDeltaTimeForPixel=0;
+		while (sumDeltaTimeForPixel<deltaTime){
+			deltaTimeForPixel= getDeltaTimeForPixel(deltaTime);
+			sumDeltaTimeForPixel+=deltaTimeForPixel;
+			integrateSubStep(deltaTimeForPixel);
+			resolveSubStep();
 		}
-		else{
+		endTimeStep(deltaTime);
+	}
+	
+	/**
+	 * Start a new time step of the given duration for this slime.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 * @effect	|if(this.getProgram()==null && this.getTimeSinceStartAction()>this.getCurrentActionDuration())
+	 * 			|	this.startNewAction()
+	 * @post	|if(this.getProgram()==null && this.getTimeSinceStartAction()<=this.getCurrentActionDuration())
+	 * 			|	new.getTimeSinceStartAction() == this.getTimeSinceStartAction()+deltaTime
+	 */
+	@Override
+	protected void startTimeStep(double deltaTime){
+		if(this.getProgram()==null){
 			if(this.getTimeSinceStartAction()<=this.getCurrentActionDuration()){
 				this.setTimeSinceStartAction(this.getTimeSinceStartAction()+deltaTime);
 			}
@@ -452,20 +474,46 @@ public class Slime extends GameObject {
 				this.startNewAction();
 			}
 		}
-		double deltaTimeForPixel=0;
-		double sumDeltaTimeForPixel=0;
-		double oldHorizontalLocation=this.getHorizontalLocation();
-		double oldVerticalLocation=this.getVerticalLocation();
-		while (sumDeltaTimeForPixel<deltaTime){
-			oldHorizontalLocation = this.getHorizontalLocation();
-			oldVerticalLocation = this.getVerticalLocation();
-			deltaTimeForPixel= getDeltaTimeForPixel(deltaTime);
-			sumDeltaTimeForPixel+=deltaTimeForPixel;
-			this.updateVelocities(deltaTimeForPixel);
-			this.updateLocations(deltaTimeForPixel, oldHorizontalLocation, oldVerticalLocation);
-			int []overlap = checkLeftRightTopBottomSideOverlap();
-			collisionHandler(overlap,oldHorizontalLocation,oldVerticalLocation);
-		}
+	}
+	
+	/**
+	 * Integrate the velocities and locations of this slime over the given sub-step.
+	 * 
+	 * @param 	deltaTimeForPixel
+	 * 			The duration of the sub-step.
+	 * @effect	|recordSubStepStartLocation()
+	 * 			|updateVelocities(deltaTimeForPixel)
+	 *			|updateLocations(deltaTimeForPixel, getSubStepStartHorizontalLocation(), getSubStepStartVerticalLocation())
+	 */
+	@Override
+	protected void integrateSubStep(double deltaTimeForPixel){
+		recordSubStepStartLocation();
+		this.updateVelocities(deltaTimeForPixel);
+		this.updateLocations(deltaTimeForPixel, getSubStepStartHorizontalLocation(), getSubStepStartVerticalLocation());
+	}
+	
+	/**
+	 * Resolve the contacts of this slime with other game objects at the end of a sub-step.
+	 * 
+	 * @effect	|collisionHandler(checkLeftRightTopBottomSideOverlap(),getSubStepStartHorizontalLocation(),getSubStepStartVerticalLocation())
+	 */
+	@Override
+	protected void resolveSubStep(){
+		int []overlap = checkLeftRightTopBottomSideOverlap();
+		collisionHandler(overlap,getSubStepStartHorizontalLocation(),getSubStepStartVerticalLocation());
+	}
+	
+	/**
+	 * End the current time step of the given duration for this slime.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 * @effect	|checkWaterContact(deltaTime)
+	 *			|checkMagmaContact(deltaTime)
+	 *			|calculateNewJumpingState()
+	 */
+	@Override
+	protected void endTimeStep(double deltaTime){
 		this.checkWaterContact(deltaTime);
 		this.checkMagmaContact(deltaTime);
 		this.calculateNewJumpingState();
@@ -587,33 +635,27 @@ public class Slime extends GameObject {
 	 * 			|overlap = {0,0,0,0}
 	 * 			|for each game object in gameGameObjectAtTile of this game object
 	 * 			|	if(gameObject != this && gameObject != null && world.canHaveAsGameObject(gameObject))
-	 * 			|		overlap = checkLeftOrRightSideOverlap(gameObject,perimeters...);
+	 * 			|		overlap = checkLeftOrRightSideContact(gameObject);
 	 *			|		if(overlap [0] == 1)
 	 *			|		then the array "overlap" is returned
 	 *			|		or 
-	 *			|		overlap = checkTopOrBottomSideOverlap(gameObject,perimeters...);
+	 *			|		overlap = checkTopOrBottomSideContact(gameObject);
 	 *			|		if(overlap [0] == 1)
 	 *			|		then the array "overlap" is returned
 	 *			|result == overlap
 	 */
 	protected int [] checkLeftRightTopBottomSideOverlap(){
-		int [] overlap = {0,0,0,0};
+		int [] overlap = getNoContact();
 		World world = this.getWorld();
 		List<GameObject> gameObjects = getGameObjectsAtTiles(world.getTilePositionsIn(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getEffectiveHorizontalLocation()+getWidth(), getEffectiveVerticalLocation()+getHeight()));
 		for(int index = 0; index < gameObjects.size(); index++){
 			GameObject gameObject = gameObjects.get(index);
 			if(gameObject != this && gameObject != null && world.canHaveAsGameObject(gameObject)){
-				int [][] leftPerimeterOther = gameObject.getLeftPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getHeight());
-				int [][] rightPerimeterOther = gameObject.getRightPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth(), gameObject.getHeight());
-				overlap = checkLeftOrRightSideOverlap(gameObject, this.getLeftPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getHeight()), 
-						 this.getRightPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth(), getHeight()), leftPerimeterOther, rightPerimeterOther);
+				overlap = checkLeftOrRightSideContact(gameObject);
 				if(overlap [0] == 1){
 					return overlap;
 				}
-				int [][] topPerimeterOther = gameObject.getTopPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth(), gameObject.getHeight());
-				int [][] bottomPerimeterOther = gameObject.getBottomPerimeter(gameObject.getEffectiveHorizontalLocation(), gameObject.getEffectiveVerticalLocation(), gameObject.getWidth());
-				overlap = checkTopOrBottomSideOverlap(gameObject, this.getTopPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth(), getHeight()), 
-						this.getBottomPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth()), topPerimeterOther, bottomPerimeterOther);
+				overlap = checkTopOrBottomSideContact(gameObject);
 				if(overlap [0] == 1){
 					return overlap;
 				}
@@ -634,9 +676,8 @@ public class Slime extends GameObject {
 	 */
 	@Override
 	protected void checkWaterContact(double deltaTime){
-		boolean [] contactTiles = (this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
-				this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)).clone();
-		if(contactTiles[2] == true){
+		int terrainMask = this.getTerrainMask();
+		if((terrainMask & World.WATER_MASK) != 0){
 			double time = getTimeSinceStartWaterContact();
 			this.setTimeSinceStartWaterContact(time + deltaTime);
 			if(Util.fuzzyGreaterThanOrEqualTo(this.getTimeSinceStartWaterContact(), 0.2)){
@@ -658,9 +699,8 @@ public class Slime extends GameObject {
 	 */
 	@Override
 	protected void checkMagmaContact(double deltaTime){
-		boolean [] contactTiles = (this.getWorld().areaCoincidesWithTerrain(this.getEffectiveHorizontalLocation(), 
-				this.getEffectiveVerticalLocation()+1, this.getWidth()-1, this.getHeight()-2)).clone();
-		if(contactTiles[3] == true){
+		int terrainMask = this.getTerrainMask();
+		if((terrainMask & World.MAGMA_MASK) != 0){
 			double time = getTimeSinceStartMagmaContact();
 			this.setTimeSinceStartMagmaContact(time + deltaTime);
 			if(time == 0)
@@ -834,6 +874,31 @@ public class Slime extends GameObject {
 	 * Variable registering the school to which this slime belongs.
 	 */
 	private School school;
+	
+	/**
+	 * Put the state of this slime in the given buffer. The school of this slime is put by
+	 * reference: the slimes of the school are saved by the world.
+	 * 
+	 * @effect	|super.saveState(buffer)
+	 */
+	@Override
+	protected void saveState(StateBuffer buffer){
+		super.saveState(buffer);
+		buffer.putDouble(this.currentActionDuration);
+		buffer.putObject(this.school);
+	}
+	
+	/**
+	 * Restore the state of this slime from the given buffer.
+	 * 
+	 * @effect	|super.restoreState(buffer)
+	 */
+	@Override
+	protected void restoreState(StateBuffer buffer){
+		super.restoreState(buffer);
+		this.currentActionDuration = buffer.getDouble();
+		this.school = buffer.getObject();
+	}
 
 	
 
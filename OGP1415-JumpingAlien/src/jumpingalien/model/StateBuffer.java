@@ -0,0 +1,171 @@
+package jumpingalien.model;
+
+import java.util.Arrays;
+
+/**
+ * A class of buffers holding the state of game objects and their programs in flat arrays,
+ * one for each kind of value.
+ *
+ * The state is written with the put methods in some order, and read back with the get methods
+ * in exactly the same order after rewinding the buffer. Arrays are copied as a whole in both
+ * directions, so the state of a game object can be restored in place without allocating.
+ *
+ * @version  1.0
+ * @author   Pieter Van Damme and Lennert Vanmunster
+ */
+public final class StateBuffer {
+
+	/**
+	 * Rewind this buffer, so its values are read again from the first one on.
+	 *
+	 * @post	The next value that is read from this buffer is the first value that was put in it.
+	 */
+	public void rewind(){
+		this.doublesRead = 0;
+		this.longsRead = 0;
+		this.objectsRead = 0;
+	}
+
+	/**
+	 * Shrink the arrays of this buffer to the values that were put in it.
+	 */
+	public void trim(){
+		this.doubles = Arrays.copyOf(this.doubles, this.nbDoubles);
+		this.longs = Arrays.copyOf(this.longs, this.nbLongs);
+		this.objects = Arrays.copyOf(this.objects, this.nbObjects);
+	}
+
+	public void putDouble(double value){
+		if(this.nbDoubles == this.doubles.length){
+			this.doubles = Arrays.copyOf(this.doubles, Math.max(16, 2 * this.nbDoubles));
+		}
+		this.doubles[this.nbDoubles++] = value;
+	}
+
+	public double getDouble(){
+		return this.doubles[this.doublesRead++];
+	}
+
+	public void putLong(long value){
+		if(this.nbLongs == this.longs.length){
+			this.longs = Arrays.copyOf(this.longs, Math.max(16, 2 * this.nbLongs));
+		}
+		this.longs[this.nbLongs++] = value;
+	}
+
+	public long getLong(){
+		return this.longs[this.longsRead++];
+	}
+
+	public void putInt(int value){
+		putLong(value);
+	}
+
+	public int getInt(){
+		return (int) getLong();
+	}
+
+	public void putBoolean(boolean value){
+		putLong(value ? 1 : 0);
+	}
+
+	public boolean getBoolean(){
+		return getLong() != 0;
+	}
+
+	/**
+	 * Put a reference to the given object in this buffer. The object itself is not copied.
+	 */
+	public void putObject(Object value){
+		if(this.nbObjects == this.objects.length){
+			this.objects = Arrays.copyOf(this.objects, Math.max(16, 2 * this.nbObjects));
+		}
+		this.objects[this.nbObjects++] = value;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T getObject(){
+		return (T) this.objects[this.objectsRead++];
+	}
+
+	/**
+	 * Put a copy of the given array in this buffer.
+	 */
+	public void putArray(boolean [] values){
+		putObject(values.clone());
+	}
+
+	/**
+	 * Copy the array that is read from this buffer into the given array.
+	 *
+	 * @pre		The given array has the length of the array that was put in this buffer.
+	 */
+	public void getArray(boolean [] values){
+		boolean [] saved = getObject();
+		System.arraycopy(saved, 0, values, 0, saved.length);
+	}
+
+	public void putArray(int [] values){
+		putObject(values.clone());
+	}
+
+	public void getArray(int [] values){
+		int [] saved = getObject();
+		System.arraycopy(saved, 0, values, 0, saved.length);
+	}
+
+	public void putArray(double [] values){
+		putObject(values.clone());
+	}
+
+	public void getArray(double [] values){
+		double [] saved = getObject();
+		System.arraycopy(saved, 0, values, 0, saved.length);
+	}
+
+	public void putArray(byte [] values){
+		putObject(values.clone());
+	}
+
+	public void getArray(byte [] values){
+		byte [] saved = getObject();
+		System.arraycopy(saved, 0, values, 0, saved.length);
+	}
+
+	/**
+	 * Put a copy of the given array in this buffer. The elements themselves are not copied.
+	 */
+	public void putArray(Object [] values){
+		putObject(values.clone());
+	}
+
+	/**
+	 * Copy the array that is read from this buffer into the given array, and clear the
+	 * elements of the given array beyond it.
+	 *
+	 * @pre		The given array is at least as long as the array that was put in this buffer.
+	 */
+	public void getArray(Object [] values){
+		Object [] saved = getObject();
+		System.arraycopy(saved, 0, values, 0, saved.length);
+		Arrays.fill(values, saved.length, values.length, null);
+	}
+
+	private double [] doubles = new double[0];
+
+	private long [] longs = new long[0];
+
+	private Object [] objects = new Object[0];
+
+	/**
+	 * Variables registering the number of values put in this buffer, and the number of values
+	 * read from it since it was rewound, for each kind of value.
+	 */
+	private int nbDoubles = 0;
+	private int nbLongs = 0;
+	private int nbObjects = 0;
+
+	private int doublesRead = 0;
+	private int longsRead = 0;
+	private int objectsRead = 0;
+}
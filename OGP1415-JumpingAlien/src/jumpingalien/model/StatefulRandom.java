@@ -0,0 +1,63 @@
+package jumpingalien.model;
+
+import java.util.Random;
+
+/**
+ * A class of random generators whose state can be read and restored.
+ *
+ * A stateful random generator generates exactly the same numbers as a java.util.Random
+ * with the same seed, but keeps its state in a field of its own, so a snapshot of a world
+ * can capture where the random generator of each game object is in its sequence.
+ *
+ * @note	Like the game object that uses it, a stateful random generator is not meant
+ * 			to be used by several threads at once.
+ * @note	The state does not include the second Gaussian that nextGaussian() caches,
+ * 			which the model does not use.
+ *
+ * @version  1.0
+ * @author   Pieter Van Damme and Lennert Vanmunster
+ */
+final class StatefulRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+
+	StatefulRandom(){
+		super();
+	}
+
+	StatefulRandom(long seed){
+		super(seed);
+	}
+
+	@Override
+	public synchronized void setSeed(long seed){
+		super.setSeed(seed);
+		this.state = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	@Override
+	protected int next(int bits){
+		this.state = (this.state * MULTIPLIER + ADDEND) & MASK;
+		return (int) (this.state >>> (48 - bits));
+	}
+
+	long getState(){
+		return this.state;
+	}
+
+	void setState(long state){
+		this.state = state;
+	}
+
+	/**
+	 * Variable registering the state of this random generator.
+	 *
+	 * @note	This variable has no initializer, because it is set by the constructor
+	 * 			of Random before the initializers of this class are run.
+	 */
+	private long state;
+}
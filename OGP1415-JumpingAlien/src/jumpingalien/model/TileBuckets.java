@@ -0,0 +1,146 @@
+package jumpingalien.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class of maps from the tiles of a world to the game objects that the spatial index of
+ * that world registers at those tiles.
+ *
+ * A tile is keyed by a primitive long that combines its tile position, and its bucket is found
+ * by linear probing in an array of keys, so looking up a bucket neither boxes its key nor allocates.
+ * Only tiles that are covered by at least one game object have a bucket.
+ *
+ * @version  1.0
+ * @author   Pieter Van Damme and Lennert Vanmunster
+ */
+final class TileBuckets {
+
+	/**
+	 * Initialize these new tile buckets without any buckets.
+	 */
+	TileBuckets(){
+		clear();
+	}
+
+	/**
+	 * Return the key of the tile at the given tile position.
+	 *
+	 * @return	|result == ((long) tileX << 32) | (tileY & 0xFFFFFFFFL)
+	 */
+	static long getKey(int tileX, int tileY){
+		return ((long) tileX << 32) | (tileY & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Return the bucket of the tile with the given key, or null if no game object is registered at that tile.
+	 */
+	List<GameObject> get(long key){
+		int slot = findSlot(key);
+		return this.buckets[slot];
+	}
+
+	/**
+	 * Return the bucket of the tile with the given key, after giving that tile an empty bucket if it had none.
+	 */
+	List<GameObject> getOrCreate(long key){
+		int slot = findSlot(key);
+		if(this.buckets[slot] == null){
+			if(2 * (this.size + 1) > this.keys.length){
+				grow();
+				slot = findSlot(key);
+			}
+			this.keys[slot] = key;
+			this.buckets[slot] = new ArrayList<GameObject>(4);
+			this.size++;
+		}
+		return this.buckets[slot];
+	}
+
+	/**
+	 * Remove the bucket of the tile with the given key, if it has one.
+	 * The buckets that follow it in its run of slots are shifted back, so no run is broken.
+	 */
+	void remove(long key){
+		int slot = findSlot(key);
+		if(this.buckets[slot] == null){
+			return;
+		}
+		int mask = this.keys.length - 1;
+		int free = slot;
+		int next = (free + 1) & mask;
+		while(this.buckets[next] != null){
+			int home = getHomeSlot(this.keys[next]);
+			// The bucket at next may move to the free slot if its home slot does not lie
+			// cyclically in (free, next].
+			if(((next - home) & mask) >= ((next - free) & mask)){
+				this.keys[free] = this.keys[next];
+				this.buckets[free] = this.buckets[next];
+				free = next;
+			}
+			next = (next + 1) & mask;
+		}
+		this.buckets[free] = null;
+		this.size--;
+	}
+
+	/**
+	 * Remove all buckets.
+	 */
+	void clear(){
+		this.keys = new long[INITIAL_CAPACITY];
+		this.buckets = newBuckets(INITIAL_CAPACITY);
+		this.size = 0;
+	}
+
+	/**
+	 * Return the slot of the given key, or the empty slot at which it would be stored.
+	 */
+	private int findSlot(long key){
+		int mask = this.keys.length - 1;
+		int slot = getHomeSlot(key);
+		while(this.buckets[slot] != null && this.keys[slot] != key){
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private int getHomeSlot(long key){
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash >>> 32) & (this.keys.length - 1);
+	}
+
+	private void grow(){
+		long [] oldKeys = this.keys;
+		List<GameObject> [] oldBuckets = this.buckets;
+		this.keys = new long[2 * oldKeys.length];
+		this.buckets = newBuckets(2 * oldKeys.length);
+		for(int slot = 0; slot < oldKeys.length; slot++){
+			if(oldBuckets[slot] != null){
+				int newSlot = findSlot(oldKeys[slot]);
+				this.keys[newSlot] = oldKeys[slot];
+				this.buckets[newSlot] = oldBuckets[slot];
+			}
+		}
+	}
+
+	/**
+	 * Return a new array of the given length without any buckets.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static List<GameObject> [] newBuckets(int length){
+		return new List[length];
+	}
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * Arrays registering the key and the bucket of every tile that has a bucket; a slot without a bucket is free.
+	 * The length of both arrays is a power of two, and at least twice the number of buckets.
+	 */
+	private long [] keys;
+
+	private List<GameObject> [] buckets;
+
+	private int size;
+}
@@ -0,0 +1,35 @@
+package jumpingalien.model;
+
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * An enumeration of the phases of advancing the time of a world, of which a world
+ * can measure the time it spends in them.
+ *
+ * @version  1.0
+ * @author   Pieter Van Damme and Lennert Vanmunster
+ */
+@Value
+public enum UpdatePhase {
+
+	/**
+	 * The execution of the programs of the game objects.
+	 */
+	PROGRAMS,
+
+	/**
+	 * The integration of the velocities and locations of the game objects.
+	 */
+	INTEGRATION,
+
+	/**
+	 * The resolution of the contacts between game objects.
+	 */
+	COLLISION,
+
+	/**
+	 * The queries of the terrain of the world. These are made during the other phases.
+	 */
+	TERRAIN;
+
+}
@@ -3,6 +3,9 @@ package jumpingalien.model;
 import be.kuleuven.cs.som.annotate.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import jumpingalien.util.Util;
 
 
@@ -205,7 +208,7 @@ public class World {
 	@Raw
 	@Immutable
 	public static int[] getInitialVisibleWindowLocation(){
-		return initialVisibleWindowLocation;
+		return initialVisibleWindowLocation.clone();
 	}
 	
 	/**
@@ -237,6 +240,42 @@ public class World {
 		this.visibleWindowLocation = window;
 	}
 	
+	/**
+	 * Return the pixel location of the visible window at the start of the last fixed time step of this world.
+	 */
+	@Basic
+	public int [] getTimeStepStartVisibleWindowLocation(){
+		return this.timeStepStartVisibleWindowLocation.clone();
+	}
+	
+	/**
+	 * Return the location at which the visible window should be rendered, given the interpolation factor
+	 * of this world between the previous and the current fixed time step.
+	 * 
+	 * @param 	interpolationFactor
+	 * 			The interpolation factor, a number between 0 and 1.
+	 * @return	|for each index in 0..1:
+	 * 			|	result[index] == (int) (getTimeStepStartVisibleWindowLocation()[index] +
+	 * 			|		(getVisibleWindowLocation()[index] - getTimeStepStartVisibleWindowLocation()[index]) * interpolationFactor)
+	 */
+	public int [] getInterpolatedVisibleWindowLocation(double interpolationFactor){
+		int [] location = new int[2];
+		for(int index = 0; index < 2; index++){
+			location[index] = (int) (this.timeStepStartVisibleWindowLocation[index] +
+					(this.visibleWindowLocation[index] - this.timeStepStartVisibleWindowLocation[index]) * interpolationFactor);
+		}
+		return location;
+	}
+	
+	/**
+	 * Record the current location of the visible window as its location at the start of a fixed time step.
+	 * 
+	 * @post	|new.getTimeStepStartVisibleWindowLocation() == this.getVisibleWindowLocation()
+	 */
+	private void recordTimeStepStartVisibleWindowLocation(){
+		this.timeStepStartVisibleWindowLocation = this.visibleWindowLocation.clone();
+	}
+	
 	/**
 	 * Check whether the given tile size is a possible tile size for any world.
 	 * 
@@ -464,15 +503,27 @@ public class World {
 	 */
 	private int [] visibleWindowLocation = new int[2];
 	
+	/**
+	 * An array registering the pixel coordinates of the bottom left pixel of the visible window
+	 * at the start of the last fixed time step of this world.
+	 */
+	private int [] timeStepStartVisibleWindowLocation = new int[2];
+	
 	/**
 	 * Return the tile values of this World as matrix. The first index of the matrix denotes the horizontal
 	 * tile location of the tile and the second index the vertical tile location. The value at that position in the matrix is the 
 	 * tile value at that tile position in the world. 
 	 */
-	@Basic
 	@Raw
 	public int [][] getTiles(){
-		return this.tiles.clone();
+		int [][] tileMatrix = new int [getNbTilesX()][getNbTilesY()];
+		for(int horizontalTilePosition = 0; horizontalTilePosition < getNbTilesX(); horizontalTilePosition++){
+			for(int verticalTilePosition = 0; verticalTilePosition < getNbTilesY(); verticalTilePosition++){
+				tileMatrix[horizontalTilePosition][verticalTilePosition] = 
+						this.tiles[getTileIndex(horizontalTilePosition, verticalTilePosition)];
+			}
+		}
+		return tileMatrix;
 	}
 	
 	/**
@@ -488,7 +539,7 @@ public class World {
 			throws IllegalArgumentException{
 		if(!canHaveAsTilePosition(horizontalTilePosition, verticalTilePosition))
 			throw new IllegalArgumentException("Not a valid tile position");
-		return getTiles()[horizontalTilePosition][verticalTilePosition];
+		return this.tiles[getTileIndex(horizontalTilePosition, verticalTilePosition)];
 	}
 	
 	/**
@@ -511,9 +562,37 @@ public class World {
 			throw new IllegalArgumentException("Not a valid tile!");
 		if(!canHaveAsTilePosition(horizontalTilePosition, verticalTilePosition))
 			throw new IllegalArgumentException("Not a valid tile position!");
-		this.tiles [horizontalTilePosition][verticalTilePosition] = tile;
+		this.tiles [getTileIndex(horizontalTilePosition, verticalTilePosition)] = (byte) tile;
+		this.terrainSums = null;
 	}
-	
+
+	/**
+	 * Set the values of all tiles of this world at once to the given values.
+	 * @param 	tileValues
+	 * 			The values of the tiles, row by row from the bottom row to the top row.
+	 * @post	|for each horizontalTilePosition in 0..getNbTilesX()-1:
+	 * 			|	for each verticalTilePosition in 0..getNbTilesY()-1:
+	 * 			|		new.getTileValueAtTilePosition(horizontalTilePosition, verticalTilePosition)
+	 * 			|			== tileValues[verticalTilePosition * getNbTilesX() + horizontalTilePosition]
+	 * @throws	IllegalArgumentException
+	 * 			|tileValues.length != getNbTilesX() * getNbTilesY()
+	 * @throws	IllegalArgumentException
+	 * 			|for some tileValue in tileValues: !isValidTileValue(tileValue)
+	 * @throws	IllegalArgumentException
+	 * 			|getGameHasStarted()
+	 */
+	public void setTileValues(byte [] tileValues) throws IllegalArgumentException{
+		if(this.getGameHasStarted())
+			throw new IllegalArgumentException("The game has already started!");
+		if(tileValues.length != this.tiles.length)
+			throw new IllegalArgumentException("Not a value for every tile!");
+		for(byte tileValue : tileValues)
+			if(!isValidTileValue(tileValue))
+				throw new IllegalArgumentException("Not a valid tile!");
+		System.arraycopy(tileValues, 0, this.tiles, 0, this.tiles.length);
+		this.terrainSums = null;
+	}
+
 	/**
 	 * Create a matrix full of zero's with given dimensions 
 	 * representing the tiles of the World.
@@ -522,6 +601,7 @@ public class World {
 	 * @param 	nbTilesY
 	 * 			The number of tiles in the vertical direction.
 	 * @post	|new.getTiles() == new int [nbTilesX] [nbTilesY]
+	 * @effect	The tiles are stored row by row in a flat array of bytes.
 	 * @throws	IllegalArgumentException
 	 * 			|!this.canHaveAsNbTiles(nbTilesX) || !this.canHaveAsNbTiles(nbTilesY)
 	 */
@@ -529,7 +609,21 @@ public class World {
 	private void createTiles(int nbTilesX, int nbTilesY) throws IllegalArgumentException{
 		if(!canHaveAsNbTilesX(nbTilesX) || !canHaveAsNbTilesY(nbTilesY))
 			throw new IllegalArgumentException("Not a valid number of tiles");
-		this.tiles = new int [nbTilesX] [nbTilesY]; 
+		this.tiles = new byte [nbTilesX * nbTilesY]; 
+		this.terrainSums = null;
+	}
+	
+	/**
+	 * Return the index of the tile at the given tile position in the flat array of tiles of this world.
+	 * 
+	 * @param 	horizontalTilePosition
+	 * 			The horizontal tile position of the tile.
+	 * @param 	verticalTilePosition
+	 * 			The vertical tile position of the tile.
+	 * @return	|result == verticalTilePosition * getNbTilesX() + horizontalTilePosition
+	 */
+	private int getTileIndex(int horizontalTilePosition, int verticalTilePosition){
+		return verticalTilePosition * getNbTilesX() + horizontalTilePosition;
 	}
 	
 	/**
@@ -573,11 +667,10 @@ public class World {
 	}
 	
 	/**
-	 * A matrix registering the values of all tiles of this World. The first index of the matrix denotes the horizontal
-	 * tile position and the second index denotes the vertical tile position. The value at a certain matrix position equals the
-	 * tile value at a certain tile position for each position.
+	 * An array registering the values of all tiles of this World, row by row from the bottom row to the top row.
+	 * The value of the tile at a certain tile position is stored at the index getTileIndex(tileX, tileY).
 	 */
-	private int [][] tiles;
+	private byte [] tiles;
 	
 	
 	/**
@@ -760,6 +853,26 @@ public class World {
 	 */
 	private final static int NB_OF_GEOLOGICAL_FEATURES = 4;
 	
+	/**
+	 * Bit in a terrain mask registering air.
+	 */
+	public static final int AIR_MASK = 1 << 0;
+	
+	/**
+	 * Bit in a terrain mask registering solid ground.
+	 */
+	public static final int SOLID_MASK = 1 << 1;
+	
+	/**
+	 * Bit in a terrain mask registering water.
+	 */
+	public static final int WATER_MASK = 1 << 2;
+	
+	/**
+	 * Bit in a terrain mask registering magma.
+	 */
+	public static final int MAGMA_MASK = 1 << 3;
+	
 	/**
 	 * Check with which types of geological features this pixel area overlaps.
 	 * It returns an array with a boolean at the position of the corresponding 
@@ -773,34 +886,200 @@ public class World {
 	 * 			The width of the area in pixels.
 	 * @param 	areaHeight
 	 * 			The height of the area in pixels.
-	 * @return	| boolean [] coincidesWithTerrain= {false,false,false,false}
-	 * 			| for (tiles=0..this.getTilePositionsIn(horizontalLocation, verticalLocation, 
-	 *			|					horizontalLocation+areaWidth, verticalLocation+areaHeight).length)
-	 *			|		for(index=0..NB_OF_GEOLOGICAL_FEATURES)
-	 *			|			coincidesWithTerrain[index]=true;
-	 *			| result==coincidesWithTerrain
+	 * @return	| int terrainMask = getTerrainMaskIn(horizontalLocation, verticalLocation, areaWidth, areaHeight)
+	 *			| for(index=0..NB_OF_GEOLOGICAL_FEATURES)
+	 *			|	result[index] == ((terrainMask & (1 << index)) != 0)
 	 * @throws 	IllegalArgumentException
 	 * 			|!this.canHaveAsPixelLocation(horizontalLocation, verticalLocation) 
 				|	|| !this.canHaveAsPixelLocation(horizontalLocation + areaWidth, 
 				|		verticalLocation + areaHeight)
 	 */
 	public boolean [] areaCoincidesWithTerrain(int horizontalLocation, int verticalLocation, int areaWidth, int areaHeight) throws IllegalArgumentException{
+		int terrainMask = getTerrainMaskIn(horizontalLocation, verticalLocation, areaWidth, areaHeight);
+		boolean [] coincidesWithTerrain = new boolean [NB_OF_GEOLOGICAL_FEATURES];
+		for(int index = 0; index < NB_OF_GEOLOGICAL_FEATURES; index++){
+			coincidesWithTerrain [index] = (terrainMask & (1 << index)) != 0;
+		}
+		return coincidesWithTerrain;
+	}
+	
+	/**
+	 * Return a mask of the types of geological features this pixel area overlaps with.
+	 * Bit i of the mask is set if and only if the area overlaps with a tile of geological feature i
+	 * (see AIR_MASK, SOLID_MASK, WATER_MASK and MAGMA_MASK).
+	 * 
+	 * @param 	horizontalLocation
+	 * 			The horizontal pixel location of the area.
+	 * @param 	verticalLocation
+	 * 			The vertical pixel location of the area.
+	 * @param 	areaWidth
+	 * 			The width of the area in pixels.
+	 * @param 	areaHeight
+	 * 			The height of the area in pixels.
+	 * @return	| int terrainMask = 0
+	 * 			| for each tile in this.getTilePositionsIn(horizontalLocation, verticalLocation, 
+	 *			|					horizontalLocation+areaWidth, verticalLocation+areaHeight)
+	 *			|	terrainMask |= 1 << getTileValueAtTilePosition(tile[0], tile[1])
+	 *			| result==terrainMask
+	 * @throws 	IllegalArgumentException
+	 * 			|!this.canHaveAsPixelLocation(horizontalLocation, verticalLocation) 
+				|	|| !this.canHaveAsPixelLocation(horizontalLocation + areaWidth, 
+				|		verticalLocation + areaHeight)
+	 */
+	public int getTerrainMaskIn(int horizontalLocation, int verticalLocation, int areaWidth, int areaHeight) throws IllegalArgumentException{
 		if(!this.canHaveAsPixelLocation(horizontalLocation, verticalLocation) 
 				|| !this.canHaveAsPixelLocation(horizontalLocation + areaWidth, 
 						verticalLocation + areaHeight))
 			throw new IllegalArgumentException();
-		boolean [] coincidesWithTerrain= {false,false,false,false};
-		int coincidingTiles[][]= getTilePositionsIn(horizontalLocation, verticalLocation, 
-				horizontalLocation+areaWidth, verticalLocation+areaHeight);
-		for(int tiles=0; tiles<coincidingTiles.length; tiles++){
-			for(int index = 0; index < NB_OF_GEOLOGICAL_FEATURES; index++)
-				if(getTileValueAtTilePosition(coincidingTiles[tiles][0],coincidingTiles[tiles][1])==index){
-					coincidesWithTerrain [index] = true;
+		int startTileX = horizontalLocation / getTileSize();
+		int startTileY = verticalLocation / getTileSize();
+		int stopTileX = (horizontalLocation + areaWidth) / getTileSize();
+		int stopTileY = (verticalLocation + areaHeight) / getTileSize();
+		if(COUNTS_EVENTS){
+			this.nbTerrainQueries.increment();
+		}
+		long start = startPhase();
+		int terrainMask;
+		if(usesTerrainSums()){
+			terrainMask = getTerrainMaskFromSums(startTileX, startTileY, stopTileX, stopTileY);
+		}
+		else{
+			terrainMask = getTerrainMaskFromTiles(startTileX, startTileY, stopTileX, stopTileY);
+		}
+		endPhase(UpdatePhase.TERRAIN, start);
+		return terrainMask;
+	}
+	
+	/**
+	 * Return a mask of the types of geological features in the given rectangle of tiles,
+	 * computed from the tiles themselves.
+	 * 
+	 * @param 	startTileX
+	 * 			The horizontal tile position of the left column of the rectangle.
+	 * @param 	startTileY
+	 * 			The vertical tile position of the bottom row of the rectangle.
+	 * @param 	stopTileX
+	 * 			The horizontal tile position of the right column of the rectangle.
+	 * @param 	stopTileY
+	 * 			The vertical tile position of the top row of the rectangle.
+	 */
+	private int getTerrainMaskFromTiles(int startTileX, int startTileY, int stopTileX, int stopTileY){
+		int terrainMask = 0;
+		for(int tileY = startTileY; tileY <= stopTileY; tileY++){
+			int rowIndex = getTileIndex(0, tileY);
+			for(int tileX = startTileX; tileX <= stopTileX; tileX++){
+				terrainMask |= 1 << this.tiles[rowIndex + tileX];
+			}
+			if(terrainMask == ALL_TERRAIN_MASK){
+				break;
 			}
 		}
-		return coincidesWithTerrain;
+		return terrainMask;
+	}
+	
+	/**
+	 * Return a mask of the types of geological features in the given rectangle of tiles,
+	 * computed from the summed-area tables of this world.
+	 * 
+	 * @param 	startTileX
+	 * 			The horizontal tile position of the left column of the rectangle.
+	 * @param 	startTileY
+	 * 			The vertical tile position of the bottom row of the rectangle.
+	 * @param 	stopTileX
+	 * 			The horizontal tile position of the right column of the rectangle.
+	 * @param 	stopTileY
+	 * 			The vertical tile position of the top row of the rectangle.
+	 */
+	private int getTerrainMaskFromSums(int startTileX, int startTileY, int stopTileX, int stopTileY){
+		int [][] sums = getTerrainSums();
+		int rowLength = getNbTilesX() + 1;
+		int bottomLeft = startTileY * rowLength + startTileX;
+		int bottomRight = startTileY * rowLength + stopTileX + 1;
+		int topLeft = (stopTileY + 1) * rowLength + startTileX;
+		int topRight = (stopTileY + 1) * rowLength + stopTileX + 1;
+		int terrainMask = 0;
+		for(int feature = 0; feature < NB_OF_GEOLOGICAL_FEATURES; feature++){
+			int [] featureSums = sums[feature];
+			if(featureSums[topRight] - featureSums[topLeft] - featureSums[bottomRight] + featureSums[bottomLeft] > 0){
+				terrainMask |= 1 << feature;
+			}
+		}
+		return terrainMask;
+	}
+	
+	/**
+	 * Return the summed-area tables of the tiles of this world, one for each geological feature.
+	 * The entry at index tileY*(getNbTilesX()+1)+tileX of the table of a feature is the number of tiles of that
+	 * feature to the left of column tileX and below row tileY. The tables are rebuilt after the tiles have changed.
+	 */
+	private int [][] getTerrainSums(){
+		int [][] sums = this.terrainSums;
+		if(sums == null){
+			sums = buildTerrainSums();
+		}
+		return sums;
+	}
+	
+	/**
+	 * Build the summed-area tables of the tiles of this world, unless another thread already did.
+	 */
+	private synchronized int [][] buildTerrainSums(){
+		if(this.terrainSums != null){
+			return this.terrainSums;
+		}
+		int rowLength = getNbTilesX() + 1;
+		int [][] sums = new int [NB_OF_GEOLOGICAL_FEATURES][rowLength * (getNbTilesY() + 1)];
+		for(int tileY = 0; tileY < getNbTilesY(); tileY++){
+			for(int tileX = 0; tileX < getNbTilesX(); tileX++){
+				int tile = this.tiles[getTileIndex(tileX, tileY)];
+				int index = (tileY + 1) * rowLength + tileX + 1;
+				for(int feature = 0; feature < NB_OF_GEOLOGICAL_FEATURES; feature++){
+					int [] featureSums = sums[feature];
+					featureSums[index] = featureSums[index - 1] + featureSums[index - rowLength] 
+							- featureSums[index - rowLength - 1] + (tile == feature ? 1 : 0);
+				}
+			}
+		}
+		this.terrainSums = sums;
+		return sums;
+	}
+	
+	/**
+	 * Return whether this world answers terrain queries with summed-area tables.
+	 */
+	@Basic
+	public boolean usesTerrainSums(){
+		return this.usesTerrainSums;
+	}
+	
+	/**
+	 * Set whether this world answers terrain queries with summed-area tables.
+	 * Summed-area tables answer every terrain query in constant time, at the cost of
+	 * four integers per tile and a rebuild after the tiles have changed.
+	 * 
+	 * @param 	usesTerrainSums
+	 * 			Whether to use summed-area tables.
+	 * @post	|new.usesTerrainSums() == usesTerrainSums
+	 */
+	public void setUsesTerrainSums(boolean usesTerrainSums){
+		this.usesTerrainSums = usesTerrainSums;
 	}
 	
+	/**
+	 * Variable registering whether this world answers terrain queries with summed-area tables.
+	 */
+	private boolean usesTerrainSums = false;
+	
+	/**
+	 * Variable registering the summed-area tables of the tiles of this world, or null if they have to be rebuilt.
+	 */
+	private volatile int [][] terrainSums = null;
+	
+	/**
+	 * Variable registering the terrain mask with all geological features.
+	 */
+	private static final int ALL_TERRAIN_MASK = (1 << NB_OF_GEOLOGICAL_FEATURES) - 1;
+	
 	/**
 	 * Return whether the game in this world has already started or not.
 	 */
@@ -886,9 +1165,22 @@ public class World {
 	
 	/**
 	 * Advance the time of this world and all its game objects by the given time duration.
+	 * If this world uses a fixed time step, the given duration is consumed in fixed time steps
+	 * and the remainder is kept for the next call, and all game objects advance in lockstep.
+	 * Otherwise every game object advances over the given duration in turn, on the calling thread.
 	 * @param deltaTime
+	 * @note	Only worlds with a fixed time step update their game objects on their update threads.
+	 * 			Lockstep and turn-based updates lead to different outcomes, so a world without a fixed
+	 * 			time step always advances in turns, whatever its number of update threads.
 	 */
-	public void advanceTime(double deltaTime){
+	public void advanceTime(double deltaTime) throws IllegalArgumentException{
+		if(COUNTS_EVENTS){
+			this.nbTicks.increment();
+		}
+		if(this.usesFixedTimeStep()){
+			this.advanceTimeInFixedSteps(deltaTime);
+			return;
+		}
 		for(int index = 0; index < this.getNbGameObjects(); index++){
 			GameObject gameObject = this.getGameObjectAtIndex(index);
 			if(canHaveAsGameObject(gameObject)){
@@ -911,6 +1203,531 @@ public class World {
 			this.updateVisibleWindow();
 	}
 	
+	/**
+	 * Consume the given time duration in fixed time steps of this world.
+	 * 
+	 * @param 	deltaTime
+	 * 			The time duration to consume.
+	 * @effect	|while(accumulatedTime >= getFixedTimeStep())
+	 * 			|	advanceTimeInLockstep(getFixedTimeStep())
+	 * @post	|0 <= new.getInterpolationFactor() < 1
+	 */
+	private void advanceTimeInFixedSteps(double deltaTime){
+		accumulatedTime += deltaTime;
+		while(accumulatedTime >= getFixedTimeStep() && !getGameOver()){
+			accumulatedTime -= getFixedTimeStep();
+			advanceTimeInLockstep(getFixedTimeStep());
+		}
+		if(getGameOver()){
+			accumulatedTime = 0;
+		}
+	}
+	
+	/**
+	 * Advance all the game objects of this world in lockstep over one time step of the given duration.
+	 * The programs of all game objects first think in parallel. Their actions are deferred and committed
+	 * afterwards in the order of the game objects in this world, so that no program sees the effects of
+	 * the programs of other game objects in the same time step.
+	 * Every sub-step then integrates the velocities and locations of all game objects, in parallel for the
+	 * game objects that can integrate concurrently, and resolves the contacts of all game objects serially.
+	 * The duration of a sub-step is the smallest time in which one of the game objects travels one pixel.
+	 * The result does not depend on the number of update threads of this world.
+	 * 
+	 * @param 	deltaTime
+	 * 			The duration of the time step.
+	 * @effect	|for each gameObject in active game objects (in parallel):
+	 * 			|	gameObject.thinkTimeStep(deltaTime)
+	 * 			|for each gameObject in active game objects:
+	 * 			|	gameObject.commitTimeStep()
+	 * 			|	gameObject.startTimeStep(deltaTime)
+	 * 			|while(time step not completed)
+	 * 			|	for each gameObject in active game objects (in parallel if gameObject.canIntegrateConcurrently()):
+	 * 			|		gameObject.integrateSubStep(deltaTimeForPixel)
+	 * 			|	for each gameObject in active game objects:
+	 * 			|		gameObject.resolveSubStep()
+	 * 			|for each gameObject in active game objects:
+	 * 			|	gameObject.endTimeStep(deltaTime)
+	 */
+	private void advanceTimeInLockstep(double deltaTime){
+		this.recordTimeStepStartVisibleWindowLocation();
+		List<GameObject> activeGameObjects = new ArrayList<GameObject>();
+		for(int index = 0; index < this.getNbGameObjects(); index++){
+			GameObject gameObject = this.getGameObjectAtIndex(index);
+			if(gameObject != null){
+				gameObject.recordTimeStepStartLocation();
+			}
+			if(canHaveAsGameObject(gameObject)){
+				if(Util.fuzzyEquals(gameObject.getTimeSinceDead(), 0)){
+					if(gameObject.getProgram() != null){
+						gameObject.getProgram().setDefersActions(true);
+					}
+					activeGameObjects.add(gameObject);
+				}
+				else{
+					gameObject.block();
+				}
+			}
+		}
+		forEachGameObject(activeGameObjects, gameObject -> gameObject.thinkTimeStep(deltaTime));
+		for(GameObject gameObject : activeGameObjects){
+			gameObject.commitTimeStep();
+			if(gameObject.getProgram() != null){
+				gameObject.getProgram().setDefersActions(false);
+			}
+			gameObject.startTimeStep(deltaTime);
+		}
+		double sumDeltaTimeForPixel = 0;
+		while(sumDeltaTimeForPixel < deltaTime && !activeGameObjects.isEmpty()){
+			double deltaTimeForPixel = deltaTime - sumDeltaTimeForPixel;
+			for(GameObject gameObject : activeGameObjects){
+				deltaTimeForPixel = Math.min(deltaTimeForPixel, gameObject.getDeltaTimeForPixel(deltaTime));
+			}
+			sumDeltaTimeForPixel += deltaTimeForPixel;
+			long start = startPhase();
+			integrateSubStep(activeGameObjects, deltaTimeForPixel);
+			endPhase(UpdatePhase.INTEGRATION, start);
+			start = startPhase();
+			for(GameObject gameObject : activeGameObjects){
+				if(isActiveGameObject(gameObject)){
+					gameObject.resolveSubStep();
+				}
+			}
+			endPhase(UpdatePhase.COLLISION, start);
+		}
+		for(GameObject gameObject : activeGameObjects){
+			if(isActiveGameObject(gameObject)){
+				gameObject.endTimeStep(deltaTime);
+			}
+		}
+		for(int index = 0; index < this.getNbGameObjects(); index++){
+			GameObject gameObject = this.getGameObjectAtIndex(index);
+			if(gameObject!=null && gameObject.getHitPoints()<= 0 && index!=0){
+				if(gameObject.getTimeSinceDead() > 0.6){
+					gameObject.terminate();
+				}
+				gameObject.setTimeSinceDead(gameObject.getTimeSinceDead() + deltaTime);
+			}
+		}
+		this.checkGameOver();
+		if(!getGameOver())
+			this.updateVisibleWindow();
+	}
+	
+	/**
+	 * Integrate one sub-step of the given duration for all the given game objects that are still active.
+	 * The game objects that can integrate concurrently are integrated in parallel, while the spatial index
+	 * of this world is frozen. Their new locations are committed to the spatial index afterwards in the order
+	 * of the given list. The other game objects are integrated serially.
+	 * 
+	 * @param 	gameObjects
+	 * 			The game objects to integrate.
+	 * @param 	deltaTimeForPixel
+	 * 			The duration of the sub-step.
+	 * @effect	|for each gameObject in gameObjects:
+	 * 			|	if(isActiveGameObject(gameObject))
+	 * 			|		gameObject.integrateSubStep(deltaTimeForPixel)
+	 */
+	private void integrateSubStep(List<GameObject> gameObjects, double deltaTimeForPixel){
+		List<GameObject> concurrentGameObjects = new ArrayList<GameObject>();
+		List<GameObject> serialGameObjects = new ArrayList<GameObject>();
+		for(GameObject gameObject : gameObjects){
+			if(isActiveGameObject(gameObject)){
+				if(gameObject.canIntegrateConcurrently()){
+					concurrentGameObjects.add(gameObject);
+				}
+				else{
+					serialGameObjects.add(gameObject);
+				}
+			}
+		}
+		this.spatialIndexFrozen = true;
+		try{
+			forEachGameObject(concurrentGameObjects, gameObject -> gameObject.integrateSubStep(deltaTimeForPixel));
+		} finally{
+			this.spatialIndexFrozen = false;
+		}
+		for(GameObject gameObject : concurrentGameObjects){
+			updateSpatialIndex(gameObject);
+		}
+		for(GameObject gameObject : serialGameObjects){
+			if(isActiveGameObject(gameObject)){
+				gameObject.integrateSubStep(deltaTimeForPixel);
+			}
+		}
+	}
+	
+	/**
+	 * Apply the given action to all the given game objects, in parallel on the update threads
+	 * of this world if it has more than one update thread.
+	 * 
+	 * @param 	gameObjects
+	 * 			The game objects to apply the action to.
+	 * @param 	action
+	 * 			The action to apply. The action may only change the state of the game object it is applied to.
+	 */
+	private void forEachGameObject(List<GameObject> gameObjects, Consumer<GameObject> action){
+		if(this.updatePool == null || gameObjects.size() < 2){
+			for(GameObject gameObject : gameObjects){
+				action.accept(gameObject);
+			}
+		}
+		else{
+			this.updatePool.submit(() -> gameObjects.parallelStream().forEach(action)).join();
+		}
+	}
+	
+	/**
+	 * Return the number of threads on which this world updates its game objects.
+	 */
+	@Basic
+	public int getNbUpdateThreads(){
+		return this.nbUpdateThreads;
+	}
+	
+	/**
+	 * Check whether the given number of threads is a valid number of update threads for any world.
+	 * 
+	 * @param 	nbUpdateThreads
+	 * 			The number of threads to check.
+	 * @return	|result == (nbUpdateThreads >= 1)
+	 */
+	public static boolean isValidNbUpdateThreads(int nbUpdateThreads){
+		return nbUpdateThreads >= 1;
+	}
+	
+	/**
+	 * Set the number of threads on which this world updates its game objects.
+	 * The update threads are only used while this world uses a fixed time step.
+	 * 
+	 * @param 	nbUpdateThreads
+	 * 			The new number of update threads.
+	 * @post	|new.getNbUpdateThreads() == nbUpdateThreads
+	 * @throws	IllegalArgumentException
+	 * 			|!isValidNbUpdateThreads(nbUpdateThreads)
+	 */
+	public void setNbUpdateThreads(int nbUpdateThreads) throws IllegalArgumentException{
+		if(!isValidNbUpdateThreads(nbUpdateThreads))
+			throw new IllegalArgumentException("Not a valid number of update threads!");
+		if(this.updatePool != null){
+			this.updatePool.shutdown();
+			this.updatePool = null;
+		}
+		if(nbUpdateThreads > 1 && !this.isTerminated()){
+			this.updatePool = new ForkJoinPool(nbUpdateThreads);
+		}
+		this.nbUpdateThreads = nbUpdateThreads;
+	}
+	
+	/**
+	 * Variable registering the number of threads on which this world updates its game objects.
+	 */
+	private int nbUpdateThreads = 1;
+	
+	/**
+	 * Variable registering the pool of threads on which this world updates its game objects,
+	 * or null if this world updates its game objects on the calling thread.
+	 */
+	private ForkJoinPool updatePool = null;
+
+	/**
+	 * Check whether this world measures the time it spends in the phases of advancing its time.
+	 */
+	@Basic
+	public boolean isPhaseTimingEnabled(){
+		return this.phaseTimingEnabled;
+	}
+
+	/**
+	 * Set whether this world measures the time it spends in the phases of advancing its time.
+	 *
+	 * @param 	phaseTimingEnabled
+	 * 			Whether this world measures the time it spends in the phases.
+	 * @post	|new.isPhaseTimingEnabled() == phaseTimingEnabled
+	 */
+	public void setPhaseTimingEnabled(boolean phaseTimingEnabled){
+		this.phaseTimingEnabled = phaseTimingEnabled;
+	}
+
+	/**
+	 * Return the total time in nanoseconds this world has spent in the given phase of advancing its time
+	 * while it measured the time it spends in the phases.
+	 * The time spent in the programs and in the terrain queries is summed over the update threads of this
+	 * world, and the time spent in the terrain queries is also part of the time of the phase in which they
+	 * are made. The integration and the collisions are only measured separately when this world advances
+	 * its game objects in lockstep; otherwise every game object integrates and resolves its contacts
+	 * in its own time step.
+	 *
+	 * @param 	phase
+	 * 			The phase to return the time of.
+	 */
+	public long getPhaseTime(UpdatePhase phase){
+		return this.phaseTimes[phase.ordinal()].sum();
+	}
+
+	/**
+	 * Add the given duration to the time this world has spent in the given phase.
+	 *
+	 * @param 	phase
+	 * 			The phase to add the duration to.
+	 * @param 	nanoseconds
+	 * 			The duration to add.
+	 */
+	void addPhaseTime(UpdatePhase phase, long nanoseconds){
+		this.phaseTimes[phase.ordinal()].add(nanoseconds);
+	}
+
+	/**
+	 * Return the current value of the clock with which this world measures the time it spends in
+	 * the phases of advancing its time, or zero if it does not measure that time.
+	 *
+	 * @return	|if(isPhaseTimingEnabled())
+	 * 			|	result == System.nanoTime()
+	 * 			|else
+	 * 			|	result == 0
+	 */
+	long startPhase(){
+		return isPhaseTimingEnabled() ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Add the time since the given start of the given phase to the time this world has spent in it,
+	 * if it measures the time it spends in the phases of advancing its time.
+	 *
+	 * @param 	phase
+	 * 			The phase that ends.
+	 * @param 	start
+	 * 			The start of the phase, as returned by startPhase().
+	 * @effect	|if(isPhaseTimingEnabled())
+	 * 			|	addPhaseTime(phase, System.nanoTime() - start)
+	 */
+	void endPhase(UpdatePhase phase, long start){
+		if(isPhaseTimingEnabled()){
+			addPhaseTime(phase, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Variable registering whether this world measures the time it spends in the phases of advancing its time.
+	 */
+	private volatile boolean phaseTimingEnabled = false;
+
+	/**
+	 * Variable registering the time in nanoseconds this world has spent in each phase of advancing its time.
+	 * The times can be added from several update threads at once.
+	 */
+	private final LongAdder[] phaseTimes = createPhaseTimes();
+
+	/**
+	 * Return a new counter for the time spent in each phase of advancing the time of a world.
+	 */
+	private static LongAdder[] createPhaseTimes(){
+		LongAdder[] phaseTimes = new LongAdder[UpdatePhase.values().length];
+		for(int index = 0; index < phaseTimes.length; index++){
+			phaseTimes[index] = new LongAdder();
+		}
+		return phaseTimes;
+	}
+
+	/**
+	 * Whether worlds count the updates of their time, the statements executed by the programs of their
+	 * game objects, the pairs of game objects they check for contact and the queries of their terrain.
+	 * Set this constant to false and recompile to remove all counting from the updates.
+	 */
+	public static final boolean COUNTS_EVENTS = true;
+
+	/**
+	 * Return the number of times the time of this world has been advanced.
+	 */
+	public long getNbTicks(){
+		return this.nbTicks.sum();
+	}
+
+	/**
+	 * Return the number of statements the programs of the game objects of this world have executed.
+	 */
+	public long getNbStatementsExecuted(){
+		return this.nbStatementsExecuted.sum();
+	}
+
+	/**
+	 * Add the given number of statements to the number of statements the programs of the game objects
+	 * of this world have executed.
+	 *
+	 * @param 	nbStatements
+	 * 			The number of statements to add.
+	 * @post	|new.getNbStatementsExecuted() == this.getNbStatementsExecuted() + nbStatements
+	 */
+	public void countStatementsExecuted(long nbStatements){
+		this.nbStatementsExecuted.add(nbStatements);
+	}
+
+	/**
+	 * Return the number of pairs of game objects this world has checked for contact.
+	 */
+	public long getNbCollisionChecks(){
+		return this.nbCollisionChecks.sum();
+	}
+
+	/**
+	 * Count a check of a pair of game objects in this world for contact.
+	 *
+	 * @post	|new.getNbCollisionChecks() == this.getNbCollisionChecks() + 1
+	 */
+	void countCollisionCheck(){
+		this.nbCollisionChecks.increment();
+	}
+
+	/**
+	 * Return the number of queries of the terrain of this world.
+	 */
+	public long getNbTerrainQueries(){
+		return this.nbTerrainQueries.sum();
+	}
+
+	/**
+	 * Variables registering the number of events in this world. The counts can be incremented
+	 * from several update threads at once, and read from any thread.
+	 */
+	private final LongAdder nbTicks = new LongAdder();
+	private final LongAdder nbStatementsExecuted = new LongAdder();
+	private final LongAdder nbCollisionChecks = new LongAdder();
+	private final LongAdder nbTerrainQueries = new LongAdder();
+
+	/**
+	 * Return the seed from which the random generators of the game objects in this world are derived.
+	 */
+	@Basic
+	public long getRandomSeed(){
+		return this.randomSeed;
+	}
+	
+	/**
+	 * Set the seed from which the random generators of the game objects in this world are derived.
+	 * 
+	 * @param 	randomSeed
+	 * 			The new seed.
+	 * @post	|new.getRandomSeed() == randomSeed
+	 * @effect	|for each gameObject in getAllGameObjects():
+	 * 			|	seedRandomGenerator(gameObject)
+	 */
+	public void setRandomSeed(long randomSeed){
+		this.randomSeed = randomSeed;
+		for(GameObject gameObject : spatialIndexRanges.keySet()){
+			seedRandomGenerator(gameObject);
+		}
+	}
+	
+	/**
+	 * Seed the random generator of the given game object from the seed of this world and the
+	 * order in which the game object was added to this world.
+	 * 
+	 * @param 	gameObject
+	 * 			The game object to seed.
+	 */
+	private void seedRandomGenerator(GameObject gameObject){
+		if(spatialIndexRanges.containsKey(gameObject)){
+			gameObject.setRandomSeed(getRandomSeed() + 0x9E3779B97F4A7C15L * gameObject.getSpatialIndexOrder());
+		}
+	}
+	
+	/**
+	 * Variable registering the seed from which the random generators of the game objects in this world are derived.
+	 * A world that is never given a seed draws one at random, so two runs of a world only have the same outcome
+	 * if both are given the same seed, or if the seed drawn for the first run is read and given to the second.
+	 */
+	private long randomSeed = new Random().nextLong();
+	
+	/**
+	 * Check whether the given game object still takes part in the current time step of this world.
+	 * 
+	 * @param 	gameObject
+	 * 			The game object to check.
+	 * @return	|result == (!gameObject.isTerminated() && gameObject.getWorld() == this)
+	 */
+	private boolean isActiveGameObject(GameObject gameObject){
+		return !gameObject.isTerminated() && gameObject.getWorld() == this;
+	}
+	
+	/**
+	 * Return the duration of the fixed time step of this world.
+	 * A fixed time step of zero means that every game object advances its own time by the given duration.
+	 */
+	@Basic
+	public double getFixedTimeStep(){
+		return this.fixedTimeStep;
+	}
+	
+	/**
+	 * Check whether this world advances its game objects in fixed time steps.
+	 * 
+	 * @return	|result == (getFixedTimeStep() > 0)
+	 */
+	public boolean usesFixedTimeStep(){
+		return this.getFixedTimeStep() > 0;
+	}
+	
+	/**
+	 * Check whether the given duration is a valid fixed time step for any world.
+	 * 
+	 * @param 	fixedTimeStep
+	 * 			The duration to check.
+	 * @return	|result == (fixedTimeStep == 0 || (fixedTimeStep > 0 && fixedTimeStep < 0.2))
+	 */
+	public static boolean isValidFixedTimeStep(double fixedTimeStep){
+		return fixedTimeStep == 0 || (fixedTimeStep > 0 && fixedTimeStep < 0.2);
+	}
+	
+	/**
+	 * Set the duration of the fixed time step of this world.
+	 * 
+	 * @param 	fixedTimeStep
+	 * 			The new duration of the fixed time step, or zero to let every game object advance its own time.
+	 * @post	|new.getFixedTimeStep() == fixedTimeStep
+	 * @post	|new.getInterpolationFactor() == 0
+	 * @post	|new.getTimeStepStartVisibleWindowLocation() == this.getVisibleWindowLocation()
+	 * @throws	IllegalArgumentException
+	 * 			|!isValidFixedTimeStep(fixedTimeStep)
+	 */
+	public void setFixedTimeStep(double fixedTimeStep) throws IllegalArgumentException{
+		if(!isValidFixedTimeStep(fixedTimeStep))
+			throw new IllegalArgumentException("Not a valid fixed time step!");
+		this.fixedTimeStep = fixedTimeStep;
+		this.accumulatedTime = 0;
+		this.recordTimeStepStartVisibleWindowLocation();
+		for(GameObject gameObject : gameObjects){
+			if(gameObject != null){
+				gameObject.recordTimeStepStartLocation();
+			}
+		}
+	}
+	
+	/**
+	 * Return the fraction of a fixed time step that has been accumulated but not yet simulated.
+	 * Renderers can use this factor to interpolate between the locations of the game objects at the start
+	 * and at the end of the last fixed time step.
+	 * 
+	 * @return	|if(usesFixedTimeStep())
+	 * 			|	result == accumulatedTime / getFixedTimeStep()
+	 * 			|else
+	 * 			|	result == 1
+	 */
+	public double getInterpolationFactor(){
+		if(!usesFixedTimeStep()){
+			return 1;
+		}
+		return Math.min(1, this.accumulatedTime / this.getFixedTimeStep());
+	}
+	
+	/**
+	 * Variable registering the duration of the fixed time step of this world.
+	 */
+	private double fixedTimeStep = 0;
+	
+	/**
+	 * Variable registering the time that has been given to this world but has not yet been simulated.
+	 */
+	private double accumulatedTime = 0;
+	
 	/**
 	 * Update the visible window location of this game world depending on the current size and location of its Mazub.
 	 * @post	|if (this.getMazub().getEffectiveHorizontalLocation()<=200)
@@ -1046,6 +1863,8 @@ public class World {
 	 * @param 	alien
 	 * 			The given alien of the class Mazub.
 	 * @post	new.getMazub == Mazub
+	 * @post	|if(alien!=null)
+	 * 			|	new.getAllGameObjects().get(0)==alien
 	 * @throws	IllegalArgumentException
 	 * 			!(this.canHaveAsMazub(alien) || this.getGameHasStarted()
 	 */
@@ -1057,6 +1876,10 @@ public class World {
 			throw new IllegalArgumentException("Cannot set a Mazub in a started game!");
 		}
 		gameObjects.add(0,alien);
+		if(alien!=null){
+			register(alien, 0);
+		}
+		addToSpatialIndex(alien, true);
 		this.mazub = alien;
 	}
 	
@@ -1119,6 +1942,8 @@ public class World {
 	 * @param 	buzam
 	 * 			The given buzam of the class Buzam.
 	 * @post	new.getBuzam == buzam
+	 * @post	|if(buzam!=null)
+	 * 			|	new.getAllGameObjects().get(0)==buzam
 	 * @throws	IllegalArgumentException
 	 * 			!(this.canHaveAsBuzam(buzam) || this.getGameHasStarted()
 	 */
@@ -1130,6 +1955,10 @@ public class World {
 			throw new IllegalArgumentException("Cannot set a Bazum in a started game!");
 		}
 		gameObjects.add(0,buzam);
+		if(buzam!=null){
+			register(buzam, 0);
+		}
+		addToSpatialIndex(buzam, true);
 		this.buzam = buzam;
 	}
 	
@@ -1158,22 +1987,25 @@ public class World {
 	
 	/**
 	 * Check whether the given number of game objects is a valid number of game objects.
+	 * 	The spatial index of a world keeps collision queries local, so the number
+	 * 	of game objects is no longer bounded from above.
 	 * @param	nbGameObjects
-	 * @return	result==(nbGameObjects<=100 && nbGameObjects>=0)
+	 * @return	result==(nbGameObjects>=0)
 	 */
 	@Raw
 	public static boolean isValidNbGameObjects(int nbGameObjects){
-		return nbGameObjects<=100 && nbGameObjects>=0;
+		return nbGameObjects>=0;
 	}
 	
 	/**
 	 * Return a list that contains all the game objects of this world.
+	 * The list is an unmodifiable snapshot: it does not change when game objects
+	 * are added to or removed from this world later on.
 	 * If the game objects are added in the right order to this world
 	 * then you can find mazub at the first and buzam at the second position.
 	 */
 	public List<GameObject> getAllGameObjects(){
-		List<GameObject> allGameObjects=new ArrayList<GameObject>(gameObjects);
-		return allGameObjects;
+		return Collections.unmodifiableList(Arrays.asList(gameObjectRegistry));
 	}
 
 	/**
@@ -1215,6 +2047,8 @@ public class World {
 			throw new IllegalArgumentException("The game has already started!");
 		}
 		gameObjects.add(gameObject);
+		register(gameObject, gameObjectRegistry.length);
+		addToSpatialIndex(gameObject, false);
 		gameObject.setWorld(this);
 	}
 	
@@ -1228,6 +2062,8 @@ public class World {
 	public void removeAsGameObject(GameObject gameObject){
 		if(gameObject !=null && this.hasAsGameObject(gameObject)){
 			this.gameObjects.remove(gameObject);
+			unregister(gameObject);
+			removeFromSpatialIndex(gameObject);
 			gameObject.setWorld(null);
 		}
 	}
@@ -1339,6 +2175,324 @@ public class World {
 	 * 			|	gameObject.getWorld()==this	
 	 */
 	private List<GameObject> gameObjects = new ArrayList<GameObject>();
+	
+	/**
+	 * Register the given game object in the registries of this world.
+	 * 
+	 * @param 	gameObject
+	 * 			The game object to register.
+	 * @param	index
+	 * 			The index of the given game object in the list of game objects.
+	 */
+	private void register(GameObject gameObject, int index){
+		gameObjectRegistry = registered(gameObjectRegistry, gameObject, index);
+		if(gameObject instanceof Plant){
+			plantRegistry = registered(plantRegistry, (Plant) gameObject);
+		}
+		else if(gameObject instanceof Slime){
+			slimeRegistry = registered(slimeRegistry, (Slime) gameObject);
+		}
+		else if(gameObject instanceof Shark){
+			sharkRegistry = registered(sharkRegistry, (Shark) gameObject);
+		}
+	}
+	
+	/**
+	 * Remove the given game object from the registries of this world.
+	 * 
+	 * @param 	gameObject
+	 * 			The game object to remove.
+	 */
+	private void unregister(GameObject gameObject){
+		gameObjectRegistry = unregistered(gameObjectRegistry, gameObject);
+		if(gameObject instanceof Plant){
+			plantRegistry = unregistered(plantRegistry, gameObject);
+		}
+		else if(gameObject instanceof Slime){
+			slimeRegistry = unregistered(slimeRegistry, gameObject);
+		}
+		else if(gameObject instanceof Shark){
+			sharkRegistry = unregistered(sharkRegistry, gameObject);
+		}
+	}
+	
+	/**
+	 * Return a copy of the given registry with the given element appended to it.
+	 */
+	private static <T> T[] registered(T[] registry, T element){
+		return registered(registry, element, registry.length);
+	}
+	
+	/**
+	 * Return a copy of the given registry with the given element inserted at the given index.
+	 */
+	private static <T> T[] registered(T[] registry, T element, int index){
+		T[] result = Arrays.copyOf(registry, registry.length + 1);
+		System.arraycopy(registry, index, result, index + 1, registry.length - index);
+		result[index] = element;
+		return result;
+	}
+	
+	/**
+	 * Return a copy of the given registry without the given element, or the given
+	 * registry itself if it does not contain the given element.
+	 */
+	private static <T> T[] unregistered(T[] registry, Object element){
+		for(int index = 0; index < registry.length; index++){
+			if(registry[index] == element){
+				T[] result = Arrays.copyOf(registry, registry.length - 1);
+				System.arraycopy(registry, index + 1, result, index, registry.length - index - 1);
+				return result;
+			}
+		}
+		return registry;
+	}
+	
+	/**
+	 * Arrays registering the game objects of this world, and the plants, slimes and sharks among them,
+	 * in the same order as the list of game objects of this world.
+	 * An array is replaced instead of changed whenever a game object is added or removed,
+	 * so every array is a snapshot that can be handed out and iterated without copying it.
+	 * @invar	The registry of game objects contains the same game objects as the list of game objects,
+	 * 			apart from the null a world without Mazub keeps in front of that list.
+	 * 			|Arrays.asList(gameObjectRegistry).equals(gameObjects without null)
+	 */
+	private GameObject[] gameObjectRegistry = new GameObject[0];
+	
+	private Plant[] plantRegistry = new Plant[0];
+	
+	private Slime[] slimeRegistry = new Slime[0];
+	
+	private Shark[] sharkRegistry = new Shark[0];
+
+	/**
+	 * Return a list with the game objects of this world that are registered in the spatial index
+	 * at one of the given tiles or at one of the tiles neighbouring them.
+	 * The game objects are returned in the same order as they appear in the list of game objects of this world.
+	 * 
+	 * @param 	tiles
+	 * 			The given tile positions.
+	 * @return	The list contains every game object of this world that overlaps with one of the given tiles,
+	 * 			possibly together with some game objects that are close to these tiles.
+	 * 			|for each gameObject in gameObjects:
+	 * 			|	if(gameObject != null && gameObject.overlapsWithTiles(tiles))
+	 * 			|		then result.contains(gameObject)
+	 */
+	public List<GameObject> getGameObjectsNearTiles(int [][] tiles){
+		return new ArrayList<GameObject>(collectGameObjectsNearTiles(tiles));
+	}
+	
+	/**
+	 * Collect the game objects of this world that are registered in the spatial index at one of the given
+	 * tiles or at one of the tiles neighbouring them, in the scratch buffer of the calling thread.
+	 * The game objects are collected in the same order as they appear in the list of game objects of this world.
+	 * 
+	 * @param 	tiles
+	 * 			The given tile positions.
+	 * @return	|result.equals(getGameObjectsNearTiles(tiles))
+	 * @note	The resulting list is the scratch buffer of the calling thread, which the next query
+	 * 			on that thread overwrites. It must be read before this world is queried again, and
+	 * 			must not be modified or kept.
+	 */
+	List<GameObject> collectGameObjectsNearTiles(int [][] tiles){
+		ArrayList<GameObject> nearGameObjects = nearGameObjectsBuffer.get();
+		nearGameObjects.clear();
+		if(tiles.length == 0){
+			return nearGameObjects;
+		}
+		int left = tiles[0][0];
+		int right = tiles[0][0];
+		int bottom = tiles[0][1];
+		int top = tiles[0][1];
+		for(int [] tile : tiles){
+			left = Math.min(left, tile[0]);
+			right = Math.max(right, tile[0]);
+			bottom = Math.min(bottom, tile[1]);
+			top = Math.max(top, tile[1]);
+		}
+		left = Math.max(left - 1, 0);
+		bottom = Math.max(bottom - 1, 0);
+		right = Math.min(right + 1, getNbTilesX() - 1);
+		top = Math.min(top + 1, getNbTilesY() - 1);
+		for(int tileX = left; tileX <= right; tileX++){
+			for(int tileY = bottom; tileY <= top; tileY++){
+				List<GameObject> bucket = tileBuckets.get(TileBuckets.getKey(tileX, tileY));
+				if(bucket != null){
+					for(int index = 0; index < bucket.size(); index++){
+						nearGameObjects.add(bucket.get(index));
+					}
+				}
+			}
+		}
+		nearGameObjects.sort(SPATIAL_INDEX_ORDER);
+		// A game object that covers several of the tiles is found once for each of them, and
+		// its keys are unique, so its duplicates are next to each other after sorting.
+		int nbDistinct = 0;
+		for(int index = 0; index < nearGameObjects.size(); index++){
+			GameObject gameObject = nearGameObjects.get(index);
+			if(nbDistinct == 0 || nearGameObjects.get(nbDistinct - 1) != gameObject){
+				nearGameObjects.set(nbDistinct++, gameObject);
+			}
+		}
+		while(nearGameObjects.size() > nbDistinct){
+			nearGameObjects.remove(nearGameObjects.size() - 1);
+		}
+		return nearGameObjects;
+	}
+	
+	/**
+	 * Comparator ordering game objects by their key in the spatial index of their world.
+	 */
+	private static final Comparator<GameObject> SPATIAL_INDEX_ORDER = (GameObject g1, GameObject g2) ->
+		Integer.compare(g1.getSpatialIndexOrder(), g2.getSpatialIndexOrder());
+	
+	/**
+	 * The scratch buffer in which each thread collects the game objects near the tiles it queries.
+	 * Game objects are updated on several threads at once, so every thread has a buffer of its own.
+	 */
+	private final ThreadLocal<ArrayList<GameObject>> nearGameObjectsBuffer =
+			ThreadLocal.withInitial(() -> new ArrayList<GameObject>());
+	
+	/**
+	 * Update the position of the given game object in the spatial index of this world.
+	 * Game objects that are not registered in this world are ignored.
+	 * 
+	 * @param 	gameObject
+	 * 			The game object that has moved.
+	 * @post	|if(spatialIndexRanges.containsKey(gameObject))
+	 * 			|	new.getGameObjectsNearTiles(gameObject's covered tiles).contains(gameObject)
+	 */
+	void updateSpatialIndex(GameObject gameObject){
+		if(spatialIndexFrozen){
+			return;
+		}
+		int [] oldRange = spatialIndexRanges.get(gameObject);
+		if(oldRange == null){
+			return;
+		}
+		int [] newRange = getSpatialIndexRange(gameObject);
+		if(!Arrays.equals(oldRange, newRange)){
+			removeFromTileBuckets(gameObject, oldRange);
+			addToTileBuckets(gameObject, newRange);
+			spatialIndexRanges.put(gameObject, newRange);
+		}
+	}
+	
+	/**
+	 * Register the given game object in the spatial index of this world.
+	 * 
+	 * @param 	gameObject
+	 * 			The game object to register.
+	 * @param 	atFront
+	 * 			Whether the game object was added at the front of the list of game objects.
+	 */
+	private void addToSpatialIndex(GameObject gameObject, boolean atFront){
+		if(gameObject == null){
+			return;
+		}
+		removeFromSpatialIndex(gameObject);
+		if(atFront){
+			firstSpatialIndexOrder--;
+			gameObject.setSpatialIndexOrder(firstSpatialIndexOrder);
+		}
+		else{
+			lastSpatialIndexOrder++;
+			gameObject.setSpatialIndexOrder(lastSpatialIndexOrder);
+		}
+		int [] range = getSpatialIndexRange(gameObject);
+		addToTileBuckets(gameObject, range);
+		spatialIndexRanges.put(gameObject, range);
+		seedRandomGenerator(gameObject);
+	}
+	
+	/**
+	 * Remove the given game object from the spatial index of this world.
+	 * 
+	 * @param 	gameObject
+	 * 			The game object to remove.
+	 */
+	private void removeFromSpatialIndex(GameObject gameObject){
+		int [] range = spatialIndexRanges.remove(gameObject);
+		if(range != null){
+			removeFromTileBuckets(gameObject, range);
+		}
+	}
+	
+	/**
+	 * Return the range of tiles covered by the given game object as an array
+	 * {left, bottom, right, top}, clipped to the tiles of this world.
+	 * 
+	 * @param 	gameObject
+	 * 			The given game object.
+	 * @return	|result == {getEffectiveHorizontalLocation()/getTileSize(), getEffectiveVerticalLocation()/getTileSize(),
+	 * 			|	(getEffectiveHorizontalLocation()+getWidth())/getTileSize(), (getEffectiveVerticalLocation()+getHeight())/getTileSize()}
+	 */
+	private int [] getSpatialIndexRange(GameObject gameObject){
+		int pixelX = gameObject.getEffectiveHorizontalLocation();
+		int pixelY = gameObject.getEffectiveVerticalLocation();
+		int [] range = {
+				clipTilePosition(Math.floorDiv(pixelX, getTileSize()), getNbTilesX()),
+				clipTilePosition(Math.floorDiv(pixelY, getTileSize()), getNbTilesY()),
+				clipTilePosition(Math.floorDiv(pixelX + gameObject.getWidth(), getTileSize()), getNbTilesX()),
+				clipTilePosition(Math.floorDiv(pixelY + gameObject.getHeight(), getTileSize()), getNbTilesY())};
+		return range;
+	}
+	
+	/**
+	 * Clip the given tile position to the range [0, nbTiles-1].
+	 */
+	private static int clipTilePosition(int tilePosition, int nbTiles){
+		return Math.max(0, Math.min(tilePosition, nbTiles - 1));
+	}
+	
+	private void addToTileBuckets(GameObject gameObject, int [] range){
+		for(int tileX = range[0]; tileX <= range[2]; tileX++){
+			for(int tileY = range[1]; tileY <= range[3]; tileY++){
+				tileBuckets.getOrCreate(TileBuckets.getKey(tileX, tileY)).add(gameObject);
+			}
+		}
+	}
+	
+	private void removeFromTileBuckets(GameObject gameObject, int [] range){
+		for(int tileX = range[0]; tileX <= range[2]; tileX++){
+			for(int tileY = range[1]; tileY <= range[3]; tileY++){
+				long key = TileBuckets.getKey(tileX, tileY);
+				List<GameObject> bucket = tileBuckets.get(key);
+				if(bucket != null){
+					bucket.remove(gameObject);
+					if(bucket.isEmpty()){
+						tileBuckets.remove(key);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Map registering, for each tile that is covered by at least one game object,
+	 * the game objects of this world that cover that tile.
+	 */
+	private final TileBuckets tileBuckets = new TileBuckets();
+	
+	/**
+	 * Map registering the range of tiles under which each game object is registered in the tile buckets.
+	 */
+	private final Map<GameObject, int []> spatialIndexRanges = new HashMap<GameObject, int []>();
+	
+	/**
+	 * Variables registering the smallest and largest key in the spatial index that has been handed out
+	 * to a game object. A game object added in front of the list of game objects gets a key below all others,
+	 * any other game object a key above all others, so the keys respect the order of that list.
+	 */
+	private int firstSpatialIndexOrder = 0;
+	
+	private int lastSpatialIndexOrder = 0;
+	
+	/**
+	 * Variable registering whether updates of the spatial index of this world are postponed,
+	 * because game objects are moving concurrently.
+	 */
+	private boolean spatialIndexFrozen = false;
 
 	
 	/**
@@ -1360,11 +2514,12 @@ public class World {
 	 */
 	public void terminate() {
 		if(!this.isTerminated()){
-			for(GameObject gameObject: this.gameObjects){
+			for(GameObject gameObject: this.gameObjectRegistry){
 				this.removeAsGameObject(gameObject);
 			}
 			this.setGameHasStarted(true);
 			this.isTerminated=true;
+			this.setNbUpdateThreads(1);
 		}
 	}
 
@@ -1373,11 +2528,112 @@ public class World {
 	 * Variable registering this world is terminated.
 	 */
 	private boolean isTerminated=false;
-	
-	
-	
+
+	/**
+	 * Return a snapshot of the current state of this world, its game objects, their programs and
+	 * their random generators, and the schools of its slimes.
+	 * A snapshot is meant to be taken after the game in this world has started, so no game objects
+	 * can be added to this world after it was taken.
+	 *
+	 * @return	|result.getWorld() == this
+	 * @see		#restoreSnapshot(WorldSnapshot)
+	 */
+	public WorldSnapshot takeSnapshot(){
+		WorldSnapshot snapshot = new WorldSnapshot(this);
+		snapshot.tiles = this.tiles.clone();
+		snapshot.terrainSums = this.terrainSums;
+		snapshot.visibleWindowLocation = this.visibleWindowLocation.clone();
+		snapshot.timeStepStartVisibleWindowLocation = this.timeStepStartVisibleWindowLocation.clone();
+		snapshot.gameHasStarted = this.gameHasStarted;
+		snapshot.gameOver = this.gameOver;
+		snapshot.didPlayerWin = this.didPlayerWin;
+		snapshot.isTerminated = this.isTerminated;
+		snapshot.accumulatedTime = this.accumulatedTime;
+		snapshot.mazub = this.mazub;
+		snapshot.buzam = this.buzam;
+		snapshot.gameObjects = new ArrayList<GameObject>(this.gameObjects);
+		snapshot.gameObjectRegistry = this.gameObjectRegistry;
+		snapshot.plantRegistry = this.plantRegistry;
+		snapshot.slimeRegistry = this.slimeRegistry;
+		snapshot.sharkRegistry = this.sharkRegistry;
+		snapshot.firstSpatialIndexOrder = this.firstSpatialIndexOrder;
+		snapshot.lastSpatialIndexOrder = this.lastSpatialIndexOrder;
+		for(Slime slime : this.slimeRegistry){
+			School school = slime.getSchool();
+			if(school != null && !snapshot.schoolSlimes.containsKey(school)){
+				snapshot.schoolSlimes.put(school, school.getAllSlimes().toArray(new Slime[0]));
+				snapshot.schoolTerminated.put(school, school.isTerminated());
+			}
+		}
+		for(GameObject gameObject : snapshot.gameObjects){
+			if(gameObject != null){
+				gameObject.saveState(snapshot.gameObjectStates);
+			}
+		}
+		snapshot.gameObjectStates.trim();
+		return snapshot;
+	}
+
 	/**
-	 * Returns an array list containing the plants of this world.
+	 * Restore this world, its game objects, their programs and their random generators, and the schools
+	 * of its slimes to the state they had when the given snapshot was taken.
+	 * The game objects are restored in place, so the same snapshot can be restored any number of times.
+	 *
+	 * @param 	snapshot
+	 * 			The snapshot to restore.
+	 * @post	Every game object of this world when the given snapshot was taken is again in this world,
+	 * 			in the same state and at the same index.
+	 * 			|for each index in 0..snapshot.gameObjects.size()-1:
+	 * 			|	new.getGameObjectAtIndex(index) == snapshot.gameObjects.get(index)
+	 * @throws	IllegalArgumentException
+	 * 			|snapshot == null || snapshot.getWorld() != this
+	 */
+	public void restoreSnapshot(WorldSnapshot snapshot) throws IllegalArgumentException{
+		if(snapshot == null || snapshot.getWorld() != this)
+			throw new IllegalArgumentException("Not a snapshot of this world!");
+		System.arraycopy(snapshot.tiles, 0, this.tiles, 0, this.tiles.length);
+		this.terrainSums = snapshot.terrainSums;
+		System.arraycopy(snapshot.visibleWindowLocation, 0, this.visibleWindowLocation, 0, 2);
+		System.arraycopy(snapshot.timeStepStartVisibleWindowLocation, 0, this.timeStepStartVisibleWindowLocation, 0, 2);
+		this.gameHasStarted = snapshot.gameHasStarted;
+		this.gameOver = snapshot.gameOver;
+		this.didPlayerWin = snapshot.didPlayerWin;
+		this.isTerminated = snapshot.isTerminated;
+		this.accumulatedTime = snapshot.accumulatedTime;
+		this.mazub = snapshot.mazub;
+		this.buzam = snapshot.buzam;
+		this.gameObjects.clear();
+		this.gameObjects.addAll(snapshot.gameObjects);
+		this.gameObjectRegistry = snapshot.gameObjectRegistry;
+		this.plantRegistry = snapshot.plantRegistry;
+		this.slimeRegistry = snapshot.slimeRegistry;
+		this.sharkRegistry = snapshot.sharkRegistry;
+		for(Map.Entry<School, Slime []> entry : snapshot.schoolSlimes.entrySet()){
+			entry.getKey().restore(entry.getValue(), snapshot.schoolTerminated.get(entry.getKey()));
+		}
+		snapshot.gameObjectStates.rewind();
+		for(GameObject gameObject : this.gameObjects){
+			if(gameObject != null){
+				gameObject.restoreState(snapshot.gameObjectStates);
+			}
+		}
+		this.tileBuckets.clear();
+		this.spatialIndexRanges.clear();
+		this.firstSpatialIndexOrder = snapshot.firstSpatialIndexOrder;
+		this.lastSpatialIndexOrder = snapshot.lastSpatialIndexOrder;
+		for(GameObject gameObject : this.gameObjects){
+			if(gameObject != null){
+				int [] range = getSpatialIndexRange(gameObject);
+				addToTileBuckets(gameObject, range);
+				spatialIndexRanges.put(gameObject, range);
+			}
+		}
+	}
+
+
+
+	/**
+	 * Returns an unmodifiable snapshot of the plants of this world.
 	 * 
 	 * @return	|List<Plant> plants = new ArrayList<Plant>()
 	 *			|for(int index = 0..this.getNbGameObjects())
@@ -1388,18 +2644,11 @@ public class World {
 	 *		
 	 */
 	public List<Plant> getPlants(){
-		List<Plant> plants = new ArrayList<Plant>();
-		for(int index = 0; index < getNbGameObjects(); index++){
-			GameObject gameObject = getGameObjectAtIndex(index);
-			if(gameObject instanceof Plant){
-				plants.add((Plant) gameObject);
-			}
-		}
-		return plants;		
+		return Collections.unmodifiableList(Arrays.asList(plantRegistry));
 	}
 	
 	/**
-	 * Returns a list containing the slimes of this world.
+	 * Returns an unmodifiable snapshot of the slimes of this world.
 	 * 
 	 * @return	|List<Slime> slimes = new ArrayList<Slime>()
 	 *			|for(index=0..getNbGameObjects())
@@ -1410,14 +2659,7 @@ public class World {
 	 *		
 	 */
 	public List<Slime> getSlimes(){
-		List<Slime> slimes = new ArrayList<Slime>();
-		for(int index = 0; index < getNbGameObjects(); index++){
-			GameObject gameObject = getGameObjectAtIndex(index);
-			if(gameObject instanceof Slime){
-				slimes.add((Slime) gameObject);
-			}
-		}
-		return slimes;		
+		return Collections.unmodifiableList(Arrays.asList(slimeRegistry));
 	}
 	
 	/**
@@ -1456,7 +2698,7 @@ public class World {
 	}
 	
 	/**
-	 * Returns a list containing the sharks of this world.
+	 * Returns an unmodifiable snapshot of the sharks of this world.
 	 * 
 	 * @return	|List<Shark> sharks = new ArrayList<Shark>()
 	 *			|for(index = 0..this.getNbGameObjects())
@@ -1467,13 +2709,6 @@ public class World {
 	 *		
 	 */
 	public List<Shark> getSharks(){
-		List<Shark> sharks = new ArrayList<Shark>();
-		for(int index = 0; index < getNbGameObjects(); index++){
-			GameObject gameObject = getGameObjectAtIndex(index);
-			if(gameObject instanceof Shark){
-				sharks.add((Shark) gameObject);
-			}
-		}
-		return sharks;		
+		return Collections.unmodifiableList(Arrays.asList(sharkRegistry));
 	}
 }
@@ -0,0 +1,91 @@
+package jumpingalien.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of snapshots of a world, taken with World.takeSnapshot() and restored in place
+ * with World.restoreSnapshot(WorldSnapshot).
+ *
+ * A snapshot holds copies of the tiles, the game objects and the registries of its world,
+ * and the state of every game object, its random generator and its program in one state buffer.
+ * Game objects are not copied: restoring a snapshot puts the game objects that were in the world
+ * back in the state they had, so other objects can keep referring to them.
+ *
+ * @version  1.0
+ * @author   Pieter Van Damme and Lennert Vanmunster
+ */
+public final class WorldSnapshot {
+
+	/**
+	 * Initialize this new snapshot as a snapshot of the given world.
+	 * The state is filled in by the world.
+	 *
+	 * @param 	world
+	 * 			The world of this new snapshot.
+	 */
+	WorldSnapshot(World world){
+		this.world = world;
+	}
+
+	/**
+	 * Return the world of which this snapshot was taken.
+	 */
+	@Basic @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+
+	private final World world;
+
+	byte [] tiles;
+
+	int [][] terrainSums;
+
+	int [] visibleWindowLocation;
+
+	int [] timeStepStartVisibleWindowLocation;
+
+	boolean gameHasStarted;
+
+	boolean gameOver;
+
+	boolean didPlayerWin;
+
+	boolean isTerminated;
+
+	double accumulatedTime;
+
+	Mazub mazub;
+
+	Buzam buzam;
+
+	List<GameObject> gameObjects;
+
+	GameObject [] gameObjectRegistry;
+
+	Plant [] plantRegistry;
+
+	Slime [] slimeRegistry;
+
+	Shark [] sharkRegistry;
+
+	int firstSpatialIndexOrder;
+
+	int lastSpatialIndexOrder;
+
+	/**
+	 * Map registering the slimes each school of the world had, and whether it was terminated.
+	 */
+	final Map<School, Slime []> schoolSlimes = new HashMap<School, Slime []>();
+
+	final Map<School, Boolean> schoolTerminated = new HashMap<School, Boolean>();
+
+	/**
+	 * The state of every game object of the world, in the order of the list of game objects.
+	 */
+	final StateBuffer gameObjectStates = new StateBuffer();
+}
@@ -1,11 +1,12 @@
 package jumpingalien.part3.facade;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import jumpingalien.model.*;
 import jumpingalien.part2.facade.IFacadePart2;
-import jumpingalien.part3.programs.IProgramFactory;
 import jumpingalien.part3.programs.ParseOutcome;
 import jumpingalien.part3.programs.ProgramParser;
 import jumpingalien.util.ModelException;
@@ -16,7 +17,7 @@ import jumpingalien.programs.program.ProgramFactory;
 import jumpingalien.programs.statements.Statement;
 import jumpingalien.programs.types.Type;
 
-public class Facade implements IFacadePart3 {
+public class Facade implements IFacadePart3, IGameControl {
 	
 	/**
 	 * Create an instance of Mazub.
@@ -889,7 +890,7 @@ public class Facade implements IFacadePart3 {
 	 *         ParseOutcome.Failure if parsing was not successful.
 	 */
 	public ParseOutcome<?> parse(String text){
-		 IProgramFactory<Expression<?>, Statement, Type<?>, Program> factory = new ProgramFactory();
+		 ProgramFactory factory = new ProgramFactory();
 		 ProgramParser<Expression<?>, Statement, Type<?>, Program> parser = new ProgramParser<>(factory);
 		 Optional<Program> parseResult = parser.parseString(text);
 		 if(parseResult.isPresent()){
@@ -898,7 +899,9 @@ public class Facade implements IFacadePart3 {
 		 }
 		 else{
 //			 System.out.print("PARSING NOT OK! ");
-			 return ParseOutcome.failure(parser.getErrors()); 
+			 List<String> errors = new ArrayList<String>(parser.getErrors());
+			 errors.addAll(factory.getTypeErrors());
+			 return ParseOutcome.failure(errors); 
 		 }
 	}
 
@@ -1009,4 +1012,123 @@ public class Facade implements IFacadePart3 {
 	public int getNbHitPoints(Buzam alien){
 		return alien.getHitPoints();
 	}
+
+	/**
+	 * Set the types of all tiles of the given world at once, before the game
+	 * in that world starts.
+	 * 
+	 * @param world
+	 *            The world whose tiles need to be modified.
+	 * @param tileTypes
+	 *            The types of the tiles, row by row from the bottom row to the
+	 *            top row.
+	 * @throw	ModelException
+	 * 			The game has started, or the types do not fit the world.
+	 */
+	public void setGeologicalFeatures(World world, byte[] tileTypes) throws ModelException{
+		try{
+			world.setTileValues(tileTypes);
+		} catch (IllegalArgumentException exc){
+			throw new ModelException("Cannot set the given tile types in the given world!");
+		}
+	}
+
+	/**
+	 * Configure how the given world advances its time.
+	 * 
+	 * @throw	ModelException
+	 * 			The fixed time step or the number of update threads is not valid.
+	 */
+	public void configureUpdates(World world, double fixedTimeStep, int nbUpdateThreads, long randomSeed)
+			throws ModelException{
+		try{
+			world.setFixedTimeStep(fixedTimeStep);
+			world.setNbUpdateThreads(nbUpdateThreads);
+			world.setRandomSeed(randomSeed);
+		} catch (IllegalArgumentException exc){
+			throw new ModelException("Cannot configure the updates of the given world!");
+		}
+	}
+
+	/**
+	 * Return the seed from which the random generators of the game objects of
+	 * the given world are derived.
+	 */
+	public long getRandomSeed(World world){
+		return world.getRandomSeed();
+	}
+
+	/**
+	 * Start measuring the time the given world spends in each phase of
+	 * advancing its time.
+	 */
+	public void enablePhaseTiming(World world){
+		world.setPhaseTimingEnabled(true);
+	}
+
+	/**
+	 * Return the total time in nanoseconds the given world has spent in the
+	 * given phase of advancing its time.
+	 */
+	public long getPhaseTime(World world, UpdatePhase phase){
+		return world.getPhaseTime(phase);
+	}
+
+	/**
+	 * Take a snapshot of the state of the given world and all its game objects.
+	 */
+	public WorldSnapshot takeSnapshot(World world){
+		return world.takeSnapshot();
+	}
+
+	/**
+	 * Restore the given world to the state recorded in the given snapshot.
+	 * 
+	 * @throw	ModelException
+	 * 			The snapshot was not taken of the given world.
+	 */
+	public void restoreSnapshot(World world, WorldSnapshot snapshot) throws ModelException{
+		try{
+			world.restoreSnapshot(snapshot);
+		} catch (IllegalArgumentException exc){
+			throw new ModelException("Cannot restore the given world from the given snapshot!");
+		}
+	}
+
+	/**
+	 * Check whether the given world advances its game objects in fixed time steps.
+	 */
+	public boolean usesFixedTimeStep(World world){
+		return world.usesFixedTimeStep();
+	}
+
+	/**
+	 * Return the fraction of a fixed time step that the given world has
+	 * accumulated but not yet simulated.
+	 */
+	public double getInterpolationFactor(World world){
+		return world.getInterpolationFactor();
+	}
+
+	/**
+	 * Return the location of the given game object, interpolated by the given
+	 * factor within the last fixed time step of its world.
+	 */
+	public int[] getInterpolatedLocation(GameObject gameObject, double interpolationFactor){
+		return gameObject.getInterpolatedLocation(interpolationFactor);
+	}
+
+	/**
+	 * Return the visible window of the given world, interpolated by the given
+	 * factor within the last fixed time step of the world.
+	 * 
+	 * @return The pixel coordinates of the visible window, in the order
+	 *         <b>left, bottom, right, top</b>.
+	 */
+	public int[] getInterpolatedVisibleWindow(World world, double interpolationFactor){
+		int[] location = world.getInterpolatedVisibleWindowLocation(interpolationFactor);
+		int[] visibleWindow = {location[0], location[1], 
+				location[0]+world.getVisibleWindowWidth(), location[1]+world.getVisibleWindowHeight()};
+		return visibleWindow;
+	}
 }
@@ -0,0 +1,777 @@
+package jumpingalien.programs.bytecode;
+
+import static jumpingalien.programs.bytecode.Opcodes.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jumpingalien.programs.bytecode.ClassFileWriter.ByteBuffer;
+
+/**
+ * A class for translating the hot expression blocks of a compiled program to
+ * classes of the Java virtual machine.
+ *
+ * Every block is translated to a subclass of {@link CompiledBlock}, whose evaluate
+ * method performs the instructions of the block one after the other, with their
+ * operands as constants. Arithmetic, comparisons, reads of variables from their
+ * slots, the getters of game objects and the checks on their kind are inlined;
+ * the other instructions call the helpers of compiled blocks. The classes are
+ * defined in a class loader of their own, so that they are unloaded together
+ * with their compiled program.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+final class BlockCompiler {
+
+	/**
+	 * Initialize this new block compiler for the given compiled program.
+	 */
+	BlockCompiler(CompiledProgram compiledProgram){
+		this.compiledProgram = compiledProgram;
+		this.classLoader = new BlockClassLoader(CompiledBlock.class.getClassLoader());
+	}
+
+	private final CompiledProgram compiledProgram;
+
+	private final BlockClassLoader classLoader;
+
+	/**
+	 * Return a new instance of a class evaluating the expression block at the
+	 * given position of the compiled program of this block compiler.
+	 *
+	 * @throws	NotCompilableException
+	 * 			The block contains an instruction that cannot be translated, or
+	 * 			the Java virtual machine rejects its class.
+	 */
+	CompiledBlock compile(int block) throws NotCompilableException{
+		String name = GENERATED_PACKAGE + "Block" + block;
+		ClassFileWriter classFile = new ClassFileWriter(name, COMPILED_BLOCK);
+		this.classFile = classFile;
+		this.code = new ByteBuffer();
+		this.offsets.clear();
+		this.jumps.clear();
+		translate(block);
+		if(code.size() > MAX_CODE_SIZE){
+			throw new NotCompilableException("Block at " + block + " is too large", null);
+		}
+		classFile.addDefaultConstructor();
+		classFile.addMethod("evaluate", EVALUATE, code, MAX_STACK, NB_LOCALS);
+		try{
+			Class<?> blockClass = classLoader.define(name.replace('/', '.'), classFile.toByteArray());
+			return (CompiledBlock) blockClass.getConstructor().newInstance();
+		}catch(ReflectiveOperationException | LinkageError exc){
+			throw new NotCompilableException("Block at " + block + " is rejected: " + exc, null);
+		}
+	}
+
+	private ClassFileWriter classFile;
+
+	private ByteBuffer code;
+
+	/* Translation */
+
+	/**
+	 * Translate the instructions from the given position up to and including the
+	 * first RET, and resolve the jumps between them.
+	 */
+	private void translate(int block) throws NotCompilableException{
+		final int[] expressionCode = compiledProgram.expressionCode;
+		int pc = block;
+		while(true){
+			if(pc >= expressionCode.length){
+				throw new NotCompilableException("Block at " + block + " has no end", null);
+			}
+			offsets.put(pc, code.size());
+			if(expressionCode[pc] == RET){
+				code.u1(RETURN);
+				break;
+			}
+			pc += translate(expressionCode, pc);
+		}
+		for(int[] jump: jumps){
+			Integer target = offsets.get(jump[1]);
+			if(target == null){
+				throw new NotCompilableException("Jump out of the block at " + block, null);
+			}
+			code.putU2(jump[0] + 1, target - jump[0]);
+		}
+	}
+
+	/**
+	 * Maps the positions of the translated instructions to the offsets of their translations.
+	 */
+	private final Map<Integer, Integer> offsets = new HashMap<Integer, Integer>();
+
+	/**
+	 * The offsets of the branches to other instructions with the positions of those instructions.
+	 */
+	private final List<int[]> jumps = new ArrayList<int[]>();
+
+	/**
+	 * Translate the instruction at the given position and return its length.
+	 */
+	private int translate(int[] c, int pc) throws NotCompilableException{
+		switch(c[pc]){
+		case DOUBLE_CONSTANT:
+			startStore(D, c[pc+1]);
+			code.u1(LDC2_W);
+			code.u2(classFile.doubleConstant(compiledProgram.doubleConstants[c[pc+2]]));
+			code.u1(DASTORE);
+			return 3;
+		case BOOL_CONSTANT:
+			startStore(Z, c[pc+1]);
+			pushInt(c[pc+2] != 0 ? 1 : 0);
+			code.u1(BASTORE);
+			return 3;
+		case REFERENCE_CONSTANT:
+			startStore(R, c[pc+1]);
+			load(CONSTANTS);
+			pushInt(c[pc+2]);
+			code.u1(AALOAD);
+			code.u1(AASTORE);
+			return 3;
+		case SELF:
+			startStore(R, c[pc+1]);
+			load(PROGRAM);
+			invoke(INVOKEVIRTUAL, PROGRAM_CLASS, "getGameObject", "()L" + GAME_OBJECT + ";");
+			code.u1(AASTORE);
+			return 2;
+		case LOAD_DOUBLE:
+			loadVariable(c[pc+2], c[pc+3], c[pc+4]);
+			ifVariableExists(() -> {
+				startStore(D, c[pc+1]);
+				load(VARIABLE);
+				unbox(TYPES + "DoubleType", "java/lang/Double", "doubleValue", "()D");
+				code.u1(DASTORE);
+			});
+			return 5;
+		case LOAD_BOOL:
+			loadVariable(c[pc+2], c[pc+3], c[pc+4]);
+			ifVariableExists(() -> {
+				startStore(Z, c[pc+1]);
+				load(VARIABLE);
+				unbox(TYPES + "BoolType", "java/lang/Boolean", "booleanValue", "()Z");
+				code.u1(BASTORE);
+			});
+			return 5;
+		case LOAD_REFERENCE:
+			loadVariable(c[pc+2], c[pc+3], c[pc+4]);
+			ifVariableExists(() -> {
+				startStore(R, c[pc+1]);
+				load(VARIABLE);
+				invoke(INVOKEVIRTUAL, TYPE, "getValue", "()Ljava/lang/Object;");
+				code.u1(AASTORE);
+			});
+			return 5;
+		case LOAD_TYPE:
+			startStore(R, c[pc+1]);
+			load(PROGRAM);
+			pushInt(c[pc+2]);
+			if(compiledProgram.referenceConstants[c[pc+3]] == null){
+				invoke(INVOKEVIRTUAL, PROGRAM_CLASS, "getGlobalVariable", "(I)L" + TYPE + ";");
+			}
+			else{
+				loadConstant(c[pc+3]);
+				invoke(INVOKESTATIC, COMPILED_BLOCK, "loadType", "(L" + PROGRAM_CLASS + ";ILjava/lang/Object;)L" + TYPE + ";");
+			}
+			code.u1(AASTORE);
+			return 4;
+		case ADD:
+			arithmetic(c, pc, DADD);
+			return 4;
+		case SUBTRACT:
+			arithmetic(c, pc, DSUB);
+			return 4;
+		case MULTIPLY:
+			arithmetic(c, pc, DMUL);
+			return 4;
+		case DIVIDE:
+			arithmetic(c, pc, DDIV);
+			return 4;
+		case SQRT:
+			startStore(D, c[pc+1]);
+			loadElement(D, c[pc+2]);
+			invoke(INVOKESTATIC, "java/lang/Math", "abs", "(D)D");
+			invoke(INVOKESTATIC, "java/lang/Math", "sqrt", "(D)D");
+			normalize();
+			code.u1(DASTORE);
+			return 3;
+		case RANDOM:
+			startStore(D, c[pc+1]);
+			loadElement(D, c[pc+2]);
+			load(PROGRAM);
+			invoke(INVOKEVIRTUAL, PROGRAM_CLASS, "getRandom", "()Ljava/util/Random;");
+			invoke(INVOKEVIRTUAL, "java/util/Random", "nextDouble", "()D");
+			code.u1(DMUL);
+			normalize();
+			code.u1(DASTORE);
+			return 3;
+		case NOT:
+			startStore(Z, c[pc+1]);
+			loadElement(Z, c[pc+2]);
+			code.u1(ICONST_1);
+			code.u1(IXOR);
+			code.u1(BASTORE);
+			return 3;
+		case JUMP_IF_FALSE:
+			loadElement(Z, c[pc+1]);
+			jump(IFEQ, c[pc+2]);
+			return 3;
+		case JUMP_IF_TRUE:
+			loadElement(Z, c[pc+1]);
+			jump(IFNE, c[pc+2]);
+			return 3;
+		case MOVE_BOOL:
+			startStore(Z, c[pc+1]);
+			loadElement(Z, c[pc+2]);
+			code.u1(BASTORE);
+			return 3;
+		case LESS_THAN:
+			comparison(c, pc, DCMPG, IFGE);
+			return 4;
+		case LESS_THAN_OR_EQUAL:
+			comparison(c, pc, DCMPG, IFGT);
+			return 4;
+		case GREATER_THAN:
+			comparison(c, pc, DCMPL, IFLE);
+			return 4;
+		case GREATER_THAN_OR_EQUAL:
+			comparison(c, pc, DCMPL, IFLT);
+			return 4;
+		case EQUALS_DOUBLE:
+			startStore(Z, c[pc+1]);
+			loadElement(D, c[pc+2]);
+			loadElement(D, c[pc+3]);
+			invoke(INVOKESTATIC, "jumpingalien/util/Util", "fuzzyEquals", "(DD)Z");
+			code.u1(BASTORE);
+			return 4;
+		case EQUALS_BOOL:
+			test(c, pc, Z, IF_ICMPNE);
+			return 4;
+		case NOT_EQUALS_BOOL:
+			test(c, pc, Z, IF_ICMPEQ);
+			return 4;
+		case EQUALS_REFERENCE:
+			test(c, pc, R, IF_ACMPNE);
+			return 4;
+		case NOT_EQUALS_REFERENCE:
+			test(c, pc, R, IF_ACMPEQ);
+			return 4;
+		case EQUALS_OBJECT:
+			helperTest(c, pc, "equalsObject");
+			return 4;
+		case NOT_EQUALS_TYPE:
+			helperTest(c, pc, "notEqualsType");
+			return 4;
+		case CHECK_FLAG: {
+			loadElement(Z, c[pc+1]);
+			int branch = branch(IFEQ);
+			throwNullPointerException();
+			bind(branch);
+			return 2;
+		}
+		case GET_X:
+			getter(c, pc, "getHorizontalLocation", "()D");
+			return 3;
+		case GET_Y:
+			getter(c, pc, "getVerticalLocation", "()D");
+			return 3;
+		case GET_WIDTH:
+			getter(c, pc, "getWidth", "()I");
+			return 3;
+		case GET_HEIGHT:
+			getter(c, pc, "getHeight", "()I");
+			return 3;
+		case GET_HIT_POINTS:
+			getter(c, pc, "getHitPoints", "()I");
+			return 3;
+		case GET_TILE:
+			startStore(R, c[pc+1]);
+			load(PROGRAM);
+			loadElement(D, c[pc+2]);
+			loadElement(D, c[pc+3]);
+			invoke(INVOKESTATIC, COMPILED_BLOCK, "getTile", "(L" + PROGRAM_CLASS + ";DD)Ljava/lang/Object;");
+			code.u1(AASTORE);
+			return 4;
+		case SEARCH_OBJECT:
+			startStore(R, c[pc+1]);
+			load(PROGRAM);
+			loadElement(R, c[pc+2]);
+			invoke(INVOKESTATIC, COMPILED_BLOCK, "search", "(L" + PROGRAM_CLASS + ";Ljava/lang/Object;)Ljava/lang/Object;");
+			code.u1(AASTORE);
+			return 3;
+		case UNWRAP:
+			loadElement(R, c[pc+2]);
+			load(Z);
+			pushInt(c[pc+3]);
+			load(R);
+			pushInt(c[pc+1]);
+			invoke(INVOKESTATIC, COMPILED_BLOCK, "unwrap", "(Ljava/lang/Object;[ZI[Ljava/lang/Object;I)V");
+			return 4;
+		case IS_MAZUB:
+			instanceCheck(c, pc, MODEL + "Mazub");
+			return 3;
+		case IS_SHARK:
+			instanceCheck(c, pc, MODEL + "Shark");
+			return 3;
+		case IS_SLIME:
+			instanceCheck(c, pc, MODEL + "Slime");
+			return 3;
+		case IS_PLANT:
+			instanceCheck(c, pc, MODEL + "Plant");
+			return 3;
+		case IS_DEAD:
+			gameObjectCheck(c, pc, "isTerminated");
+			return 3;
+		case IS_DUCKING:
+			gameObjectCheck(c, pc, "isDucking");
+			return 3;
+		case IS_JUMPING:
+			gameObjectCheck(c, pc, "isJumping");
+			return 3;
+		case IS_AIR:
+			tileCheck(c, pc, 0);
+			return 3;
+		case IS_WATER:
+			tileCheck(c, pc, 2);
+			return 3;
+		case IS_MAGMA:
+			tileCheck(c, pc, 3);
+			return 3;
+		case IS_PASSABLE: {
+			startStore(Z, c[pc+1]);
+			loadElement(R, c[pc+2]);
+			instanceOf(TILE);
+			int isNotTile = branch(IFEQ);
+			load(PROGRAM);
+			loadElement(R, c[pc+2]);
+			pushInt(1);
+			invoke(INVOKESTATIC, COMPILED_BLOCK, "isTileOfValue", "(L" + PROGRAM_CLASS + ";Ljava/lang/Object;I)Z");
+			code.u1(ICONST_1);
+			code.u1(IXOR);
+			int end = branch(GOTO);
+			bind(isNotTile);
+			code.u1(ICONST_0);
+			bind(end);
+			code.u1(BASTORE);
+			return 3;
+		}
+		case IS_TERRAIN: {
+			startStore(Z, c[pc+1]);
+			if(c[pc+3] == NO_FLAG){
+				loadElement(R, c[pc+2]);
+				instanceOf(TILE);
+			}
+			else{
+				loadElement(Z, c[pc+3]);
+				int isFlagged = branch(IFNE);
+				loadElement(R, c[pc+2]);
+				instanceOf(TILE);
+				int end = branch(GOTO);
+				bind(isFlagged);
+				code.u1(ICONST_1);
+				bind(end);
+			}
+			code.u1(BASTORE);
+			return 4;
+		}
+		case IS_MOVING_OBJECT:
+			gameObjectCheck(c, pc, "isMovingHorizontally");
+			loadElement(Z, c[pc+1]);
+			jump(IFEQ, c[pc+3]);
+			return 4;
+		case IS_MOVING_DIRECTION:
+			startStore(Z, c[pc+1]);
+			loadElement(R, c[pc+2]);
+			loadElement(R, c[pc+3]);
+			invoke(INVOKESTATIC, COMPILED_BLOCK, "isMoving", "(Ljava/lang/Object;Ljava/lang/Object;)Z");
+			code.u1(BASTORE);
+			return 4;
+		case BOX_DOUBLE:
+			box(c, pc, "DoubleType", "Ljava/lang/Double;", () -> {
+				loadElement(D, c[pc+2]);
+				invoke(INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;");
+			});
+			return 3;
+		case BOX_BOOL:
+			box(c, pc, "BoolType", "Ljava/lang/Boolean;", () -> {
+				loadElement(Z, c[pc+2]);
+				invoke(INVOKESTATIC, "java/lang/Boolean", "valueOf", "(Z)Ljava/lang/Boolean;");
+			});
+			return 3;
+		case BOX_DIRECTION:
+			box(c, pc, "DirectionType", "L" + DIRECTION + ";", () -> {
+				loadElement(R, c[pc+2]);
+				checkCast(DIRECTION);
+			});
+			return 3;
+		case BOX_GAME_OBJECT:
+			box(c, pc, "GameObjectType", "L" + GAME_OBJECT + ";", () -> {
+				loadElement(R, c[pc+2]);
+				checkCast(GAME_OBJECT);
+			});
+			return 3;
+		case BOX_TILE:
+			box(c, pc, "TileType", TILE, () -> {
+				loadElement(R, c[pc+2]);
+				checkCast(TILE);
+			});
+			return 3;
+		default:
+			throw new NotCompilableException("Cannot translate instruction " + c[pc] + " at " + pc, null);
+		}
+	}
+
+	/**
+	 * Store the variable in the given slot in the local variable for variables,
+	 * checking its class as the interpreter does if there is a class or a flag.
+	 */
+	private void loadVariable(int variable, int variableClass, int flag){
+		load(PROGRAM);
+		pushInt(variable);
+		if(compiledProgram.referenceConstants[variableClass] == null && flag == NO_FLAG){
+			invoke(INVOKEVIRTUAL, PROGRAM_CLASS, "getGlobalVariable", "(I)L" + TYPE + ";");
+		}
+		else{
+			loadConstant(variableClass);
+			load(Z);
+			pushInt(flag);
+			invoke(INVOKESTATIC, COMPILED_BLOCK, "load", "(L" + PROGRAM_CLASS + ";ILjava/lang/Object;[ZI)L" + TYPE + ";");
+		}
+		code.u1(ASTORE);
+		code.u1(VARIABLE);
+	}
+
+	private void ifVariableExists(Runnable store){
+		load(VARIABLE);
+		int branch = branch(IFNULL);
+		store.run();
+		bind(branch);
+	}
+
+	private void unbox(String typeClass, String boxClass, String name, String descriptor){
+		checkCast(typeClass);
+		invoke(INVOKEVIRTUAL, typeClass, "getValue", "()Ljava/lang/Object;");
+		checkCast(boxClass);
+		invoke(INVOKEVIRTUAL, boxClass, name, descriptor);
+	}
+
+	private void arithmetic(int[] c, int pc, int operation){
+		startStore(D, c[pc+1]);
+		loadElement(D, c[pc+2]);
+		loadElement(D, c[pc+3]);
+		code.u1(operation);
+		normalize();
+		code.u1(DASTORE);
+	}
+
+	/**
+	 * Compare two double registers with the given comparison, that yields NaN
+	 * comparisons as false when followed by the given branch to false.
+	 */
+	private void comparison(int[] c, int pc, int comparison, int branchIfFalse){
+		startStore(Z, c[pc+1]);
+		loadElement(D, c[pc+2]);
+		loadElement(D, c[pc+3]);
+		code.u1(comparison);
+		pushCondition(branchIfFalse);
+		code.u1(BASTORE);
+	}
+
+	private void test(int[] c, int pc, int array, int branchIfFalse){
+		startStore(Z, c[pc+1]);
+		loadElement(array, c[pc+2]);
+		loadElement(array, c[pc+3]);
+		pushCondition(branchIfFalse);
+		code.u1(BASTORE);
+	}
+
+	private void helperTest(int[] c, int pc, String name){
+		startStore(Z, c[pc+1]);
+		loadElement(R, c[pc+2]);
+		loadElement(R, c[pc+3]);
+		invoke(INVOKESTATIC, COMPILED_BLOCK, name, "(Ljava/lang/Object;Ljava/lang/Object;)Z");
+		code.u1(BASTORE);
+	}
+
+	/**
+	 * Push 1, or 0 if the given branch is taken.
+	 */
+	private void pushCondition(int branchIfFalse){
+		int isFalse = branch(branchIfFalse);
+		code.u1(ICONST_1);
+		int end = branch(GOTO);
+		bind(isFalse);
+		code.u1(ICONST_0);
+		bind(end);
+	}
+
+	private void getter(int[] c, int pc, String name, String descriptor){
+		startStore(D, c[pc+1]);
+		loadElement(R, c[pc+2]);
+		checkCast(GAME_OBJECT);
+		invoke(INVOKEVIRTUAL, GAME_OBJECT, name, descriptor);
+		if(descriptor.endsWith("I")){
+			code.u1(I2D);
+		}
+		normalize();
+		code.u1(DASTORE);
+	}
+
+	private void instanceCheck(int[] c, int pc, String type){
+		startStore(Z, c[pc+1]);
+		loadElement(R, c[pc+2]);
+		instanceOf(type);
+		code.u1(BASTORE);
+	}
+
+	/**
+	 * Check with the given getter whether an object that is no tile has a property.
+	 */
+	private void gameObjectCheck(int[] c, int pc, String name){
+		startStore(Z, c[pc+1]);
+		loadElement(R, c[pc+2]);
+		instanceOf(TILE);
+		int isTile = branch(IFNE);
+		loadElement(R, c[pc+2]);
+		checkCast(GAME_OBJECT);
+		invoke(INVOKEVIRTUAL, GAME_OBJECT, name, "()Z");
+		int end = branch(GOTO);
+		bind(isTile);
+		code.u1(ICONST_0);
+		bind(end);
+		code.u1(BASTORE);
+	}
+
+	private void tileCheck(int[] c, int pc, int value){
+		startStore(Z, c[pc+1]);
+		load(PROGRAM);
+		loadElement(R, c[pc+2]);
+		pushInt(value);
+		invoke(INVOKESTATIC, COMPILED_BLOCK, "isTileOfValue", "(L" + PROGRAM_CLASS + ";Ljava/lang/Object;I)Z");
+		code.u1(BASTORE);
+	}
+
+	private void box(int[] c, int pc, String typeClass, String valueDescriptor, Runnable value){
+		startStore(R, c[pc+1]);
+		code.u1(NEW);
+		code.u2(classFile.classConstant(TYPES + typeClass));
+		code.u1(DUP);
+		value.run();
+		invoke(INVOKESPECIAL, TYPES + typeClass, "<init>", "(" + valueDescriptor + ")V");
+		code.u1(AASTORE);
+	}
+
+	private void throwNullPointerException(){
+		code.u1(NEW);
+		code.u2(classFile.classConstant("java/lang/NullPointerException"));
+		code.u1(DUP);
+		invoke(INVOKESPECIAL, "java/lang/NullPointerException", "<init>", "()V");
+		code.u1(ATHROW);
+	}
+
+	/* Emitting */
+
+	private void load(int local){
+		code.u1(ALOAD);
+		code.u1(local);
+	}
+
+	/**
+	 * Push the given register file and the index of the given register in it,
+	 * ready for a value to be stored in the register.
+	 */
+	private void startStore(int array, int register){
+		load(array);
+		pushInt(register);
+	}
+
+	private void loadElement(int array, int register){
+		load(array);
+		pushInt(register);
+		code.u1(array == D ? DALOAD : array == Z ? BALOAD : AALOAD);
+	}
+
+	private void loadConstant(int constant){
+		load(CONSTANTS);
+		pushInt(constant);
+		code.u1(AALOAD);
+	}
+
+	private void pushInt(int value){
+		if(value >= -1 && value <= 5){
+			code.u1(ICONST_0 + value);
+		}
+		else if(value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE){
+			code.u1(BIPUSH);
+			code.u1(value);
+		}
+		else if(value >= Short.MIN_VALUE && value <= Short.MAX_VALUE){
+			code.u1(SIPUSH);
+			code.u2(value);
+		}
+		else{
+			code.u1(LDC_W);
+			code.u2(classFile.intConstant(value));
+		}
+	}
+
+	private void normalize(){
+		invoke(INVOKESTATIC, TYPES + "DoubleType", "normalize", "(D)D");
+	}
+
+	private void invoke(int opcode, String owner, String name, String descriptor){
+		code.u1(opcode);
+		code.u2(classFile.methodConstant(owner, name, descriptor));
+	}
+
+	private void checkCast(String type){
+		code.u1(CHECKCAST);
+		code.u2(classFile.classConstant(type));
+	}
+
+	private void instanceOf(String type){
+		code.u1(INSTANCEOF);
+		code.u2(classFile.classConstant(type));
+	}
+
+	/**
+	 * Emit the given branch to the translation of the instruction at the given position.
+	 */
+	private void jump(int opcode, int target){
+		jumps.add(new int[] { code.size(), target });
+		code.u1(opcode);
+		code.u2(0);
+	}
+
+	/**
+	 * Emit the given branch to a position that is bound later, and return its offset.
+	 */
+	private int branch(int opcode){
+		int offset = code.size();
+		code.u1(opcode);
+		code.u2(0);
+		return offset;
+	}
+
+	/**
+	 * Let the branch at the given offset continue at the current offset.
+	 */
+	private void bind(int branch){
+		code.putU2(branch + 1, code.size() - branch);
+	}
+
+	/* Names */
+
+	private static final String GENERATED_PACKAGE = "jumpingalien/programs/bytecode/generated/";
+
+	private static final String COMPILED_BLOCK = "jumpingalien/programs/bytecode/CompiledBlock";
+
+	private static final String PROGRAM_CLASS = "jumpingalien/programs/program/Program";
+
+	private static final String MODEL = "jumpingalien/model/";
+
+	private static final String GAME_OBJECT = MODEL + "GameObject";
+
+	private static final String TYPES = "jumpingalien/programs/types/";
+
+	private static final String TYPE = TYPES + "Type";
+
+	private static final String DIRECTION = "jumpingalien/part3/programs/IProgramFactory$Direction";
+
+	private static final String TILE = "[I";
+
+	private static final String EVALUATE = "(L" + PROGRAM_CLASS + ";[Ljava/lang/Object;[D[Z[Ljava/lang/Object;)V";
+
+	/* Local variables of the evaluate method. */
+
+	private static final int PROGRAM = 1;
+
+	private static final int CONSTANTS = 2;
+
+	private static final int D = 3;
+
+	private static final int Z = 4;
+
+	private static final int R = 5;
+
+	/** The variable read by the last load instruction. */
+	private static final int VARIABLE = 6;
+
+	private static final int NB_LOCALS = 7;
+
+	/**
+	 * The largest number of words on the operand stack, reached when a typed value
+	 * of a double or the tile at two doubles is stored in a register.
+	 */
+	private static final int MAX_STACK = 8;
+
+	/**
+	 * The largest size of the code of a block, so that every branch offset fits in
+	 * two signed bytes.
+	 */
+	private static final int MAX_CODE_SIZE = Short.MAX_VALUE;
+
+	/* Instructions of the Java virtual machine. */
+
+	private static final int ICONST_0 = 0x03;
+	private static final int ICONST_1 = 0x04;
+	private static final int BIPUSH = 0x10;
+	private static final int SIPUSH = 0x11;
+	private static final int LDC_W = 0x13;
+	private static final int LDC2_W = 0x14;
+	private static final int ALOAD = 0x19;
+	private static final int DALOAD = 0x31;
+	private static final int AALOAD = 0x32;
+	private static final int BALOAD = 0x33;
+	private static final int ASTORE = 0x3a;
+	private static final int DASTORE = 0x52;
+	private static final int AASTORE = 0x53;
+	private static final int BASTORE = 0x54;
+	private static final int DUP = 0x59;
+	private static final int DADD = 0x63;
+	private static final int DSUB = 0x67;
+	private static final int DMUL = 0x6b;
+	private static final int DDIV = 0x6f;
+	private static final int IXOR = 0x82;
+	private static final int I2D = 0x87;
+	private static final int DCMPL = 0x97;
+	private static final int DCMPG = 0x98;
+	private static final int IFEQ = 0x99;
+	private static final int IFNE = 0x9a;
+	private static final int IFLT = 0x9b;
+	private static final int IFGE = 0x9c;
+	private static final int IFGT = 0x9d;
+	private static final int IFLE = 0x9e;
+	private static final int IF_ICMPEQ = 0x9f;
+	private static final int IF_ICMPNE = 0xa0;
+	private static final int IF_ACMPEQ = 0xa5;
+	private static final int IF_ACMPNE = 0xa6;
+	private static final int GOTO = 0xa7;
+	private static final int RETURN = 0xb1;
+	private static final int INVOKEVIRTUAL = 0xb6;
+	private static final int INVOKESPECIAL = 0xb7;
+	private static final int INVOKESTATIC = 0xb8;
+	private static final int NEW = 0xbb;
+	private static final int ATHROW = 0xbf;
+	private static final int CHECKCAST = 0xc0;
+	private static final int INSTANCEOF = 0xc1;
+	private static final int IFNULL = 0xc6;
+
+	/**
+	 * A class loader defining the classes of the blocks of a single compiled program.
+	 */
+	private static final class BlockClassLoader extends ClassLoader {
+
+		BlockClassLoader(ClassLoader parent){
+			super(parent);
+		}
+
+		Class<?> define(String name, byte[] classFile){
+			return defineClass(name, classFile, 0, classFile.length);
+		}
+	}
+}
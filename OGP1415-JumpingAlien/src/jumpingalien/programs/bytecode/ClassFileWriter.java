@@ -0,0 +1,265 @@
+package jumpingalien.programs.bytecode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A class for writing the class files of the classes generated for compiled
+ * programs.
+ *
+ * A class file writer writes public final classes without fields, interfaces or
+ * debug information. The class files have version 49, so that their methods are
+ * verified by inferring their types and need no stack map frames.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+final class ClassFileWriter {
+
+	/**
+	 * Initialize this new class file writer for a class with the given internal
+	 * name and the given internal name of its superclass.
+	 */
+	ClassFileWriter(String name, String superName){
+		this.superName = superName;
+		this.thisClass = classConstant(name);
+		this.superClass = classConstant(superName);
+	}
+
+	private final String superName;
+
+	private final int thisClass;
+
+	private final int superClass;
+
+	/* Constant pool */
+
+	int utf8Constant(String value){
+		Integer index = constantIndices.get("U" + value);
+		if(index == null){
+			index = nbConstants++;
+			constantIndices.put("U" + value, index);
+			constantPool.u1(1);
+			constantPool.utf8(value);
+		}
+		return index;
+	}
+
+	int classConstant(String name){
+		int nameIndex = utf8Constant(name);
+		Integer index = constantIndices.get("C" + name);
+		if(index == null){
+			index = nbConstants++;
+			constantIndices.put("C" + name, index);
+			constantPool.u1(7);
+			constantPool.u2(nameIndex);
+		}
+		return index;
+	}
+
+	int methodConstant(String owner, String name, String descriptor){
+		int classIndex = classConstant(owner);
+		int nameAndTypeIndex = nameAndTypeConstant(name, descriptor);
+		String key = "M" + owner + '.' + name + descriptor;
+		Integer index = constantIndices.get(key);
+		if(index == null){
+			index = nbConstants++;
+			constantIndices.put(key, index);
+			constantPool.u1(10);
+			constantPool.u2(classIndex);
+			constantPool.u2(nameAndTypeIndex);
+		}
+		return index;
+	}
+
+	private int nameAndTypeConstant(String name, String descriptor){
+		int nameIndex = utf8Constant(name);
+		int descriptorIndex = utf8Constant(descriptor);
+		String key = "N" + name + descriptor;
+		Integer index = constantIndices.get(key);
+		if(index == null){
+			index = nbConstants++;
+			constantIndices.put(key, index);
+			constantPool.u1(12);
+			constantPool.u2(nameIndex);
+			constantPool.u2(descriptorIndex);
+		}
+		return index;
+	}
+
+	int intConstant(int value){
+		String key = "I" + value;
+		Integer index = constantIndices.get(key);
+		if(index == null){
+			index = nbConstants++;
+			constantIndices.put(key, index);
+			constantPool.u1(3);
+			constantPool.u4(value);
+		}
+		return index;
+	}
+
+	/**
+	 * Return the index of the given double in the constant pool.
+	 *
+	 * @note	Doubles are keyed on their bits, so that -0.0 and NaN keep their identity.
+	 */
+	int doubleConstant(double value){
+		long bits = Double.doubleToRawLongBits(value);
+		String key = "D" + bits;
+		Integer index = constantIndices.get(key);
+		if(index == null){
+			index = nbConstants;
+			// A double takes two entries in the constant pool.
+			nbConstants += 2;
+			constantIndices.put(key, index);
+			constantPool.u1(6);
+			constantPool.u4((int) (bits >>> 32));
+			constantPool.u4((int) bits);
+		}
+		return index;
+	}
+
+	private final Map<String, Integer> constantIndices = new HashMap<String, Integer>();
+
+	private final ByteBuffer constantPool = new ByteBuffer();
+
+	private int nbConstants = 1;
+
+	/* Methods */
+
+	/**
+	 * Add a public method with the given name, descriptor and code to the class.
+	 */
+	void addMethod(String name, String descriptor, ByteBuffer code, int maxStack, int maxLocals){
+		int nameIndex = utf8Constant(name);
+		int descriptorIndex = utf8Constant(descriptor);
+		int codeIndex = utf8Constant("Code");
+		methods.u2(ACC_PUBLIC);
+		methods.u2(nameIndex);
+		methods.u2(descriptorIndex);
+		methods.u2(1);
+		methods.u2(codeIndex);
+		methods.u4(12 + code.size());
+		methods.u2(maxStack);
+		methods.u2(maxLocals);
+		methods.u4(code.size());
+		methods.bytes(code);
+		// No exception handlers and no attributes.
+		methods.u2(0);
+		methods.u2(0);
+		nbMethods++;
+	}
+
+	/**
+	 * Add a public constructor without parameters that calls the constructor
+	 * without parameters of the superclass.
+	 */
+	void addDefaultConstructor(){
+		int superConstructor = methodConstant(superName, "<init>", "()V");
+		ByteBuffer code = new ByteBuffer();
+		code.u1(0x2a);
+		code.u1(0xb7);
+		code.u2(superConstructor);
+		code.u1(0xb1);
+		addMethod("<init>", "()V", code, 1, 1);
+	}
+
+	private final ByteBuffer methods = new ByteBuffer();
+
+	private int nbMethods = 0;
+
+	/**
+	 * Return the class file written by this class file writer.
+	 */
+	byte[] toByteArray(){
+		ByteBuffer classFile = new ByteBuffer();
+		classFile.u4(0xCAFEBABE);
+		classFile.u2(0);
+		classFile.u2(49);
+		classFile.u2(nbConstants);
+		classFile.bytes(constantPool);
+		classFile.u2(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+		classFile.u2(thisClass);
+		classFile.u2(superClass);
+		// No interfaces and no fields.
+		classFile.u2(0);
+		classFile.u2(0);
+		classFile.u2(nbMethods);
+		classFile.bytes(methods);
+		classFile.u2(0);
+		return classFile.toByteArray();
+	}
+
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_SUPER = 0x0020;
+
+	/**
+	 * A growable array of bytes in the big-endian order of class files.
+	 */
+	static final class ByteBuffer {
+
+		void u1(int value){
+			ensureCapacity(1);
+			elements[size++] = (byte) value;
+		}
+
+		void u2(int value){
+			ensureCapacity(2);
+			elements[size++] = (byte) (value >>> 8);
+			elements[size++] = (byte) value;
+		}
+
+		void u4(int value){
+			u2(value >>> 16);
+			u2(value);
+		}
+
+		/**
+		 * Overwrite the two bytes at the given position with the given value.
+		 */
+		void putU2(int position, int value){
+			elements[position] = (byte) (value >>> 8);
+			elements[position + 1] = (byte) value;
+		}
+
+		void utf8(String value){
+			// Class files use a modified UTF-8, which only differs from UTF-8 in
+			// characters that never occur in the names of generated classes.
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			u2(bytes.length);
+			ensureCapacity(bytes.length);
+			System.arraycopy(bytes, 0, elements, size, bytes.length);
+			size += bytes.length;
+		}
+
+		void bytes(ByteBuffer other){
+			ensureCapacity(other.size);
+			System.arraycopy(other.elements, 0, elements, size, other.size);
+			size += other.size;
+		}
+
+		int size(){
+			return size;
+		}
+
+		byte[] toByteArray(){
+			return Arrays.copyOf(elements, size);
+		}
+
+		private void ensureCapacity(int extra){
+			if(size + extra > elements.length){
+				elements = Arrays.copyOf(elements, Math.max(2 * elements.length, size + extra));
+			}
+		}
+
+		private byte[] elements = new byte[256];
+
+		private int size = 0;
+	}
+}
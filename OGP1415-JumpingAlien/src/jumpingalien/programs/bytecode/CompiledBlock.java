@@ -0,0 +1,119 @@
+package jumpingalien.programs.bytecode;
+
+import jumpingalien.model.GameObject;
+import jumpingalien.model.Orientation;
+import jumpingalien.part3.programs.IProgramFactory.Direction;
+import jumpingalien.programs.expressions.SearchObject;
+import jumpingalien.programs.program.Program;
+import jumpingalien.programs.types.Type;
+
+/**
+ * A class of expression blocks of a compiled program that were translated to the
+ * instructions of the Java virtual machine by a {@link BlockCompiler}.
+ *
+ * A compiled block has no state of its own: it computes exactly the registers
+ * the interpreter computes for its block, in the register files it is given,
+ * and throws a null pointer exception exactly where the interpreter would.
+ * The generated subclasses live in a class loader of their own, so the
+ * instructions they do not inline call the public helpers of this class.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+public abstract class CompiledBlock {
+
+	/**
+	 * Evaluate this block on behalf of the given program.
+	 *
+	 * @param 	program
+	 * 			The program whose variables and game object the block reads.
+	 * @param 	constants
+	 * 			The reference constants of the compiled program of the block.
+	 * @throws	NullPointerException
+	 * 			The expression evaluates a variable or object that does not exist.
+	 */
+	public abstract void evaluate(Program program, Object[] constants, double[] d, boolean[] z, Object[] r);
+
+	/**
+	 * Return the variable in the given slot of the given program, or null if it has
+	 * another class than the given class and there is a flag to set.
+	 *
+	 * @see		Interpreter#evaluate(int)
+	 */
+	public static Type<?> load(Program program, int variable, Object variableClass, boolean[] z, int flag){
+		Type<?> value = program.getGlobalVariable(variable);
+		if(variableClass != null && !value.getClass().equals(variableClass)){
+			program.stop();
+			if(flag == Opcodes.NO_FLAG){
+				throw new NullPointerException();
+			}
+			z[flag] = true;
+			return null;
+		}
+		if(flag != Opcodes.NO_FLAG){
+			z[flag] = false;
+		}
+		return value;
+	}
+
+	public static Type<?> loadType(Program program, int variable, Object variableClass){
+		Type<?> value = program.getGlobalVariable(variable);
+		if(variableClass != null && !value.getClass().equals(variableClass)){
+			program.stop();
+			return null;
+		}
+		return value;
+	}
+
+	/**
+	 * Store the value of the given typed value in the given register, or set the given
+	 * flag if there is no typed value.
+	 */
+	public static void unwrap(Object value, boolean[] z, int flag, Object[] r, int register){
+		if(value == null){
+			if(flag == Opcodes.NO_FLAG){
+				throw new NullPointerException();
+			}
+			z[flag] = true;
+		}
+		else{
+			r[register] = ((Type<?>) value).getValue();
+			if(flag != Opcodes.NO_FLAG){
+				z[flag] = false;
+			}
+		}
+	}
+
+	public static boolean equalsObject(Object left, Object right){
+		return (left instanceof int[]) == (right instanceof int[]) && left == right;
+	}
+
+	public static boolean notEqualsType(Object left, Object right){
+		return ((Type<?>) left).getValue() != ((Type<?>) right).getValue();
+	}
+
+	public static Object getTile(Program program, double x, double y){
+		return program.getWorld().getTilePositionAtPixelLocation((int) x, (int) y);
+	}
+
+	public static Object search(Program program, Object direction){
+		return SearchObject.search(program, Orientation.DUMMY.convertDirectionIProgramFactory((Direction) direction));
+	}
+
+	public static boolean isMoving(Object gameObject, Object direction){
+		return ((GameObject) gameObject).getDirection() ==
+				Orientation.DUMMY.convertDirectionIProgramFactory((Direction) direction);
+	}
+
+	/**
+	 * Check whether the given object is a tile with the given value in the
+	 * world of the given program.
+	 */
+	public static boolean isTileOfValue(Program program, Object object, int value){
+		if(!(object instanceof int[])){
+			return false;
+		}
+		int[] tile = (int[]) object;
+		return program.getGameObject().getWorld().getTileValueAtTilePosition(tile[0], tile[1]) == value;
+	}
+}
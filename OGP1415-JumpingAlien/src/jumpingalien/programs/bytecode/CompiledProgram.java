@@ -0,0 +1,129 @@
+package jumpingalien.programs.bytecode;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The compiled form of the main statement of a program.
+ *
+ * A compiled program is immutable; the execution state of a program lives in
+ * its {@link Interpreter}. Statements are numbered in pre-order, so the
+ * statements nested in a statement have the identifiers from the identifier of
+ * that statement up to its subtree end.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+public class CompiledProgram {
+
+	CompiledProgram(int[] statementCode, int[] expressionCode, int[] subtreeEnds,
+			double[] doubleConstants, Object[] referenceConstants, int nbWhileLoops,
+			int nbForEachLoops, int nbWaits, int nbDoubleRegisters, int nbBoolRegisters,
+			int nbReferenceRegisters){
+		this.statementCode = statementCode;
+		this.expressionCode = expressionCode;
+		this.subtreeEnds = subtreeEnds;
+		this.doubleConstants = doubleConstants;
+		this.referenceConstants = referenceConstants;
+		this.nbWhileLoops = nbWhileLoops;
+		this.nbForEachLoops = nbForEachLoops;
+		this.nbWaits = nbWaits;
+		this.nbDoubleRegisters = nbDoubleRegisters;
+		this.nbBoolRegisters = nbBoolRegisters;
+		this.nbReferenceRegisters = nbReferenceRegisters;
+		this.executionCounts = new AtomicIntegerArray(expressionCode.length);
+		this.compiledBlocks = new AtomicReferenceArray<CompiledBlock>(expressionCode.length);
+	}
+
+	/**
+	 * Return the number of statements in this compiled program.
+	 */
+	public int getNbStatements(){
+		return subtreeEnds.length;
+	}
+
+	/**
+	 * Return the number of instructions words used by the statements
+	 * and expressions of this compiled program.
+	 */
+	public int getCodeSize(){
+		return statementCode.length + expressionCode.length;
+	}
+
+	/**
+	 * Return the class generated for the expression block at the given position,
+	 * generating it first if the block has been evaluated more than the given
+	 * number of times, or null if the block has to be interpreted.
+	 *
+	 * @param	threshold
+	 * 			The number of evaluations after which blocks are generated, or a
+	 * 			negative number if no more blocks are to be generated.
+	 * @note	The programs sharing this compiled program may be executed on several
+	 * 			threads at once. The counts are incremented atomically, so no increment can
+	 * 			overwrite the count of a block that cannot be compiled, and a generated block
+	 * 			is published through an atomic array, so every thread that sees it sees it
+	 * 			completely. Only generating blocks is synchronized.
+	 */
+	CompiledBlock getCompiledBlock(int block, int threshold){
+		CompiledBlock compiledBlock = compiledBlocks.get(block);
+		if(compiledBlock == null && threshold >= 0 && executionCounts.incrementAndGet(block) > threshold){
+			compiledBlock = generateBlock(block);
+		}
+		return compiledBlock;
+	}
+
+	private synchronized CompiledBlock generateBlock(int block){
+		if(compiledBlocks.get(block) == null && executionCounts.get(block) > 0){
+			if(blockCompiler == null){
+				blockCompiler = new BlockCompiler(this);
+			}
+			try{
+				compiledBlocks.set(block, blockCompiler.compile(block));
+				nbGeneratedBlocks++;
+			}catch(NotCompilableException exc){
+				// The block is interpreted from now on: its count stays far below any
+				// threshold, however many times it is evaluated afterwards.
+				executionCounts.set(block, Integer.MIN_VALUE);
+			}
+		}
+		return compiledBlocks.get(block);
+	}
+
+	/**
+	 * Return the number of expression blocks of this compiled program for which a
+	 * class was generated.
+	 */
+	public synchronized int getNbGeneratedBlocks(){
+		return nbGeneratedBlocks;
+	}
+
+	private final AtomicIntegerArray executionCounts;
+
+	private final AtomicReferenceArray<CompiledBlock> compiledBlocks;
+
+	private BlockCompiler blockCompiler = null;
+
+	private int nbGeneratedBlocks = 0;
+
+	final int[] statementCode;
+
+	final int[] expressionCode;
+
+	final int[] subtreeEnds;
+
+	final double[] doubleConstants;
+
+	final Object[] referenceConstants;
+
+	final int nbWhileLoops;
+
+	final int nbForEachLoops;
+
+	final int nbWaits;
+
+	final int nbDoubleRegisters;
+
+	final int nbBoolRegisters;
+
+	final int nbReferenceRegisters;
+}
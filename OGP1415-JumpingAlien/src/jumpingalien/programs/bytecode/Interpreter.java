@@ -0,0 +1,806 @@
+package jumpingalien.programs.bytecode;
+
+import static jumpingalien.programs.bytecode.Opcodes.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jumpingalien.model.Buzam;
+import jumpingalien.model.GameObject;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.Orientation;
+import jumpingalien.model.Plant;
+import jumpingalien.model.StateBuffer;
+import jumpingalien.model.Shark;
+import jumpingalien.model.Slime;
+import jumpingalien.part3.programs.IProgramFactory.Direction;
+import jumpingalien.part3.programs.IProgramFactory.Kind;
+import jumpingalien.part3.programs.IProgramFactory.SortDirection;
+import jumpingalien.programs.program.Program;
+import jumpingalien.programs.statements.ForEach;
+import jumpingalien.programs.statements.ForEachCursor;
+import jumpingalien.programs.types.*;
+import jumpingalien.util.Util;
+
+/**
+ * A class of interpreters executing a compiled program on behalf of a program.
+ *
+ * An interpreter holds all execution state of its program that the statements
+ * of the program hold when the program is executed by walking its statements:
+ * which statements still have to be executed in the current pass, the state of
+ * while loops, for-each loops and wait statements, and the registers in which
+ * expressions are evaluated.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+public class Interpreter {
+
+	/**
+	 * Initialize this new interpreter with the given compiled program and program.
+	 *
+	 * @param 	compiledProgram
+	 * 			The compiled form of the main statement of the given program.
+	 * @param 	program
+	 * 			The program this interpreter executes.
+	 */
+	public Interpreter(CompiledProgram compiledProgram, Program program){
+		this.compiledProgram = compiledProgram;
+		this.program = program;
+		this.pending = new boolean[compiledProgram.getNbStatements()];
+		Arrays.fill(this.pending, true);
+		this.whileSecondCalls = new boolean[compiledProgram.nbWhileLoops];
+		this.forEachSecondCalls = new boolean[compiledProgram.nbForEachLoops];
+		this.loopIndices = new int[compiledProgram.nbForEachLoops];
+		this.cursors = new ForEachCursor[compiledProgram.nbForEachLoops];
+		for(int i = 0; i < this.cursors.length; i++){
+			this.cursors[i] = new ForEachCursor();
+		}
+		this.waitTimers = new double[compiledProgram.nbWaits];
+		Arrays.fill(this.waitTimers, Double.MAX_VALUE);
+		this.d = new double[compiledProgram.nbDoubleRegisters];
+		this.z = new boolean[compiledProgram.nbBoolRegisters];
+		this.r = new Object[compiledProgram.nbReferenceRegisters];
+	}
+
+	public CompiledProgram getCompiledProgram(){
+		return this.compiledProgram;
+	}
+
+	private final CompiledProgram compiledProgram;
+
+	public Program getProgram(){
+		return this.program;
+	}
+
+	private final Program program;
+
+	/**
+	 * Mark all statements as to be executed in the next pass.
+	 */
+	public void reset(){
+		Arrays.fill(pending, true);
+	}
+
+	/**
+	 * Put the execution state of this interpreter in the given buffer.
+	 *
+	 * @note	The registers only hold values while an expression is evaluated,
+	 * 			so they are not saved.
+	 */
+	public void saveState(StateBuffer buffer){
+		buffer.putArray(pending);
+		buffer.putArray(whileSecondCalls);
+		buffer.putArray(forEachSecondCalls);
+		buffer.putArray(loopIndices);
+		buffer.putArray(waitTimers);
+		for(ForEachCursor cursor : cursors){
+			cursor.saveState(buffer);
+		}
+	}
+
+	/**
+	 * Restore the execution state of this interpreter from the given buffer.
+	 */
+	public void restoreState(StateBuffer buffer){
+		buffer.getArray(pending);
+		buffer.getArray(whileSecondCalls);
+		buffer.getArray(forEachSecondCalls);
+		buffer.getArray(loopIndices);
+		buffer.getArray(waitTimers);
+		for(ForEachCursor cursor : cursors){
+			cursor.restoreState(buffer);
+		}
+	}
+
+	/**
+	 * Execute the pending statements of the program until it runs out of time,
+	 * stops or reaches the end of its main statement.
+	 */
+	public void execute(){
+		final int[] code = compiledProgram.statementCode;
+		final Object[] constants = compiledProgram.referenceConstants;
+		int pc = 0;
+		while(true){
+			switch(code[pc]){
+			case GUARD:
+				if(!pending[code[pc+1]] || program.hasStopped()){
+					pc = code[pc+2];
+				}
+				else if(!program.hasTimeForStatement()){
+					program.setTimeDepleted(true);
+					pc = code[pc+2];
+				}
+				else{
+					pc += 3;
+				}
+				break;
+			case SKIP:
+				program.decreaseTimerOneUnit();
+				finish(code[pc+1]);
+				pc += 2;
+				break;
+			case START_JUMP: {
+				program.decreaseTimerOneUnit();
+				GameObject gameObject = program.getGameObject();
+				program.performAction(() -> gameObject.startJump());
+				finish(code[pc+1]);
+				pc += 2;
+				break;
+			}
+			case STOP_JUMP: {
+				program.decreaseTimerOneUnit();
+				GameObject gameObject = program.getGameObject();
+				program.performAction(() -> gameObject.endJump());
+				finish(code[pc+1]);
+				pc += 2;
+				break;
+			}
+			case START_DUCK:
+				program.decreaseTimerOneUnit();
+				if(program.getGameObject() instanceof Buzam){
+					Buzam buzam = (Buzam) program.getGameObject();
+					program.performAction(() -> buzam.startDuck());
+				}
+				finish(code[pc+1]);
+				pc += 2;
+				break;
+			case STOP_DUCK:
+				program.decreaseTimerOneUnit();
+				if(program.getGameObject() instanceof Buzam){
+					Buzam buzam = (Buzam) program.getGameObject();
+					program.performAction(() -> buzam.endDuck());
+				}
+				finish(code[pc+1]);
+				pc += 2;
+				break;
+			case START_RUN:
+			case STOP_RUN: {
+				program.decreaseTimerOneUnit();
+				GameObject gameObject = program.getGameObject();
+				evaluate(code[pc+2]);
+				Orientation direction = Orientation.DUMMY.convertDirectionIProgramFactory((Direction) r[code[pc+3]]);
+				if(code[pc] == START_RUN){
+					program.performAction(() -> gameObject.startMove(direction));
+				}
+				else{
+					program.performAction(() -> gameObject.endMove(direction));
+				}
+				finish(code[pc+1]);
+				pc += 4;
+				break;
+			}
+			case STOP_DONE:
+				program.stop();
+				finish(code[pc+1]);
+				pc += 2;
+				break;
+			case STOP:
+				program.stop();
+				pc += 2;
+				break;
+			case PRINT: {
+				program.decreaseTimerOneUnit();
+				evaluate(code[pc+2]);
+				Object printedValue = r[code[pc+3]];
+				program.performAction(() -> System.out.println(printedValue));
+				finish(code[pc+1]);
+				pc += 4;
+				break;
+			}
+			case ASSIGN:
+				try{
+					evaluate(code[pc+2]);
+				}catch(NullPointerException exc){
+					program.stop();
+					pc += 5;
+					break;
+				}
+				program.decreaseTimerOneUnit();
+				program.putGlobalVariable(code[pc+4], (Type<?>) r[code[pc+3]]);
+				finish(code[pc+1]);
+				pc += 5;
+				break;
+			case IF:
+				program.decreaseTimerOneUnit();
+				try{
+					evaluate(code[pc+2]);
+				}catch(NullPointerException exc){
+					pc = code[pc+5];
+					break;
+				}
+				pc = z[code[pc+3]] ? pc + 6 : code[pc+4];
+				break;
+			case JUMP:
+				pc = code[pc+1];
+				break;
+			case DONE:
+				finish(code[pc+1]);
+				pc += 2;
+				break;
+			case WHILE_CONDITION:
+				try{
+					evaluate(code[pc+1]);
+				}catch(NullPointerException exc){
+					program.stop();
+					pc = code[pc+3];
+					break;
+				}
+				pc = code[pc+4];
+				break;
+			case WHILE_TEST: {
+				int statement = code[pc+1];
+				int slot = code[pc+2];
+				if(((z[code[pc+3]] && program.hasTimeForStatement()) && pending[statement] || whileSecondCalls[slot])
+						&& !program.hasStopped()){
+					if(whileSecondCalls[slot]){
+						whileSecondCalls[slot] = false;
+					}
+					else{
+						program.decreaseTimerOneUnit();
+						arm(statement + 1, compiledProgram.subtreeEnds[statement]);
+					}
+					pc += 5;
+				}
+				else{
+					pc = code[pc+4];
+				}
+				break;
+			}
+			case WHILE_EXIT: {
+				int statement = code[pc+1];
+				if(program.hasTimeForStatement() && pending[statement]){
+					program.decreaseTimerOneUnit();
+					finish(statement);
+				}
+				else if(program.isTimeDepleted()){
+					whileSecondCalls[code[pc+2]] = true;
+				}
+				else{
+					whileSecondCalls[code[pc+2]] = true;
+					program.setTimeDepleted(true);
+					arm(statement, compiledProgram.subtreeEnds[statement]);
+				}
+				pc += 3;
+				break;
+			}
+			case FOR_EACH_ENTER: {
+				program.decreaseTimerOneUnit();
+				int variable = code[pc+3];
+				if(!(program.getGlobalVariable(variable) instanceof GameObjectType)){
+					program.stop();
+					pc = code[pc+10];
+					break;
+				}
+				int slot = code[pc+2];
+				if(!forEachSecondCalls[slot]){
+					if(code[pc+7] != NO_BLOCK){
+						List<ObjectType<?>> objectTypeList = createObjectTypeList(variable, (Kind) constants[code[pc+4]],
+								code[pc+5], code[pc+6], code[pc+7], code[pc+8], (SortDirection) constants[code[pc+9]]);
+						if(objectTypeList == null){
+							pc = code[pc+10];
+							break;
+						}
+						cursors[slot].start(objectTypeList);
+					}
+					else{
+						cursors[slot].start((Kind) constants[code[pc+4]], program);
+					}
+				}
+				pc += 11;
+				break;
+			}
+			case FOR_EACH_TEST: {
+				int statement = code[pc+1];
+				int slot = code[pc+2];
+				if((forEachSecondCalls[slot] || (!program.isTimeDepleted() && pending[statement]
+						&& selectNextObject(slot, code[pc+3], code[pc+4], code[pc+5]))) && !program.hasStopped()){
+					ObjectType<?> objectType = cursors[slot].get(loopIndices[slot]);
+					program.putGlobalVariable(code[pc+3], objectType);
+					if(!forEachSecondCalls[slot]){
+						arm(statement + 1, compiledProgram.subtreeEnds[statement]);
+					}
+					else{
+						forEachSecondCalls[slot] = false;
+					}
+					pc += 7;
+				}
+				else{
+					pc = code[pc+6];
+				}
+				break;
+			}
+			case FOR_EACH_NEXT:
+				loopIndices[code[pc+1]]++;
+				pc = code[pc+2];
+				break;
+			case FOR_EACH_EXIT: {
+				int slot = code[pc+2];
+				if(program.isTimeDepleted()){
+					loopIndices[slot]--;
+					forEachSecondCalls[slot] = true;
+				}
+				else{
+					loopIndices[slot] = 0;
+					finish(code[pc+1]);
+				}
+				pc += 3;
+				break;
+			}
+			case WAIT: {
+				int slot = code[pc+2];
+				if(waitTimers[slot] > 0){
+					double duration;
+					try{
+						evaluate(code[pc+3]);
+					}catch(NullPointerException exc){
+						pc += 5;
+						break;
+					}
+					duration = d[code[pc+4]];
+					if(duration < program.TIME_UNIT && duration > 0){
+						duration = program.TIME_UNIT;
+					}
+					else if(duration < 0){
+						program.stop();
+						pc += 5;
+						break;
+					}
+					waitTimers[slot] = program.getTimer() - duration;
+				}
+				else{
+					waitTimers[slot] = waitTimers[slot] + program.getTimer();
+				}
+				program.setTimer(waitTimers[slot]);
+				if(program.getTimer() > 0){
+					waitTimers[slot] = Double.MAX_VALUE;
+					finish(code[pc+1]);
+				}
+				pc += 5;
+				break;
+			}
+			case BREAK:
+				program.decreaseTimerOneUnit();
+				finish(code[pc+2]);
+				pc += 3;
+				break;
+			case HALT:
+				return;
+			default:
+				throw new IllegalStateException("Unknown instruction " + code[pc]);
+			}
+		}
+	}
+
+	/**
+	 * Mark the given statement and the statements nested in it as executed.
+	 */
+	private void finish(int statement){
+		Arrays.fill(pending, statement, compiledProgram.subtreeEnds[statement], false);
+	}
+
+	/**
+	 * Mark the statements in the given range as to be executed.
+	 */
+	private void arm(int from, int to){
+		Arrays.fill(pending, from, to, true);
+	}
+
+	/**
+	 * Advance the loop index of the given for-each loop to the next object selected
+	 * by the given block, and check whether there is such an object.
+	 *
+	 * @see ForEach#execute(Program)
+	 */
+	private boolean selectNextObject(int slot, int variable, int where, int whereValue){
+		ForEachCursor cursor = cursors[slot];
+		if(where != NO_BLOCK){
+			while(loopIndices[slot] < cursor.size() && !program.hasStopped()
+					&& !isSelected(cursor.get(loopIndices[slot]), variable, where, whereValue)){
+				loopIndices[slot]++;
+			}
+		}
+		return loopIndices[slot] < cursor.size();
+	}
+
+	private boolean isSelected(ObjectType<?> objectType, int variable, int where, int whereValue){
+		program.putGlobalVariable(variable, objectType);
+		try{
+			evaluate(where);
+			return z[whereValue];
+		}catch(NullPointerException exc){
+			return false;
+		}
+	}
+
+	/**
+	 * Return the objects a for-each loop with a sort block visits, filtered and
+	 * sorted with the given blocks, or null if a sort key cannot be computed.
+	 *
+	 * @see ForEach#execute(Program)
+	 */
+	private List<ObjectType<?>> createObjectTypeList(int variable, Kind kind, int where, int whereValue,
+			int sort, int sortValue, SortDirection sortDirection){
+		List<ObjectType<?>> objectTypeList = ForEach.createObjectTypeList(kind, program);
+		if(where != NO_BLOCK){
+			List<ObjectType<?>> filteredList = new ArrayList<ObjectType<?>>();
+			for(ObjectType<?> objectType: objectTypeList){
+				if(isSelected(objectType, variable, where, whereValue)){
+					filteredList.add(objectType);
+				}
+			}
+			objectTypeList = filteredList;
+		}
+		if(sort != NO_BLOCK){
+			double[] sortValues = new double[objectTypeList.size()];
+			for(int i = 0; i < sortValues.length; i++){
+				program.putGlobalVariable(variable, objectTypeList.get(i));
+				try{
+					evaluate(sort);
+				}catch(NullPointerException exc){
+					return null;
+				}
+				sortValues[i] = d[sortValue];
+			}
+			if(sortDirection != null){
+				Integer[] order = new Integer[sortValues.length];
+				for(int i = 0; i < order.length; i++){
+					order[i] = i;
+				}
+				if(sortDirection == SortDirection.ASCENDING){
+					Arrays.sort(order, (i1, i2) -> Double.compare(sortValues[i1], sortValues[i2]));
+				}
+				else{
+					Arrays.sort(order, (i1, i2) -> Double.compare(sortValues[i2], sortValues[i1]));
+				}
+				List<ObjectType<?>> sortedList = new ArrayList<ObjectType<?>>(order.length);
+				for(int i: order){
+					sortedList.add(objectTypeList.get(i));
+				}
+				objectTypeList = sortedList;
+			}
+		}
+		return objectTypeList;
+	}
+
+	/**
+	 * Evaluate the expression block at the given position, with the class generated
+	 * for it once it is hot.
+	 *
+	 * @throws	NullPointerException
+	 * 			The expression evaluates a variable or object that does not exist,
+	 * 			exactly where evaluating the expression itself would.
+	 * @see		CompiledProgram#getCompiledBlock(int, int)
+	 */
+	private void evaluate(int block){
+		CompiledBlock compiledBlock = compiledProgram.getCompiledBlock(block, program.getHotBlockThreshold());
+		if(compiledBlock != null){
+			compiledBlock.evaluate(program, compiledProgram.referenceConstants, d, z, r);
+		}
+		else{
+			interpret(block);
+		}
+	}
+
+	/**
+	 * Evaluate the expression block at the given position instruction by instruction.
+	 */
+	private void interpret(int block){
+		final int[] code = compiledProgram.expressionCode;
+		final Object[] constants = compiledProgram.referenceConstants;
+		final double[] d = this.d;
+		final boolean[] z = this.z;
+		final Object[] r = this.r;
+		int pc = block;
+		while(true){
+			switch(code[pc]){
+			case DOUBLE_CONSTANT:
+				d[code[pc+1]] = compiledProgram.doubleConstants[code[pc+2]];
+				pc += 3;
+				break;
+			case BOOL_CONSTANT:
+				z[code[pc+1]] = code[pc+2] != 0;
+				pc += 3;
+				break;
+			case REFERENCE_CONSTANT:
+				r[code[pc+1]] = constants[code[pc+2]];
+				pc += 3;
+				break;
+			case SELF:
+				r[code[pc+1]] = program.getGameObject();
+				pc += 2;
+				break;
+			case LOAD_DOUBLE: {
+				Type<?> variable = load(code, pc, constants);
+				if(variable != null){
+					d[code[pc+1]] = ((DoubleType) variable).getValue();
+				}
+				pc += 5;
+				break;
+			}
+			case LOAD_BOOL: {
+				Type<?> variable = load(code, pc, constants);
+				if(variable != null){
+					z[code[pc+1]] = ((BoolType) variable).getValue();
+				}
+				pc += 5;
+				break;
+			}
+			case LOAD_REFERENCE: {
+				Type<?> variable = load(code, pc, constants);
+				if(variable != null){
+					r[code[pc+1]] = variable.getValue();
+				}
+				pc += 5;
+				break;
+			}
+			case LOAD_TYPE:
+				r[code[pc+1]] = CompiledBlock.loadType(program, code[pc+2], constants[code[pc+3]]);
+				pc += 4;
+				break;
+			case ADD:
+				d[code[pc+1]] = DoubleType.normalize(d[code[pc+2]] + d[code[pc+3]]);
+				pc += 4;
+				break;
+			case SUBTRACT:
+				d[code[pc+1]] = DoubleType.normalize(d[code[pc+2]] - d[code[pc+3]]);
+				pc += 4;
+				break;
+			case MULTIPLY:
+				d[code[pc+1]] = DoubleType.normalize(d[code[pc+2]] * d[code[pc+3]]);
+				pc += 4;
+				break;
+			case DIVIDE:
+				d[code[pc+1]] = DoubleType.normalize(d[code[pc+2]] / d[code[pc+3]]);
+				pc += 4;
+				break;
+			case SQRT:
+				d[code[pc+1]] = DoubleType.normalize(Math.sqrt(Math.abs(d[code[pc+2]])));
+				pc += 3;
+				break;
+			case RANDOM:
+				d[code[pc+1]] = DoubleType.normalize(d[code[pc+2]] * program.getRandom().nextDouble());
+				pc += 3;
+				break;
+			case NOT:
+				z[code[pc+1]] = !z[code[pc+2]];
+				pc += 3;
+				break;
+			case JUMP_IF_FALSE:
+				pc = z[code[pc+1]] ? pc + 3 : code[pc+2];
+				break;
+			case JUMP_IF_TRUE:
+				pc = z[code[pc+1]] ? code[pc+2] : pc + 3;
+				break;
+			case MOVE_BOOL:
+				z[code[pc+1]] = z[code[pc+2]];
+				pc += 3;
+				break;
+			case LESS_THAN:
+				z[code[pc+1]] = d[code[pc+2]] < d[code[pc+3]];
+				pc += 4;
+				break;
+			case LESS_THAN_OR_EQUAL:
+				z[code[pc+1]] = d[code[pc+2]] <= d[code[pc+3]];
+				pc += 4;
+				break;
+			case GREATER_THAN:
+				z[code[pc+1]] = d[code[pc+2]] > d[code[pc+3]];
+				pc += 4;
+				break;
+			case GREATER_THAN_OR_EQUAL:
+				z[code[pc+1]] = d[code[pc+2]] >= d[code[pc+3]];
+				pc += 4;
+				break;
+			case EQUALS_DOUBLE:
+				z[code[pc+1]] = Util.fuzzyEquals(d[code[pc+2]], d[code[pc+3]]);
+				pc += 4;
+				break;
+			case EQUALS_BOOL:
+				z[code[pc+1]] = z[code[pc+2]] == z[code[pc+3]];
+				pc += 4;
+				break;
+			case EQUALS_REFERENCE:
+				z[code[pc+1]] = r[code[pc+2]] == r[code[pc+3]];
+				pc += 4;
+				break;
+			case EQUALS_OBJECT:
+				z[code[pc+1]] = CompiledBlock.equalsObject(r[code[pc+2]], r[code[pc+3]]);
+				pc += 4;
+				break;
+			case NOT_EQUALS_BOOL:
+				z[code[pc+1]] = z[code[pc+2]] != z[code[pc+3]];
+				pc += 4;
+				break;
+			case NOT_EQUALS_REFERENCE:
+				z[code[pc+1]] = r[code[pc+2]] != r[code[pc+3]];
+				pc += 4;
+				break;
+			case NOT_EQUALS_TYPE:
+				z[code[pc+1]] = CompiledBlock.notEqualsType(r[code[pc+2]], r[code[pc+3]]);
+				pc += 4;
+				break;
+			case CHECK_FLAG:
+				if(z[code[pc+1]]){
+					throw new NullPointerException();
+				}
+				pc += 2;
+				break;
+			case GET_X:
+				d[code[pc+1]] = DoubleType.normalize(((GameObject) r[code[pc+2]]).getHorizontalLocation());
+				pc += 3;
+				break;
+			case GET_Y:
+				d[code[pc+1]] = DoubleType.normalize(((GameObject) r[code[pc+2]]).getVerticalLocation());
+				pc += 3;
+				break;
+			case GET_WIDTH:
+				d[code[pc+1]] = DoubleType.normalize(((GameObject) r[code[pc+2]]).getWidth());
+				pc += 3;
+				break;
+			case GET_HEIGHT:
+				d[code[pc+1]] = DoubleType.normalize(((GameObject) r[code[pc+2]]).getHeight());
+				pc += 3;
+				break;
+			case GET_HIT_POINTS:
+				d[code[pc+1]] = DoubleType.normalize(((GameObject) r[code[pc+2]]).getHitPoints());
+				pc += 3;
+				break;
+			case GET_TILE:
+				r[code[pc+1]] = CompiledBlock.getTile(program, d[code[pc+2]], d[code[pc+3]]);
+				pc += 4;
+				break;
+			case SEARCH_OBJECT:
+				r[code[pc+1]] = CompiledBlock.search(program, r[code[pc+2]]);
+				pc += 3;
+				break;
+			case UNWRAP:
+				CompiledBlock.unwrap(r[code[pc+2]], z, code[pc+3], r, code[pc+1]);
+				pc += 4;
+				break;
+			case IS_MAZUB:
+				z[code[pc+1]] = r[code[pc+2]] instanceof Mazub;
+				pc += 3;
+				break;
+			case IS_SHARK:
+				z[code[pc+1]] = r[code[pc+2]] instanceof Shark;
+				pc += 3;
+				break;
+			case IS_SLIME:
+				z[code[pc+1]] = r[code[pc+2]] instanceof Slime;
+				pc += 3;
+				break;
+			case IS_PLANT:
+				z[code[pc+1]] = r[code[pc+2]] instanceof Plant;
+				pc += 3;
+				break;
+			case IS_DEAD:
+				z[code[pc+1]] = !(r[code[pc+2]] instanceof int[]) && ((GameObject) r[code[pc+2]]).isTerminated();
+				pc += 3;
+				break;
+			case IS_DUCKING:
+				z[code[pc+1]] = !(r[code[pc+2]] instanceof int[]) && ((GameObject) r[code[pc+2]]).isDucking();
+				pc += 3;
+				break;
+			case IS_JUMPING:
+				z[code[pc+1]] = !(r[code[pc+2]] instanceof int[]) && ((GameObject) r[code[pc+2]]).isJumping();
+				pc += 3;
+				break;
+			case IS_AIR:
+				z[code[pc+1]] = isTileOfValue(r[code[pc+2]], 0);
+				pc += 3;
+				break;
+			case IS_WATER:
+				z[code[pc+1]] = isTileOfValue(r[code[pc+2]], 2);
+				pc += 3;
+				break;
+			case IS_MAGMA:
+				z[code[pc+1]] = isTileOfValue(r[code[pc+2]], 3);
+				pc += 3;
+				break;
+			case IS_PASSABLE: {
+				Object object = r[code[pc+2]];
+				z[code[pc+1]] = object instanceof int[] && !isTileOfValue(object, 1);
+				pc += 3;
+				break;
+			}
+			case IS_TERRAIN: {
+				int flag = code[pc+3];
+				z[code[pc+1]] = (flag != NO_FLAG && z[flag]) || r[code[pc+2]] instanceof int[];
+				pc += 4;
+				break;
+			}
+			case IS_MOVING_OBJECT: {
+				Object object = r[code[pc+2]];
+				boolean movesHorizontally = !(object instanceof int[]) && ((GameObject) object).isMovingHorizontally();
+				z[code[pc+1]] = movesHorizontally;
+				pc = movesHorizontally ? pc + 4 : code[pc+3];
+				break;
+			}
+			case IS_MOVING_DIRECTION:
+				z[code[pc+1]] = CompiledBlock.isMoving(r[code[pc+2]], r[code[pc+3]]);
+				pc += 4;
+				break;
+			case BOX_DOUBLE:
+				r[code[pc+1]] = new DoubleType(d[code[pc+2]]);
+				pc += 3;
+				break;
+			case BOX_BOOL:
+				r[code[pc+1]] = new BoolType(z[code[pc+2]]);
+				pc += 3;
+				break;
+			case BOX_DIRECTION:
+				r[code[pc+1]] = new DirectionType((Direction) r[code[pc+2]]);
+				pc += 3;
+				break;
+			case BOX_GAME_OBJECT:
+				r[code[pc+1]] = new GameObjectType((GameObject) r[code[pc+2]]);
+				pc += 3;
+				break;
+			case BOX_TILE:
+				r[code[pc+1]] = new TileType((int[]) r[code[pc+2]]);
+				pc += 3;
+				break;
+			case RET:
+				return;
+			default:
+				throw new IllegalStateException("Unknown instruction " + code[pc]);
+			}
+		}
+	}
+
+	/**
+	 * Return the variable read by the load instruction at the given position,
+	 * or null if the variable has another type and the instruction has a flag.
+	 *
+	 * @throws	NullPointerException
+	 * 			The variable does not exist, or it has another type and the
+	 * 			instruction has no flag.
+	 */
+	private Type<?> load(int[] code, int pc, Object[] constants){
+		return CompiledBlock.load(program, code[pc+2], constants[code[pc+3]], z, code[pc+4]);
+	}
+
+	private boolean isTileOfValue(Object object, int value){
+		return CompiledBlock.isTileOfValue(program, object, value);
+	}
+
+	private final boolean[] pending;
+
+	private final boolean[] whileSecondCalls;
+
+	private final boolean[] forEachSecondCalls;
+
+	private final int[] loopIndices;
+
+	private final ForEachCursor[] cursors;
+
+	private final double[] waitTimers;
+
+	private final double[] d;
+
+	private final boolean[] z;
+
+	private final Object[] r;
+}
@@ -0,0 +1,26 @@
+package jumpingalien.programs.bytecode;
+
+import jumpingalien.part3.programs.SourceLocation;
+
+/**
+ * A class of exceptions signalling that a statement or expression cannot be
+ * compiled, so that its program has to be executed by walking its statements.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+public class NotCompilableException extends Exception {
+
+	public NotCompilableException(String message, SourceLocation sourceLocation){
+		super(sourceLocation == null ? message : message + " at " + sourceLocation);
+		this.sourceLocation = sourceLocation;
+	}
+
+	public SourceLocation getSourceLocation(){
+		return this.sourceLocation;
+	}
+
+	private final SourceLocation sourceLocation;
+
+	private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,203 @@
+package jumpingalien.programs.bytecode;
+
+/**
+ * The instruction set of compiled programs.
+ *
+ * Statement instructions drive the control flow of a program and consume its
+ * time budget, exactly like the execute methods of the statements they were
+ * compiled from. Expression instructions compute values in primitive registers;
+ * every expression is compiled to a block that ends with RET.
+ *
+ * The operands of every instruction follow its opcode in the code array.
+ * Statement identifiers index the pending bits of a program, variables index
+ * the slots in which a program stores its global variables, slots index the
+ * state of a single while loop, for-each loop or wait statement, and registers
+ * are named after their register file (d for doubles, z for booleans and r for
+ * references).
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+final class Opcodes {
+
+	private Opcodes(){
+	}
+
+	/* Statement instructions. */
+
+	/** statement end: skip to end unless the statement is pending and has time left. */
+	static final int GUARD = 0;
+	/** statement: spend one time unit on a skip statement. */
+	static final int SKIP = 1;
+	/** statement: start a jump of the game object. */
+	static final int START_JUMP = 2;
+	/** statement: stop a jump of the game object. */
+	static final int STOP_JUMP = 3;
+	/** statement: start ducking if the game object is a Buzam. */
+	static final int START_DUCK = 4;
+	/** statement: stop ducking if the game object is a Buzam. */
+	static final int STOP_DUCK = 5;
+	/** statement block r: start running in the direction computed by block. */
+	static final int START_RUN = 6;
+	/** statement block r: stop running in the direction computed by block. */
+	static final int STOP_RUN = 7;
+	/** statement: stop the program and mark the statement as executed. */
+	static final int STOP_DONE = 8;
+	/** statement: stop the program. */
+	static final int STOP = 9;
+	/** statement block r: print the value computed by block. */
+	static final int PRINT = 10;
+	/** statement block r variable: assign the value computed by block. */
+	static final int ASSIGN = 11;
+	/** statement block z else end: branch on the condition computed by block. */
+	static final int IF = 12;
+	/** target: continue at target. */
+	static final int JUMP = 13;
+	/** statement: mark the statement and its nested statements as executed. */
+	static final int DONE = 14;
+	/** block z end next: evaluate the condition of a while loop and continue at next. */
+	static final int WHILE_CONDITION = 15;
+	/** statement slot z exit: start the next iteration of a while loop or leave it. */
+	static final int WHILE_TEST = 16;
+	/** statement slot: finish a while loop for now or for good. */
+	static final int WHILE_EXIT = 17;
+	/** statement slot variable kind where z sort d direction end: start the cursor of a for-each loop, collecting and sorting its objects if it has a sort block. */
+	static final int FOR_EACH_ENTER = 18;
+	/** statement slot variable where z exit: start the next iteration of a for-each loop with the next object selected by where, or leave it. */
+	static final int FOR_EACH_TEST = 19;
+	/** slot test: advance a for-each loop to its next object. */
+	static final int FOR_EACH_NEXT = 20;
+	/** statement slot: finish a for-each loop for now or for good. */
+	static final int FOR_EACH_EXIT = 21;
+	/** statement slot block d: wait for the duration computed by block. */
+	static final int WAIT = 22;
+	/** statement loop: break out of the given loop statement. */
+	static final int BREAK = 23;
+	/** end of the program. */
+	static final int HALT = 24;
+
+	/* Expression instructions. */
+
+	/** d constant */
+	static final int DOUBLE_CONSTANT = 0;
+	/** z value */
+	static final int BOOL_CONSTANT = 1;
+	/** r constant */
+	static final int REFERENCE_CONSTANT = 2;
+	/** r: the game object of the program. */
+	static final int SELF = 3;
+	/** d variable class flag: read a double variable, checking its class unless class is null. */
+	static final int LOAD_DOUBLE = 4;
+	/** z variable class flag: read a boolean variable. */
+	static final int LOAD_BOOL = 5;
+	/** r variable class flag: read the value of an object or direction variable. */
+	static final int LOAD_REFERENCE = 6;
+	/** r variable class: read the typed value of a variable, or null if it has another class than a non-null class. */
+	static final int LOAD_TYPE = 7;
+	/** d d d */
+	static final int ADD = 8;
+	/** d d d */
+	static final int SUBTRACT = 9;
+	/** d d d */
+	static final int MULTIPLY = 10;
+	/** d d d */
+	static final int DIVIDE = 11;
+	/** d d */
+	static final int SQRT = 12;
+	/** d d */
+	static final int RANDOM = 13;
+	/** z z */
+	static final int NOT = 14;
+	/** z target: continue at target if z is false. */
+	static final int JUMP_IF_FALSE = 15;
+	/** z target: continue at target if z is true. */
+	static final int JUMP_IF_TRUE = 16;
+	/** z z */
+	static final int MOVE_BOOL = 17;
+	/** z d d */
+	static final int LESS_THAN = 18;
+	/** z d d */
+	static final int LESS_THAN_OR_EQUAL = 19;
+	/** z d d */
+	static final int GREATER_THAN = 20;
+	/** z d d */
+	static final int GREATER_THAN_OR_EQUAL = 21;
+	/** z d d */
+	static final int EQUALS_DOUBLE = 22;
+	/** z z z */
+	static final int EQUALS_BOOL = 23;
+	/** z r r: identity of directions. */
+	static final int EQUALS_REFERENCE = 24;
+	/** z r r: equality of game objects and tiles. */
+	static final int EQUALS_OBJECT = 25;
+	/** z z z */
+	static final int NOT_EQUALS_BOOL = 26;
+	/** z r r */
+	static final int NOT_EQUALS_REFERENCE = 27;
+	/** z r r: identity of the values of two typed values. */
+	static final int NOT_EQUALS_TYPE = 28;
+	/** z: throw a null pointer exception if z is true. */
+	static final int CHECK_FLAG = 29;
+	/** d r */
+	static final int GET_X = 30;
+	/** d r */
+	static final int GET_Y = 31;
+	/** d r */
+	static final int GET_WIDTH = 32;
+	/** d r */
+	static final int GET_HEIGHT = 33;
+	/** d r */
+	static final int GET_HIT_POINTS = 34;
+	/** r d d */
+	static final int GET_TILE = 35;
+	/** r r: the typed result of searching in a direction, or null. */
+	static final int SEARCH_OBJECT = 36;
+	/** r r flag: the value of a typed value. */
+	static final int UNWRAP = 37;
+	/** z r */
+	static final int IS_MAZUB = 38;
+	/** z r */
+	static final int IS_SHARK = 39;
+	/** z r */
+	static final int IS_SLIME = 40;
+	/** z r */
+	static final int IS_PLANT = 41;
+	/** z r */
+	static final int IS_DEAD = 42;
+	/** z r */
+	static final int IS_DUCKING = 43;
+	/** z r */
+	static final int IS_JUMPING = 44;
+	/** z r */
+	static final int IS_AIR = 45;
+	/** z r */
+	static final int IS_WATER = 46;
+	/** z r */
+	static final int IS_MAGMA = 47;
+	/** z r */
+	static final int IS_PASSABLE = 48;
+	/** z r flag */
+	static final int IS_TERRAIN = 49;
+	/** z r target: check whether the object moves horizontally, or continue at target. */
+	static final int IS_MOVING_OBJECT = 50;
+	/** z r r: check whether the object moves in the given direction. */
+	static final int IS_MOVING_DIRECTION = 51;
+	/** r d */
+	static final int BOX_DOUBLE = 52;
+	/** r z */
+	static final int BOX_BOOL = 53;
+	/** r r */
+	static final int BOX_DIRECTION = 54;
+	/** r r */
+	static final int BOX_GAME_OBJECT = 55;
+	/** r r */
+	static final int BOX_TILE = 56;
+	/** end of an expression block. */
+	static final int RET = 57;
+
+	/** Flag operand of loads and unwraps that throw instead of setting a flag. */
+	static final int NO_FLAG = -1;
+
+	/** Block operand of for-each loops without a where or sort clause. */
+	static final int NO_BLOCK = -1;
+}
@@ -0,0 +1,783 @@
+package jumpingalien.programs.bytecode;
+
+import static jumpingalien.programs.bytecode.Opcodes.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jumpingalien.programs.expressions.*;
+import jumpingalien.programs.program.Program;
+import jumpingalien.programs.statements.*;
+import jumpingalien.programs.types.*;
+
+/**
+ * A class for compiling the main statement of a program to instructions for
+ * an {@link Interpreter}.
+ *
+ * The compiled instructions reproduce the tree-walking execution of the
+ * statements and expressions exactly, including the way the time budget of a
+ * program is consumed and the way a program resumes after running out of time.
+ * Statements and expressions that cannot be reproduced exactly are rejected with
+ * a {@link NotCompilableException}.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+public class ProgramCompiler {
+
+	private static final int DOUBLE = 0;
+	private static final int BOOL = 1;
+	private static final int DIRECTION = 2;
+	private static final int OBJECT = 3;
+
+	private ProgramCompiler(Program program){
+		this.program = program;
+	}
+
+	/**
+	 * The program whose slots for global variables are used by the compiled instructions.
+	 */
+	private final Program program;
+
+	/**
+	 * Compile the given main statement.
+	 *
+	 * @param 	mainStatement
+	 * 			The main statement of the program to compile.
+	 * @param	program
+	 * 			The program whose slots for global variables the compiled form uses.
+	 * 			Programs built from the same declarations use the same slots.
+	 * @return	The compiled form of the given main statement.
+	 * @throws	NotCompilableException
+	 * 			The given main statement or one of the statements or expressions in it
+	 * 			cannot be compiled.
+	 */
+	public static CompiledProgram compile(Statement mainStatement, Program program) throws NotCompilableException{
+		if(mainStatement == null){
+			throw new NotCompilableException("Missing main statement", null);
+		}
+		ProgramCompiler compiler = new ProgramCompiler(program);
+		compiler.compileStatement(mainStatement);
+		compiler.statementCode.add(HALT);
+		return new CompiledProgram(compiler.statementCode.toArray(), compiler.expressionCode.toArray(),
+				compiler.subtreeEnds.toArray(), Arrays.copyOf(compiler.doubleConstants, compiler.nbDoubleConstants),
+				compiler.referenceConstants.toArray(), compiler.nbWhileLoops, compiler.nbForEachLoops,
+				compiler.nbWaits, compiler.nbDoubleRegisters, compiler.nbBoolRegisters,
+				compiler.nbReferenceRegisters);
+	}
+
+	/* Statements */
+
+	private void compileStatement(Statement statement) throws NotCompilableException{
+		if(statement == null){
+			throw new NotCompilableException("Missing statement", null);
+		}
+		if(statementIds.containsKey(statement)){
+			throw new NotCompilableException("Statement occurs more than once", statement.getSourceLocation());
+		}
+		int id = subtreeEnds.size();
+		statementIds.put(statement, id);
+		subtreeEnds.add(0);
+		int guard = emitGuard(id);
+		Class<?> statementClass = statement.getClass();
+		if(statementClass == Sequence.class){
+			List<Statement> statements = ((Sequence) statement).getStatements();
+			if(statements != null){
+				for(Statement subStatement: statements){
+					compileStatement(subStatement);
+				}
+			}
+		}
+		else if(statementClass == Skip.class){
+			statementCode.add(SKIP, id);
+		}
+		else if(statementClass == StartJump.class){
+			statementCode.add(START_JUMP, id);
+		}
+		else if(statementClass == StopJump.class){
+			statementCode.add(STOP_JUMP, id);
+		}
+		else if(statementClass == StartDuck.class){
+			statementCode.add(START_DUCK, id);
+		}
+		else if(statementClass == StopDuck.class){
+			statementCode.add(STOP_DUCK, id);
+		}
+		else if(statementClass == StartRun.class){
+			compileRun(START_RUN, id, ((StartRun) statement).getDirection());
+		}
+		else if(statementClass == StopRun.class){
+			compileRun(STOP_RUN, id, ((StopRun) statement).getDirection());
+		}
+		else if(statementClass == Print.class){
+			int block = startBlock();
+			int value = compileWrapped(((Print) statement).getValue());
+			endBlock();
+			statementCode.add(PRINT, id, block, value);
+		}
+		else if(statementClass == Assignment.class){
+			compileAssignment(id, (Assignment) statement);
+		}
+		else if(statementClass == If.class){
+			compileIf(id, (If) statement);
+		}
+		else if(statementClass == While.class){
+			compileWhile(id, (While) statement);
+		}
+		else if(statementClass == ForEach.class){
+			compileForEach(id, (ForEach) statement);
+		}
+		else if(statementClass == Wait.class){
+			int block = startBlock();
+			int duration = compileDouble(((Wait) statement).getDuration(), NO_FLAG);
+			endBlock();
+			statementCode.add(WAIT, id, nbWaits++, block, duration);
+		}
+		else if(statementClass == Break.class){
+			Statement loop = statement.getLoopStatement();
+			if(loop == null || !enclosingLoops.contains(loop)){
+				throw new NotCompilableException("Break outside of its loop", statement.getSourceLocation());
+			}
+			statementCode.add(BREAK, id, statementIds.get(loop));
+		}
+		else{
+			throw new NotCompilableException("Unknown statement " + statementClass.getSimpleName(),
+					statement.getSourceLocation());
+		}
+		subtreeEnds.set(id, subtreeEnds.size());
+		statementCode.set(guard, statementCode.size());
+	}
+
+	/**
+	 * Emit the guard of the statement with the given identifier, and return
+	 * the position of its end operand.
+	 */
+	private int emitGuard(int id){
+		statementCode.add(GUARD, id, 0);
+		return statementCode.size() - 1;
+	}
+
+	private void compileRun(int opcode, int id, Expression<DirectionType> direction) throws NotCompilableException{
+		if(!(getType(direction) instanceof DirectionType)){
+			statementCode.add(STOP_DONE, id);
+			return;
+		}
+		int block = startBlock();
+		int value = compileReference(direction, NO_FLAG);
+		endBlock();
+		statementCode.add(opcode, id, block, value);
+	}
+
+	private void compileAssignment(int id, Assignment assignment) throws NotCompilableException{
+		Type<?> variableType = assignment.getVariableType();
+		if(variableType == null){
+			throw new NotCompilableException("Assignment without type", assignment.getSourceLocation());
+		}
+		if(!getType(assignment.getValue()).getClass().equals(variableType.getClass())){
+			statementCode.add(STOP, id);
+			return;
+		}
+		int block = startBlock();
+		int value = compileWrapped(assignment.getValue());
+		endBlock();
+		statementCode.add(ASSIGN, id, block, value, program.getVariableSlot(assignment.getVariableName()));
+	}
+
+	private void compileIf(int id, If statement) throws NotCompilableException{
+		int block = startBlock();
+		int condition = compileBool(statement.getCondition(), NO_FLAG);
+		endBlock();
+		statementCode.add(IF, id, block, condition, 0, 0);
+		int ifInstruction = statementCode.size() - 6;
+		compileStatement(statement.getIfBody());
+		if(statement.getElseBody() != null){
+			statementCode.add(JUMP, 0);
+			int jump = statementCode.size() - 1;
+			statementCode.set(ifInstruction + 4, statementCode.size());
+			compileStatement(statement.getElseBody());
+			statementCode.set(jump, statementCode.size());
+		}
+		else{
+			statementCode.set(ifInstruction + 4, statementCode.size());
+		}
+		statementCode.add(DONE, id);
+		statementCode.set(ifInstruction + 5, statementCode.size());
+	}
+
+	private void compileWhile(int id, While statement) throws NotCompilableException{
+		int slot = nbWhileLoops++;
+		int block = startBlock();
+		int condition = compileBool(statement.getCondition(), NO_FLAG);
+		endBlock();
+		List<Integer> ends = new ArrayList<Integer>();
+		statementCode.add(WHILE_CONDITION, block, condition, 0, statementCode.size() + 5);
+		ends.add(statementCode.size() - 2);
+		int test = statementCode.size();
+		statementCode.add(WHILE_TEST, id, slot, condition, 0);
+		int exit = statementCode.size() - 1;
+		enclosingLoops.push(statement);
+		compileStatement(statement.getBody());
+		enclosingLoops.pop();
+		statementCode.add(WHILE_CONDITION, block, condition, 0, test);
+		ends.add(statementCode.size() - 2);
+		statementCode.set(exit, statementCode.size());
+		statementCode.add(WHILE_EXIT, id, slot);
+		for(int end: ends){
+			statementCode.set(end, statementCode.size());
+		}
+	}
+
+	private void compileForEach(int id, ForEach statement) throws NotCompilableException{
+		if(statement.getVariableKind() == null){
+			throw new NotCompilableException("For-each loop without kind", statement.getSourceLocation());
+		}
+		int slot = nbForEachLoops++;
+		int variable = program.getVariableSlot(statement.getVariableName());
+		int where = NO_BLOCK;
+		int whereValue = 0;
+		if(statement.getWhere() != null){
+			where = startBlock();
+			whereValue = compileBool(statement.getWhere(), NO_FLAG);
+			endBlock();
+		}
+		int sort = NO_BLOCK;
+		int sortValue = 0;
+		if(statement.getSort() != null){
+			sort = startBlock();
+			sortValue = compileDouble(statement.getSort(), NO_FLAG);
+			endBlock();
+		}
+		int lazyWhere = NO_BLOCK;
+		if(sort == NO_BLOCK){
+			lazyWhere = where;
+			where = NO_BLOCK;
+		}
+		statementCode.add(FOR_EACH_ENTER, id, slot, variable, constant(statement.getVariableKind()), where, whereValue,
+				sort, sortValue, constant(statement.getSortDirection()), 0);
+		int end = statementCode.size() - 1;
+		int test = statementCode.size();
+		statementCode.add(FOR_EACH_TEST, id, slot, variable, lazyWhere, whereValue, 0);
+		int exit = statementCode.size() - 1;
+		enclosingLoops.push(statement);
+		compileStatement(statement.getBody());
+		enclosingLoops.pop();
+		statementCode.add(FOR_EACH_NEXT, slot, test);
+		statementCode.set(exit, statementCode.size());
+		statementCode.add(FOR_EACH_EXIT, id, slot);
+		statementCode.set(end, statementCode.size());
+	}
+
+	/* Expressions */
+
+	/**
+	 * Start a new expression block and return its position.
+	 */
+	private int startBlock(){
+		return expressionCode.size();
+	}
+
+	private void endBlock(){
+		expressionCode.add(RET);
+	}
+
+	/**
+	 * Return the static type of the given expression, as resolved by the type check
+	 * of its program if it was checked.
+	 */
+	private static Type<?> getType(Expression<?> expression) throws NotCompilableException{
+		if(expression == null){
+			throw new NotCompilableException("Missing expression", null);
+		}
+		Type<?> type = expression.getResolvedType() != null ? expression.getResolvedType() : expression.getType();
+		if(type == null){
+			throw new NotCompilableException("Expression without type", expression.getSourceLocation());
+		}
+		return type;
+	}
+
+	/**
+	 * Return the kind of register that holds the value of the given expression.
+	 */
+	private static int getKind(Expression<?> expression) throws NotCompilableException{
+		Type<?> type = getType(expression);
+		if(type instanceof DoubleType){
+			return DOUBLE;
+		}
+		if(type instanceof BoolType){
+			return BOOL;
+		}
+		if(type instanceof DirectionType){
+			return DIRECTION;
+		}
+		if(type instanceof ObjectType){
+			return OBJECT;
+		}
+		throw new NotCompilableException("Unknown type " + type.getClass().getSimpleName(),
+				expression.getSourceLocation());
+	}
+
+	private static void checkKind(Expression<?> expression, int kind) throws NotCompilableException{
+		if(getKind(expression) != kind){
+			throw new NotCompilableException("Operand of the wrong type", expression.getSourceLocation());
+		}
+	}
+
+	/**
+	 * Check whether the given expression evaluates to null instead of a typed
+	 * value in some cases.
+	 */
+	private boolean canBeNull(Expression<?> expression){
+		if(expression.getClass() == ReadVariable.class){
+			return !((ReadVariable<?>) expression).isTypeCheckedIn(program);
+		}
+		return expression.getClass() == SearchObject.class;
+	}
+
+	/**
+	 * Return the index of the constant holding the class of the values the variable read
+	 * by the given expression must have, or of null if they need not be checked.
+	 */
+	private int variableClassConstant(ReadVariable<?> expression) throws NotCompilableException{
+		if(expression.isTypeCheckedIn(program)){
+			return constant(null);
+		}
+		return constant(getType(expression).getClass());
+	}
+
+	/**
+	 * Return a new flag for the given expression if it can evaluate to null,
+	 * or NO_FLAG otherwise.
+	 */
+	private int flagFor(Expression<?> expression){
+		if(canBeNull(expression)){
+			return nbBoolRegisters++;
+		}
+		return NO_FLAG;
+	}
+
+	private void compileLoad(int opcode, int register, ReadVariable<?> expression, int flag) throws NotCompilableException{
+		expressionCode.add(opcode, register, program.getVariableSlot(expression.getVariableName()),
+				variableClassConstant(expression), flag);
+	}
+
+	private int compileDouble(Expression<?> expression, int flag) throws NotCompilableException{
+		checkKind(expression, DOUBLE);
+		Class<?> expressionClass = expression.getClass();
+		int result = nbDoubleRegisters++;
+		if(expressionClass == DoubleConstant.class){
+			expressionCode.add(DOUBLE_CONSTANT, result, doubleConstant(((DoubleConstant) expression).getValue()));
+		}
+		else if(expressionClass == ReadVariable.class){
+			compileLoad(LOAD_DOUBLE, result, (ReadVariable<?>) expression, flag);
+		}
+		else if(expression instanceof MathematicalExpression && (expressionClass == Addition.class ||
+				expressionClass == Subtraction.class || expressionClass == Multiplication.class ||
+				expressionClass == Division.class)){
+			MathematicalExpression operation = (MathematicalExpression) expression;
+			int left = compileDouble(operation.getExpressionLeft(), NO_FLAG);
+			int right = compileDouble(operation.getExpressionRight(), NO_FLAG);
+			int opcode = expressionClass == Addition.class ? ADD : expressionClass == Subtraction.class ? SUBTRACT :
+				expressionClass == Multiplication.class ? MULTIPLY : DIVIDE;
+			expressionCode.add(opcode, result, left, right);
+		}
+		else if(expressionClass == Sqrt.class){
+			int operand = compileDouble(((Sqrt) expression).getExpression(), NO_FLAG);
+			expressionCode.add(SQRT, result, operand);
+		}
+		else if(expressionClass == RandomDouble.class){
+			int operand = compileDouble(((RandomDouble) expression).getExpression(), NO_FLAG);
+			expressionCode.add(RANDOM, result, operand);
+		}
+		else if(expression instanceof GetDoubleValueOf && (expressionClass == GetX.class || expressionClass == GetY.class ||
+				expressionClass == GetWidth.class || expressionClass == GetHeigth.class ||
+				expressionClass == GetHitPoints.class)){
+			Expression<GameObjectType> operand = ((GetDoubleValueOf) expression).getExpression();
+			checkKind(operand, OBJECT);
+			int object = compileReference(operand, NO_FLAG);
+			int opcode = expressionClass == GetX.class ? GET_X : expressionClass == GetY.class ? GET_Y :
+				expressionClass == GetWidth.class ? GET_WIDTH : expressionClass == GetHeigth.class ? GET_HEIGHT :
+					GET_HIT_POINTS;
+			expressionCode.add(opcode, result, object);
+		}
+		else{
+			throw unknownExpression(expression);
+		}
+		return result;
+	}
+
+	private int compileBool(Expression<?> expression, int flag) throws NotCompilableException{
+		checkKind(expression, BOOL);
+		Class<?> expressionClass = expression.getClass();
+		if(expressionClass == True.class || expressionClass == False.class){
+			int result = nbBoolRegisters++;
+			expressionCode.add(BOOL_CONSTANT, result, expressionClass == True.class ? 1 : 0);
+			return result;
+		}
+		if(expressionClass == ReadVariable.class){
+			int result = nbBoolRegisters++;
+			compileLoad(LOAD_BOOL, result, (ReadVariable<?>) expression, flag);
+			return result;
+		}
+		if(expressionClass == And.class || expressionClass == Or.class){
+			BooleanOperation operation = (BooleanOperation) expression;
+			int result = nbBoolRegisters++;
+			int left = compileBool(operation.getExpressionLeft(), NO_FLAG);
+			expressionCode.add(MOVE_BOOL, result, left);
+			expressionCode.add(expressionClass == And.class ? JUMP_IF_FALSE : JUMP_IF_TRUE, result, 0);
+			int target = expressionCode.size() - 1;
+			int right = compileBool(operation.getExpressionRight(), NO_FLAG);
+			expressionCode.add(MOVE_BOOL, result, right);
+			expressionCode.set(target, expressionCode.size());
+			return result;
+		}
+		if(expressionClass == Not.class){
+			int operand = compileBool(((Not) expression).getExpression(), NO_FLAG);
+			int result = nbBoolRegisters++;
+			expressionCode.add(NOT, result, operand);
+			return result;
+		}
+		if(expressionClass == LessThan.class || expressionClass == LessThanOrEqualTo.class ||
+				expressionClass == GreaterThan.class || expressionClass == GreaterThanOrEqualTo.class){
+			Comparison<?> comparison = (Comparison<?>) expression;
+			int leftFlag = flagFor(comparison.getExpressionLeft());
+			int left = compileDouble(comparison.getExpressionLeft(), leftFlag);
+			int right = compileDouble(comparison.getExpressionRight(), NO_FLAG);
+			checkFlag(leftFlag);
+			int result = nbBoolRegisters++;
+			int opcode = expressionClass == LessThan.class ? LESS_THAN : expressionClass == LessThanOrEqualTo.class ?
+					LESS_THAN_OR_EQUAL : expressionClass == GreaterThan.class ? GREATER_THAN : GREATER_THAN_OR_EQUAL;
+			expressionCode.add(opcode, result, left, right);
+			return result;
+		}
+		if(expressionClass == Equals.class){
+			return compileEquals((Equals<?>) expression);
+		}
+		if(expressionClass == NotEquals.class){
+			return compileNotEquals((NotEquals<?>) expression);
+		}
+		if(expression instanceof CheckerExpression){
+			return compileChecker((CheckerExpression<?>) expression);
+		}
+		throw unknownExpression(expression);
+	}
+
+	/**
+	 * Compile an operand of a comparison to a register of its own kind.
+	 */
+	private int compileOperand(Expression<?> expression, int kind, int flag) throws NotCompilableException{
+		switch(kind){
+		case DOUBLE:
+			return compileDouble(expression, flag);
+		case BOOL:
+			return compileBool(expression, flag);
+		default:
+			return compileReference(expression, flag);
+		}
+	}
+
+	private int compileEquals(Equals<?> expression) throws NotCompilableException{
+		Expression<?> leftExpression = expression.getExpressionLeft();
+		Expression<?> rightExpression = expression.getExpressionRight();
+		int leftKind = getKind(leftExpression);
+		int rightKind = getKind(rightExpression);
+		int leftFlag = flagFor(leftExpression);
+		int rightFlag = flagFor(rightExpression);
+		int left = compileOperand(leftExpression, leftKind, leftFlag);
+		int right = compileOperand(rightExpression, rightKind, rightFlag);
+		checkFlag(leftFlag);
+		int result = nbBoolRegisters++;
+		if(leftKind != rightKind){
+			expressionCode.add(BOOL_CONSTANT, result, 0);
+			return result;
+		}
+		int opcode = leftKind == DOUBLE ? EQUALS_DOUBLE : leftKind == BOOL ? EQUALS_BOOL :
+			leftKind == DIRECTION ? EQUALS_REFERENCE : EQUALS_OBJECT;
+		expressionCode.add(opcode, result, left, right);
+		if(rightFlag != NO_FLAG){
+			expressionCode.add(JUMP_IF_FALSE, rightFlag, expressionCode.size() + 6);
+			expressionCode.add(BOOL_CONSTANT, result, 0);
+		}
+		return result;
+	}
+
+	private int compileNotEquals(NotEquals<?> expression) throws NotCompilableException{
+		Expression<?> leftExpression = expression.getExpressionLeft();
+		Expression<?> rightExpression = expression.getExpressionRight();
+		int leftKind = getKind(leftExpression);
+		int rightKind = getKind(rightExpression);
+		int result;
+		if(leftKind == DOUBLE || rightKind == DOUBLE){
+			int left = compileWrapped(leftExpression);
+			int right = compileWrapped(rightExpression);
+			result = nbBoolRegisters++;
+			expressionCode.add(NOT_EQUALS_TYPE, result, left, right);
+			return result;
+		}
+		int leftFlag = flagFor(leftExpression);
+		int left = compileOperand(leftExpression, leftKind, leftFlag);
+		int right = compileOperand(rightExpression, rightKind, NO_FLAG);
+		checkFlag(leftFlag);
+		result = nbBoolRegisters++;
+		if(leftKind == BOOL && rightKind == BOOL){
+			expressionCode.add(NOT_EQUALS_BOOL, result, left, right);
+		}
+		else if(leftKind != BOOL && rightKind != BOOL){
+			expressionCode.add(NOT_EQUALS_REFERENCE, result, left, right);
+		}
+		else{
+			expressionCode.add(BOOL_CONSTANT, result, 1);
+		}
+		return result;
+	}
+
+	private int compileChecker(CheckerExpression<?> expression) throws NotCompilableException{
+		Class<?> expressionClass = expression.getClass();
+		Expression<?> operand = expression.getExpression();
+		checkKind(operand, OBJECT);
+		int opcode;
+		if(expressionClass == IsMazub.class){
+			opcode = IS_MAZUB;
+		}
+		else if(expressionClass == IsShark.class){
+			opcode = IS_SHARK;
+		}
+		else if(expressionClass == IsSlime.class){
+			opcode = IS_SLIME;
+		}
+		else if(expressionClass == IsPlant.class){
+			opcode = IS_PLANT;
+		}
+		else if(expressionClass == IsDead.class){
+			opcode = IS_DEAD;
+		}
+		else if(expressionClass == IsDucking.class){
+			opcode = IS_DUCKING;
+		}
+		else if(expressionClass == IsJumping.class){
+			opcode = IS_JUMPING;
+		}
+		else if(expressionClass == IsAir.class){
+			opcode = IS_AIR;
+		}
+		else if(expressionClass == IsWater.class){
+			opcode = IS_WATER;
+		}
+		else if(expressionClass == IsMagma.class){
+			opcode = IS_MAGMA;
+		}
+		else if(expressionClass == IsPassable.class){
+			opcode = IS_PASSABLE;
+		}
+		else if(expressionClass == IsTerrain.class){
+			int flag = flagFor(operand);
+			int object = compileReference(operand, flag);
+			int result = nbBoolRegisters++;
+			expressionCode.add(IS_TERRAIN, result, object, flag);
+			return result;
+		}
+		else if(expressionClass == IsMoving.class){
+			Expression<DirectionType> directionExpression = ((IsMoving<?>) expression).getDirection();
+			checkKind(directionExpression, DIRECTION);
+			int object = compileReference(operand, NO_FLAG);
+			int result = nbBoolRegisters++;
+			expressionCode.add(IS_MOVING_OBJECT, result, object, 0);
+			int target = expressionCode.size() - 1;
+			int direction = compileReference(directionExpression, NO_FLAG);
+			expressionCode.add(IS_MOVING_DIRECTION, result, object, direction);
+			expressionCode.set(target, expressionCode.size());
+			return result;
+		}
+		else{
+			throw unknownExpression(expression);
+		}
+		int object = compileReference(operand, NO_FLAG);
+		int result = nbBoolRegisters++;
+		expressionCode.add(opcode, result, object);
+		return result;
+	}
+
+	/**
+	 * Compile an expression whose value is a direction, a game object or a tile.
+	 */
+	private int compileReference(Expression<?> expression, int flag) throws NotCompilableException{
+		int kind = getKind(expression);
+		if(kind != DIRECTION && kind != OBJECT){
+			throw new NotCompilableException("Operand of the wrong type", expression.getSourceLocation());
+		}
+		Class<?> expressionClass = expression.getClass();
+		int result = nbReferenceRegisters++;
+		if(expressionClass == DirectionConstant.class){
+			expressionCode.add(REFERENCE_CONSTANT, result, constant(((DirectionConstant) expression).getDirection()));
+		}
+		else if(expressionClass == Null.class){
+			expressionCode.add(REFERENCE_CONSTANT, result, constant(null));
+		}
+		else if(expressionClass == GameObjectExpression.class){
+			expressionCode.add(REFERENCE_CONSTANT, result, constant(((GameObjectExpression) expression).getGameObject()));
+		}
+		else if(expressionClass == TileObjectExpression.class){
+			expressionCode.add(REFERENCE_CONSTANT, result, constant(((TileObjectExpression) expression).getTile()));
+		}
+		else if(expressionClass == Self.class){
+			expressionCode.add(SELF, result);
+		}
+		else if(expressionClass == ReadVariable.class){
+			compileLoad(LOAD_REFERENCE, result, (ReadVariable<?>) expression, flag);
+		}
+		else if(expressionClass == GetTile.class){
+			GetTile getTile = (GetTile) expression;
+			int x = compileDouble(getTile.getExpressionLeft(), NO_FLAG);
+			int y = compileDouble(getTile.getExpressionRight(), NO_FLAG);
+			expressionCode.add(GET_TILE, result, x, y);
+		}
+		else if(expressionClass == SearchObject.class){
+			int found = compileSearchObject((SearchObject) expression);
+			expressionCode.add(UNWRAP, result, found, flag);
+		}
+		else{
+			throw unknownExpression(expression);
+		}
+		return result;
+	}
+
+	private int compileSearchObject(SearchObject expression) throws NotCompilableException{
+		Expression<DirectionType> directionExpression = expression.getExpression();
+		checkKind(directionExpression, DIRECTION);
+		int direction = compileReference(directionExpression, NO_FLAG);
+		int result = nbReferenceRegisters++;
+		expressionCode.add(SEARCH_OBJECT, result, direction);
+		return result;
+	}
+
+	/**
+	 * Compile an expression to a register that holds its typed value, or null
+	 * where the expression itself evaluates to null.
+	 */
+	private int compileWrapped(Expression<?> expression) throws NotCompilableException{
+		int kind = getKind(expression);
+		Class<?> expressionClass = expression.getClass();
+		if(expressionClass == ReadVariable.class){
+			int result = nbReferenceRegisters++;
+			expressionCode.add(LOAD_TYPE, result, program.getVariableSlot(((ReadVariable<?>) expression).getVariableName()),
+					variableClassConstant((ReadVariable<?>) expression));
+			return result;
+		}
+		if(expressionClass == SearchObject.class){
+			return compileSearchObject((SearchObject) expression);
+		}
+		int value = compileOperand(expression, kind, NO_FLAG);
+		int result = nbReferenceRegisters++;
+		int opcode;
+		switch(kind){
+		case DOUBLE:
+			opcode = BOX_DOUBLE;
+			break;
+		case BOOL:
+			opcode = BOX_BOOL;
+			break;
+		case DIRECTION:
+			opcode = BOX_DIRECTION;
+			break;
+		default:
+			opcode = getType(expression) instanceof TileType ? BOX_TILE : BOX_GAME_OBJECT;
+		}
+		expressionCode.add(opcode, result, value);
+		return result;
+	}
+
+	private void checkFlag(int flag){
+		if(flag != NO_FLAG){
+			expressionCode.add(CHECK_FLAG, flag);
+		}
+	}
+
+	private static NotCompilableException unknownExpression(Expression<?> expression){
+		return new NotCompilableException("Unknown expression " + expression.getClass().getSimpleName(),
+				expression.getSourceLocation());
+	}
+
+	/* Constants */
+
+	private int doubleConstant(double value){
+		if(nbDoubleConstants == doubleConstants.length){
+			doubleConstants = Arrays.copyOf(doubleConstants, 2 * doubleConstants.length);
+		}
+		doubleConstants[nbDoubleConstants] = DoubleType.normalize(value);
+		return nbDoubleConstants++;
+	}
+
+	private double[] doubleConstants = new double[8];
+
+	private int nbDoubleConstants = 0;
+
+	private int constant(Object value){
+		for(int i = 0; i < referenceConstants.size(); i++){
+			if(referenceConstants.get(i) == value){
+				return i;
+			}
+		}
+		referenceConstants.add(value);
+		return referenceConstants.size() - 1;
+	}
+
+	private final List<Object> referenceConstants = new ArrayList<Object>();
+
+	/* Compilation state */
+
+	private final IntList statementCode = new IntList();
+
+	private final IntList expressionCode = new IntList();
+
+	private final IntList subtreeEnds = new IntList();
+
+	private final Map<Statement, Integer> statementIds = new IdentityHashMap<Statement, Integer>();
+
+	private final Deque<Statement> enclosingLoops = new ArrayDeque<Statement>();
+
+	private int nbWhileLoops = 0;
+
+	private int nbForEachLoops = 0;
+
+	private int nbWaits = 0;
+
+	private int nbDoubleRegisters = 0;
+
+	private int nbBoolRegisters = 0;
+
+	private int nbReferenceRegisters = 0;
+
+	/**
+	 * A growable list of instruction words.
+	 */
+	private static class IntList {
+
+		void add(int... words){
+			if(size + words.length > elements.length){
+				elements = Arrays.copyOf(elements, Math.max(2 * elements.length, size + words.length));
+			}
+			System.arraycopy(words, 0, elements, size, words.length);
+			size += words.length;
+		}
+
+		void set(int index, int word){
+			elements[index] = word;
+		}
+
+		int size(){
+			return size;
+		}
+
+		int[] toArray(){
+			return Arrays.copyOf(elements, size);
+		}
+
+		private int[] elements = new int[64];
+
+		private int size = 0;
+	}
+}
@@ -26,7 +26,7 @@ public abstract class BinaryOperation<T0 extends Type<?>, T1 extends Type<?>> ex
 	/**
 	 * @param expressionLeft the expressionLeft to set
 	 */
-	private void setExpressionLeft(Expression<T1> expressionLeft) {
+	public void setExpressionLeft(Expression<T1> expressionLeft) {
 		if(!checkType(expressionLeft)){
 			setStopProgram(true);
 		}
@@ -43,7 +43,7 @@ public abstract class BinaryOperation<T0 extends Type<?>, T1 extends Type<?>> ex
 	/**
 	 * @param expressionRight the expressionRight to set
 	 */
-	private void setExpressionRight(Expression<T1> expressionRight) {
+	public void setExpressionRight(Expression<T1> expressionRight) {
 		if(!checkType(expressionRight)){
 			setStopProgram(true);
 		}
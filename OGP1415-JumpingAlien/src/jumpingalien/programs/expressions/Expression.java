@@ -37,6 +37,20 @@ public abstract class Expression<T extends Type<?>> {
 	
 	public abstract T getType();
 	
+	/**
+	 * Return the type of this expression resolved by the type check of its program,
+	 * or null if its program was not type checked.
+	 */
+	public Type<?> getResolvedType(){
+		return this.resolvedType;
+	}
+	
+	public void setResolvedType(Type<?> resolvedType){
+		this.resolvedType=resolvedType;
+	}
+	
+	private Type<?> resolvedType;
+	
 	
 	public void setStopProgram(boolean stop){
 		this.stopProgram=stop;
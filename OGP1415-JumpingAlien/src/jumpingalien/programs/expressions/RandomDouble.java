@@ -27,7 +27,7 @@ public class RandomDouble extends UnaryOperation<DoubleType, DoubleType> {
 
 	@Override
 	public DoubleType evaluateLegalCase(Program program) {
-		Random r = new Random();
+		Random r = program.getRandom();
 		return new DoubleType(((DoubleType)this.getExpression().evaluateLegalCase(program)).getValue() * r.nextDouble());
 	}
 
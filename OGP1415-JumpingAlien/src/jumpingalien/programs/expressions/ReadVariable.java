@@ -2,6 +2,7 @@ package jumpingalien.programs.expressions;
 
 import jumpingalien.part3.programs.SourceLocation;
 import jumpingalien.programs.program.Program;
+import jumpingalien.programs.types.ObjectType;
 import jumpingalien.programs.types.Type;
 
 /**
@@ -41,17 +42,43 @@ public class ReadVariable<T extends Type<?>> extends Expression<T> {
 
 	private T variableType;
 	
+	/**
+	 * Return the slot of the variable read by this expression in the programs it
+	 * is executed in, or -1 if that slot has to be looked up by name.
+	 */
+	public int getVariableSlot() {
+		return this.variableSlot;
+	}
+	
+	public void setVariableSlot(int variableSlot) {
+		this.variableSlot = variableSlot;
+	}
+	
+	private int variableSlot = -1;
+	
 	@Override
 	public T evaluateLegalCase(Program program){
 		@SuppressWarnings("unchecked")
-		T variable =  (T) program.getGlobalVariables().get(getVariableName());
-		if(!variable.getClass().equals(getVariableType().getClass())){
+		T variable =  (T) (getVariableSlot() >= 0 ? program.getGlobalVariable(getVariableSlot())
+				: program.getGlobalVariable(getVariableName()));
+		if(!isTypeCheckedIn(program) && !variable.getClass().equals(getVariableType().getClass())){
 			program.stop();
 			return null;
 		}
 		return variable;
 	}
 
+	/**
+	 * Check whether the value of the variable read by this expression is known to have
+	 * the type of this expression in the given program, without checking it.
+	 * 
+	 * @note	Variables of type object can hold game objects as well as tiles, even in
+	 * 			programs that are type checked.
+	 */
+	public boolean isTypeCheckedIn(Program program){
+		return program.isTypeChecked() && !(getVariableType() instanceof ObjectType);
+	}
+
 	@Override
 	public T getType() {
 		return getVariableType();
@@ -2,8 +2,7 @@ package jumpingalien.programs.expressions;
 
 
 import jumpingalien.model.Orientation;
-import jumpingalien.model.GameObject;
-import jumpingalien.model.World;
+import jumpingalien.model.Raycast;
 import jumpingalien.part3.programs.SourceLocation;
 import jumpingalien.programs.program.Program;
 import jumpingalien.programs.types.*;
@@ -34,41 +33,29 @@ public class SearchObject extends UnaryOperation<ObjectType<?>, DirectionType> {
 
 	@Override
 	public ObjectType<?> evaluateLegalCase(Program program) {
-		ObjectType<?> object = null;
 		Orientation direction = Orientation.DUMMY.convertDirectionIProgramFactory(((DirectionType) this.getExpression().evaluateLegalCase(program)).getValue());
-		GameObject gameObject = program.getGameObject();
-		int[] position = {(int) gameObject.getHorizontalLocation(), (int) gameObject.getVerticalLocation()};
-		World world = program.getWorld();
-		if(direction == Orientation.RIGHT || direction == Orientation.LEFT){
-			while(gameObject.canHaveAsLocation(position[0], position[1])){
-				object = new GameObjectType(gameObject.getGameObjectAtPixelPosition(position[0], position[1]));
-				if(object.getValue() != null && object.getValue() != gameObject){
-					return object;
-				}
-				position[0] = position[0] + direction.getNumberForCalculations();
-				try{
-					int[] tileArray= world.getTilePositionAtPixelLocation(position[0], position[1]);
-					object = new TileType(tileArray);
-				}catch(IllegalArgumentException exc){
-					object = new GameObjectType(null);
-				}
-			}
-		}else if(direction == Orientation.UP || direction == Orientation.DOWN){
-			while(gameObject.canHaveAsLocation(position[0], position[1])){
-				object = new GameObjectType(gameObject.getGameObjectAtPixelPosition(position[0], position[1]));
-				if(object.getValue() != null && object.getValue() != gameObject){
-					return object;
-				}
-				position[1] = position[1] + direction.getNumberForCalculations();
-				try{
-					int[] tileArray= world.getTilePositionAtPixelLocation(position[0], position[1]);
-					object = new TileType(tileArray);
-				}catch(IllegalArgumentException exc){
-					object = new GameObjectType(null);
-				}
-			}
+		return search(program, direction);
+	}
+	
+	/**
+	 * Return the first game object or impassable tile that is found when searching
+	 * from the game object of the given program in the given direction.
+	 * 
+	 * @note	This search is shared by the tree-walking and the compiled form of programs.
+	 * @note	If the game object cannot stand at its own location, the result is null.
+	 */
+	public static ObjectType<?> search(Program program, Orientation direction) {
+		Raycast ray = new Raycast(program.getGameObject(), direction);
+		if(ray.getHitGameObject() != null){
+			return new GameObjectType(ray.getHitGameObject());
+		}
+		if(!ray.hasLeft()){
+			return null;
+		}
+		if(ray.getHitTile() != null){
+			return new TileType(ray.getHitTile());
 		}
-		return object;
+		return new GameObjectType(null);
 	}
 
 
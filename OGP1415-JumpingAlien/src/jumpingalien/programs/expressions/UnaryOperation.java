@@ -22,7 +22,7 @@ public abstract class UnaryOperation<T0 extends Type<?>,T1 extends Type<?>> exte
 	/**
 	 * @param expression the expression to set
 	 */
-	private void setExpression(Expression<T1> expression) {
+	public void setExpression(Expression<T1> expression) {
 		if(!checkType(expression)){
 			setStopProgram(true);
 		}
@@ -1,10 +1,20 @@
 package jumpingalien.programs.program;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import jumpingalien.model.GameObject;
+import jumpingalien.model.StateBuffer;
 import jumpingalien.model.World;
+import jumpingalien.programs.bytecode.CompiledProgram;
+import jumpingalien.programs.bytecode.Interpreter;
+import jumpingalien.programs.bytecode.NotCompilableException;
+import jumpingalien.programs.bytecode.ProgramCompiler;
 import jumpingalien.programs.types.*;
 import jumpingalien.programs.statements.*;
 
@@ -20,19 +30,193 @@ public class Program {
 		this(null, new HashMap<String, Type<?>>());
 	}
 	
+	/**
+	 * Initialize this new program as a fresh copy of the given program, executing
+	 * the given compiled form of their shared main statement.
+	 * 
+	 * @note	The copy shares the main statement of the given program, but has its
+	 * 			own global variables and its own execution state.
+	 */
+	Program(Program program, CompiledProgram compiledForm){
+		this.variableSlots.putAll(program.variableSlots);
+		this.variableValues=program.variableValues.clone();
+		this.mainStatement=program.getMainStatement();
+		this.compiledForm=compiledForm;
+		this.usesCompiledForm=true;
+		this.optimizer=program.getOptimizer();
+		this.typeChecked=program.isTypeChecked();
+		this.hotBlockThreshold=program.getHotBlockThreshold();
+	}
+	
 	public Statement getMainStatement(){
 		return this.mainStatement;
 	}
 	
 	public void setMainStatement(Statement mainStatement){
 		this.mainStatement=mainStatement;
+		this.typeChecked=false;
+		this.compiledForm=null;
+		this.interpreter=null;
+		this.isNotCompilable=false;
 	}
 	
 	private Statement mainStatement;
 	
+	/**
+	 * Return the optimizer that simplified the main statement of this program, or null
+	 * if its main statement was not optimized.
+	 */
+	public ProgramOptimizer getOptimizer(){
+		return this.optimizer;
+	}
+	
+	void setOptimizer(ProgramOptimizer optimizer){
+		this.optimizer=optimizer;
+	}
+	
+	private ProgramOptimizer optimizer;
+	
+	/**
+	 * Check whether the types of the main statement of this program were checked by a
+	 * {@link TypeChecker}, so that this program need not check the types of the values it
+	 * assigns and reads while it is executed.
+	 */
+	public boolean isTypeChecked(){
+		return this.typeChecked;
+	}
+	
+	void setTypeChecked(boolean typeChecked){
+		this.typeChecked=typeChecked;
+		this.compiledForm=null;
+		this.interpreter=null;
+	}
+	
+	private boolean typeChecked=false;
+	
+	/**
+	 * Check whether this program executes the compiled form of its main statement
+	 * instead of walking its statements, whenever its main statement can be compiled.
+	 */
+	public boolean usesCompiledForm(){
+		return this.usesCompiledForm;
+	}
+	
+	/**
+	 * Set whether this program executes the compiled form of its main statement.
+	 * 
+	 * @note	Both forms keep their own execution state, so this should only be
+	 * 			changed before the program is executed for the first time.
+	 * @note	Programs created from a {@link ProgramTemplate} share their statements,
+	 * 			so they should never walk them.
+	 */
+	public void setUsesCompiledForm(boolean usesCompiledForm){
+		this.usesCompiledForm=usesCompiledForm;
+		this.interpreter=null;
+	}
+	
+	private boolean usesCompiledForm=false;
+	
+	/**
+	 * Check whether this program executes the compiled form of its main statement.
+	 */
+	public boolean hasCompiledForm(){
+		return getInterpreter()!=null;
+	}
+	
+	/**
+	 * Return the interpreter executing the compiled form of the main statement of
+	 * this program, compiling the main statement first if needed, or null if this
+	 * program walks its statements.
+	 */
+	private Interpreter getInterpreter(){
+		if(!usesCompiledForm() || isNotCompilable){
+			return null;
+		}
+		if(this.interpreter==null){
+			CompiledProgram compiledForm=getCompiledForm();
+			if(compiledForm!=null){
+				this.interpreter=new Interpreter(compiledForm, this);
+			}
+		}
+		return this.interpreter;
+	}
+	
+	/**
+	 * Return the compiled form of the main statement of this program, or null if
+	 * its main statement cannot be compiled.
+	 */
+	CompiledProgram getCompiledForm(){
+		try{
+			if(this.compiledForm==null && !isNotCompilable){
+				this.compiledForm=ProgramCompiler.compile(getMainStatement(), this);
+			}
+		}catch(NotCompilableException exc){
+			this.isNotCompilable=true;
+		}
+		return this.compiledForm;
+	}
+	
+	private CompiledProgram compiledForm=null;
+	
+	private Interpreter interpreter=null;
+	
+	private boolean isNotCompilable=false;
+	
+	/**
+	 * Return the number of times the compiled form of this program evaluates an expression
+	 * before a class of the Java virtual machine is generated for it, or a negative number
+	 * if this program only interprets its expressions.
+	 */
+	public int getHotBlockThreshold(){
+		return this.hotBlockThreshold;
+	}
+	
+	/**
+	 * Set the number of evaluations after which the expressions of the compiled form of this
+	 * program are translated to classes of the Java virtual machine.
+	 * 
+	 * @note	Expressions are evaluated with their classes exactly as they are interpreted, so
+	 * 			this may be changed at any time. Classes generated before are kept.
+	 */
+	public void setHotBlockThreshold(int hotBlockThreshold){
+		this.hotBlockThreshold=hotBlockThreshold;
+	}
+	
+	private int hotBlockThreshold=DEFAULT_HOT_BLOCK_THRESHOLD;
+	
+	/**
+	 * Return the number of expressions of the compiled form of this program that are
+	 * evaluated by a generated class, including those generated for the programs that
+	 * share its compiled form.
+	 */
+	public int getNbGeneratedBlocks(){
+		if(!hasCompiledForm()){
+			return 0;
+		}
+		return getCompiledForm().getNbGeneratedBlocks();
+	}
+	
+	public static final int DEFAULT_HOT_BLOCK_THRESHOLD=1000;
+	
+	/**
+	 * Return a snapshot of the global variables of this program, mapping the name
+	 * of each variable that has a value to that value.
+	 * 
+	 * @note	The snapshot is only built when it is asked for after a variable has
+	 * 			changed, so it is meant for inspecting a program, not for executing it.
+	 */
 	public Map<String,Type<?>> getGlobalVariables(){
-		Map<String,Type<?>> globalVariables= new HashMap<String, Type<?>>(this.globalVariables);
-		return globalVariables;
+		if(this.globalVariablesSnapshot==null){
+			Map<String,Type<?>> globalVariables= new HashMap<String, Type<?>>();
+			for(Map.Entry<String, Integer> entry: this.variableSlots.entrySet()){
+				Type<?> value=this.variableValues[entry.getValue()];
+				if(value!=null){
+					globalVariables.put(entry.getKey(), value);
+				}
+			}
+			this.globalVariablesSnapshot=Collections.unmodifiableMap(globalVariables);
+		}
+		return this.globalVariablesSnapshot;
 	}
 	
 	public void setGlobalVariables(Map<String,Type<?>> globalVariables){
@@ -41,39 +225,159 @@ public class Program {
 		}
 	}
 	
+	public Type<?> getGlobalVariable(String variableName){
+		Integer slot=this.variableSlots.get(variableName);
+		if(slot==null){
+			return null;
+		}
+		return this.variableValues[slot];
+	}
+	
 	public void putGlobalVariable(String variableName, Type<?> variableType){
-		this.globalVariables.put(variableName, variableType);
+		putGlobalVariable(getVariableSlot(variableName), variableType);
+	}
+	
+	/**
+	 * Return the value of the global variable stored in the given slot.
+	 * 
+	 * @see		#getVariableSlot(String)
+	 */
+	public Type<?> getGlobalVariable(int slot){
+		return this.variableValues[slot];
+	}
+	
+	/**
+	 * Store the given value in the given slot for global variables.
+	 * 
+	 * @see		#getVariableSlot(String)
+	 */
+	public void putGlobalVariable(int slot, Type<?> variableType){
+		this.variableValues[slot]=variableType;
+		this.globalVariablesSnapshot=null;
+	}
+	
+	/**
+	 * Return the slot in which this program stores the global variable with the
+	 * given name, reserving a new empty slot for it if it has none yet.
+	 * 
+	 * @note	A slot is never released, so statements and expressions can look
+	 * 			up the slot of their variable once and use it for all executions.
+	 */
+	public int getVariableSlot(String variableName){
+		Integer slot=this.variableSlots.get(variableName);
+		if(slot==null){
+			slot=this.variableSlots.size();
+			this.variableSlots.put(variableName, slot);
+			if(slot==this.variableValues.length){
+				this.variableValues=Arrays.copyOf(this.variableValues, Math.max(8, 2*slot));
+			}
+		}
+		return slot;
 	}
 	
+	private final Map<String,Integer> variableSlots = new HashMap<String, Integer>();
 	
-	private Map<String,Type<?>> globalVariables = new HashMap<String, Type<?>>();
+	private Type<?>[] variableValues = new Type<?>[0];
+	
+	private Map<String,Type<?>> globalVariablesSnapshot = null;
 	
 	
 	public void execute(double deltaTime){
 		if(!this.hasStopped()){
 			setTimer(deltaTime);
-			getMainStatement().execute(this);
+			Interpreter interpreter=getInterpreter();
+			if(interpreter!=null){
+				interpreter.execute();
+			}
+			else{
+				getMainStatement().execute(this);
+			}
 			if(!this.isTimeDepleted()){
-				getMainStatement().setToBeExecuted(true);
+				if(interpreter!=null){
+					interpreter.reset();
+				}
+				else{
+					getMainStatement().setToBeExecuted(true);
+				}
 			}
 			else{
 				setTimeDepleted(false);
 			}
+			if(World.COUNTS_EVENTS){
+				countStatementsExecuted();
+			}
 		}
 		else{
-			if(getGameObject()!=null){
-				getGameObject().endMove(getGameObject().getDirection());
+			GameObject gameObject = getGameObject();
+			if(gameObject!=null){
+				performAction(() -> gameObject.endMove(gameObject.getDirection()));
 			}
 			if(printedOnce==false){
-				System.out.println("");
-				System.out.println("Type error in program!");
-				System.out.println(this.getGameObject());
+				performAction(() -> {
+					System.out.println("");
+					System.out.println("Type error in program!");
+					System.out.println(gameObject);
+				});
 				printedOnce=true;
 			}
 		}
 	}
 	private boolean printedOnce=false;
 	
+	/**
+	 * Add the statements this program executed since it last did so to the number of statements
+	 * executed in the world of its game object.
+	 */
+	private void countStatementsExecuted(){
+		World world=getWorld();
+		if(world!=null){
+			world.countStatementsExecuted(this.nbStatementsExecuted);
+		}
+		this.nbStatementsExecuted=0;
+	}
+	
+	/**
+	 * The number of statements this program executed since it last added them to its world.
+	 */
+	private long nbStatementsExecuted=0;
+	
+	public void performAction(Runnable action){
+		if(this.defersActions()){
+			this.pendingActions.add(action);
+		}
+		else{
+			action.run();
+		}
+	}
+	
+	public void commitActions(){
+		for(Runnable action: this.pendingActions){
+			action.run();
+		}
+		this.pendingActions.clear();
+	}
+	
+	public boolean defersActions(){
+		return this.defersActions;
+	}
+	
+	public void setDefersActions(boolean defersActions){
+		this.defersActions = defersActions;
+	}
+	
+	private boolean defersActions=false;
+	
+	private final List<Runnable> pendingActions = new ArrayList<Runnable>();
+	
+	public Random getRandom(){
+		if(getGameObject()!=null){
+			return getGameObject().getRandom();
+		}
+		return this.random;
+	}
+	
+	private final Random random = new Random();
+	
 	public void stop(){
 		this.hasStopped=true;
 	}
@@ -168,6 +472,9 @@ public class Program {
 	}
 	
 	public void decreaseTimerOneUnit(){
+		if(World.COUNTS_EVENTS){
+			this.nbStatementsExecuted++;
+		}
 		setTimer(getTimer()-TIME_UNIT);
 	}
 	
@@ -237,4 +544,53 @@ public class Program {
 	}
 	
 	private boolean isTerminated=false;
+	
+	/**
+	 * Put the execution state of this program in the given buffer: its timer, its global variables
+	 * and the state of the interpreter or the statements that execute it.
+	 * 
+	 * @note	The statements of a program that executes its compiled form may be shared with
+	 * 			other programs, so only the interpreter of such a program is saved.
+	 */
+	public void saveState(StateBuffer buffer){
+		buffer.putDouble(this.timer);
+		buffer.putBoolean(this.timeDepleted);
+		buffer.putBoolean(this.hasStopped);
+		buffer.putBoolean(this.printedOnce);
+		buffer.putBoolean(this.isTerminated);
+		buffer.putObject(this.gameObject);
+		buffer.putArray(this.variableValues);
+		Interpreter interpreter=getInterpreter();
+		buffer.putObject(interpreter);
+		if(interpreter!=null){
+			interpreter.saveState(buffer);
+		}
+		else if(getMainStatement()!=null){
+			getMainStatement().saveState(buffer);
+		}
+	}
+	
+	/**
+	 * Restore the execution state of this program from the given buffer.
+	 * 
+	 * @post	Actions this program deferred before are discarded.
+	 */
+	public void restoreState(StateBuffer buffer){
+		this.timer=buffer.getDouble();
+		this.timeDepleted=buffer.getBoolean();
+		this.hasStopped=buffer.getBoolean();
+		this.printedOnce=buffer.getBoolean();
+		this.isTerminated=buffer.getBoolean();
+		this.gameObject=buffer.getObject();
+		buffer.getArray(this.variableValues);
+		this.globalVariablesSnapshot=null;
+		this.pendingActions.clear();
+		this.interpreter=buffer.getObject();
+		if(this.interpreter!=null){
+			this.interpreter.restoreState(buffer);
+		}
+		else if(getMainStatement()!=null){
+			getMainStatement().restoreState(buffer);
+		}
+	}
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package jumpingalien.programs.program;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -20,7 +22,9 @@ public class ProgramFactory implements IProgramFactory<Expression<?>, Statement,
 	@Override
 	public Expression<Type<?>> createReadVariable(String variableName,
 			Type<?> variableType, SourceLocation sourceLocation) {
-		return new ReadVariable(variableName, variableType, sourceLocation);
+		ReadVariable readVariable = new ReadVariable(variableName, variableType, sourceLocation);
+		readVariables.add(readVariable);
+		return readVariable;
 	}
 
 	@Override
@@ -264,7 +268,9 @@ public class ProgramFactory implements IProgramFactory<Expression<?>, Statement,
 	@Override
 	public Statement createAssignment(String variableName, Type variableType,
 			Expression value, SourceLocation sourceLocation) {
-		return new Assignment(variableName, variableType, value, sourceLocation);
+		Assignment assignment = new Assignment(variableName, variableType, value, sourceLocation);
+		assignments.add(assignment);
+		return assignment;
 	}
 
 	@Override
@@ -281,7 +287,9 @@ public class ProgramFactory implements IProgramFactory<Expression<?>, Statement,
 			Expression sort,
 			jumpingalien.part3.programs.IProgramFactory.SortDirection sortDirection,
 			Statement body, SourceLocation sourceLocation) {
-		return new ForEach(variableName, variableKind, where, sort, sortDirection, body, sourceLocation);
+		ForEach forEach = new ForEach(variableName, variableKind, where, sort, sortDirection, body, sourceLocation);
+		forEachLoops.add(forEach);
+		return forEach;
 	}
 
 	@Override
@@ -369,11 +377,82 @@ public class ProgramFactory implements IProgramFactory<Expression<?>, Statement,
 		return new DirectionType();
 	}
 
+	/**
+	 * Forget the expressions and statements created for the program parsed before,
+	 * so the next program does not resolve their variables, and forget its type errors.
+	 */
+	@Override
+	public void startProgram() {
+		readVariables.clear();
+		assignments.clear();
+		forEachLoops.clear();
+		typeErrors.clear();
+	}
+
 	@Override
 	public Program createProgram(Statement mainStatement,
 			Map<String, Type<?>> globalVariables) {
-		return new Program(mainStatement, globalVariables);
+		TypeChecker typeChecker = new TypeChecker(globalVariables);
+		typeChecker.check(mainStatement);
+		this.typeErrors.addAll(typeChecker.getErrors());
+		if(typeChecker.hasErrors()){
+			return null;
+		}
+		Program program = new Program(mainStatement, globalVariables);
+		// Ill-formed programs are never executed, and pruning could hide why they are ill-formed.
+		if(optimizesPrograms() && program.isWellFormed()){
+			ProgramOptimizer optimizer = new ProgramOptimizer();
+			program.setMainStatement(optimizer.optimize(mainStatement));
+			program.setOptimizer(optimizer);
+		}
+		program.setTypeChecked(true);
+		for(ReadVariable<?> readVariable: readVariables){
+			readVariable.setVariableSlot(program.getVariableSlot(readVariable.getVariableName()));
+		}
+		for(Assignment assignment: assignments){
+			assignment.setVariableSlot(program.getVariableSlot(assignment.getVariableName()));
+		}
+		for(ForEach forEach: forEachLoops){
+			forEach.setVariableSlot(program.getVariableSlot(forEach.getVariableName()));
+		}
+		program.setUsesCompiledForm(true);
+		return program;
+	}
+	
+	/**
+	 * Return the type errors of the program parsed last, if this factory did not
+	 * create it because it is not well-typed.
+	 */
+	public List<String> getTypeErrors(){
+		return Collections.unmodifiableList(this.typeErrors);
+	}
+	
+	private final List<String> typeErrors = new ArrayList<String>();
+	
+	/**
+	 * Check whether this factory simplifies the main statement of the programs it
+	 * creates with a {@link ProgramOptimizer}.
+	 */
+	public boolean optimizesPrograms(){
+		return this.optimizesPrograms;
+	}
+	
+	public void setOptimizesPrograms(boolean optimizesPrograms){
+		this.optimizesPrograms=optimizesPrograms;
 	}
+	
+	private boolean optimizesPrograms=true;
+	
+	/**
+	 * The expressions and statements created by this factory for the program being
+	 * parsed that refer to a variable by name, so that the program can resolve those
+	 * names to the slots in which it stores its variables.
+	 */
+	private final List<ReadVariable<?>> readVariables = new ArrayList<ReadVariable<?>>();
+	
+	private final List<Assignment> assignments = new ArrayList<Assignment>();
+	
+	private final List<ForEach> forEachLoops = new ArrayList<ForEach>();
 
 
 
@@ -0,0 +1,261 @@
+package jumpingalien.programs.program;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jumpingalien.part3.programs.SourceLocation;
+import jumpingalien.programs.expressions.*;
+import jumpingalien.programs.statements.*;
+import jumpingalien.programs.types.BoolType;
+import jumpingalien.programs.types.DoubleType;
+import jumpingalien.programs.types.Type;
+
+/**
+ * A class for simplifying the main statement of a program before it is executed.
+ *
+ * An optimizer folds every expression whose operands are constants into a constant,
+ * prunes the branches of if statements that can never be taken and the loops that can
+ * never be entered, and collapses sequences nested in sequences.
+ *
+ * Expressions cost no time, so folding them never changes the time a program spends.
+ * If statements and loops do: an if statement with a constant condition is kept, with
+ * a constant condition and an empty branch in place of the pruned one, and a loop that
+ * is never entered is replaced by such an if statement, so every statement that remains
+ * still costs the units it did.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class ProgramOptimizer {
+
+	/**
+	 * Return the optimized form of the given statement. The given statement and the
+	 * statements nested in it are changed in place where possible.
+	 */
+	public Statement optimize(Statement statement){
+		if(statement instanceof Sequence){
+			return optimizeSequence((Sequence) statement);
+		}
+		else if(statement instanceof If){
+			return optimizeIf((If) statement);
+		}
+		else if(statement instanceof While){
+			return optimizeWhile((While) statement);
+		}
+		else if(statement instanceof ForEach){
+			ForEach forEach = (ForEach) statement;
+			if(forEach.getWhere()!=null){
+				forEach.setWhere(fold(forEach.getWhere()));
+			}
+			if(forEach.getSort()!=null){
+				forEach.setSort(fold(forEach.getSort()));
+			}
+			forEach.setBody(optimize(forEach.getBody()));
+		}
+		else if(statement instanceof Assignment){
+			Assignment assignment = (Assignment) statement;
+			assignment.setValue(fold(assignment.getValue()));
+		}
+		else if(statement instanceof Print){
+			Print print = (Print) statement;
+			print.setValue(fold(print.getValue()));
+		}
+		else if(statement instanceof Wait){
+			Wait wait = (Wait) statement;
+			wait.setDuration(fold(wait.getDuration()));
+		}
+		return statement;
+	}
+
+	private Statement optimizeSequence(Sequence sequence){
+		List<Statement> statements = sequence.getStatements();
+		if(statements==null){
+			return sequence;
+		}
+		List<Statement> optimizedStatements = new ArrayList<Statement>();
+		for(Statement statement: statements){
+			Statement optimizedStatement = optimize(statement);
+			if(optimizedStatement instanceof Sequence && ((Sequence) optimizedStatement).getStatements()!=null){
+				optimizedStatements.addAll(((Sequence) optimizedStatement).getStatements());
+				this.nbCollapsedSequences++;
+			}
+			else{
+				optimizedStatements.add(optimizedStatement);
+			}
+		}
+		sequence.setStatements(optimizedStatements);
+		return sequence;
+	}
+
+	private Statement optimizeIf(If ifStatement){
+		Expression<BoolType> condition = fold(ifStatement.getCondition());
+		ifStatement.setCondition(condition);
+		if(condition.getClass() == True.class){
+			if(ifStatement.getElseBody()!=null){
+				ifStatement.setElseBody(null);
+				this.nbPrunedBranches++;
+			}
+			ifStatement.setIfBody(optimize(ifStatement.getIfBody()));
+		}
+		else if(condition.getClass() == False.class){
+			if(!isEmpty(ifStatement.getIfBody())){
+				ifStatement.setIfBody(createEmptySequence(ifStatement.getSourceLocation()));
+				this.nbPrunedBranches++;
+			}
+			if(ifStatement.getElseBody()!=null){
+				ifStatement.setElseBody(optimize(ifStatement.getElseBody()));
+			}
+		}
+		else{
+			ifStatement.setIfBody(optimize(ifStatement.getIfBody()));
+			if(ifStatement.getElseBody()!=null){
+				ifStatement.setElseBody(optimize(ifStatement.getElseBody()));
+			}
+		}
+		return ifStatement;
+	}
+
+	private Statement optimizeWhile(While whileStatement){
+		Expression<BoolType> condition = fold(whileStatement.getCondition());
+		whileStatement.setCondition(condition);
+		if(condition.getClass() == False.class){
+			// A loop that is never entered costs one unit when it is left, as does an if
+			// statement whose condition is false.
+			SourceLocation sourceLocation = whileStatement.getSourceLocation();
+			this.nbPrunedBranches++;
+			return new If(condition, createEmptySequence(sourceLocation), null, sourceLocation);
+		}
+		whileStatement.setBody(optimize(whileStatement.getBody()));
+		return whileStatement;
+	}
+
+	private static boolean isEmpty(Statement statement){
+		return statement instanceof Sequence && ((Sequence) statement).getStatements()!=null
+				&& ((Sequence) statement).getStatements().isEmpty();
+	}
+
+	private static Sequence createEmptySequence(SourceLocation sourceLocation){
+		return new Sequence(new ArrayList<Statement>(), sourceLocation);
+	}
+
+	/**
+	 * Return the folded form of the given expression. The operands of the given
+	 * expression are replaced by their folded forms in place.
+	 */
+	public Expression fold(Expression expression){
+		if(expression instanceof UnaryOperation){
+			UnaryOperation operation = (UnaryOperation) expression;
+			operation.setExpression(fold(operation.getExpression()));
+			if(isFoldable(operation) && isConstant(operation.getExpression())){
+				return createConstant(operation);
+			}
+		}
+		else if(expression instanceof BinaryOperation){
+			BinaryOperation operation = (BinaryOperation) expression;
+			operation.setExpressionLeft(fold(operation.getExpressionLeft()));
+			operation.setExpressionRight(fold(operation.getExpressionRight()));
+			if(!isFoldable(operation)){
+				return operation;
+			}
+			Expression left = operation.getExpressionLeft();
+			if(isConstant(left) && isConstant(operation.getExpressionRight())){
+				return createConstant(operation);
+			}
+			// The right operand of a conjunction or a disjunction is only evaluated
+			// if its left operand does not decide the outcome.
+			if(operation.getClass() == And.class && isConstant(left)){
+				this.nbFoldedExpressions++;
+				return left.getClass() == False.class ? left : operation.getExpressionRight();
+			}
+			if(operation.getClass() == Or.class && isConstant(left)){
+				this.nbFoldedExpressions++;
+				return left.getClass() == True.class ? left : operation.getExpressionRight();
+			}
+		}
+		return expression;
+	}
+
+	/**
+	 * Check whether the given operation can be folded: it has no side effects, it
+	 * does not depend on the program it is evaluated in, and it has no type errors.
+	 */
+	private static boolean isFoldable(Expression<?> operation){
+		Class<?> operationClass = operation.getClass();
+		return !operation.getStopProgram() && (operationClass == Addition.class || operationClass == Subtraction.class
+				|| operationClass == Multiplication.class || operationClass == Division.class
+				|| operationClass == Sqrt.class || operationClass == Not.class
+				|| operationClass == And.class || operationClass == Or.class
+				|| operationClass == LessThan.class || operationClass == LessThanOrEqualTo.class
+				|| operationClass == GreaterThan.class || operationClass == GreaterThanOrEqualTo.class
+				|| operationClass == Equals.class || operationClass == NotEquals.class);
+	}
+
+	private static boolean isConstant(Expression<?> expression){
+		Class<?> expressionClass = expression.getClass();
+		return expressionClass == DoubleConstant.class || expressionClass == True.class
+				|| expressionClass == False.class;
+	}
+
+	/**
+	 * Return a constant for the value of the given operation, whose operands are constants.
+	 */
+	private Expression<?> createConstant(Expression<?> operation){
+		Type<?> value = operation.evaluateLegalCase(null);
+		SourceLocation sourceLocation = operation.getSourceLocation();
+		this.nbFoldedExpressions++;
+		Expression<?> constant;
+		if(value instanceof DoubleType){
+			constant = new DoubleConstant(((DoubleType) value).getValue(), sourceLocation);
+		}
+		else if(((BoolType) value).getValue()){
+			constant = new True(sourceLocation);
+		}
+		else{
+			constant = new False(sourceLocation);
+		}
+		constant.setResolvedType(operation.getResolvedType());
+		return constant;
+	}
+
+	/**
+	 * Return the number of expressions folded by this optimizer.
+	 */
+	public int getNbFoldedExpressions(){
+		return this.nbFoldedExpressions;
+	}
+
+	private int nbFoldedExpressions=0;
+
+	/**
+	 * Return the number of branches and loops pruned by this optimizer.
+	 */
+	public int getNbPrunedBranches(){
+		return this.nbPrunedBranches;
+	}
+
+	private int nbPrunedBranches=0;
+
+	/**
+	 * Return the number of sequences collapsed into the sequence they were nested in
+	 * by this optimizer.
+	 */
+	public int getNbCollapsedSequences(){
+		return this.nbCollapsedSequences;
+	}
+
+	private int nbCollapsedSequences=0;
+
+	/**
+	 * Check whether this optimizer changed anything.
+	 */
+	public boolean hasOptimized(){
+		return getNbFoldedExpressions()+getNbPrunedBranches()+getNbCollapsedSequences() > 0;
+	}
+
+	@Override
+	public String toString(){
+		return "folded " + getNbFoldedExpressions() + " expressions, pruned " + getNbPrunedBranches()
+				+ " branches and collapsed " + getNbCollapsedSequences() + " sequences";
+	}
+}
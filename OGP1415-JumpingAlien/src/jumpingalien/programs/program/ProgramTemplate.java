@@ -0,0 +1,78 @@
+package jumpingalien.programs.program;
+
+import jumpingalien.part3.programs.ProgramParser;
+import jumpingalien.programs.bytecode.CompiledProgram;
+import jumpingalien.programs.expressions.Expression;
+import jumpingalien.programs.statements.Statement;
+import jumpingalien.programs.types.Type;
+
+/**
+ * A class of parsed programs from which any number of programs can be created,
+ * one for each game object that executes it.
+ *
+ * A template is parsed and compiled only once. The programs created from it share
+ * its statements and their compiled form, and only get their own global variables
+ * and execution state. Programs whose statements cannot be compiled keep their
+ * execution state in their statements, so each of them is parsed anew.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+public class ProgramTemplate {
+
+	/**
+	 * Initialize this new program template with the given text and the given
+	 * program parsed from it.
+	 *
+	 * @param 	text
+	 * 			The text the given program was parsed from.
+	 * @param 	program
+	 * 			The program parsed from the given text.
+	 * @pre		The given program has not been executed yet.
+	 * @post	The programs created from this template start like the given program.
+	 */
+	public ProgramTemplate(String text, Program program){
+		this.text = text;
+		this.prototype = program;
+		this.compiledForm = program.getCompiledForm();
+	}
+
+	/**
+	 * Return the text this template was parsed from.
+	 */
+	public String getText(){
+		return this.text;
+	}
+
+	private final String text;
+
+	/**
+	 * Check whether the programs created from this template share its statements.
+	 */
+	public boolean isShared(){
+		return this.compiledForm != null;
+	}
+
+	/**
+	 * Return a new program executing this template, with fresh global variables
+	 * and a fresh execution state.
+	 */
+	public Program createProgram(){
+		if(isShared()){
+			return new Program(this.prototype, this.compiledForm);
+		}
+		return createParser().parseString(getText()).get();
+	}
+
+	private static ProgramParser<Expression<?>, Statement, Type<?>, Program> createParser(){
+		return new ProgramParser<>(new ProgramFactory());
+	}
+
+	/**
+	 * The program parsed from the text of this template. Programs are only
+	 * created from it, so its global variables keep their initial values.
+	 */
+	private final Program prototype;
+
+	private final CompiledProgram compiledForm;
+}
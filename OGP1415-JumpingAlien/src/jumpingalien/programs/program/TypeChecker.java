@@ -0,0 +1,256 @@
+package jumpingalien.programs.program;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import jumpingalien.part3.programs.SourceLocation;
+import jumpingalien.programs.expressions.*;
+import jumpingalien.programs.statements.*;
+import jumpingalien.programs.types.*;
+
+/**
+ * A class for checking the types of the expressions of a program once, before it is executed.
+ *
+ * A type checker resolves the type of every expression in the statements it checks and
+ * annotates the expression with it, and reports every expression whose operands do not
+ * have the types it needs, every assignment of a value of another type than that of its
+ * variable, and every condition, duration or direction of the wrong type.
+ *
+ * Programs whose statements are all well-typed are marked as type checked, so that they
+ * no longer check the types of the values they assign and read while they are executed.
+ * The language has a single type for game objects and tiles, so variables of that type
+ * can still hold either of them.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class TypeChecker {
+
+	/**
+	 * Initialize this new type checker for statements using the given global variables.
+	 */
+	public TypeChecker(Map<String, Type<?>> globalVariables){
+		this.globalVariables = globalVariables;
+	}
+
+	private final Map<String, Type<?>> globalVariables;
+
+	/**
+	 * Check the types of the given statement and the statements and expressions in it.
+	 */
+	public void check(Statement statement){
+		if(statement instanceof Sequence){
+			List<Statement> statements = ((Sequence) statement).getStatements();
+			if(statements!=null){
+				for(Statement subStatement: statements){
+					check(subStatement);
+				}
+			}
+		}
+		else if(statement instanceof If){
+			If ifStatement = (If) statement;
+			checkType(ifStatement.getCondition(), BoolType.class, "condition of if");
+			check(ifStatement.getIfBody());
+			check(ifStatement.getElseBody());
+		}
+		else if(statement instanceof While){
+			While whileStatement = (While) statement;
+			checkType(whileStatement.getCondition(), BoolType.class, "condition of while");
+			check(whileStatement.getBody());
+		}
+		else if(statement instanceof ForEach){
+			ForEach forEach = (ForEach) statement;
+			if(!(globalVariables.get(forEach.getVariableName()) instanceof ObjectType)){
+				addError("variable " + forEach.getVariableName() + " of foreach is not an object",
+						forEach.getSourceLocation());
+			}
+			if(forEach.getWhere()!=null){
+				checkType(forEach.getWhere(), BoolType.class, "where clause");
+			}
+			if(forEach.getSort()!=null){
+				checkType(forEach.getSort(), DoubleType.class, "sort clause");
+			}
+			check(forEach.getBody());
+		}
+		else if(statement instanceof Assignment){
+			checkAssignment((Assignment) statement);
+		}
+		else if(statement instanceof Print){
+			resolve(((Print) statement).getValue());
+		}
+		else if(statement instanceof Wait){
+			checkType(((Wait) statement).getDuration(), DoubleType.class, "duration of wait");
+		}
+		else if(statement instanceof StartRun){
+			checkType(((StartRun) statement).getDirection(), DirectionType.class, "direction of start_run");
+		}
+		else if(statement instanceof StopRun){
+			checkType(((StopRun) statement).getDirection(), DirectionType.class, "direction of stop_run");
+		}
+	}
+
+	private void checkAssignment(Assignment assignment){
+		Type<?> valueType = resolve(assignment.getValue());
+		Type<?> variableType = assignment.getVariableType();
+		Type<?> declaredType = globalVariables.get(assignment.getVariableName());
+		if(declaredType==null || variableType==null || declaredType.getClass()!=variableType.getClass()){
+			addError("variable " + assignment.getVariableName() + " is not declared", assignment.getSourceLocation());
+		}
+		else if(valueType!=null && valueType.getClass()!=variableType.getClass()){
+			addError("cannot assign a value of type " + getName(valueType) + " to variable "
+					+ assignment.getVariableName() + " of type " + getName(variableType),
+					getSourceLocation(assignment.getValue(), assignment.getSourceLocation()));
+		}
+	}
+
+	private void checkType(Expression<?> expression, Class<?> typeClass, String description){
+		Type<?> type = resolve(expression);
+		if(type!=null && type.getClass()!=typeClass){
+			addError(description + " has type " + getName(type) + " instead of " + getName(typeClass),
+					expression.getSourceLocation());
+		}
+	}
+
+	/**
+	 * Resolve the type of the given expression and of the expressions in it, annotate
+	 * them with their types, and return the type of the given expression, or null if
+	 * it has none.
+	 */
+	public Type<?> resolve(Expression expression){
+		if(expression==null){
+			return null;
+		}
+		if(expression instanceof ReadVariable){
+			ReadVariable<?> readVariable = (ReadVariable<?>) expression;
+			Type<?> declaredType = globalVariables.get(readVariable.getVariableName());
+			if(declaredType==null || declaredType.getClass()!=readVariable.getVariableType().getClass()){
+				addError("variable " + readVariable.getVariableName() + " is not declared",
+						expression.getSourceLocation());
+			}
+		}
+		else if(expression instanceof UnaryOperation){
+			UnaryOperation operation = (UnaryOperation) expression;
+			checkOperand(operation, operation.getExpression());
+			if(operation instanceof IsMoving){
+				IsMoving isMoving = (IsMoving) operation;
+				Type<?> directionType = resolve(isMoving.getDirection());
+				if(directionType!=null && !isMoving.checkTypeDirection(isMoving.getDirection())){
+					addOperandError(operation, isMoving.getDirection(), directionType);
+				}
+			}
+		}
+		else if(expression instanceof BinaryOperation){
+			BinaryOperation operation = (BinaryOperation) expression;
+			Expression left = operation.getExpressionLeft();
+			Expression right = operation.getExpressionRight();
+			if(operation instanceof Equals || operation instanceof NotEquals){
+				Type<?> leftType = resolve(left);
+				Type<?> rightType = resolve(right);
+				if(leftType!=null && rightType!=null && !haveSameKind(leftType, rightType)){
+					addError("cannot compare a value of type " + getName(leftType) + " with a value of type "
+							+ getName(rightType), expression.getSourceLocation());
+				}
+			}
+			else{
+				checkOperand(operation, left);
+				checkOperand(operation, right);
+			}
+		}
+		Type<?> type = expression.getType();
+		expression.setResolvedType(type);
+		return type;
+	}
+
+	private void checkOperand(UnaryOperation operation, Expression operand){
+		Type<?> type = resolve(operand);
+		if(type==null){
+			return;
+		}
+		// Checks on objects accept game objects as well as tiles, and are false for the other one.
+		boolean isWellTyped = operation instanceof CheckerExpression ? type instanceof ObjectType
+				: operation.checkType(operand);
+		if(!isWellTyped){
+			addOperandError(operation, operand, type);
+		}
+	}
+
+	private void checkOperand(BinaryOperation operation, Expression operand){
+		Type<?> type = resolve(operand);
+		if(type!=null && !operation.checkType(operand)){
+			addOperandError(operation, operand, type);
+		}
+	}
+
+	private void addOperandError(Expression<?> operation, Expression<?> operand, Type<?> type){
+		addError(operation.getClass().getSimpleName() + " cannot be applied to an operand of type " + getName(type),
+				getSourceLocation(operand, operation.getSourceLocation()));
+	}
+
+	private static SourceLocation getSourceLocation(Expression<?> expression, SourceLocation defaultLocation){
+		if(expression.getSourceLocation()!=null){
+			return expression.getSourceLocation();
+		}
+		return defaultLocation;
+	}
+
+	/**
+	 * Check whether the given types are the same type in the language of programs.
+	 */
+	private static boolean haveSameKind(Type<?> type, Type<?> otherType){
+		return type.getClass()==otherType.getClass()
+				|| (type instanceof ObjectType && otherType instanceof ObjectType);
+	}
+
+	private static String getName(Type<?> type){
+		return getName(type.getClass());
+	}
+
+	/**
+	 * Return the name of the given type in the language of programs, or tile for
+	 * objects that are tiles.
+	 */
+	private static String getName(Class<?> typeClass){
+		if(typeClass==DoubleType.class){
+			return "double";
+		}
+		else if(typeClass==BoolType.class){
+			return "bool";
+		}
+		else if(typeClass==DirectionType.class){
+			return "direction";
+		}
+		else if(typeClass==TileType.class){
+			return "tile";
+		}
+		else if(ObjectType.class.isAssignableFrom(typeClass)){
+			return "object";
+		}
+		return typeClass.getSimpleName();
+	}
+
+	private void addError(String message, SourceLocation sourceLocation){
+		if(sourceLocation!=null){
+			message += " (" + sourceLocation.getLine() + ", " + sourceLocation.getColumn() + ")";
+		}
+		this.errors.add(message);
+	}
+
+	/**
+	 * Return the type errors found by this type checker.
+	 */
+	public List<String> getErrors(){
+		return Collections.unmodifiableList(this.errors);
+	}
+
+	/**
+	 * Check whether this type checker found a type error.
+	 */
+	public boolean hasErrors(){
+		return !this.errors.isEmpty();
+	}
+
+	private final List<String> errors = new ArrayList<String>();
+}
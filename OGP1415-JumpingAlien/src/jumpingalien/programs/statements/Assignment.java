@@ -19,6 +19,20 @@ public class Assignment extends Statement {
 	
 	String variableName;
 	
+	/**
+	 * Return the slot of the variable assigned by this statement in the programs
+	 * it is executed in, or -1 if that slot has to be looked up by name.
+	 */
+	public int getVariableSlot(){
+		return this.variableSlot;
+	}
+	
+	public void setVariableSlot(int variableSlot){
+		this.variableSlot=variableSlot;
+	}
+	
+	private int variableSlot=-1;
+	
 	public Type<?> getVariableType(){
 		return this.variableType;
 	}
@@ -29,6 +43,10 @@ public class Assignment extends Statement {
 		return this.value;
 	}
 	
+	public void setValue(Expression<? extends Type<?>> value){
+		this.value=value;
+	}
+	
 	private Expression<? extends Type<?>> value;
 	
 	public boolean matchesValueType(Type<?> variableType, Expression<? extends Type<?>> value){
@@ -38,7 +56,7 @@ public class Assignment extends Statement {
 	public void execute(Program program){
 		if(this.isToBeExecuted() && !program.hasStopped()){
 			if (program.hasTimeForStatement()){
-				if(!matchesValueType(this.getVariableType(),this.getValue())){
+				if(!program.isTypeChecked() && !matchesValueType(this.getVariableType(),this.getValue())){
 					program.stop();
 					return;
 				}
@@ -50,7 +68,12 @@ public class Assignment extends Statement {
 					return;
 				}
 				program.decreaseTimerOneUnit();
-				program.putGlobalVariable(this.getVariableName(), valueToSet);
+				if(this.getVariableSlot()>=0){
+					program.putGlobalVariable(this.getVariableSlot(), valueToSet);
+				}
+				else{
+					program.putGlobalVariable(this.getVariableName(), valueToSet);
+				}
 				this.setToBeExecuted(false);
 			}
 			else{
@@ -6,7 +6,7 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
 
-import jumpingalien.model.GameObject;
+import jumpingalien.model.StateBuffer;
 import jumpingalien.part3.programs.SourceLocation;
 import jumpingalien.part3.programs.IProgramFactory.Kind;
 import jumpingalien.part3.programs.IProgramFactory.SortDirection;
@@ -35,11 +35,34 @@ public class ForEach extends Statement{
 	}
 	
 	public boolean canHaveAsVariableName(String variableName, Program program){
-		return program.getGlobalVariables().containsKey(variableName) && program.getGlobalVariables().get(variableName) instanceof GameObjectType;
+		return program.getGlobalVariable(variableName) instanceof GameObjectType;
 	}
 
 	private String variableName;
 	
+	/**
+	 * Return the slot of the variable of this for-each loop in the programs it
+	 * is executed in, or -1 if that slot has to be looked up by name.
+	 */
+	public int getVariableSlot() {
+		return this.variableSlot;
+	}
+
+	public void setVariableSlot(int variableSlot) {
+		this.variableSlot = variableSlot;
+	}
+
+	private int variableSlot = -1;
+	
+	private void putVariable(Program program, ObjectType<?> objectType){
+		if(getVariableSlot() >= 0){
+			program.putGlobalVariable(getVariableSlot(), objectType);
+		}
+		else{
+			program.putGlobalVariable(getVariableName(), objectType);
+		}
+	}
+	
 	public Kind getVariableKind() {
 		return this.variableKind;
 	}
@@ -116,26 +139,30 @@ public class ForEach extends Statement{
 		if(this.isToBeExecuted() && !program.hasStopped()){	
 			if(program.hasTimeForStatement()){
 				program.decreaseTimerOneUnit();
-				if(!canHaveAsVariableName(getVariableName(),program)){
+				if(!(getVariableSlot()>=0 ? program.getGlobalVariable(getVariableSlot()) instanceof GameObjectType
+						: canHaveAsVariableName(getVariableName(),program))){
 					program.stop();
 				}
 				else{
 					if(!getCallSecondTime()){
-						List<ObjectType<?>> objectTypeList=this.createObjectTypeList(program);
-						if(getWhere()!=null){
-							objectTypeList=filterObjectTypeList(objectTypeList, program);
-						}
 						if(getSort()!=null){
+							List<ObjectType<?>> objectTypeList=createObjectTypeList(getVariableKind(), program);
+							if(getWhere()!=null){
+								objectTypeList=filterObjectTypeList(objectTypeList, program);
+							}
 							objectTypeList=sortObjectTypeList(objectTypeList, program);
+							if(objectTypeList==null){
+								return;
+							}
+							getCursor().start(objectTypeList);
+						}
+						else{
+							getCursor().start(getVariableKind(), program);
 						}
-						setObjectTypeList(objectTypeList);
-					}
-					if(this.getObjectTypeList()==null){
-						return;
 					}
-					while(((this.getLoopIndex()<getObjectTypeList().size() && !program.isTimeDepleted() && this.isToBeExecuted()) || getCallSecondTime()) && !program.hasStopped()){
-						ObjectType<?> objectType= getObjectTypeList().get(this.getLoopIndex());
-						program.putGlobalVariable(getVariableName(), objectType);
+					while((getCallSecondTime() || (!program.isTimeDepleted() && this.isToBeExecuted() && selectNextObject(program))) && !program.hasStopped()){
+						ObjectType<?> objectType= getCursor().get(this.getLoopIndex());
+						putVariable(program, objectType);
 						if(!getCallSecondTime()){
 							getBody().setToBeExecuted(true);
 						}
@@ -161,53 +188,54 @@ public class ForEach extends Statement{
 		}
 	}
 	
-	private List<ObjectType<?>> createObjectTypeList(Program program){
-		List<ObjectType<?>> objectTypeList=new ArrayList<ObjectType<?>>();
-		List<GameObject> gameObjectList=new ArrayList<GameObject>();
-		boolean isTerrain=false;
-		switch(getVariableKind()){
-		case ANY:
-			gameObjectList.addAll(program.getGameObject().getWorld().getAllGameObjects());
-			gameObjectList.remove(null);
-			break;
-		case MAZUB:
-			gameObjectList.add(program.getGameObject().getWorld().getMazub());
-			break;
-		case SLIME:
-			gameObjectList.addAll(program.getGameObject().getWorld().getSlimes());
-			break;
-		case PLANT:
-			gameObjectList.addAll(program.getGameObject().getWorld().getPlants());
-			break;
-		case SHARK:
-			gameObjectList.addAll(program.getGameObject().getWorld().getSharks());
-			break;
-		case BUZAM:
-			gameObjectList.add(program.getGameObject().getWorld().getBuzam());
-			break;
-		case TERRAIN:
-			int[][] tileArray=program.getGameObject().getWorld().getTiles();
-			for(int i=0; i<tileArray.length; i++){
-				for(int j=0; j<tileArray[i].length; j++){
-					objectTypeList.add(new TileType(new int[]{i,j}));
-				}
-			}
-			isTerrain=true;
-			break;
+	/**
+	 * Return the objects of the given kind in the world of the given program,
+	 * in the order in which a for-each loop over that kind visits them.
+	 * 
+	 * @note	This list is shared by the tree-walking and the compiled form of programs.
+	 * 			Only loops with a sort clause need the full list; other loops iterate
+	 * 			a {@link ForEachCursor} instead.
+	 */
+	public static List<ObjectType<?>> createObjectTypeList(Kind variableKind, Program program){
+		ForEachCursor cursor=new ForEachCursor();
+		cursor.start(variableKind, program);
+		List<ObjectType<?>> objectTypeList=new ArrayList<ObjectType<?>>(cursor.size());
+		for(int i=0; i<cursor.size(); i++){
+			objectTypeList.add(cursor.get(i));
 		}
-		if(!isTerrain){
-			for(GameObject gameObject: gameObjectList){
-				objectTypeList.add(new GameObjectType(gameObject));
+		return objectTypeList;
+	}
+	
+	/**
+	 * Advance the loop index of this for-each loop to the next object that satisfies
+	 * its where clause, and check whether there is such an object.
+	 * 
+	 * @note	Loops without a sort clause apply their where clause while they iterate,
+	 * 			so objects are only wrapped and tested when the loop gets to them.
+	 */
+	private boolean selectNextObject(Program program){
+		if(getSort()==null && getWhere()!=null){
+			while(getLoopIndex()<getCursor().size() && !program.hasStopped() && !isSelected(getCursor().get(getLoopIndex()), program)){
+				setLoopIndex(getLoopIndex()+1);
 			}
 		}
-		return objectTypeList;
+		return getLoopIndex()<getCursor().size();
+	}
+	
+	private boolean isSelected(ObjectType<?> objectType, Program program){
+		putVariable(program, objectType);
+		try{
+			return ((BoolType) getWhere().evaluateLegalCase(program)).getValue();
+		}catch(NullPointerException exc){
+			return false;
+		}
 	}
 		
 	private List<ObjectType<?>> sortObjectTypeList(List<ObjectType<?>> objectTypeList, Program program){
 		Expression<DoubleType> sortExpression = getSort();
 		HashMap<ObjectType<?>, Double> sortMap= new HashMap<ObjectType<?>, Double>();
 		for(ObjectType<?> objectType: objectTypeList){
-			program.putGlobalVariable(getVariableName(), objectType);
+			putVariable(program, objectType);
 			double sortDouble;
 			try{
 				sortDouble= ((DoubleType) sortExpression.evaluateLegalCase(program)).getValue();
@@ -230,24 +258,15 @@ public class ForEach extends Statement{
 	}
 	
 	private List<ObjectType<?>> filterObjectTypeList(List<ObjectType<?>> objectTypeList, Program program){
-		objectTypeList = objectTypeList.stream().filter(objectType -> {program.putGlobalVariable(getVariableName(), objectType);
-		try{
-			return ((BoolType) getWhere().evaluateLegalCase(program)).getValue();
-		}catch(NullPointerException exc){
-			return false;
-		}}).collect(Collectors.toList());
+		objectTypeList = objectTypeList.stream().filter(objectType -> isSelected(objectType, program)).collect(Collectors.toList());
 		return objectTypeList;
 	}
 	
-	public List<ObjectType<?>> getObjectTypeList() {
-		return this.objectTypeList;
-	}
-
-	public void setObjectTypeList(List<ObjectType<?>> objectTypeList) {
-		this.objectTypeList = objectTypeList;
+	public ForEachCursor getCursor() {
+		return this.cursor;
 	}
 
-	List<ObjectType<?>> objectTypeList =new ArrayList<ObjectType<?>>();
+	private final ForEachCursor cursor = new ForEachCursor();
 	
 	@Override
 	public void setToBeExecuted(boolean toBeExecuted) {
@@ -256,4 +275,26 @@ public class ForEach extends Statement{
 			getBody().setToBeExecuted(toBeExecuted);
 		}
 	}
+	
+	@Override
+	public void saveState(StateBuffer buffer) {
+		super.saveState(buffer);
+		buffer.putInt(this.loopIndex);
+		buffer.putBoolean(this.callSecondTime);
+		this.cursor.saveState(buffer);
+		if(getBody()!=null){
+			getBody().saveState(buffer);
+		}
+	}
+	
+	@Override
+	public void restoreState(StateBuffer buffer) {
+		super.restoreState(buffer);
+		this.loopIndex=buffer.getInt();
+		this.callSecondTime=buffer.getBoolean();
+		this.cursor.restoreState(buffer);
+		if(getBody()!=null){
+			getBody().restoreState(buffer);
+		}
+	}
 }
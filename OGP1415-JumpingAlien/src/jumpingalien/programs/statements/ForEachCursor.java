@@ -0,0 +1,152 @@
+package jumpingalien.programs.statements;
+
+import java.util.List;
+
+import jumpingalien.model.GameObject;
+import jumpingalien.model.StateBuffer;
+import jumpingalien.model.World;
+import jumpingalien.part3.programs.IProgramFactory.Kind;
+import jumpingalien.programs.program.Program;
+import jumpingalien.programs.types.*;
+
+/**
+ * A class of cursors over the objects a for-each loop visits.
+ *
+ * A cursor over a kind of game objects walks a snapshot of the registry of
+ * that kind in the world, and a cursor over the terrain walks the tile grid
+ * of the world by index. Neither copies anything when it is started: only the
+ * object at the current position is wrapped, when it is asked for.
+ *
+ * @version 1.0
+ * @authors Pieter Van Damme and Lennert Vanmunster
+ */
+public class ForEachCursor {
+
+	/**
+	 * Start visiting the objects of the given kind in the world of the given program.
+	 */
+	public void start(Kind kind, Program program){
+		clear();
+		World world = program.getGameObject().getWorld();
+		switch(kind){
+		case ANY:
+			this.gameObjects = world.getAllGameObjects();
+			break;
+		case MAZUB:
+			this.gameObject = world.getMazub();
+			this.size = 1;
+			return;
+		case SLIME:
+			this.gameObjects = world.getSlimes();
+			break;
+		case PLANT:
+			this.gameObjects = world.getPlants();
+			break;
+		case SHARK:
+			this.gameObjects = world.getSharks();
+			break;
+		case BUZAM:
+			this.gameObject = world.getBuzam();
+			this.size = 1;
+			return;
+		case TERRAIN:
+			this.nbTilesY = world.getNbTilesY();
+			this.size = world.getNbTilesX() * this.nbTilesY;
+			return;
+		}
+		this.size = this.gameObjects.size();
+	}
+
+	/**
+	 * Start visiting the given objects.
+	 */
+	public void start(List<ObjectType<?>> objectTypes){
+		clear();
+		this.objectTypes = objectTypes;
+		this.size = objectTypes.size();
+	}
+
+	private void clear(){
+		this.objectTypes = null;
+		this.gameObjects = null;
+		this.gameObject = null;
+		this.nbTilesY = 0;
+		this.currentIndex = -1;
+		this.current = null;
+	}
+
+	/**
+	 * Return the number of objects this cursor visits.
+	 */
+	public int size(){
+		return this.size;
+	}
+
+	/**
+	 * Return the object at the given position of this cursor.
+	 *
+	 * @note	Asking for the same position again returns the same object.
+	 */
+	public ObjectType<?> get(int index){
+		if(index != this.currentIndex){
+			this.current = createObjectType(index);
+			this.currentIndex = index;
+		}
+		return this.current;
+	}
+
+	private ObjectType<?> createObjectType(int index){
+		if(this.objectTypes != null){
+			return this.objectTypes.get(index);
+		}
+		if(this.gameObjects != null){
+			return new GameObjectType(this.gameObjects.get(index));
+		}
+		if(this.nbTilesY > 0){
+			return new TileType(new int[]{index / this.nbTilesY, index % this.nbTilesY});
+		}
+		return new GameObjectType(this.gameObject);
+	}
+
+	/**
+	 * Put the position of this cursor and the objects it visits in the given buffer.
+	 *
+	 * @note	The objects are put by reference: a cursor never changes the lists it walks.
+	 */
+	public void saveState(StateBuffer buffer){
+		buffer.putObject(this.objectTypes);
+		buffer.putObject(this.gameObjects);
+		buffer.putObject(this.gameObject);
+		buffer.putObject(this.current);
+		buffer.putInt(this.nbTilesY);
+		buffer.putInt(this.size);
+		buffer.putInt(this.currentIndex);
+	}
+
+	/**
+	 * Restore the position of this cursor and the objects it visits from the given buffer.
+	 */
+	public void restoreState(StateBuffer buffer){
+		this.objectTypes = buffer.getObject();
+		this.gameObjects = buffer.getObject();
+		this.gameObject = buffer.getObject();
+		this.current = buffer.getObject();
+		this.nbTilesY = buffer.getInt();
+		this.size = buffer.getInt();
+		this.currentIndex = buffer.getInt();
+	}
+
+	private List<ObjectType<?>> objectTypes;
+
+	private List<? extends GameObject> gameObjects;
+
+	private GameObject gameObject;
+
+	private int nbTilesY;
+
+	private int size;
+
+	private int currentIndex = -1;
+
+	private ObjectType<?> current;
+}
@@ -1,5 +1,6 @@
 package jumpingalien.programs.statements;
 
+import jumpingalien.model.StateBuffer;
 import jumpingalien.part3.programs.SourceLocation;
 import jumpingalien.programs.expressions.Expression;
 import jumpingalien.programs.program.Program;
@@ -41,7 +42,9 @@ public class If extends Statement{
 
 	public void setElseBody(Statement elseBody) {
 		this.elseBody = elseBody;
-		elseBody.setNestingStatement(this);
+		if(elseBody != null){
+			elseBody.setNestingStatement(this);
+		}
 	}
 
 	private Statement elseBody;
@@ -81,4 +84,26 @@ public class If extends Statement{
 		}
 	}
 	
+	@Override
+	public void saveState(StateBuffer buffer) {
+		super.saveState(buffer);
+		if(getIfBody()!=null){
+			getIfBody().saveState(buffer);
+		}
+		if(getElseBody()!=null){
+			getElseBody().saveState(buffer);
+		}
+	}
+	
+	@Override
+	public void restoreState(StateBuffer buffer) {
+		super.restoreState(buffer);
+		if(getIfBody()!=null){
+			getIfBody().restoreState(buffer);
+		}
+		if(getElseBody()!=null){
+			getElseBody().restoreState(buffer);
+		}
+	}
+	
 }
@@ -25,7 +25,8 @@ public class Print extends Statement{
 		if(this.isToBeExecuted() && !program.hasStopped()){
 			if (program.hasTimeForStatement()){
 				program.decreaseTimerOneUnit();
-				System.out.println(value.evaluateLegalCase(program));
+				Object printedValue = value.evaluateLegalCase(program);
+				program.performAction(() -> System.out.println(printedValue));
 				this.setToBeExecuted(false);
 			}
 			else{
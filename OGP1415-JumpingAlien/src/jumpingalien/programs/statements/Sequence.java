@@ -3,6 +3,7 @@ package jumpingalien.programs.statements;
 import java.util.ArrayList;
 import java.util.List;
 
+import jumpingalien.model.StateBuffer;
 import jumpingalien.part3.programs.SourceLocation;
 import jumpingalien.programs.program.Program;
 
@@ -59,4 +60,28 @@ public class Sequence extends Statement {
 			}
 		}
 	}
+	
+	@Override
+	public void saveState(StateBuffer buffer) {
+		super.saveState(buffer);
+		if(getStatements()!=null){
+			for(Statement statement: getStatements()){
+				if(statement!=null){
+					statement.saveState(buffer);
+				}
+			}
+		}
+	}
+	
+	@Override
+	public void restoreState(StateBuffer buffer) {
+		super.restoreState(buffer);
+		if(getStatements()!=null){
+			for(Statement statement: getStatements()){
+				if(statement!=null){
+					statement.restoreState(buffer);
+				}
+			}
+		}
+	}
 }
@@ -15,7 +15,8 @@ public class StartDuck extends ActionStatement{
 			if(program.hasTimeForStatement()){
 				program.decreaseTimerOneUnit();
 				if(program.getGameObject() instanceof Buzam){
-					((Buzam)program.getGameObject()).startDuck();
+					Buzam buzam = (Buzam) program.getGameObject();
+					program.performAction(() -> buzam.startDuck());
 				}
 				this.setToBeExecuted(false);
 			}
@@ -31,10 +31,11 @@ public class StartRun extends ActionStatement {
 	public void execute(Program program){
 		if(this.isToBeExecuted() && !program.hasStopped()){
 			if(program.hasTimeForStatement()){
-				if(checkType()){
+				if(program.isTypeChecked() || checkType()){
 					program.decreaseTimerOneUnit();
 					GameObject gameObject = program.getGameObject();
-					gameObject.startMove(Orientation.DUMMY.convertDirectionIProgramFactory(((DirectionType) getDirection().evaluateLegalCase(program)).getValue()));
+					Orientation direction = Orientation.DUMMY.convertDirectionIProgramFactory(((DirectionType) getDirection().evaluateLegalCase(program)).getValue());
+					program.performAction(() -> gameObject.startMove(direction));
 				}
 				else{
 					program.stop();
@@ -1,6 +1,7 @@
 package jumpingalien.programs.statements;
 
 
+import jumpingalien.model.StateBuffer;
 import jumpingalien.part3.programs.SourceLocation;
 import jumpingalien.programs.program.Program;
 
@@ -57,5 +58,19 @@ public abstract class Statement {
 
 	protected boolean toBeExecuted=true;
 	
+	/**
+	 * Put the execution state of this statement and the statements nested in it in the given buffer.
+	 */
+	public void saveState(StateBuffer buffer){
+		buffer.putBoolean(this.toBeExecuted);
+	}
+	
+	/**
+	 * Restore the execution state of this statement and the statements nested in it from the given buffer.
+	 */
+	public void restoreState(StateBuffer buffer){
+		this.toBeExecuted=buffer.getBoolean();
+	}
+	
 	public abstract void execute(Program program);
 }
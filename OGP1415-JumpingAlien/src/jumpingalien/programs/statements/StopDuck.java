@@ -15,7 +15,8 @@ public class StopDuck extends ActionStatement{
 			if( program.hasTimeForStatement()){
 				program.decreaseTimerOneUnit();
 				if(program.getGameObject() instanceof Buzam){
-					((Buzam)program.getGameObject()).endDuck();
+					Buzam buzam = (Buzam) program.getGameObject();
+					program.performAction(() -> buzam.endDuck());
 				}
 				this.setToBeExecuted(false);
 			}
@@ -1,5 +1,6 @@
 package jumpingalien.programs.statements;
 
+import jumpingalien.model.GameObject;
 import jumpingalien.part3.programs.SourceLocation;
 import jumpingalien.programs.program.Program;
 
@@ -13,7 +14,8 @@ public class StopJump extends ActionStatement{
 		if(this.isToBeExecuted() && !program.hasStopped()){
 			if(program.hasTimeForStatement()){
 				program.decreaseTimerOneUnit();
-				program.getGameObject().endJump();
+				GameObject gameObject = program.getGameObject();
+				program.performAction(() -> gameObject.endJump());
 				this.setToBeExecuted(false);
 			}
 			else{
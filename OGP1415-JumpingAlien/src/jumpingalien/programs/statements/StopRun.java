@@ -30,10 +30,11 @@ public class StopRun extends ActionStatement {
 	public void execute(Program program){
 		if(this.isToBeExecuted() && !program.hasStopped()){
 			if(program.hasTimeForStatement()){
-				if(checkType()){
+				if(program.isTypeChecked() || checkType()){
 					program.decreaseTimerOneUnit();
 					GameObject gameObject = program.getGameObject();
-					gameObject.endMove(Orientation.DUMMY.convertDirectionIProgramFactory(((DirectionType) getDirection().evaluateLegalCase(program)).getValue()));
+					Orientation direction = Orientation.DUMMY.convertDirectionIProgramFactory(((DirectionType) getDirection().evaluateLegalCase(program)).getValue());
+					program.performAction(() -> gameObject.endMove(direction));
 				}
 				else{
 					program.stop();
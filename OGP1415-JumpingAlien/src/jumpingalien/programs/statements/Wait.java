@@ -1,5 +1,6 @@
 package jumpingalien.programs.statements;
 
+import jumpingalien.model.StateBuffer;
 import jumpingalien.part3.programs.SourceLocation;
 import jumpingalien.programs.expressions.Expression;
 import jumpingalien.programs.program.Program;
@@ -12,7 +13,7 @@ public class Wait extends ActionStatement{
 		this.setDuration(duration);
 	}
 	
-	private void setDuration(Expression<DoubleType> duration) {
+	public void setDuration(Expression<DoubleType> duration) {
 		this.duration = duration;
 	}
 	
@@ -69,4 +70,16 @@ public class Wait extends ActionStatement{
 			}
 		}
 	}
-}
\ No newline at end of file
+	
+	@Override
+	public void saveState(StateBuffer buffer) {
+		super.saveState(buffer);
+		buffer.putDouble(this.timer);
+	}
+	
+	@Override
+	public void restoreState(StateBuffer buffer) {
+		super.restoreState(buffer);
+		this.timer=buffer.getDouble();
+	}
+}
@@ -1,5 +1,6 @@
 package jumpingalien.programs.statements;
 
+import jumpingalien.model.StateBuffer;
 import jumpingalien.part3.programs.SourceLocation;
 import jumpingalien.programs.expressions.Expression;
 import jumpingalien.programs.program.Program;
@@ -98,4 +99,22 @@ public class While extends Statement{
 			getBody().setToBeExecuted(toBeExecuted);
 		}
 	}
+	
+	@Override
+	public void saveState(StateBuffer buffer) {
+		super.saveState(buffer);
+		buffer.putBoolean(this.callSecondTime);
+		if(getBody()!=null){
+			getBody().saveState(buffer);
+		}
+	}
+	
+	@Override
+	public void restoreState(StateBuffer buffer) {
+		super.restoreState(buffer);
+		this.callSecondTime=buffer.getBoolean();
+		if(getBody()!=null){
+			getBody().restoreState(buffer);
+		}
+	}
 }
@@ -20,15 +20,33 @@ public class DoubleType extends Type<Double> {
 
 
 	public void setValue(Double value) {
-		if(value==Math.floor(value) && !Double.isInfinite(value)){
+		if(isIntegerValue(value)){
 			this.setInteger(true);
-			double integer = (int) value.doubleValue();
+			double integer = normalize(value);
 			this.value=integer;
 		}
 		else{
 			this.value=value;
 		}
-	}	
+	}
+	
+	/**
+	 * Check whether the given value is stored as an integer.
+	 */
+	public static boolean isIntegerValue(double value){
+		return value==Math.floor(value) && !Double.isInfinite(value);
+	}
+	
+	/**
+	 * Return the value that a double type stores for the given value.
+	 * Integer values are truncated to the range of int, all other values are kept.
+	 */
+	public static double normalize(double value){
+		if(isIntegerValue(value)){
+			return (int) value;
+		}
+		return value;
+	}
 
 	public boolean isInteger() {
 		return isInteger;
@@ -6,8 +6,8 @@ import org.junit.runners.Suite;
 
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses( { BuzamTest.class, ExpressionsTests.class, GameObjectTest.class, MazubTest.class,
-    PartialFacadeTest.class, PlantTest.class, ProgramTests.class, SchoolTest.class,
-    SharkTest.class, SlimeTest.class, StatementTests.class, WorldTest.class})
+@Suite.SuiteClasses( { BuzamTest.class, CommandQueueTests.class, CompiledMapFileTests.class, CompiledProgramTests.class, ContactTest.class, ExpressionsTests.class, GameObjectTest.class, MazubTest.class,
+    PartialFacadeTest.class, PlantTest.class, ProgramFactoryTests.class, ProgramOptimizerTests.class, ProgramTemplateTests.class, ProgramTests.class, RaycastTest.class, SchoolTest.class,
+    SharkTest.class, SlimeTest.class, StatementTests.class, StateChecksumTests.class, TMXLayerDataTests.class, TypeCheckerTests.class, WorldTest.class})
 public class AllTests {
 }
@@ -0,0 +1,149 @@
+package jumpingalien.part3.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ogp.framework.command.Command;
+import ogp.framework.command.CommandQueue;
+import ogp.framework.command.SimpleCommand;
+
+import org.junit.Test;
+
+public class CommandQueueTests {
+
+	private static Command[] createCommands(int nbCommands) {
+		Command[] commands = new Command[nbCommands];
+		for (int i = 0; i < nbCommands; i++) {
+			commands[i] = new SimpleCommand("command " + i, () -> {
+			});
+		}
+		return commands;
+	}
+
+	private static List<Command> drain(CommandQueue queue) {
+		List<Command> result = new ArrayList<>();
+		queue.drain(result::add);
+		return result;
+	}
+
+	@Test
+	public void constructor_roundsUpToPowerOfTwo() {
+		assertEquals(8, new CommandQueue(5).getCapacity());
+		assertEquals(8, new CommandQueue(8).getCapacity());
+		assertEquals(1, new CommandQueue(1).getCapacity());
+		assertEquals(CommandQueue.DEFAULT_CAPACITY, new CommandQueue().getCapacity());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_illegalCapacity() {
+		new CommandQueue(0);
+	}
+
+	@Test
+	public void drain_firstInFirstOut() {
+		CommandQueue queue = new CommandQueue(8);
+		Command[] commands = createCommands(5);
+		for (Command command : commands) {
+			assertTrue(queue.add(command));
+		}
+		List<Command> drained = drain(queue);
+		assertEquals(5, drained.size());
+		for (int i = 0; i < commands.length; i++) {
+			assertSame(commands[i], drained.get(i));
+		}
+		assertEquals(0, queue.drain(command -> fail()));
+	}
+
+	@Test
+	public void add_wrapsAroundPastCapacity() {
+		CommandQueue queue = new CommandQueue(4);
+		Command[] commands = createCommands(4 * 10 + 3);
+		List<Command> drained = new ArrayList<>();
+		for (int i = 0; i < commands.length; i++) {
+			assertTrue(queue.add(commands[i]));
+			// keep between one and three commands in the queue
+			if (i % 3 == 2) {
+				queue.drain(drained::add);
+			}
+		}
+		queue.drain(drained::add);
+		assertEquals(commands.length, drained.size());
+		for (int i = 0; i < commands.length; i++) {
+			assertSame(commands[i], drained.get(i));
+		}
+		assertEquals(0, queue.getNbDroppedCommands());
+	}
+
+	@Test
+	public void add_fullQueueDropsAndCounts() {
+		CommandQueue queue = new CommandQueue(4);
+		Command[] commands = createCommands(7);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(queue.add(commands[i]));
+		}
+		for (int i = 4; i < 7; i++) {
+			assertFalse(queue.add(commands[i]));
+		}
+		assertEquals(3, queue.getNbDroppedCommands());
+		List<Command> drained = drain(queue);
+		assertEquals(4, drained.size());
+		for (int i = 0; i < 4; i++) {
+			assertSame(commands[i], drained.get(i));
+		}
+		assertTrue(queue.add(commands[4]));
+		assertSame(commands[4], drain(queue).get(0));
+		assertEquals(3, queue.getNbDroppedCommands());
+	}
+
+	@Test
+	public void forEachPending_doesNotTakeCommands() {
+		CommandQueue queue = new CommandQueue(4);
+		Command[] commands = createCommands(3);
+		for (Command command : commands) {
+			queue.add(command);
+		}
+		for (int pass = 0; pass < 2; pass++) {
+			List<Command> pending = new ArrayList<>();
+			queue.forEachPending(pending::add);
+			assertEquals(3, pending.size());
+			for (int i = 0; i < commands.length; i++) {
+				assertSame(commands[i], pending.get(i));
+			}
+		}
+		assertEquals(3, drain(queue).size());
+		queue.forEachPending(command -> fail());
+	}
+
+	@Test
+	public void addAndDrain_concurrently() throws InterruptedException {
+		final int nbCommands = 200000;
+		CommandQueue queue = new CommandQueue(16);
+		Command[] commands = createCommands(64);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < nbCommands; i++) {
+				while (!queue.add(commands[i % commands.length])) {
+					Thread.yield();
+				}
+			}
+		});
+		producer.setUncaughtExceptionHandler((thread, exc) -> failure.set(exc));
+		producer.start();
+		int[] nbTaken = new int[1];
+		long deadline = System.nanoTime() + 60_000_000_000L;
+		while (nbTaken[0] < nbCommands && System.nanoTime() < deadline) {
+			queue.drain(command -> {
+				assertSame(commands[nbTaken[0] % commands.length], command);
+				nbTaken[0]++;
+			});
+		}
+		producer.join();
+		assertNull(failure.get());
+		assertEquals(nbCommands, nbTaken[0]);
+		assertEquals(0, queue.drain(command -> fail()));
+	}
+
+}
@@ -0,0 +1,192 @@
+package jumpingalien.part3.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Optional;
+
+import jumpingalien.part2.internal.tmxfile.CompiledMapFile;
+import jumpingalien.part2.internal.tmxfile.TMXFileReader;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part2.internal.tmxfile.data.MapObject;
+import jumpingalien.part2.internal.tmxfile.data.ObjectGroup;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledMapFileTests {
+
+	private static final String LEVEL = "level.tmx";
+
+	private File levelsFolder;
+
+	private TMXFileReader reader;
+
+	@Before
+	public void setUp() throws IOException {
+		levelsFolder = Files.createTempDirectory("levels").toFile();
+		reader = new TMXFileReader(levelsFolder.getPath());
+		writeLevel("1,1,0,2,2,2");
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : levelsFolder.listFiles()) {
+			file.delete();
+		}
+		levelsFolder.delete();
+	}
+
+	/**
+	 * Write a level of 3 by 2 tiles with the given gids of its terrain
+	 * layer, from the top row to the bottom row, and one flipped object.
+	 */
+	private void writeLevel(String terrainGids) throws IOException {
+		String level = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<map version=\"1.0\" width=\"3\" height=\"2\" tilewidth=\"70\" tileheight=\"70\" backgroundcolor=\"#505050\">\n"
+				+ " <properties>\n"
+				+ "  <property name=\"initialX\" value=\"70\"/>\n"
+				+ "  <property name=\"initialY\" value=\"69\"/>\n"
+				+ "  <property name=\"targetTileX\" value=\"2\"/>\n"
+				+ "  <property name=\"targetTileY\" value=\"1\"/>\n"
+				+ "  <property name=\"initialBuzamX\" value=\"140\"/>\n"
+				+ " </properties>\n"
+				+ " <tileset firstgid=\"1\" name=\"Terrain\" tilewidth=\"70\" tileheight=\"70\">\n"
+				+ "  <tile id=\"0\"><image width=\"70\" height=\"70\" source=\"tiles/liquidWater.png\"/></tile>\n"
+				+ "  <tile id=\"1\"><image width=\"70\" height=\"70\" source=\"tiles/grassMid.png\"/></tile>\n"
+				+ " </tileset>\n"
+				+ " <layer name=\"Terrain\" width=\"3\" height=\"2\">\n"
+				+ "  <data encoding=\"csv\">" + terrainGids + "</data>\n"
+				+ " </layer>\n"
+				+ " <objectgroup name=\"Objects\">\n"
+				+ "  <object id=\"4\" gid=\"2147483649\" x=\"70\" y=\"70\">\n"
+				+ "   <properties><property name=\"program\" value=\"plant.txt\"/></properties>\n"
+				+ "  </object>\n"
+				+ " </objectgroup>\n"
+				+ "</map>\n";
+		Files.write(new File(levelsFolder, LEVEL).toPath(),
+				level.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private File getSource() {
+		return new File(levelsFolder, LEVEL);
+	}
+
+	private static void assertSameMap(Map expected, Map actual) {
+		assertEquals(expected.getNbTilesX(), actual.getNbTilesX());
+		assertEquals(expected.getNbTilesY(), actual.getNbTilesY());
+		assertEquals(expected.getTileSizeX(), actual.getTileSizeX());
+		assertEquals(expected.getTileSizeY(), actual.getTileSizeY());
+		assertEquals(expected.getInitialPositionX(), actual.getInitialPositionX());
+		assertEquals(expected.getInitialPositionY(), actual.getInitialPositionY());
+		assertEquals(expected.getTargetTileX(), actual.getTargetTileX());
+		assertEquals(expected.getTargetTileY(), actual.getTargetTileY());
+		assertEquals(expected.getBackground(), actual.getBackground());
+		assertEquals(expected.getAttributes(), actual.getAttributes());
+		assertArrayEquals(expected.getTerrainTypes(), actual.getTerrainTypes());
+		assertEquals(expected.getLayers().size(), actual.getLayers().size());
+		for (int i = 0; i < expected.getLayers().size(); i++) {
+			Layer expectedLayer = expected.getLayers().get(i);
+			Layer actualLayer = actual.getLayers().get(i);
+			assertEquals(expectedLayer.getName(), actualLayer.getName());
+			assertEquals(expectedLayer.getTiles().size(), actualLayer.getTiles().size());
+			for (int j = 0; j < expectedLayer.getTiles().size(); j++) {
+				assertSameTile(expectedLayer.getTiles().get(j), actualLayer.getTiles().get(j));
+			}
+		}
+		assertEquals(expected.getObjectGroups().size(), actual.getObjectGroups().size());
+		for (int i = 0; i < expected.getObjectGroups().size(); i++) {
+			ObjectGroup expectedGroup = expected.getObjectGroups().get(i);
+			ObjectGroup actualGroup = actual.getObjectGroups().get(i);
+			assertEquals(expectedGroup.getName(), actualGroup.getName());
+			assertEquals(expectedGroup.getObjects().size(), actualGroup.getObjects().size());
+			for (int j = 0; j < expectedGroup.getObjects().size(); j++) {
+				MapObject expectedObject = expectedGroup.getObjects().get(j);
+				MapObject actualObject = actualGroup.getObjects().get(j);
+				assertEquals(expectedObject.getId(), actualObject.getId());
+				assertSameTile(expectedObject.getTile(), actualObject.getTile());
+				assertEquals(expectedObject.getX(), actualObject.getX());
+				assertEquals(expectedObject.getY(), actualObject.getY());
+				assertEquals(expectedObject.getHflip(), actualObject.getHflip());
+				assertEquals(expectedObject.getVflip(), actualObject.getVflip());
+				assertEquals(expectedObject.getAttributes(), actualObject.getAttributes());
+			}
+		}
+	}
+
+	private static void assertSameTile(ImageTile expected, ImageTile actual) {
+		if (expected == null) {
+			assertNull(actual);
+		} else {
+			assertEquals(expected.getId(), actual.getId());
+			assertEquals(expected.getFile(), actual.getFile());
+			assertEquals(expected.getWidth(), actual.getWidth());
+			assertEquals(expected.getHeight(), actual.getHeight());
+		}
+	}
+
+	@Test
+	public void write_read_roundTrip() throws IOException {
+		Map map = reader.read(LEVEL);
+		byte[] hash = CompiledMapFile.hash(getSource());
+		File compiled = CompiledMapFile.getCompiledFile(getSource());
+		CompiledMapFile.write(map, hash, compiled);
+		Optional<Map> result = CompiledMapFile.read(compiled, hash);
+		assertTrue(result.isPresent());
+		assertSameMap(map, result.get());
+		assertTrue(result.get().getObjectGroups().get(0).getObjects().get(0).getHflip());
+	}
+
+	@Test
+	public void read_missingFile() throws IOException {
+		assertFalse(CompiledMapFile.read(CompiledMapFile.getCompiledFile(getSource()),
+				CompiledMapFile.hash(getSource())).isPresent());
+	}
+
+	@Test
+	public void read_staleHash() throws IOException {
+		File compiled = CompiledMapFile.getCompiledFile(getSource());
+		CompiledMapFile.write(reader.read(LEVEL), CompiledMapFile.hash(getSource()), compiled);
+		writeLevel("0,0,0,2,2,2");
+		assertFalse(CompiledMapFile.read(compiled, CompiledMapFile.hash(getSource())).isPresent());
+	}
+
+	@Test(expected = IOException.class)
+	public void read_damagedFile() throws IOException {
+		File compiled = CompiledMapFile.getCompiledFile(getSource());
+		byte[] hash = CompiledMapFile.hash(getSource());
+		CompiledMapFile.write(reader.read(LEVEL), hash, compiled);
+		byte[] bytes = Files.readAllBytes(compiled.toPath());
+		Files.write(compiled.toPath(), Arrays.copyOf(bytes, bytes.length - 10));
+		CompiledMapFile.read(compiled, hash);
+	}
+
+	@Test
+	public void load_compilesLevel() throws IOException {
+		Map map = reader.load(LEVEL);
+		assertSameMap(reader.read(LEVEL), map);
+		Optional<Map> compiled = CompiledMapFile.read(CompiledMapFile.getCompiledFile(getSource()),
+				CompiledMapFile.hash(getSource()));
+		assertTrue(compiled.isPresent());
+		assertSameMap(map, compiled.get());
+	}
+
+	@Test
+	public void load_staleCompiledFile_reparses() throws IOException {
+		byte[] oldTerrainTypes = reader.load(LEVEL).getTerrainTypes();
+		writeLevel("0,0,0,2,2,2");
+		Map map = reader.load(LEVEL);
+		assertSameMap(reader.read(LEVEL), map);
+		assertFalse(Arrays.equals(oldTerrainTypes, map.getTerrainTypes()));
+		assertTrue(CompiledMapFile.read(CompiledMapFile.getCompiledFile(getSource()),
+				CompiledMapFile.hash(getSource())).isPresent());
+	}
+
+}
@@ -0,0 +1,481 @@
+package jumpingalien.part3.tests;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jumpingalien.model.Buzam;
+import jumpingalien.model.GameObject;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.Plant;
+import jumpingalien.model.School;
+import jumpingalien.model.Shark;
+import jumpingalien.model.Slime;
+import jumpingalien.model.World;
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.programs.ParseOutcome;
+import jumpingalien.programs.program.Program;
+import jumpingalien.programs.program.ProgramTemplate;
+import jumpingalien.programs.statements.Skip;
+import jumpingalien.programs.types.Type;
+
+import org.junit.Test;
+
+/**
+ * Tests executing every program both by walking its statements and in its
+ * compiled form, and in its compiled form both interpreting its expressions
+ * and with classes generated for them, in two identical worlds, and comparing
+ * the worlds after every time step.
+ */
+public class CompiledProgramTests {
+
+	public static final int FEATURE_SOLID = 1;
+	public static final int FEATURE_WATER = 2;
+	public static final int FEATURE_MAGMA = 3;
+
+	private static final int TILE_SIZE = 70;
+	private static final int NB_STEPS = 100;
+	private static final double TIME_STEP = 0.05;
+	private static final long RANDOM_SEED = 20150518L;
+
+	private static final String[] PROGRAM_FILES = { "buzam.txt", "parser_test.txt", "plant.txt",
+		"program_example_1.txt", "program_example_2.txt", "shark.txt", "slime.txt" };
+
+	private static final String BREAK_IN_WHILE =
+			"double i := 0;\n"
+			+ "while true do\n"
+			+ "  i := i + 1;\n"
+			+ "  if i > 3 then break; fi\n"
+			+ "  skip;\n"
+			+ "done\n"
+			+ "i := 100;\n";
+
+	private static final String BREAK_IN_FOR_EACH =
+			"object o;\n"
+			+ "double n := 0;\n"
+			+ "while true do\n"
+			+ "  n := 0;\n"
+			+ "  foreach (any, o) where (! isdead o) sort getx o + gety o ascending do\n"
+			+ "    n := n + 1;\n"
+			+ "    if n >= 2 then break; fi\n"
+			+ "  done\n"
+			+ "  wait 0.05;\n"
+			+ "done\n";
+
+	private static final String FOR_EACH_TERRAIN =
+			"object t;\n"
+			+ "double n := 0;\n"
+			+ "foreach (terrain, t) where (iswater t || ismagma t) sort gety t descending do\n"
+			+ "  n := n + 1;\n"
+			+ "done\n"
+			+ "while true do\n"
+			+ "  n := n + 1;\n"
+			+ "done\n";
+
+	private static final String UNSORTED_FOR_EACH =
+			"object o;\n"
+			+ "object t;\n"
+			+ "double n := 0;\n"
+			+ "double m := 0;\n"
+			+ "while true do\n"
+			+ "  foreach (any, o) where (getx o > 300 && ! isdead o) do\n"
+			+ "    n := n + getx o;\n"
+			+ "    if n > 100000 then break; fi\n"
+			+ "  done\n"
+			+ "  foreach (plant, o) do\n"
+			+ "    m := m + getx o;\n"
+			+ "  done\n"
+			+ "  foreach (terrain, t) do\n"
+			+ "    m := m + 1;\n"
+			+ "  done\n"
+			+ "done\n";
+
+	private static final String WAITS =
+			"double d := 0;\n"
+			+ "while true do\n"
+			+ "  if d < 10 then\n"
+			+ "    wait 0.07;\n"
+			+ "    d := d + 1;\n"
+			+ "  else\n"
+			+ "    d := 0;\n"
+			+ "    wait 0.0005;\n"
+			+ "  fi\n"
+			+ "  start_run right;\n"
+			+ "  wait random 0.1;\n"
+			+ "  stop_run right;\n"
+			+ "done\n";
+
+	private static final String SEARCHES =
+			"object o;\n"
+			+ "double x := 0;\n"
+			+ "bool b := false;\n"
+			+ "while x < 500 do\n"
+			+ "  o := searchobj (right);\n"
+			+ "  b := o == null;\n"
+			+ "  if isterrain (o) then x := x + 3; fi\n"
+			+ "  if o != self && b == false then x := x + 4; fi\n"
+			+ "  if getx o > 0 then x := x + 1; else x := x + 2; fi\n"
+			+ "  x := x + 1;\n"
+			+ "done\n";
+
+	private static final String COMPARISONS =
+			"double a := 1;\n"
+			+ "double b := 1;\n"
+			+ "bool p;\n"
+			+ "bool q;\n"
+			+ "bool r;\n"
+			+ "direction dir := left;\n"
+			+ "bool s;\n"
+			+ "bool t;\n"
+			+ "bool u;\n"
+			+ "bool v;\n"
+			+ "bool w;\n"
+			+ "p := a == b;\n"
+			+ "q := a != a;\n"
+			+ "r := a != b;\n"
+			+ "s := dir == left;\n"
+			+ "t := self == self;\n"
+			+ "u := gettile(getx self, gety self) == gettile(getx self, gety self);\n"
+			+ "v := searchobj (down) == null;\n"
+			+ "w := p != q;\n"
+			+ "while true do\n"
+			+ "  a := a + random 3;\n"
+			+ "  if a / 7 >= b then b := sqrt (a - 100); fi\n"
+			+ "  q := ismoving (self, right) || isjumping self;\n"
+			+ "  skip;\n"
+			+ "done\n";
+
+	private static final String TYPE_ERROR =
+			"double x := 1;\n"
+			+ "bool b := true;\n"
+			+ "x := b;\n";
+
+	@Test
+	public void compile_ProvidedPrograms() throws IOException {
+		for (String fileName : PROGRAM_FILES) {
+			assertTrue(fileName, parse(readProgram(fileName)).hasCompiledForm());
+		}
+	}
+
+	@Test
+	public void compile_NotCompilableStatement() {
+		Program program = new Program(new Skip(null) {
+		}, new TreeMap<String, Type<?>>());
+		program.setUsesCompiledForm(true);
+		assertFalse(program.hasCompiledForm());
+		program.execute(5);
+		assertEquals(5 - 0.001, program.getTimer(), 0.00001);
+	}
+
+	@Test
+	public void execute_ProvidedPrograms() throws IOException {
+		for (String fileName : PROGRAM_FILES) {
+			assertSameExecution(fileName, readProgram(fileName));
+		}
+	}
+
+	@Test
+	public void execute_BreakInWhile() {
+		assertSameExecution("break in while", BREAK_IN_WHILE);
+	}
+
+	@Test
+	public void execute_BreakInForEach() {
+		assertSameExecution("break in foreach", BREAK_IN_FOR_EACH);
+	}
+
+	@Test
+	public void execute_ForEachTerrain() {
+		assertSameExecution("foreach terrain", FOR_EACH_TERRAIN);
+	}
+
+	@Test
+	public void execute_UnsortedForEach() {
+		assertSameExecution("unsorted foreach", UNSORTED_FOR_EACH);
+	}
+
+	@Test
+	public void execute_Waits() {
+		assertSameExecution("waits", WAITS);
+	}
+
+	@Test
+	public void execute_Searches() {
+		assertSameExecution("searches", SEARCHES);
+	}
+
+	@Test
+	public void execute_Comparisons() {
+		assertSameExecution("comparisons", COMPARISONS);
+	}
+
+	@Test
+	public void execute_GeneratedBlocksProvidedPrograms() throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get("resources/programs"), "*.txt")) {
+			for (Path file : files) {
+				String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+				assertSameGeneratedExecution(file.getFileName().toString(), text);
+			}
+		}
+	}
+
+	@Test
+	public void execute_GeneratedBlocks() {
+		assertSameGeneratedExecution("break in while", BREAK_IN_WHILE);
+		assertSameGeneratedExecution("break in foreach", BREAK_IN_FOR_EACH);
+		assertSameGeneratedExecution("foreach terrain", FOR_EACH_TERRAIN);
+		assertSameGeneratedExecution("unsorted foreach", UNSORTED_FOR_EACH);
+		assertSameGeneratedExecution("waits", WAITS);
+		assertSameGeneratedExecution("searches", SEARCHES);
+		assertSameGeneratedExecution("comparisons", COMPARISONS);
+	}
+
+	@Test
+	public void execute_HotBlockThreshold() {
+		Program interpreted = parse(BREAK_IN_WHILE);
+		Program generated = parse(BREAK_IN_WHILE);
+		interpreted.setHotBlockThreshold(-1);
+		generated.setHotBlockThreshold(2);
+		for (int step = 0; step < 20; step++) {
+			interpreted.execute(0.002);
+			generated.execute(0.002);
+			assertEquals(interpreted.getGlobalVariable("i").getValue(), generated.getGlobalVariable("i").getValue());
+			if (step == 0) {
+				assertEquals(0, generated.getNbGeneratedBlocks());
+			}
+		}
+		assertTrue(generated.getNbGeneratedBlocks() > 0);
+	}
+
+	@Test
+	public void execute_SharedTemplateOnSeveralThreads() throws InterruptedException {
+		ProgramTemplate sequentialTemplate = new ProgramTemplate(BREAK_IN_WHILE, parse(BREAK_IN_WHILE));
+		Program expected = null;
+		for (int run = 0; run < 8 * 50; run++) {
+			expected = runSharedProgram(sequentialTemplate);
+		}
+		Object expectedValue = expected.getGlobalVariable("i").getValue();
+		ProgramTemplate template = new ProgramTemplate(BREAK_IN_WHILE, parse(BREAK_IN_WHILE));
+		assertTrue(template.isShared());
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (int run = 0; run < 50; run++) {
+					assertEquals(expectedValue, runSharedProgram(template).getGlobalVariable("i").getValue());
+				}
+			});
+			threads[i].setUncaughtExceptionHandler((thread, exc) -> failure.compareAndSet(null, exc));
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(failure.get());
+		assertEquals(expected.getNbGeneratedBlocks(), template.createProgram().getNbGeneratedBlocks());
+	}
+
+	private static Program runSharedProgram(ProgramTemplate template) {
+		Program program = template.createProgram();
+		program.setHotBlockThreshold(2);
+		for (int step = 0; step < 20; step++) {
+			program.execute(0.002);
+		}
+		return program;
+	}
+
+	@Test
+	public void execute_NegativeHotBlockThreshold() {
+		Program program = parse(COMPARISONS);
+		program.setHotBlockThreshold(-1);
+		program.execute(1);
+		assertEquals(0, program.getNbGeneratedBlocks());
+	}
+
+	@Test
+	public void parse_TypeError() {
+		ParseOutcome<?> outcome = new Facade().parse(TYPE_ERROR);
+		assertFalse(outcome.isSuccess());
+		assertEquals(Arrays.asList("cannot assign a value of type bool to variable x of type double (3, 5)"),
+				outcome.getResult());
+	}
+
+	private static String readProgram(String fileName) throws IOException {
+		return new String(Files.readAllBytes(Paths.get("resources/programs", fileName)), StandardCharsets.UTF_8);
+	}
+
+	private static Program parse(String text) {
+		ParseOutcome<?> outcome = new Facade().parse(text);
+		assertTrue(outcome.isSuccess());
+		return (Program) outcome.getResult();
+	}
+
+	/**
+	 * Run the given program text on a Buzam, a slime, a shark and a plant, once
+	 * by walking the statements and once in compiled form, and check that both
+	 * worlds stay the same.
+	 */
+	private static void assertSameExecution(String name, String text) {
+		Simulation walked = new Simulation(text, false, Program.DEFAULT_HOT_BLOCK_THRESHOLD);
+		Simulation compiled = new Simulation(text, true, Program.DEFAULT_HOT_BLOCK_THRESHOLD);
+		for (Program program : compiled.programs) {
+			assertTrue(name, program.hasCompiledForm());
+		}
+		assertSameExecution(name, walked, compiled);
+	}
+
+	/**
+	 * Run the given program text in compiled form, once interpreting all its
+	 * expressions and once with classes generated for them from the start, and
+	 * check that both worlds stay the same.
+	 */
+	private static void assertSameGeneratedExecution(String name, String text) {
+		Simulation interpreted = new Simulation(text, true, -1);
+		Simulation generated = new Simulation(text, true, 0);
+		assertSameExecution(name, interpreted, generated);
+		for (Program program : interpreted.programs) {
+			assertEquals(name, 0, program.getNbGeneratedBlocks());
+		}
+		for (Program program : generated.programs) {
+			assertTrue(name, program.getNbGeneratedBlocks() > 0);
+		}
+	}
+
+	private static void assertSameExecution(String name, Simulation expected, Simulation actual) {
+		PrintStream systemOut = System.out;
+		System.setOut(new PrintStream(new ByteArrayOutputStream()));
+		try {
+			assertEquals(name, expected.describe(), actual.describe());
+			for (int step = 0; step < NB_STEPS && !expected.world.getGameOver(); step++) {
+				String expectedOutcome = expected.advanceTime();
+				String actualOutcome = actual.advanceTime();
+				assertEquals(name + " at step " + step, expectedOutcome, actualOutcome);
+				assertEquals(name + " at step " + step, expected.describe(), actual.describe());
+				if (expectedOutcome != null) {
+					break;
+				}
+			}
+		} finally {
+			System.setOut(systemOut);
+		}
+	}
+
+	private static class Simulation {
+
+		Simulation(String text, boolean usesCompiledForm, int hotBlockThreshold) {
+			this.usesCompiledForm = usesCompiledForm;
+			this.hotBlockThreshold = hotBlockThreshold;
+			world = new World(TILE_SIZE, 20, 8, 1400, 560, 19, 7);
+			for (int x = 0; x < 20; x++) {
+				world.setTileValueAtTilePosition(x, 0, FEATURE_SOLID);
+			}
+			for (int y = 1; y < 4; y++) {
+				world.setTileValueAtTilePosition(10, y, FEATURE_SOLID);
+				world.setTileValueAtTilePosition(16, y, FEATURE_SOLID);
+				for (int x = 11; x < 16; x++) {
+					world.setTileValueAtTilePosition(x, y, FEATURE_WATER);
+				}
+			}
+			world.setTileValueAtTilePosition(4, 5, FEATURE_MAGMA);
+
+			add(new Mazub(TILE_SIZE, TILE_SIZE, spriteArrayForSize(2, 2)));
+			add(new Buzam(5 * TILE_SIZE, TILE_SIZE, program(text), spriteArrayForSize(2, 2)));
+			add(new Slime(8 * TILE_SIZE, TILE_SIZE, spriteArrayForSize(2, 2), new School(),
+					program(text)));
+			add(new Shark(13 * TILE_SIZE, TILE_SIZE, program(text), spriteArrayForSize(2, 2)));
+			add(new Plant(3 * TILE_SIZE, TILE_SIZE, program(text), spriteArrayForSize(2, 2)));
+			add(new Plant(7 * TILE_SIZE, TILE_SIZE, spriteArrayForSize(2, 2)));
+			world.setRandomSeed(RANDOM_SEED);
+			world.setGameHasStarted(true);
+		}
+
+		private Program program(String text) {
+			Program program = parse(text);
+			program.setUsesCompiledForm(usesCompiledForm);
+			program.setHotBlockThreshold(hotBlockThreshold);
+			programs.add(program);
+			return program;
+		}
+
+		private void add(GameObject gameObject) {
+			world.addAsGameObject(gameObject);
+			objects.add(gameObject);
+		}
+
+		/**
+		 * Advance the world by one time step, and return the class of the
+		 * exception this throws, if any.
+		 */
+		String advanceTime() {
+			try {
+				world.advanceTime(TIME_STEP);
+				return null;
+			} catch (RuntimeException exc) {
+				return exc.getClass().getName();
+			}
+		}
+
+		String describe() {
+			StringBuilder result = new StringBuilder();
+			for (GameObject gameObject : objects) {
+				result.append(describe(gameObject)).append('\n');
+			}
+			for (Program program : programs) {
+				result.append(program.hasStopped() ? "stopped " : "running ").append(program.getTimer());
+				Map<String, Type<?>> variables = new TreeMap<String, Type<?>>(program.getGlobalVariables());
+				for (Map.Entry<String, Type<?>> variable : variables.entrySet()) {
+					result.append(' ').append(variable.getKey()).append('=').append(describe(variable.getValue()));
+				}
+				result.append('\n');
+			}
+			return result.toString();
+		}
+
+		private static String describe(GameObject gameObject) {
+			if (gameObject == null) {
+				return "null";
+			}
+			return gameObject.getClass().getSimpleName() + "(" + gameObject.getHorizontalLocation() + ", "
+					+ gameObject.getVerticalLocation() + ", " + gameObject.getHitPoints() + ", "
+					+ gameObject.isTerminated() + ")";
+		}
+
+		private static String describe(Type<?> variable) {
+			if (variable == null) {
+				return "null";
+			}
+			Object value = variable.getValue();
+			if (value instanceof GameObject || value == null) {
+				return describe((GameObject) value);
+			}
+			if (value instanceof int[]) {
+				return Arrays.toString((int[]) value);
+			}
+			return value.toString();
+		}
+
+		private final boolean usesCompiledForm;
+
+		private final int hotBlockThreshold;
+
+		private final World world;
+
+		private final List<GameObject> objects = new ArrayList<GameObject>();
+
+		private final List<Program> programs = new ArrayList<Program>();
+	}
+}
@@ -0,0 +1,127 @@
+package jumpingalien.part3.tests;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+import static org.junit.Assert.*;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.World;
+import jumpingalien.util.Sprite;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Parity tests between the contact checks based on perimeter arrays and
+ * the analytic contact checks of game objects.
+ */
+public class ContactTest {
+
+	/**
+	 * A Mazub that exposes the protected contact checks of game objects.
+	 */
+	private static class ContactMazub extends Mazub {
+
+		public ContactMazub(int horizontalLocation, int verticalLocation, Sprite... images) {
+			super(horizontalLocation, verticalLocation, images);
+		}
+
+		public int [] perimeterLeftOrRight(ContactMazub other){
+			return checkLeftOrRightSideOverlap(other,
+					getLeftPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getHeight()),
+					getRightPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth(), getHeight()),
+					other.getLeftPerimeter(other.getEffectiveHorizontalLocation(), other.getEffectiveVerticalLocation(), other.getHeight()),
+					other.getRightPerimeter(other.getEffectiveHorizontalLocation(), other.getEffectiveVerticalLocation(), other.getWidth(), other.getHeight()));
+		}
+
+		public int [] perimeterTopOrBottom(ContactMazub other){
+			return checkTopOrBottomSideOverlap(other,
+					getTopPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth(), getHeight()),
+					getBottomPerimeter(getEffectiveHorizontalLocation(), getEffectiveVerticalLocation(), getWidth()),
+					other.getTopPerimeter(other.getEffectiveHorizontalLocation(), other.getEffectiveVerticalLocation(), other.getWidth(), other.getHeight()),
+					other.getBottomPerimeter(other.getEffectiveHorizontalLocation(), other.getEffectiveVerticalLocation(), other.getWidth()));
+		}
+
+		public int [] analyticLeftOrRight(ContactMazub other){
+			return checkLeftOrRightSideContact(other);
+		}
+
+		public int [] analyticTopOrBottom(ContactMazub other){
+			return checkTopOrBottomSideContact(other);
+		}
+	}
+
+	private World testWorld;
+
+	@Before
+	public void setUp(){
+		testWorld = new World(10, 20, 20, 200, 200, 19, 19);
+	}
+
+	private ContactMazub createContactMazub(int horizontalLocation, int verticalLocation, int width, int height){
+		ContactMazub contactMazub = new ContactMazub(horizontalLocation, verticalLocation, spriteArrayForSize(width, height));
+		contactMazub.setWorld(testWorld);
+		testWorld.setMazub(contactMazub);
+		return contactMazub;
+	}
+
+	private void assertParity(int width1, int height1, int width2, int height2){
+		ContactMazub fixedMazub = createContactMazub(50, 50, width1, height1);
+		ContactMazub movingMazub = createContactMazub(0, 0, width2, height2);
+		for(int pixelX = 50 - width2 - 2; pixelX <= 50 + width1 + 2; pixelX++){
+			for(int pixelY = 50 - height2 - 2; pixelY <= 50 + height1 + 2; pixelY++){
+				movingMazub.setHorizontalLocation(pixelX);
+				movingMazub.setVerticalLocation(pixelY);
+				assertArrayEquals(fixedMazub.perimeterLeftOrRight(movingMazub), fixedMazub.analyticLeftOrRight(movingMazub));
+				assertArrayEquals(fixedMazub.perimeterTopOrBottom(movingMazub), fixedMazub.analyticTopOrBottom(movingMazub));
+				assertArrayEquals(movingMazub.perimeterLeftOrRight(fixedMazub), movingMazub.analyticLeftOrRight(fixedMazub));
+				assertArrayEquals(movingMazub.perimeterTopOrBottom(fixedMazub), movingMazub.analyticTopOrBottom(fixedMazub));
+			}
+		}
+	}
+
+	@Test
+	public void contactParity_equalSizes(){
+		assertParity(10, 10, 10, 10);
+	}
+
+	@Test
+	public void contactParity_differentSizes(){
+		assertParity(12, 5, 4, 9);
+	}
+
+	@Test
+	public void contactParity_thinGameObjects(){
+		assertParity(1, 2, 3, 2);
+		assertParity(2, 3, 1, 2);
+	}
+
+	@Test
+	public void checkTopOrBottomSideContact_standingOnOther(){
+		ContactMazub lowerMazub = createContactMazub(50, 50, 10, 10);
+		ContactMazub upperMazub = createContactMazub(55, 59, 10, 10);
+		int [] contact = upperMazub.analyticTopOrBottom(lowerMazub);
+		assertEquals(contact[0], 1);
+		assertEquals(contact[1], testWorld.getIndexOfGameObject(lowerMazub));
+		assertEquals(contact[2], 1);
+		assertEquals(contact[3], 0);
+	}
+
+	@Test
+	public void checkLeftOrRightSideContact_noContact(){
+		ContactMazub leftMazub = createContactMazub(50, 50, 10, 10);
+		ContactMazub rightMazub = createContactMazub(70, 50, 10, 10);
+		assertArrayEquals(leftMazub.analyticLeftOrRight(rightMazub), new int []{0,0,0,0});
+	}
+
+	@Test
+	public void checkTopOrBottomSideContact_descriptorNotReused(){
+		ContactMazub lowerMazub = createContactMazub(50, 50, 10, 10);
+		ContactMazub upperMazub = createContactMazub(55, 59, 10, 10);
+		ContactMazub farMazub = createContactMazub(150, 150, 10, 10);
+		int [] contact = upperMazub.analyticTopOrBottom(lowerMazub);
+		int [] noContact = upperMazub.analyticTopOrBottom(farMazub);
+		assertNotSame(contact, noContact);
+		assertEquals(contact[0], 1);
+		assertEquals(contact[2], 1);
+		assertArrayEquals(noContact, new int []{0,0,0,0});
+	}
+}
@@ -553,6 +553,14 @@ public class GameObjectTest {
 		assertEquals(testGameObject.getHitPoints(), 250);
 	}
 	
+	@Test
+	public void testAddHitPoints_DeadCase(){
+		testGameObject.setHitPoints(0);
+		testGameObject.setTimeSinceDead(0.1);
+		testGameObject.addHitPoints(50);
+		assertEquals(testGameObject.getHitPoints(), 0);
+	}
+	
 	@Test
 	public void testSetHitPoints_TrueCase(){
 		testGameObject.setHitPoints(250);
@@ -0,0 +1,101 @@
+package jumpingalien.part3.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jumpingalien.part3.programs.ProgramParser;
+import jumpingalien.programs.expressions.Expression;
+import jumpingalien.programs.program.Program;
+import jumpingalien.programs.program.ProgramFactory;
+import jumpingalien.programs.statements.Statement;
+import jumpingalien.programs.types.Type;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProgramFactoryTests {
+
+	private static final String COUNTER =
+			"double a := 1;\n"
+			+ "double x := 2;\n"
+			+ "x := x + 1;\n";
+
+	private static final String OTHER_COUNTER =
+			"double x := 5;\n"
+			+ "object o;\n"
+			+ "foreach(any, o) do\n"
+			+ "  x := x + 1;\n"
+			+ "done\n";
+
+	private static final String TYPE_ERROR =
+			"double x := 1;\n"
+			+ "bool b := true;\n"
+			+ "x := b;\n";
+
+	private static final String OTHER_TYPE_ERROR =
+			"double y := 1;\n"
+			+ "bool c := false;\n"
+			+ "y := c;\n";
+
+	private ProgramFactory factory;
+
+	private ProgramParser<Expression<?>, Statement, Type<?>, Program> parser;
+
+	@Before
+	public void setUp(){
+		factory = new ProgramFactory();
+		parser = new ProgramParser<>(factory);
+	}
+
+	private Program parse(String text){
+		Program program = parser.parseString(text).get();
+		assertTrue(program.hasCompiledForm());
+		return program;
+	}
+
+	private static double getValue(Program program, String variableName){
+		return (Double) program.getGlobalVariable(variableName).getValue();
+	}
+
+	@Test
+	public void createProgram_twoProgramsOneFactory(){
+		Program program1 = parse(COUNTER);
+		Program program2 = parse(OTHER_COUNTER);
+		program1.execute(5);
+		assertEquals(1, getValue(program1, "a"), 0.00001);
+		assertEquals(3, getValue(program1, "x"), 0.00001);
+		assertEquals(2, program1.getVariableSlot("unknown"));
+		assertEquals(0, getValue(program2, "x"), 0.00001);
+		assertEquals(2, program2.getVariableSlot("unknown"));
+	}
+
+	@Test
+	public void createProgram_afterFailedParse(){
+		assertFalse(parser.parseString("double y := 1;\ny := y + ;\n").isPresent());
+		Program program = parse(COUNTER);
+		program.execute(5);
+		assertEquals(1, getValue(program, "a"), 0.00001);
+		assertEquals(3, getValue(program, "x"), 0.00001);
+		assertEquals(2, program.getVariableSlot("unknown"));
+	}
+
+	@Test
+	public void getTypeErrors_wellTypedAfterIllTyped(){
+		assertFalse(parser.parseString(TYPE_ERROR).isPresent());
+		assertEquals(1, factory.getTypeErrors().size());
+		parse(COUNTER);
+		assertTrue(factory.getTypeErrors().isEmpty());
+	}
+
+	@Test
+	public void getTypeErrors_onlyOfLastProgram(){
+		assertFalse(parser.parseString(TYPE_ERROR).isPresent());
+		List<String> firstErrors = new ArrayList<String>(factory.getTypeErrors());
+		assertFalse(parser.parseString(OTHER_TYPE_ERROR).isPresent());
+		assertEquals(1, factory.getTypeErrors().size());
+		assertFalse(firstErrors.contains(factory.getTypeErrors().get(0)));
+	}
+
+}
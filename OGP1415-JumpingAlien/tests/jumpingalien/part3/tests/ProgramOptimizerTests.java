@@ -0,0 +1,154 @@
+package jumpingalien.part3.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import jumpingalien.part3.programs.ProgramParser;
+import jumpingalien.programs.expressions.DoubleConstant;
+import jumpingalien.programs.expressions.Expression;
+import jumpingalien.programs.expressions.False;
+import jumpingalien.programs.expressions.True;
+import jumpingalien.programs.program.Program;
+import jumpingalien.programs.program.ProgramFactory;
+import jumpingalien.programs.statements.Assignment;
+import jumpingalien.programs.statements.If;
+import jumpingalien.programs.statements.Sequence;
+import jumpingalien.programs.statements.Statement;
+import jumpingalien.programs.statements.While;
+import jumpingalien.programs.types.Type;
+
+import org.junit.Test;
+
+/**
+ * Tests simplifying programs when they are parsed, and executing every program
+ * both with and without simplifying it, walking its statements and in its
+ * compiled form, and comparing the programs after every time step.
+ */
+public class ProgramOptimizerTests {
+
+	private static final int NB_STEPS = 60;
+	private static final double TIME_STEP = 0.003;
+
+	private static final String CONSTANTS =
+			"double x;\n"
+			+ "bool b;\n"
+			+ "x := (1 + 2) * 3 - sqrt 16;\n"
+			+ "b := ! (x < 0) && 2 / 4 == 0.5;\n";
+
+	private static final String BRANCHES =
+			"double x := 0;\n"
+			+ "while true do\n"
+			+ "  if 1 < 2 then x := x + 1; else x := x - 1; fi\n"
+			+ "  if true && false then x := x + 100; fi\n"
+			+ "  if false || x > 3 then x := 0; fi\n"
+			+ "  while 1 > 2 do x := x - 50; done\n"
+			+ "  skip;\n"
+			+ "done\n";
+
+	private static final String LOOPS =
+			"double i := 0;\n"
+			+ "double n := 0;\n"
+			+ "n := 2 * 2;\n"
+			+ "while true do\n"
+			+ "  i := 0;\n"
+			+ "  while i < 2 * 3 do\n"
+			+ "    i := i + 1;\n"
+			+ "    if i > 10 / 2 then break; fi\n"
+			+ "    if ! true then n := n - 1; else n := n + i; fi\n"
+			+ "  done\n"
+			+ "  while false do skip; done\n"
+			+ "done\n";
+
+	private static final String ACTION_IN_DEAD_BRANCH =
+			"object o;\n"
+			+ "foreach (any, o) do\n"
+			+ "  if false then start_jump; fi\n"
+			+ "done\n";
+
+	private static Program parse(String text, boolean optimizes) {
+		ProgramFactory factory = new ProgramFactory();
+		factory.setOptimizesPrograms(optimizes);
+		ProgramParser<Expression<?>, Statement, Type<?>, Program> parser = new ProgramParser<>(factory);
+		return parser.parseString(text).get();
+	}
+
+	@Test
+	public void optimize_FoldsConstants() {
+		Program program = parse(CONSTANTS, true);
+		assertEquals(6, program.getOptimizer().getNbFoldedExpressions());
+		Statement assignment = ((Sequence) program.getMainStatement()).getStatements().get(0);
+		assertSame(DoubleConstant.class, ((Assignment) assignment).getValue().getClass());
+		program.execute(1);
+		assertEquals(5, (Double) program.getGlobalVariable("x").getValue(), 0.00001);
+		assertTrue((Boolean) program.getGlobalVariable("b").getValue());
+	}
+
+	@Test
+	public void optimize_PrunesBranches() {
+		Program program = parse(BRANCHES, true);
+		assertEquals(3, program.getOptimizer().getNbPrunedBranches());
+		Statement body = ((Sequence) program.getMainStatement()).getStatements().get(1);
+		Sequence loopBody = (Sequence) ((While) body).getBody();
+		If first = (If) loopBody.getStatements().get(0);
+		assertSame(True.class, first.getCondition().getClass());
+		assertNull(first.getElseBody());
+		If second = (If) loopBody.getStatements().get(1);
+		assertSame(False.class, second.getCondition().getClass());
+		assertTrue(((Sequence) second.getIfBody()).getStatements().isEmpty());
+		assertTrue(loopBody.getStatements().get(3) instanceof If);
+	}
+
+	@Test
+	public void optimize_CollapsesSequences() {
+		Program program = parse(LOOPS, true);
+		Sequence mainStatement = (Sequence) program.getMainStatement();
+		for (Statement statement : mainStatement.getStatements()) {
+			assertFalse(statement instanceof Sequence);
+			assertSame(mainStatement, statement.getNestingStatement());
+		}
+		assertEquals(1, program.getOptimizer().getNbCollapsedSequences());
+		assertEquals(4, mainStatement.getStatements().size());
+	}
+
+	@Test
+	public void optimize_IllFormedProgram() {
+		Program program = parse(ACTION_IN_DEAD_BRANCH, true);
+		assertNull(program.getOptimizer());
+		assertFalse(program.isWellFormed());
+	}
+
+	@Test
+	public void execute_SameAsUnoptimized() {
+		for (String text : new String[] { CONSTANTS, BRANCHES, LOOPS }) {
+			for (boolean usesCompiledForm : new boolean[] { false, true }) {
+				assertSameExecution(text, usesCompiledForm);
+			}
+		}
+	}
+
+	private static void assertSameExecution(String text, boolean usesCompiledForm) {
+		Program unoptimized = parse(text, false);
+		Program optimized = parse(text, true);
+		unoptimized.setUsesCompiledForm(usesCompiledForm);
+		optimized.setUsesCompiledForm(usesCompiledForm);
+		assertNull(unoptimized.getOptimizer());
+		assertTrue(optimized.getOptimizer().hasOptimized());
+		for (int step = 0; step < NB_STEPS; step++) {
+			unoptimized.execute(TIME_STEP);
+			optimized.execute(TIME_STEP);
+			assertEquals(text + " at step " + step, describe(unoptimized), describe(optimized));
+		}
+	}
+
+	private static String describe(Program program) {
+		StringBuilder result = new StringBuilder();
+		result.append(program.hasStopped()).append(' ').append(program.getTimer());
+		Map<String, Type<?>> variables = new TreeMap<String, Type<?>>(program.getGlobalVariables());
+		for (Map.Entry<String, Type<?>> variable : variables.entrySet()) {
+			result.append(' ').append(variable.getKey()).append('=').append(variable.getValue().getValue());
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,86 @@
+package jumpingalien.part3.tests;
+
+import static org.junit.Assert.*;
+
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.programs.ParseOutcome;
+import jumpingalien.programs.program.Program;
+import jumpingalien.programs.program.ProgramTemplate;
+
+import org.junit.Test;
+
+public class ProgramTemplateTests {
+
+	private static final String COUNTER =
+			"double x := 1;\n"
+			+ "x := x + 1;\n";
+
+	private static final String WAITING_COUNTER =
+			"double x := 0;\n"
+			+ "while x < 5 do\n"
+			+ "  x := x + 1;\n"
+			+ "  wait 0.0015;\n"
+			+ "done\n";
+
+	private static ProgramTemplate parse(String text){
+		return new ProgramTemplate(text, parseProgram(text));
+	}
+
+	private static double getX(Program program){
+		return (Double) program.getGlobalVariable("x").getValue();
+	}
+
+	@Test
+	public void constructor_LegalCase(){
+		ProgramTemplate template = parse(COUNTER);
+		assertEquals(COUNTER, template.getText());
+		assertTrue(template.isShared());
+	}
+
+	@Test
+	public void createProgram_NewProgramsShareStatements(){
+		ProgramTemplate template = parse(COUNTER);
+		Program program1 = template.createProgram();
+		Program program2 = template.createProgram();
+		assertNotSame(program1, program2);
+		assertSame(program1.getMainStatement(), program2.getMainStatement());
+		assertTrue(program1.hasCompiledForm());
+		assertTrue(program2.hasCompiledForm());
+	}
+
+	@Test
+	public void createProgram_OwnVariables(){
+		ProgramTemplate template = parse(COUNTER);
+		Program program1 = template.createProgram();
+		Program program2 = template.createProgram();
+		program1.execute(5);
+		assertEquals(2, getX(program1), 0.00001);
+		assertEquals(0, getX(program2), 0.00001);
+		assertEquals(0, getX(template.createProgram()), 0.00001);
+		program2.execute(5);
+		assertEquals(2, getX(program2), 0.00001);
+	}
+
+	@Test
+	public void createProgram_OwnExecutionState(){
+		ProgramTemplate template = parse(WAITING_COUNTER);
+		Program[] shared = { template.createProgram(), template.createProgram() };
+		Program[] parsed = { parseProgram(WAITING_COUNTER), parseProgram(WAITING_COUNTER) };
+		double[] timeSteps = { 0.002, 0.0007, 0.004, 0.001, 0.0031 };
+		for(int step = 0; step < 20; step++){
+			for(int i = 0; i < 2; i++){
+				double timeStep = timeSteps[(step + 2 * i) % timeSteps.length];
+				shared[i].execute(timeStep);
+				parsed[i].execute(timeStep);
+				assertEquals(getX(parsed[i]), getX(shared[i]), 0);
+				assertEquals(parsed[i].getTimer(), shared[i].getTimer(), 0);
+			}
+		}
+	}
+
+	private static Program parseProgram(String text){
+		ParseOutcome<?> outcome = new Facade().parse(text);
+		assertTrue(outcome.isSuccess());
+		return (Program) outcome.getResult();
+	}
+}
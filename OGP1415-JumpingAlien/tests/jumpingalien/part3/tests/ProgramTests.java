@@ -107,6 +107,27 @@ public class ProgramTests {
 		assertEquals(((Boolean) emptyProgram.getGlobalVariables().get("testString").getValue()).booleanValue(), true);
 	}
 	
+	@Test
+	public void getVariableSlotTest(){
+		int slot=emptyProgram.getVariableSlot("testString");
+		assertEquals(emptyProgram.getVariableSlot("testString"), slot);
+		assertNotEquals(emptyProgram.getVariableSlot("testString2"), slot);
+		assertFalse(emptyProgram.getGlobalVariables().containsKey("testString"));
+		emptyProgram.putGlobalVariable(slot, new DoubleType(42));
+		assertEquals(((Double) emptyProgram.getGlobalVariable("testString").getValue()).intValue(), 42);
+		assertEquals(((Double) emptyProgram.getGlobalVariables().get("testString").getValue()).intValue(), 42);
+	}
+	
+	@Test
+	public void getGlobalVariablesTest_snapshotAfterChange(){
+		emptyProgram.putGlobalVariable("testString", new DoubleType(42));
+		Map<String,Type<?>> snapshot=emptyProgram.getGlobalVariables();
+		assertSame(snapshot, emptyProgram.getGlobalVariables());
+		emptyProgram.putGlobalVariable("testString", new BoolType(true));
+		assertEquals(((Double) snapshot.get("testString").getValue()).intValue(), 42);
+		assertEquals(((Boolean) emptyProgram.getGlobalVariables().get("testString").getValue()).booleanValue(), true);
+	}
+	
 	@Test
 	public void executeTest_normalConditions(){
 		Program program=new Program(staticTestAssignment42,new HashMap<String, Type<?>>());
@@ -0,0 +1,191 @@
+package jumpingalien.part3.tests;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import jumpingalien.model.GameObject;
+import jumpingalien.model.Orientation;
+import jumpingalien.model.Plant;
+import jumpingalien.model.Raycast;
+import jumpingalien.model.Shark;
+import jumpingalien.model.World;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Parity tests between rays and searching pixel by pixel.
+ */
+public class RaycastTest {
+
+	private static final int TILE_SIZE = 10;
+
+	private static final int FEATURE_SOLID = 1;
+
+	private static final int FEATURE_WATER = 2;
+
+	private static final Orientation[] DIRECTIONS = {
+		Orientation.LEFT, Orientation.RIGHT, Orientation.UP, Orientation.DOWN };
+
+	private World testWorld;
+
+	private Random random;
+
+	@Before
+	public void setUp(){
+		testWorld = new World(TILE_SIZE, 30, 20, 200, 150, 29, 19);
+		random = new Random(1415);
+		for(int tileX = 0; tileX < 30; tileX++){
+			for(int tileY = 0; tileY < 20; tileY++){
+				int value = random.nextInt(10);
+				if(value < 2){
+					testWorld.setTileValueAtTilePosition(tileX, tileY, FEATURE_SOLID);
+				}
+				else if(value < 3){
+					testWorld.setTileValueAtTilePosition(tileX, tileY, FEATURE_WATER);
+				}
+			}
+		}
+		for(int i = 0; i < 60; i++){
+			int width = 1 + random.nextInt(25);
+			int height = 2 + random.nextInt(25);
+			int horizontalLocation = random.nextInt(300 - width);
+			int verticalLocation = random.nextInt(200 - height);
+			GameObject gameObject = (i % 2 == 0)
+					? new Plant(horizontalLocation, verticalLocation, spriteArrayForSize(width, height, 2))
+					: new Shark(horizontalLocation, verticalLocation, spriteArrayForSize(width, height, 2));
+			try{
+				testWorld.addAsGameObject(gameObject);
+			}catch(RuntimeException exc){
+				// Game objects that cannot stand at their location are left out.
+			}
+		}
+	}
+
+	/**
+	 * Return a description of the result of searching pixel by pixel from the given game object
+	 * in the given direction.
+	 */
+	private static String searchPixelByPixel(GameObject gameObject, Orientation direction){
+		try{
+			String result = "null";
+			int[] position = {(int) gameObject.getHorizontalLocation(), (int) gameObject.getVerticalLocation()};
+			int axis = (direction == Orientation.RIGHT || direction == Orientation.LEFT) ? 0 : 1;
+			World world = gameObject.getWorld();
+			while(gameObject.canHaveAsLocation(position[0], position[1])){
+				GameObject found = gameObject.getGameObjectAtPixelPosition(position[0], position[1]);
+				if(found != null && found != gameObject){
+					return "object " + System.identityHashCode(found);
+				}
+				position[axis] = position[axis] + direction.getNumberForCalculations();
+				try{
+					result = "tile " + Arrays.toString(world.getTilePositionAtPixelLocation(position[0], position[1]));
+				}catch(IllegalArgumentException exc){
+					result = "outside";
+				}
+			}
+			return result;
+		}catch(RuntimeException exc){
+			return exc.getClass().getName();
+		}
+	}
+
+	/**
+	 * Return a description of the result of casting a ray from the given game object
+	 * in the given direction.
+	 */
+	private static String cast(GameObject gameObject, Orientation direction){
+		try{
+			Raycast ray = new Raycast(gameObject, direction);
+			if(ray.getHitGameObject() != null){
+				return "object " + System.identityHashCode(ray.getHitGameObject());
+			}
+			if(!ray.hasLeft()){
+				return "null";
+			}
+			if(ray.getHitTile() != null){
+				return "tile " + Arrays.toString(ray.getHitTile());
+			}
+			return "outside";
+		}catch(RuntimeException exc){
+			return exc.getClass().getName();
+		}
+	}
+
+	private void assertSameSearch(GameObject gameObject){
+		for(Orientation direction : DIRECTIONS){
+			assertEquals(direction + " from " + gameObject.getHorizontalLocation() + ", " + gameObject.getVerticalLocation(),
+					searchPixelByPixel(gameObject, direction), cast(gameObject, direction));
+		}
+	}
+
+	@Test
+	public void constructor_HitsGameObject(){
+		World world = new World(TILE_SIZE, 30, 20, 200, 150, 29, 19);
+		Plant origin = new Plant(10, 50, spriteArrayForSize(4, 4, 2));
+		Shark target = new Shark(200, 47, spriteArrayForSize(6, 6, 2));
+		world.addAsGameObject(origin);
+		world.addAsGameObject(target);
+		Raycast ray = new Raycast(origin, Orientation.RIGHT);
+		assertTrue(ray.hasLeft());
+		assertSame(target, ray.getHitGameObject());
+		ray = new Raycast(origin, Orientation.LEFT);
+		assertTrue(ray.hasLeft());
+		assertNull(ray.getHitGameObject());
+		assertNull(ray.getHitTile());
+	}
+
+	@Test
+	public void constructor_HitsTile(){
+		World world = new World(TILE_SIZE, 30, 20, 200, 150, 29, 19);
+		world.setTileValueAtTilePosition(5, 10, FEATURE_SOLID);
+		Plant origin = new Plant(52, 20, spriteArrayForSize(4, 4, 2));
+		world.addAsGameObject(origin);
+		Raycast ray = new Raycast(origin, Orientation.UP);
+		assertNull(ray.getHitGameObject());
+		assertArrayEquals(new int [] {5, 9}, ray.getHitTile());
+	}
+
+	@Test
+	public void constructor_SameAsSearchingPixelByPixel(){
+		int [][] sizes = {{1, 3}, {5, 8}, {14, 6}, {23, 20}};
+		for(int [] size : sizes){
+			Plant origin = new Plant(0, 0, spriteArrayForSize(size[0], size[1], 2));
+			for(int i = 0; i < 500; i++){
+				try{
+					origin.setHorizontalLocation(random.nextInt(300) + random.nextDouble());
+					origin.setVerticalLocation(random.nextInt(200) + random.nextDouble());
+					if(origin.getWorld() == null){
+						testWorld.addAsGameObject(origin);
+					}
+				}catch(RuntimeException exc){
+					continue;
+				}
+				assertSameSearch(origin);
+			}
+			if(origin.getWorld() != null){
+				testWorld.removeAsGameObject(origin);
+			}
+		}
+	}
+
+	@Test
+	public void constructor_SameAsSearchingPixelByPixelFromGameObjects(){
+		for(GameObject gameObject : testWorld.getAllGameObjects()){
+			assertSameSearch(gameObject);
+		}
+	}
+
+	@Test
+	public void constructor_SameAsSearchingPixelByPixelFromBlockedLocation(){
+		for(GameObject gameObject : testWorld.getAllGameObjects()){
+			int tileX = gameObject.getEffectiveHorizontalLocation() / TILE_SIZE;
+			int tileY = (gameObject.getEffectiveVerticalLocation() + 1) / TILE_SIZE;
+			testWorld.setTileValueAtTilePosition(tileX, tileY, FEATURE_SOLID);
+			assertSameSearch(gameObject);
+		}
+	}
+}
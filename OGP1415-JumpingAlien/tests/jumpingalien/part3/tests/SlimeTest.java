@@ -181,6 +181,17 @@ public class SlimeTest {
 		assertEquals(slime3TestSchool1.getHitPoints(),50);
 	}
 	
+	@Test
+	public void joinSchool_deadSlimesStayDead(){
+		slime1TestSchool1.setHitPoints(0);
+		slime1TestSchool1.setTimeSinceDead(0.1);
+		slime2TestSchool1.setHitPoints(50);
+		slime3TestSchool1.setHitPoints(50);
+		slime3TestSchool1.joinSchool(testSchool2);
+		assertEquals(slime1TestSchool1.getHitPoints(),0);
+		assertEquals(slime2TestSchool1.getHitPoints(),51);
+	}
+	
 	@Test
 	public void canHaveAsNbImages_trueCase(){
 		assertTrue(slime1School1.canHaveAsNbImages(2));
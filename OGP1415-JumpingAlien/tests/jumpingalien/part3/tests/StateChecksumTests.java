@@ -0,0 +1,65 @@
+package jumpingalien.part3.tests;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+import static org.junit.Assert.*;
+
+import jumpingalien.model.Buzam;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.School;
+import jumpingalien.model.Slime;
+import jumpingalien.model.World;
+import jumpingalien.part3.internal.StateChecksum;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class StateChecksumTests {
+
+	private World world;
+	private Mazub mazub;
+	private Buzam buzam;
+	private Slime slime;
+
+	@Before
+	public void setUp() {
+		world = new World(50, 20, 10, 500, 500, 19, 9);
+		for (int x = 0; x < 20; x++) {
+			world.setTileValueAtTilePosition(x, 0, 1);
+		}
+		mazub = new Mazub(50, 50, spriteArrayForSize(2, 2));
+		buzam = new Buzam(400, 50, spriteArrayForSize(2, 2));
+		slime = new Slime(200, 50, spriteArrayForSize(2, 2), new School());
+		world.addAsGameObject(mazub);
+		world.addAsGameObject(buzam);
+		world.addAsGameObject(slime);
+	}
+
+	@Test
+	public void of_sameStateSameChecksum() {
+		assertEquals(StateChecksum.of(world), StateChecksum.of(world));
+	}
+
+	@Test
+	public void of_coversBuzam() {
+		long checksum = StateChecksum.of(world);
+		buzam.setHorizontalLocation(buzam.getHorizontalLocation() + 1);
+		assertNotEquals(checksum, StateChecksum.of(world));
+		checksum = StateChecksum.of(world);
+		buzam.setHitPoints(buzam.getHitPoints() - 1);
+		assertNotEquals(checksum, StateChecksum.of(world));
+	}
+
+	@Test
+	public void of_coversMazub() {
+		long checksum = StateChecksum.of(world);
+		mazub.setHorizontalVelocity(1);
+		assertNotEquals(checksum, StateChecksum.of(world));
+	}
+
+	@Test
+	public void of_coversOtherGameObjects() {
+		long checksum = StateChecksum.of(world);
+		slime.setHorizontalLocation(slime.getHorizontalLocation() + 1);
+		assertNotEquals(checksum, StateChecksum.of(world));
+	}
+}
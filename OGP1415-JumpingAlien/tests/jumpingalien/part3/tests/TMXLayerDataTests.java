@@ -0,0 +1,179 @@
+package jumpingalien.part3.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import jumpingalien.part2.internal.tmxfile.TMXFileReader;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part2.internal.tmxfile.data.Tileset;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the encodings of the layer data in TMX files. Every encoded layer
+ * holds the gids 1, 2 flipped horizontally, 0, 2 flipped vertically, 1 and 1
+ * flipped diagonally, as little-endian unsigned integers where encoded in
+ * base64.
+ */
+public class TMXLayerDataTests {
+
+	private static final String LEVEL = "level.tmx";
+
+	private static final String XML_DATA = "<data><tile gid=\"1\"/><tile gid=\"2147483650\"/><tile gid=\"0\"/>"
+			+ "<tile gid=\"1073741826\"/><tile gid=\"1\"/><tile gid=\"536870913\"/></data>";
+
+	private static final String CSV_DATA = "<data encoding=\"csv\">\n1,2147483650,0,\n1073741826,1,536870913\n</data>";
+
+	private static final String BASE64_DATA = "<data encoding=\"base64\">\n   AQAAAAIAAIAAAAAAAgAAQAEAAAABAAAg\n  </data>";
+
+	private static final String ZLIB_DATA = "<data encoding=\"base64\" compression=\"zlib\">eJxjZGBgYGJgaGCA0A6MQBqIFQALXADo</data>";
+
+	private static final String GZIP_DATA = "<data encoding=\"base64\" compression=\"gzip\">H4sIAAAAAAACA2NkYGBgYmBoYIDQDoxAGogVAMjIdy8YAAAA</data>";
+
+	private File levelsFolder;
+
+	private TMXFileReader reader;
+
+	@Before
+	public void setUp() throws IOException {
+		levelsFolder = Files.createTempDirectory("levels").toFile();
+		reader = new TMXFileReader(levelsFolder.getPath());
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : levelsFolder.listFiles()) {
+			file.delete();
+		}
+		levelsFolder.delete();
+	}
+
+	/**
+	 * Read a level of 3 by 2 tiles with the given data element for its
+	 * terrain layer.
+	 */
+	private Map readLevel(String data) throws IOException {
+		String level = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<map version=\"1.0\" width=\"3\" height=\"2\" tilewidth=\"70\" tileheight=\"70\">\n"
+				+ " <tileset firstgid=\"1\" name=\"Terrain\" tilewidth=\"70\" tileheight=\"70\">\n"
+				+ "  <tile id=\"0\"><image width=\"70\" height=\"70\" source=\"tiles/grassMid.png\"/></tile>\n"
+				+ "  <tile id=\"1\"><image width=\"70\" height=\"70\" source=\"tiles/liquidWater.png\"/></tile>\n"
+				+ " </tileset>\n"
+				+ " <layer name=\"Terrain\" width=\"3\" height=\"2\">\n"
+				+ "  " + data + "\n"
+				+ " </layer>\n"
+				+ "</map>\n";
+		Files.write(new File(levelsFolder, LEVEL).toPath(),
+				level.getBytes(StandardCharsets.UTF_8));
+		return reader.read(LEVEL);
+	}
+
+	private static int[] getTerrainGids(Map map) {
+		List<ImageTile> tiles = map.getLayer(Map.TERRAIN_LAYER).getTiles();
+		int[] gids = new int[tiles.size()];
+		for (int i = 0; i < gids.length; i++) {
+			gids[i] = tiles.get(i) == null ? 0 : tiles.get(i).getId();
+		}
+		return gids;
+	}
+
+	private void assertSameAsXML(String data) throws IOException {
+		Map expected = readLevel(XML_DATA);
+		Map actual = readLevel(data);
+		assertArrayEquals(getTerrainGids(expected), getTerrainGids(actual));
+		assertArrayEquals(expected.getTerrainTypes(), actual.getTerrainTypes());
+	}
+
+	@Test
+	public void read_xml_stripsFlipFlags() throws IOException {
+		Map map = readLevel(XML_DATA);
+		assertArrayEquals(new int[] { 1, 2, 0, 2, 1, 1 }, getTerrainGids(map));
+		assertArrayEquals(new byte[] { 2, 1, 1, 1, 2, 0 }, map.getTerrainTypes());
+	}
+
+	@Test
+	public void read_csv() throws IOException {
+		assertSameAsXML(CSV_DATA);
+	}
+
+	@Test
+	public void read_base64() throws IOException {
+		assertSameAsXML(BASE64_DATA);
+	}
+
+	@Test
+	public void read_base64Zlib() throws IOException {
+		assertSameAsXML(ZLIB_DATA);
+	}
+
+	@Test
+	public void read_base64Gzip() throws IOException {
+		assertSameAsXML(GZIP_DATA);
+	}
+
+	@Test
+	public void read_emptyCSV() throws IOException {
+		Map map = readLevel("<data encoding=\"csv\"> </data>");
+		assertEquals(0, map.getLayer(Map.TERRAIN_LAYER).getTiles().size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void read_truncatedBase64() throws IOException {
+		readLevel("<data encoding=\"base64\">AQAAAAIAAIAAAAAAAgAAQAEAAAABAAA=</data>");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void read_truncatedZlib() throws IOException {
+		readLevel("<data encoding=\"base64\" compression=\"zlib\">eJxjZGBgYGJgaGCA0A6MQBqI</data>");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void read_compressedCSV() throws IOException {
+		readLevel("<data encoding=\"csv\" compression=\"zlib\">1,2,0,2,1,1</data>");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void read_unknownCompression() throws IOException {
+		readLevel("<data encoding=\"base64\" compression=\"zstd\">AQAAAA==</data>");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void read_unknownEncoding() throws IOException {
+		readLevel("<data encoding=\"hex\">01</data>");
+	}
+
+	@Test
+	public void findTile_indexedByGid() {
+		Map map = new Map(3, 2, 70, 70);
+		Tileset first = map.newTileSet(1);
+		ImageTile one = first.newTile(0);
+		ImageTile three = first.newTile(2);
+		Tileset second = map.newTileSet(40);
+		ImageTile forty = second.newTile(0);
+		assertSame(one, map.findTile(1).get());
+		assertSame(three, map.findTile(3).get());
+		assertSame(forty, map.findTile(40).get());
+		assertFalse(map.findTile(0).isPresent());
+		assertFalse(map.findTile(2).isPresent());
+		assertFalse(map.findTile(39).isPresent());
+		assertFalse(map.findTile(41).isPresent());
+		assertFalse(map.findTile(-1).isPresent());
+	}
+
+	@Test
+	public void findTile_firstTilesetWins() {
+		Map map = new Map(3, 2, 70, 70);
+		ImageTile first = map.newTileSet(1).newTile(1);
+		map.newTileSet(2).newTile(0);
+		assertSame(first, map.findTile(2).get());
+	}
+
+}
@@ -0,0 +1,134 @@
+package jumpingalien.part3.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.programs.ParseOutcome;
+import jumpingalien.part3.programs.SourceLocation;
+import jumpingalien.programs.expressions.Addition;
+import jumpingalien.programs.expressions.DoubleConstant;
+import jumpingalien.programs.expressions.ReadVariable;
+import jumpingalien.programs.expressions.True;
+import jumpingalien.programs.program.Program;
+import jumpingalien.programs.program.TypeChecker;
+import jumpingalien.programs.statements.Assignment;
+import jumpingalien.programs.statements.Sequence;
+import jumpingalien.programs.statements.Statement;
+import jumpingalien.programs.types.BoolType;
+import jumpingalien.programs.types.DoubleType;
+import jumpingalien.programs.types.GameObjectType;
+import jumpingalien.programs.types.Type;
+
+import org.junit.Test;
+
+public class TypeCheckerTests {
+
+	private static final String[] PROGRAM_FILES = { "buzam.txt", "parser_test.txt", "plant.txt",
+		"program_example_1.txt", "program_example_2.txt", "shark.txt", "slime.txt" };
+
+	private static ParseOutcome<?> parse(String text) {
+		return new Facade().parse(text);
+	}
+
+	private static List<?> getErrors(String text) {
+		ParseOutcome<?> outcome = parse(text);
+		assertFalse(outcome.isSuccess());
+		return (List<?>) outcome.getResult();
+	}
+
+	@Test
+	public void parse_ProvidedProgramsTypeChecked() throws IOException {
+		for (String fileName : PROGRAM_FILES) {
+			String text = new String(Files.readAllBytes(Paths.get("resources/programs", fileName)),
+					StandardCharsets.UTF_8);
+			ParseOutcome<?> outcome = parse(text);
+			assertTrue(fileName, outcome.isSuccess());
+			assertTrue(fileName, ((Program) outcome.getResult()).isTypeChecked());
+		}
+	}
+
+	@Test
+	public void parse_IllTypedOperand() {
+		assertEquals(Arrays.asList("Addition cannot be applied to an operand of type bool (2, 9)"),
+				getErrors("double x;\nx := 1 + true;"));
+	}
+
+	@Test
+	public void parse_IllTypedCondition() {
+		assertEquals(Arrays.asList("condition of while has type double instead of bool (2, 6)"),
+				getErrors("double x := 1;\nwhile x do skip; done"));
+	}
+
+	@Test
+	public void parse_IllTypedComparison() {
+		assertEquals(Arrays.asList("cannot compare a value of type double with a value of type bool (2, 5)"),
+				getErrors("bool b;\nb := 1 == true;"));
+	}
+
+	@Test
+	public void parse_AllErrorsReported() {
+		assertEquals(3, getErrors("double x;\nbool b;\nx := b;\nb := ! x;\nwait b;\n").size());
+	}
+
+	@Test
+	public void parse_ChecksOnObjectsAcceptTiles() {
+		assertTrue(parse("object o;\nbool b;\nb := iswater o || isdead gettile(1, 2);").isSuccess());
+		assertEquals(Arrays.asList("GetX cannot be applied to an operand of type tile (2, 10)"),
+				getErrors("double x;\nx := getx gettile(1, 2);"));
+	}
+
+	@Test
+	public void resolve_AnnotatesExpressions() {
+		Map<String, Type<?>> globalVariables = new HashMap<String, Type<?>>();
+		globalVariables.put("x", new DoubleType());
+		ReadVariable<DoubleType> read = new ReadVariable<DoubleType>("x", new DoubleType(), null);
+		Addition addition = new Addition(read, new DoubleConstant(1, null), null);
+		TypeChecker typeChecker = new TypeChecker(globalVariables);
+		typeChecker.check(new Assignment("x", new DoubleType(), addition, null));
+		assertFalse(typeChecker.hasErrors());
+		assertTrue(addition.getResolvedType() instanceof DoubleType);
+		assertTrue(read.getResolvedType() instanceof DoubleType);
+	}
+
+	@Test
+	public void check_IllTypedAssignmentWithoutLocation() {
+		Map<String, Type<?>> globalVariables = new HashMap<String, Type<?>>();
+		globalVariables.put("x", new DoubleType());
+		TypeChecker typeChecker = new TypeChecker(globalVariables);
+		typeChecker.check(new Assignment("x", new DoubleType(), new True(new SourceLocation(4, 2)), null));
+		assertEquals(Arrays.asList("cannot assign a value of type bool to variable x of type double (4, 2)"),
+				typeChecker.getErrors());
+	}
+
+	@Test
+	public void execute_TypeCheckedSkipsDynamicChecks() {
+		Program program = (Program) parse("double x := 1;\nobject o;\nx := x + 1;").getResult();
+		assertTrue(program.isTypeChecked());
+		ReadVariable<DoubleType> readDouble = new ReadVariable<DoubleType>("x", new DoubleType(), null);
+		ReadVariable<GameObjectType> readObject = new ReadVariable<GameObjectType>("o", new GameObjectType(), null);
+		assertTrue(readDouble.isTypeCheckedIn(program));
+		assertFalse(readObject.isTypeCheckedIn(program));
+		program.execute(5);
+		assertEquals(2, (Double) program.getGlobalVariable("x").getValue(), 0.00001);
+	}
+
+	@Test
+	public void setMainStatement_NotTypeChecked() {
+		Program program = (Program) parse("bool b;\nb := true;").getResult();
+		assertTrue(program.isTypeChecked());
+		Statement statement = new Assignment("b", new BoolType(), new DoubleConstant(1, null), null);
+		program.setMainStatement(new Sequence(Arrays.asList(statement), null));
+		assertFalse(program.isTypeChecked());
+		program.execute(5);
+		assertTrue(program.hasStopped());
+	}
+}
@@ -2,7 +2,16 @@ package jumpingalien.part3.tests;
 
 import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
 import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 import jumpingalien.model.*;
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.programs.ParseOutcome;
+import jumpingalien.programs.program.Program;
+import jumpingalien.util.Util;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -69,6 +78,14 @@ public class WorldTest {
 		assertEquals(world1.getNbTiles(),100);
 	}
 	
+	@Test
+	public void getInitialVisibleWindowLocation_notShared(){
+		World.getInitialVisibleWindowLocation()[0] = 100;
+		assertArrayEquals(new int[]{0,0}, World.getInitialVisibleWindowLocation());
+		World world = new World(50,10,10,200,200,9,9);
+		assertArrayEquals(new int[]{0,0}, world.getVisibleWindowLocation());
+	}
+	
 	@Test
 	public void isPossibleTileSize_trueCase(){
 		assertTrue(World.isPossibleTileSize(10));
@@ -259,6 +276,38 @@ public class WorldTest {
 		testWorld.setTileValueAtTilePosition(-1,-1,3);
 	}
 	
+	@Test
+	public void setTileValues_legalCase(){
+		byte [] tileValues = new byte [100];
+		tileValues[0] = 1;
+		tileValues[9] = 2;
+		tileValues[90] = 3;
+		testWorld.setTileValues(tileValues);
+		assertEquals(testWorld.getTileValueAtTilePosition(0, 0),1);
+		assertEquals(testWorld.getTileValueAtTilePosition(9, 0),2);
+		assertEquals(testWorld.getTileValueAtTilePosition(0, 9),3);
+		assertEquals(testWorld.getTileValueAtTilePosition(9, 9),0);
+		assertTrue(testWorld.areaCoincidesWithTerrain(0, 450, 49, 49)[3]);
+	}
+
+	@Test (expected=IllegalArgumentException.class)
+	public void setTileValues_illegalTileValue(){
+		byte [] tileValues = new byte [100];
+		tileValues[42] = 4;
+		testWorld.setTileValues(tileValues);
+	}
+
+	@Test (expected=IllegalArgumentException.class)
+	public void setTileValues_illegalLength(){
+		testWorld.setTileValues(new byte [99]);
+	}
+
+	@Test (expected=IllegalArgumentException.class)
+	public void setTileValues_gameHasStarted(){
+		testWorld.setGameHasStarted(true);
+		testWorld.setTileValues(new byte [100]);
+	}
+
 	@Test
 	public void canHaveAsTilePosition_trueCase(){
 		assertTrue(world1.canHaveAsTilePosition(0, 0));
@@ -379,6 +428,42 @@ public class WorldTest {
 		assertTrue(testWorld.areaCoincidesWithTerrain(0, 0, 199, 199)[3]);
 	}
 	
+	@Test
+	public void getTerrainMaskIn_legalArguments(){
+		testWorld.setTileValueAtTilePosition(1, 1, 1);
+		testWorld.setTileValueAtTilePosition(2, 2, 2);
+		assertEquals(testWorld.getTerrainMaskIn(0, 0, 0, 0), World.AIR_MASK);
+		assertEquals(testWorld.getTerrainMaskIn(50, 50, 49, 49), World.SOLID_MASK);
+		assertEquals(testWorld.getTerrainMaskIn(50, 50, 50, 50), World.SOLID_MASK | World.AIR_MASK | World.WATER_MASK);
+	}
+	
+	@Test (expected=IllegalArgumentException.class)
+	public void getTerrainMaskIn_illegalDimension(){
+		world1.getTerrainMaskIn(0, 0, 600, 0);
+	}
+	
+	@Test
+	public void getTerrainMaskIn_terrainSumsParity(){
+		Random random = new Random(3);
+		for(int tileX = 0; tileX < largeTestWorld.getNbTilesX(); tileX++){
+			for(int tileY = 0; tileY < largeTestWorld.getNbTilesY(); tileY++){
+				largeTestWorld.setTileValueAtTilePosition(tileX, tileY, random.nextInt(6) == 0 ? random.nextInt(4) : 0);
+			}
+		}
+		for(int query = 0; query < 500; query++){
+			int pixelX = random.nextInt(largeTestWorld.getWorldWidth() - 60);
+			int pixelY = random.nextInt(largeTestWorld.getWorldHeight() - 60);
+			int width = random.nextInt(60);
+			int height = random.nextInt(60);
+			largeTestWorld.setUsesTerrainSums(false);
+			int scannedMask = largeTestWorld.getTerrainMaskIn(pixelX, pixelY, width, height);
+			largeTestWorld.setUsesTerrainSums(true);
+			assertEquals(scannedMask, largeTestWorld.getTerrainMaskIn(pixelX, pixelY, width, height));
+		}
+		largeTestWorld.setTileValueAtTilePosition(0, 0, 3);
+		assertEquals(largeTestWorld.getTerrainMaskIn(0, 0, 0, 0), World.MAGMA_MASK);
+	}
+	
 	@Test (expected=IllegalArgumentException.class)
 	public void areaCoincidesWithTerrain_illegalLocation(){
 		world1.areaCoincidesWithTerrain(-1, 0, 0, 0);
@@ -494,6 +579,389 @@ public class WorldTest {
 		assertEquals(slime1TestSchool1.getWorld(),null);
 	}
 	
+	@Test
+	public void isValidNbGameObjects_largeNumber(){
+		assertTrue(World.isValidNbGameObjects(1000));
+	}
+	
+	@Test
+	public void getGameObjectsNearTiles_registeredGameObject(){
+		testWorld.addAsGameObject(slime1TestSchool1);
+		assertTrue(testWorld.getGameObjectsNearTiles(new int[][]{{0,0}}).contains(slime1TestSchool1));
+		assertFalse(testWorld.getGameObjectsNearTiles(new int[][]{{5,5}}).contains(slime1TestSchool1));
+	}
+	
+	@Test
+	public void getGameObjectsNearTiles_movedGameObject(){
+		testWorld.addAsGameObject(slime1TestSchool1);
+		slime1TestSchool1.setHorizontalLocation(300);
+		assertTrue(testWorld.getGameObjectsNearTiles(new int[][]{{6,0}}).contains(slime1TestSchool1));
+		assertFalse(testWorld.getGameObjectsNearTiles(new int[][]{{0,0}}).contains(slime1TestSchool1));
+	}
+	
+	@Test
+	public void getGameObjectsNearTiles_removedGameObject(){
+		testWorld.addAsGameObject(slime1TestSchool1);
+		testWorld.removeAsGameObject(slime1TestSchool1);
+		assertFalse(testWorld.getGameObjectsNearTiles(new int[][]{{0,0}}).contains(slime1TestSchool1));
+	}
+	
+	@Test
+	public void getGameObjectsNearTiles_orderOfGameObjects(){
+		testWorld.addAsGameObject(slime1TestSchool2);
+		testWorld.addAsGameObject(slime1TestSchool1);
+		testWorld.addAsGameObject(testMazub);
+		List<GameObject> gameObjects = testWorld.getGameObjectsNearTiles(new int[][]{{0,0},{1,0}});
+		assertEquals(gameObjects.get(0),testMazub);
+		assertEquals(gameObjects.get(1),slime1TestSchool2);
+		assertEquals(gameObjects.get(2),slime1TestSchool1);
+	}
+
+	@Test
+	public void getGameObjectsNearTiles_gameObjectOverSeveralTiles(){
+		Slime wideSlime= new Slime(40,0,spriteArrayForSize(120,2),testSchool1);
+		testWorld.addAsGameObject(wideSlime);
+		testWorld.addAsGameObject(testMazub);
+		List<GameObject> gameObjects = testWorld.getGameObjectsNearTiles(new int[][]{{0,0},{1,0},{2,0},{3,0}});
+		assertEquals(2,gameObjects.size());
+		assertEquals(gameObjects.get(0),testMazub);
+		assertEquals(gameObjects.get(1),wideSlime);
+	}
+
+	@Test
+	public void getGameObjectsNearTiles_manyRemovedGameObjects(){
+		List<Plant> plants = new ArrayList<Plant>();
+		for(int i=0;i<150;i++){
+			Plant plant= new Plant((i%15)*130,(i/15)*130,spriteArrayForSize(2, 2));
+			largeTestWorld.addAsGameObject(plant);
+			plants.add(plant);
+		}
+		for(int i=0;i<150;i+=2){
+			largeTestWorld.removeAsGameObject(plants.get(i));
+		}
+		for(int i=0;i<150;i++){
+			int [] tile = {(i%15)*130/100,(i/15)*130/100};
+			assertEquals(i%2==1,largeTestWorld.getGameObjectsNearTiles(new int[][]{tile}).contains(plants.get(i)));
+		}
+	}
+
+	@Test
+	public void getSlimes_registeredInOrder(){
+		Plant plant = new Plant(100, 0, spriteArrayForSize(2, 2));
+		testWorld.addAsGameObject(slime1TestSchool2);
+		testWorld.addAsGameObject(plant);
+		testWorld.addAsGameObject(slime1TestSchool1);
+		assertEquals(testWorld.getSlimes(), Arrays.asList(slime1TestSchool2, slime1TestSchool1));
+		assertEquals(testWorld.getPlants(), Arrays.asList(plant));
+		assertTrue(testWorld.getSharks().isEmpty());
+		assertEquals(testWorld.getAllGameObjects(), Arrays.asList(slime1TestSchool2, plant, slime1TestSchool1));
+	}
+	
+	@Test
+	public void getSlimes_snapshotAfterRemoval(){
+		testWorld.addAsGameObject(slime1TestSchool2);
+		testWorld.addAsGameObject(slime1TestSchool1);
+		List<Slime> slimes = testWorld.getSlimes();
+		testWorld.removeAsGameObject(slime1TestSchool2);
+		assertEquals(slimes.size(), 2);
+		assertEquals(testWorld.getSlimes(), Arrays.asList(slime1TestSchool1));
+		assertEquals(testWorld.getAllGameObjects(), Arrays.asList(slime1TestSchool1));
+	}
+	
+	@Test
+	public void getAllGameObjects_includesMazubAndBuzam(){
+		Buzam buzam = new Buzam(200, 0, spriteArrayForSize(2, 2));
+		testWorld.addAsGameObject(slime1TestSchool1);
+		testWorld.addAsGameObject(testMazub);
+		testWorld.addAsGameObject(buzam);
+		assertEquals(testWorld.getAllGameObjects(), Arrays.asList(buzam, testMazub, slime1TestSchool1));
+		for(int index = 0; index < testWorld.getNbGameObjects(); index++){
+			GameObject gameObject = testWorld.getGameObjectAtIndex(index);
+			assertTrue(gameObject == null || testWorld.getAllGameObjects().contains(gameObject));
+		}
+	}
+	
+	@Test
+	public void terminate_detachesMazubAndBuzam(){
+		Buzam buzam = new Buzam(200, 0, spriteArrayForSize(2, 2));
+		testWorld.addAsGameObject(testMazub);
+		testWorld.addAsGameObject(buzam);
+		testWorld.terminate();
+		assertNull(testMazub.getWorld());
+		assertNull(buzam.getWorld());
+		assertFalse(testWorld.hasAsGameObject(testMazub));
+		assertFalse(testWorld.hasAsGameObject(buzam));
+		assertTrue(testWorld.getAllGameObjects().isEmpty());
+	}
+	
+	@Test
+	public void isValidFixedTimeStep_legalCases(){
+		assertTrue(World.isValidFixedTimeStep(0));
+		assertTrue(World.isValidFixedTimeStep(0.01));
+		assertFalse(World.isValidFixedTimeStep(-0.01));
+		assertFalse(World.isValidFixedTimeStep(0.2));
+	}
 	
+	@Test(expected=IllegalArgumentException.class)
+	public void setFixedTimeStep_illegalCase(){
+		testWorld.setFixedTimeStep(-1);
+	}
 	
+	@Test
+	public void getInterpolationFactor_fixedTimeStep(){
+		assertEquals(testWorld.getInterpolationFactor(),1,Util.DEFAULT_EPSILON);
+		testWorld.setFixedTimeStep(0.02);
+		assertTrue(testWorld.usesFixedTimeStep());
+		assertEquals(testWorld.getInterpolationFactor(),0,Util.DEFAULT_EPSILON);
+		testWorld.setMazub(testMazub);
+		testMazub.setWorld(testWorld);
+		testWorld.advanceTime(0.05);
+		assertEquals(testWorld.getInterpolationFactor(),0.5,1E-6);
+	}
+	
+	@Test
+	public void getInterpolatedVisibleWindowLocation_betweenTimeSteps(){
+		largeTestWorld.setFixedTimeStep(0.02);
+		largeTestWorld.setVisibleWindowLocation(100, 40);
+		assertArrayEquals(new int[]{0,0}, largeTestWorld.getTimeStepStartVisibleWindowLocation());
+		assertArrayEquals(new int[]{0,0}, largeTestWorld.getInterpolatedVisibleWindowLocation(0));
+		assertArrayEquals(new int[]{50,20}, largeTestWorld.getInterpolatedVisibleWindowLocation(0.5));
+		assertArrayEquals(new int[]{100,40}, largeTestWorld.getInterpolatedVisibleWindowLocation(1));
+		largeTestWorld.setFixedTimeStep(0.02);
+		assertArrayEquals(new int[]{100,40}, largeTestWorld.getInterpolatedVisibleWindowLocation(0));
+	}
+	
+	@Test
+	public void getInterpolatedVisibleWindowLocation_followsMazub(){
+		World world = createPopulatedWorld(1, 0.01);
+		world.getMazub().startMove(Orientation.RIGHT);
+		for(int step = 0; step < 300; step++){
+			world.advanceTime(0.015);
+			int [] start = world.getTimeStepStartVisibleWindowLocation();
+			int [] end = world.getVisibleWindowLocation();
+			int [] interpolated = world.getInterpolatedVisibleWindowLocation(world.getInterpolationFactor());
+			for(int index = 0; index < 2; index++){
+				assertTrue(Math.min(start[index], end[index]) <= interpolated[index]);
+				assertTrue(interpolated[index] <= Math.max(start[index], end[index]));
+			}
+		}
+		assertTrue(world.getVisibleWindowLocation()[0] > 0);
+	}
+	
+	@Test
+	public void isValidNbUpdateThreads_legalCases(){
+		assertTrue(World.isValidNbUpdateThreads(1));
+		assertTrue(World.isValidNbUpdateThreads(4));
+		assertFalse(World.isValidNbUpdateThreads(0));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void setNbUpdateThreads_illegalCase(){
+		testWorld.setNbUpdateThreads(0);
+	}
+	
+	@Test
+	public void setRandomSeed_sameSeedSameSequence(){
+		testWorld.addAsGameObject(slime1TestSchool1);
+		largeTestWorld.addAsGameObject(slime1TestSchool2);
+		testWorld.setRandomSeed(42);
+		largeTestWorld.setRandomSeed(42);
+		assertEquals(slime1TestSchool1.getRandom().nextDouble(),slime1TestSchool2.getRandom().nextDouble(),0);
+	}
+	
+	private static final String RUNNING_PROGRAM = "double t; direction dir; "
+			+ "while true do t := random 2; if (t <= 1) then dir := left; else dir := right; fi "
+			+ "start_run dir; wait (random 1); stop_run dir; done";
+	
+	private Program parseProgram(String text){
+		ParseOutcome<?> outcome = new Facade().parse(text);
+		assertTrue(outcome.isSuccess());
+		return (Program) outcome.getResult();
+	}
+	
+	private World createPopulatedWorld(int nbUpdateThreads){
+		return createPopulatedWorld(nbUpdateThreads, 0.01);
+	}
+	
+	private World createPopulatedWorld(int nbUpdateThreads, double fixedTimeStep){
+		World world = new World(10, 100, 20, 500, 200, 99, 19);
+		for(int tileX = 0; tileX < 100; tileX++){
+			world.setTileValueAtTilePosition(tileX, 0, 1);
+		}
+		for(int tileY = 1; tileY < 20; tileY++){
+			world.setTileValueAtTilePosition(0, tileY, 1);
+			world.setTileValueAtTilePosition(99, tileY, 1);
+		}
+		for(int tileX = 50; tileX < 70; tileX++){
+			for(int tileY = 1; tileY < 8; tileY++){
+				world.setTileValueAtTilePosition(tileX, tileY, 2);
+			}
+		}
+		world.setRandomSeed(7);
+		world.setFixedTimeStep(fixedTimeStep);
+		world.setNbUpdateThreads(nbUpdateThreads);
+		Mazub mazub = new Mazub(20, 10, spriteArrayForSize(10, 10));
+		mazub.setWorld(world);
+		world.setMazub(mazub);
+		Buzam buzam = new Buzam(900, 10, parseProgram(RUNNING_PROGRAM), spriteArrayForSize(10, 10));
+		buzam.setWorld(world);
+		world.setBuzam(buzam);
+		for(int i = 0; i < 6; i++){
+			School school = new School();
+			world.addAsGameObject(new Slime(100 + 40*i, 10, spriteArrayForSize(2, 2), school, parseProgram(RUNNING_PROGRAM)));
+			world.addAsGameObject(new Slime(120 + 40*i, 10, spriteArrayForSize(2, 2), school));
+			world.addAsGameObject(new Shark(520 + 30*i, 20, parseProgram(RUNNING_PROGRAM), spriteArrayForSize(3, 3)));
+			world.addAsGameObject(new Shark(535 + 30*i, 30, spriteArrayForSize(3, 3)));
+			world.addAsGameObject(new Plant(760 + 20*i, 10, spriteArrayForSize(3, 3)));
+		}
+		return world;
+	}
+	
+	private List<String> advanceAndDescribe(World world){
+		for(int step = 0; step < 100; step++){
+			world.advanceTime(0.03);
+		}
+		return describe(world);
+	}
+	
+	private List<String> describe(World world){
+		List<String> description = new ArrayList<String>();
+		for(int index = 0; index < world.getNbGameObjects(); index++){
+			GameObject gameObject = world.getGameObjectAtIndex(index);
+			if(gameObject != null)
+				description.add(describe(gameObject));
+		}
+		return description;
+	}
+	
+	private static String describe(GameObject gameObject){
+		return gameObject.getClass().getSimpleName() + "," + gameObject.getHorizontalLocation() + ","
+				+ gameObject.getVerticalLocation() + "," + gameObject.getHitPoints();
+	}
+	
+	@Test
+	public void advanceTime_independentOfNbUpdateThreads(){
+		World serialWorld = createPopulatedWorld(1);
+		World parallelWorld = createPopulatedWorld(4);
+		List<String> serialDescription = advanceAndDescribe(serialWorld);
+		List<String> parallelDescription = advanceAndDescribe(parallelWorld);
+		parallelWorld.setNbUpdateThreads(1);
+		assertEquals(serialDescription, parallelDescription);
+	}
+
+	@Test
+	public void advanceTime_variableStepIndependentOfNbUpdateThreads(){
+		World serialWorld = createPopulatedWorld(1, 0);
+		World parallelWorld = createPopulatedWorld(4, 0);
+		assertFalse(parallelWorld.usesFixedTimeStep());
+		for(int step = 0; step < 100; step++){
+			double deltaTime = 0.01 + 0.005 * (step % 4);
+			serialWorld.advanceTime(deltaTime);
+			parallelWorld.advanceTime(deltaTime);
+		}
+		parallelWorld.setNbUpdateThreads(1);
+		assertEquals(describe(serialWorld), describe(parallelWorld));
+	}
+
+	@Test
+	public void restoreSnapshot_startOver(){
+		World world = createPopulatedWorld(1);
+		world.setGameHasStarted(true);
+		WorldSnapshot snapshot = world.takeSnapshot();
+		assertSame(world, snapshot.getWorld());
+		String mazubAtStart = describe(world.getMazub());
+		String buzamAtStart = describe(world.getBuzam());
+		List<String> firstDescription = advanceAndDescribe(world);
+		assertNotEquals(mazubAtStart, describe(world.getMazub()));
+		assertNotEquals(buzamAtStart, describe(world.getBuzam()));
+		world.restoreSnapshot(snapshot);
+		assertEquals(mazubAtStart, describe(world.getMazub()));
+		assertEquals(buzamAtStart, describe(world.getBuzam()));
+		List<String> secondDescription = advanceAndDescribe(world);
+		assertEquals(firstDescription, secondDescription);
+		World freshWorld = createPopulatedWorld(1);
+		freshWorld.setGameHasStarted(true);
+		assertEquals(advanceAndDescribe(freshWorld), secondDescription);
+	}
+
+	@Test
+	public void restoreSnapshot_sameContinuation(){
+		World world = createPopulatedWorld(4);
+		world.setGameHasStarted(true);
+		world.advanceTime(0.15);
+		int nbGameObjects = world.getNbGameObjects();
+		WorldSnapshot snapshot = world.takeSnapshot();
+		List<String> snapshotDescription = describe(world);
+		List<String> firstDescription = advanceAndDescribe(world);
+		world.restoreSnapshot(snapshot);
+		assertEquals(nbGameObjects, world.getNbGameObjects());
+		assertEquals(snapshotDescription, describe(world));
+		assertTrue(describe(world).contains(describe(world.getMazub())));
+		assertTrue(describe(world).contains(describe(world.getBuzam())));
+		world.restoreSnapshot(snapshot);
+		List<String> secondDescription = advanceAndDescribe(world);
+		world.setNbUpdateThreads(1);
+		assertEquals(firstDescription, secondDescription);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void restoreSnapshot_otherWorld(){
+		WorldSnapshot snapshot = world9Schools.takeSnapshot();
+		testWorld.restoreSnapshot(snapshot);
+	}
+
+	@Test
+	public void getPhaseTime_disabled(){
+		World world = createPopulatedWorld(1);
+		assertFalse(world.isPhaseTimingEnabled());
+		advanceAndDescribe(world);
+		for(UpdatePhase phase : UpdatePhase.values()){
+			assertEquals(0, world.getPhaseTime(phase));
+		}
+	}
+
+	@Test
+	public void getPhaseTime_enabled(){
+		World serialWorld = createPopulatedWorld(1);
+		World parallelWorld = createPopulatedWorld(4);
+		serialWorld.setPhaseTimingEnabled(true);
+		parallelWorld.setPhaseTimingEnabled(true);
+		assertTrue(serialWorld.isPhaseTimingEnabled());
+		List<String> serialDescription = advanceAndDescribe(serialWorld);
+		List<String> parallelDescription = advanceAndDescribe(parallelWorld);
+		parallelWorld.setNbUpdateThreads(1);
+		assertEquals(serialDescription, parallelDescription);
+		for(UpdatePhase phase : UpdatePhase.values()){
+			assertTrue(serialWorld.getPhaseTime(phase) > 0);
+			assertTrue(parallelWorld.getPhaseTime(phase) > 0);
+		}
+	}
+
+	@Test
+	public void countEvents_populatedWorld(){
+		World serialWorld = createPopulatedWorld(1);
+		World parallelWorld = createPopulatedWorld(4);
+		assertEquals(0, serialWorld.getNbTicks());
+		assertEquals(0, serialWorld.getNbStatementsExecuted());
+		advanceAndDescribe(serialWorld);
+		advanceAndDescribe(parallelWorld);
+		parallelWorld.setNbUpdateThreads(1);
+		if(World.COUNTS_EVENTS){
+			assertEquals(100, serialWorld.getNbTicks());
+			assertTrue(serialWorld.getNbStatementsExecuted() > 0);
+			assertTrue(serialWorld.getNbCollisionChecks() > 0);
+			assertTrue(serialWorld.getNbTerrainQueries() > 0);
+			assertEquals(serialWorld.getNbStatementsExecuted(), parallelWorld.getNbStatementsExecuted());
+			assertEquals(serialWorld.getNbCollisionChecks(), parallelWorld.getNbCollisionChecks());
+			assertEquals(serialWorld.getNbTerrainQueries(), parallelWorld.getNbTerrainQueries());
+		}
+	}
+
+	@Test
+	public void countStatementsExecuted_legalCase(){
+		testWorld.countStatementsExecuted(5);
+		testWorld.countStatementsExecuted(3);
+		assertEquals(8, testWorld.getNbStatementsExecuted());
+	}
+
 }